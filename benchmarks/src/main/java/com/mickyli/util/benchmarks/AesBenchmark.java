@@ -0,0 +1,71 @@
+package com.mickyli.util.benchmarks;
+
+import java.security.GeneralSecurityException;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.mickyli.util.java.security.AESUtils;
+
+/** 
+ *   <B>说       明</B>:AES/CBC/PKCS5Padding加密解密。
+ *   <p>jdk*每个线程重复使用一个Cipher，每次只重新init。
+ *
+ */
+public class AesBenchmark extends PayloadBenchmark {
+
+	private static final String TRANSFORMATION = "AES/CBC/PKCS5Padding";
+
+	private static final byte[] IV = {1,-1,1,-1,1,-1,1,-1,1,-1,1,-1,1,-1,1,-1};
+
+	private byte[] key;
+
+	private byte[] encrypted;
+
+	@State(Scope.Thread)
+	public static class Ciphers {
+
+		Cipher cipher;
+
+		@Setup
+		public void create() throws GeneralSecurityException{
+			cipher = Cipher.getInstance(TRANSFORMATION);
+		}
+
+	}
+
+	@Override
+	protected void prepare(){
+		key = AESUtils.generateKey();
+		encrypted = AESUtils.encrypt(data, key);
+	}
+
+	@Benchmark
+	public byte[] encrypt(){
+		return AESUtils.encrypt(data, key);
+	}
+
+	@Benchmark
+	public byte[] decrypt(){
+		return AESUtils.decrypt(encrypted, key);
+	}
+
+	@Benchmark
+	public byte[] jdkEncrypt(Ciphers ciphers) throws GeneralSecurityException{
+		ciphers.cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key, "AES"), new IvParameterSpec(IV));
+		return ciphers.cipher.doFinal(data);
+	}
+
+	@Benchmark
+	public byte[] jdkDecrypt(Ciphers ciphers) throws GeneralSecurityException{
+		ciphers.cipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(key, "AES"), new IvParameterSpec(IV));
+		return ciphers.cipher.doFinal(encrypted);
+	}
+
+}
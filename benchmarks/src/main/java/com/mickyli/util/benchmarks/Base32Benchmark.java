@@ -0,0 +1,50 @@
+package com.mickyli.util.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+import com.mickyli.util.java.security.Base16Utils;
+import com.mickyli.util.java.security.Base32Utils;
+
+/** 
+ *   <B>说       明</B>:Base32和Base16编码解码。
+ *   <p>JDK没有对应的实现，与java.util.Base64的结果对比可以看出逐单元编码的开销。
+ *
+ */
+public class Base32Benchmark extends PayloadBenchmark {
+
+	private byte[] base32Encoded;
+
+	private byte[] base16Encoded;
+
+	@Override
+	protected void prepare(){
+		base32Encoded = Base32Utils.encode(data);
+		base16Encoded = Base16Utils.encode(data);
+	}
+
+	@Benchmark
+	public byte[] base32Encode(){
+		return Base32Utils.encode(data);
+	}
+
+	@Benchmark
+	public byte[] base32Decode(){
+		return Base32Utils.decode(base32Encoded);
+	}
+
+	@Benchmark
+	public byte[] base16Encode(){
+		return Base16Utils.encode(data);
+	}
+
+	@Benchmark
+	public byte[] base16Decode(){
+		return Base16Utils.decode(base16Encoded);
+	}
+
+	@Benchmark
+	public byte[] jdkBase64Encode(){
+		return java.util.Base64.getEncoder().encode(data);
+	}
+
+}
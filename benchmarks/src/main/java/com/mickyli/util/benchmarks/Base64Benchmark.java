@@ -0,0 +1,69 @@
+package com.mickyli.util.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+import com.mickyli.util.java.security.Base64;
+import com.mickyli.util.java.security.Base64UFSUtils;
+import com.mickyli.util.java.security.Base64Utils;
+
+/** 
+ *   <B>说       明</B>:Base64编码解码与java.util.Base64的对比。
+ *   <p>Base64Utils每76个字符换行，对应JDK的MIME编码器。
+ *
+ */
+public class Base64Benchmark extends PayloadBenchmark {
+
+	private static final java.util.Base64.Encoder JDK_MIME_ENCODER = 
+			java.util.Base64.getMimeEncoder(76, System.getProperty("line.separator").getBytes());
+
+	private byte[] encoded;
+
+	private byte[] mimeEncoded;
+
+	@Override
+	protected void prepare(){
+		encoded = Base64Utils.encode(data);
+		mimeEncoded = JDK_MIME_ENCODER.encode(data);
+	}
+
+	@Benchmark
+	public byte[] base64UtilsEncode(){
+		return Base64Utils.encode(data);
+	}
+
+	@Benchmark
+	public byte[] base64UFSUtilsEncode(){
+		return Base64UFSUtils.encode(data);
+	}
+
+	@Benchmark
+	public byte[] base64EncodeToByte(){
+		return Base64.encodeToByte(data, true);
+	}
+
+	@Benchmark
+	public byte[] jdkMimeEncode(){
+		return JDK_MIME_ENCODER.encode(data);
+	}
+
+	@Benchmark
+	public byte[] jdkUrlEncode(){
+		return java.util.Base64.getUrlEncoder().withoutPadding().encode(data);
+	}
+
+	@Benchmark
+	public byte[] base64UtilsDecode(){
+		return Base64Utils.decode(encoded);
+	}
+
+	@Benchmark
+	public byte[] base64Decode(){
+		return Base64.decode(encoded);
+	}
+
+	@Benchmark
+	public byte[] jdkMimeDecode(){
+		return java.util.Base64.getMimeDecoder().decode(mimeEncoded);
+	}
+
+}
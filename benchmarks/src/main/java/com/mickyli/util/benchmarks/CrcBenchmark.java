@@ -0,0 +1,40 @@
+package com.mickyli.util.benchmarks;
+
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+import com.mickyli.util.java.security.CRCUtils;
+
+/** 
+ *   <B>说       明</B>:CRC32和Adler32校验。
+ *
+ */
+public class CrcBenchmark extends PayloadBenchmark {
+
+	@Benchmark
+	public long crc32(){
+		return CRCUtils.getCRC32Value(data);
+	}
+
+	@Benchmark
+	public long jdkCrc32(){
+		CRC32 crc32 = new CRC32();
+		crc32.update(data, 0, data.length);
+		return crc32.getValue();
+	}
+
+	@Benchmark
+	public long adler32(){
+		return CRCUtils.getAdler32Value(data);
+	}
+
+	@Benchmark
+	public long jdkAdler32(){
+		Adler32 adler32 = new Adler32();
+		adler32.update(data, 0, data.length);
+		return adler32.getValue();
+	}
+
+}
@@ -0,0 +1,65 @@
+package com.mickyli.util.benchmarks;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.mickyli.util.java.security.MessageDigestUtils;
+
+/** 
+ *   <B>说       明</B>:消息摘要。
+ *   <p>jdk*New每次调用MessageDigest.getInstance，jdk*Cached每个线程重复使用一个实例。
+ *
+ */
+public class DigestBenchmark extends PayloadBenchmark {
+
+	@State(Scope.Thread)
+	public static class Digests {
+
+		MessageDigest md5;
+
+		MessageDigest sha256;
+
+		@Setup
+		public void create() throws NoSuchAlgorithmException{
+			md5 = MessageDigest.getInstance("MD5");
+			sha256 = MessageDigest.getInstance("SHA-256");
+		}
+
+	}
+
+	@Benchmark
+	public byte[] md5(){
+		return MessageDigestUtils.getMD5Digest(data);
+	}
+
+	@Benchmark
+	public byte[] jdkMd5New() throws NoSuchAlgorithmException{
+		return MessageDigest.getInstance("MD5").digest(data);
+	}
+
+	@Benchmark
+	public byte[] jdkMd5Cached(Digests digests){
+		return digests.md5.digest(data);
+	}
+
+	@Benchmark
+	public byte[] sha256(){
+		return MessageDigestUtils.getSHA256Digest(data);
+	}
+
+	@Benchmark
+	public byte[] jdkSha256New() throws NoSuchAlgorithmException{
+		return MessageDigest.getInstance("SHA-256").digest(data);
+	}
+
+	@Benchmark
+	public byte[] jdkSha256Cached(Digests digests){
+		return digests.sha256.digest(data);
+	}
+
+}
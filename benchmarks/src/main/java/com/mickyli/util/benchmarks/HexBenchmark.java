@@ -0,0 +1,53 @@
+package com.mickyli.util.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+import com.mickyli.util.java.security.HexUtils;
+
+/** 
+ *   <B>说       明</B>:十六进制编码解码。
+ *   <p>对比的是按字节调用Integer.toHexString和Integer.parseInt的写法。
+ *
+ */
+public class HexBenchmark extends PayloadBenchmark {
+
+	private String hex;
+
+	@Override
+	protected void prepare(){
+		hex = HexUtils.toHexString(data);
+	}
+
+	@Benchmark
+	public String hexUtilsEncode(){
+		return HexUtils.toHexString(data);
+	}
+
+	@Benchmark
+	public byte[] hexUtilsDecode(){
+		return HexUtils.decode(hex);
+	}
+
+	@Benchmark
+	public String jdkEncode(){
+		StringBuilder sb = new StringBuilder(data.length * 2);
+		for(byte b : data){
+			String s = Integer.toHexString(b & 0xff);
+			if(s.length() == 1){
+				sb.append('0');
+			}
+			sb.append(s);
+		}
+		return sb.toString();
+	}
+
+	@Benchmark
+	public byte[] jdkDecode(){
+		byte[] result = new byte[hex.length() / 2];
+		for(int i = 0; i < result.length; i++){
+			result[i] = (byte) Integer.parseInt(hex.substring(i * 2, i * 2 + 2), 16);
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,56 @@
+package com.mickyli.util.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** 
+ *   <B>说       明</B>:基准测试基类。
+ *   <p>提供16B到64MB的随机数据，子类的每个测试方法处理一次data，结果为每秒处理的次数，
+ *   乘以size即为吞吐量(字节/秒)。
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public abstract class PayloadBenchmark {
+
+	/**
+	 * 数据长度(字节)。
+	 */
+	@Param({"16", "1024", "65536", "1048576", "67108864"})
+	public int size;
+
+	/**
+	 * 待处理的数据。
+	 */
+	protected byte[] data;
+
+	@Setup
+	public void createData(){
+		data = new byte[size];
+		new Random(size).nextBytes(data);
+		prepare();
+	}
+
+	/**
+	 * 在data生成之后准备测试需要的其他数据(例如编码后的数据)。
+	 * <p>JMH不保证父类和子类中@Setup方法的执行顺序，所以子类覆盖此方法而不是再声明@Setup。
+	 */
+	protected void prepare(){
+	}
+
+}
@@ -2,6 +2,7 @@ package com.mickyli.util.java;
 
 import java.io.ByteArrayOutputStream;
 
+import com.mickyli.util.java.security.HexUtils;
 import com.mickyli.util.java.valid.ValidUtil;
 
 /**
@@ -9,8 +10,6 @@ import com.mickyli.util.java.valid.ValidUtil;
  */
 public class ConvertUtil {
 
-    private static String hexStr = "0123456789ABCDEF";
-
     /**
      * 短整型与字节的转换
      */
@@ -183,36 +182,31 @@ public class ConvertUtil {
      * @param bytes bytes数组
      */
     public static String bytesToHexString(byte[] bytes) {
-        String result = "";
-        String hex;
-        for (byte b : bytes) {
-            //字节高4位
-            hex = String.valueOf(hexStr.charAt((b & 0xF0) >> 4));
-            //字节低4位
-            hex += String.valueOf(hexStr.charAt(b & 0x0F));
-            result += hex + " ";
+        //每个字节占3个字符:高4位,低4位,空格
+        char[] out = new char[bytes.length * 3];
+        for (int i = 0, j = 0; i < bytes.length; i++, j += 3) {
+            HexUtils.encode(bytes, i, 1, out, j, true);
+            out[j + 2] = ' ';
         }
-        return result;
+        return new String(out);
     }
 
     /**
      * 把16进制字符串转换成字节数组
+     * 忽略空白字符,可以直接转换bytesToHexString的结果
      *
      * @param hexString 16进制字符串
      * @return byte[]
+     * @throws IllegalArgumentException 如果包含非16进制字符或者字符个数不是偶数
      */
     public static byte[] hexStringToByte(String hexString) {
-        int len = (hexString.length() / 2);
-        byte[] result = new byte[len];
-        char[] achar = hexString.toCharArray();
-        for (int i = 0; i < len; i++) {
-            int pos = i * 2;
-            result[i] = (byte) (toByte(achar[pos]) << 4 | toByte(achar[pos + 1]));
+        StringBuilder hex = new StringBuilder(hexString.length());
+        for (int i = 0; i < hexString.length(); i++) {
+            char c = hexString.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                hex.append(c);
+            }
         }
-        return result;
-    }
-
-    private static int toByte(char c) {
-        return (byte) hexStr.indexOf(c);
+        return HexUtils.decode(hex);
     }
 }
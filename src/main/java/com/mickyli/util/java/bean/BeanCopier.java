@@ -0,0 +1,357 @@
+package com.mickyli.util.java.bean;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 固定两个类之间的属性拷贝
+ * 在创建时计算好每个属性的拷贝步骤(包括类型转换),拷贝时只遍历数组,不再查找Map
+ */
+public final class BeanCopier {
+
+    /**
+     * 缓存不带过滤器的BeanCopier,外层挂在源Bean的Class对象上,BeanCopier挂在目标Bean的Class对象上
+     * BeanCopier强引用两个类,只挂在由子加载器加载的一方(见{@link #of(Class, Class)}),父加载器的类不会引用子加载器的类
+     */
+    private static final ClassValue<ClassValue<BeanCopier>> COPIERS_BY_DEST = new ClassValue<ClassValue<BeanCopier>>() {
+        @Override
+        protected ClassValue<BeanCopier> computeValue(final Class<?> srcClass) {
+            return new ClassValue<BeanCopier>() {
+                @Override
+                protected BeanCopier computeValue(Class<?> destClass) {
+                    return create(srcClass, destClass, null, ConverterRegistry.getDefault());
+                }
+            };
+        }
+    };
+
+    /**
+     * 源类由子加载器加载时使用,外层挂在目标Bean的Class对象上,BeanCopier挂在源Bean的Class对象上
+     */
+    private static final ClassValue<ClassValue<BeanCopier>> COPIERS_BY_SRC = new ClassValue<ClassValue<BeanCopier>>() {
+        @Override
+        protected ClassValue<BeanCopier> computeValue(final Class<?> destClass) {
+            return new ClassValue<BeanCopier>() {
+                @Override
+                protected BeanCopier computeValue(Class<?> srcClass) {
+                    return create(srcClass, destClass, null, ConverterRegistry.getDefault());
+                }
+            };
+        }
+    };
+
+    //数字基本类型,按拓宽转换的顺序排列
+    private static final List<Class<?>> NUMERIC = Arrays.<Class<?>>asList(byte.class, short.class, int.class,
+            long.class, float.class, double.class);
+
+    //拷贝步骤的类型:(源Bean,目标Bean)void
+    private static final MethodType STEP_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final MethodHandle ACCESSOR_GET;
+    private static final MethodHandle ACCESSOR_SET;
+    private static final MethodHandle CONVERT_STEP;
+
+    static {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            ACCESSOR_GET = lookup.findVirtual(PropertyAccessor.class, "get",
+                    MethodType.methodType(Object.class, Object.class));
+            ACCESSOR_SET = lookup.findVirtual(PropertyAccessor.class, "set",
+                    MethodType.methodType(void.class, Object.class, Object.class));
+            CONVERT_STEP = lookup.findVirtual(ConvertStep.class, "copy", STEP_TYPE);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Class<?>       srcClass;
+    private final Class<?>       destClass;
+    //拷贝的属性名字(源Bean中的名字)
+    private final String[]       names;
+    private final MethodHandle[] steps;
+
+    private BeanCopier(Class<?> srcClass, Class<?> destClass, String[] names, MethodHandle[] steps) {
+        this.srcClass = srcClass;
+        this.destClass = destClass;
+        this.names = names;
+        this.steps = steps;
+    }
+
+    /**
+     * 获取复制同名属性的BeanCopier,相同的两个类只会解析一次
+     * 类型不同的属性使用ConverterRegistry.getDefault()中的转换器
+     *
+     * @param srcClass  源Bean的类型
+     * @param destClass 目标Bean的类型
+     * @return BeanCopier
+     */
+    public static BeanCopier of(Class<?> srcClass, Class<?> destClass) {
+        if (isAncestor(srcClass.getClassLoader(), destClass.getClassLoader())) {
+            return COPIERS_BY_DEST.get(srcClass).get(destClass);
+        }
+        return COPIERS_BY_SRC.get(destClass).get(srcClass);
+    }
+
+    /**
+     * 获取使用自定义属性过滤函数的BeanCopier
+     * 过滤器通常是匿名类,因此结果不做全局缓存,需要调用方持有返回的BeanCopier重复使用
+     *
+     * @param srcClass  源Bean的类型
+     * @param destClass 目标Bean的类型
+     * @param filter    自定义的过滤函数
+     * @return BeanCopier
+     */
+    public static BeanCopier of(Class<?> srcClass, Class<?> destClass, PropertyFilter filter) {
+        if (filter == null) {
+            return of(srcClass, destClass);
+        }
+        return create(srcClass, destClass, filter, ConverterRegistry.getDefault());
+    }
+
+    /**
+     * 获取使用自定义属性过滤函数和类型转换器的BeanCopier,结果不做全局缓存
+     *
+     * @param srcClass  源Bean的类型
+     * @param destClass 目标Bean的类型
+     * @param filter    自定义的过滤函数,可以为空
+     * @param registry  类型转换器,为空时只复制类型兼容的属性
+     * @return BeanCopier
+     */
+    public static BeanCopier of(Class<?> srcClass, Class<?> destClass, PropertyFilter filter,
+            ConverterRegistry registry) {
+        return create(srcClass, destClass, filter, registry == null ? new ConverterRegistry() : registry);
+    }
+
+    /**
+     * parent是否为loader本身或者它的祖先,null表示启动类加载器,是所有类加载器的祖先
+     */
+    private static boolean isAncestor(ClassLoader parent, ClassLoader loader) {
+        if (parent == null) {
+            return true;
+        }
+        for (ClassLoader l = loader; l != null; l = l.getParent()) {
+            if (l == parent) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static BeanCopier create(Class<?> srcClass, Class<?> destClass, PropertyFilter filter,
+            ConverterRegistry registry) {
+        Map<String,BeanStruct> srcMap = Factory.get(srcClass).getSimpleProperties();
+        Map<String,BeanStruct> dstMap = Factory.get(destClass).getSimpleProperties();
+        Map<String,BeanStruct> dstFilter = dstMap;
+        if (filter != null) {
+            dstFilter = new HashMap<>();
+            for (Map.Entry<String,BeanStruct> entry : dstMap.entrySet()) {
+                dstFilter.put(filter.Properties(entry.getKey()), entry.getValue());
+            }
+        }
+        Map<String,BeanStruct> matched = new HashMap<>();
+        for (Map.Entry<String,BeanStruct> entry : srcMap.entrySet()) {
+            String key = filter == null ? entry.getKey() : filter.Properties(entry.getKey());
+            matched.put(key, entry.getValue());
+        }
+        List<String> names = new ArrayList<>();
+        List<MethodHandle> steps = new ArrayList<>();
+        for (Map.Entry<String,BeanStruct> entry : matched.entrySet()) {
+            BeanStruct src = entry.getValue();
+            BeanStruct dst = dstFilter.get(entry.getKey());
+            if (dst != null && src.getReadMethod() != null && dst.getWriteMethod() != null) {
+                MethodHandle step = step(src, dst, registry);
+                //类型无法转换的属性不复制
+                if (step != null) {
+                    names.add(src.getFieldName());
+                    steps.add(step);
+                }
+            }
+        }
+        return new BeanCopier(srcClass, destClass, names.toArray(new String[names.size()]),
+                steps.toArray(new MethodHandle[steps.size()]));
+    }
+
+    /**
+     * 生成一个属性的拷贝步骤
+     * 类型兼容或者是基本类型的拓宽转换时,读写方法直接组合成一个句柄,基本类型之间的转换不装箱
+     * 其余情况(包括long -> int、double -> int这样的缩窄转换)使用注册表中的转换器,超出范围或丢失小数部分时抛出异常
+     */
+    private static MethodHandle step(BeanStruct src, BeanStruct dst, ConverterRegistry registry) {
+        Class<?> from = src.getReadMethod().getReturnType();
+        Class<?> to = dst.getWriteMethod().getParameterTypes()[0];
+        MethodHandle reader = reader(src);
+        MethodHandle writer = writer(dst);
+        MethodHandle value = null;
+        if (to.isAssignableFrom(from) || (from.isPrimitive() && to.isAssignableFrom(ConverterRegistry.wrap(from)))) {
+            value = reader.asType(MethodType.methodType(to, Object.class));
+        } else if (isWidening(from, to)) {
+            value = reader.asType(MethodType.methodType(to, Object.class));
+        } else if (isWidening(from, unwrap(to))) {
+            value = reader.asType(MethodType.methodType(unwrap(to), Object.class))
+                    .asType(MethodType.methodType(to, Object.class));
+        }
+        if (value != null) {
+            //writer(dest,value) 的第二个参数由 value(src) 提供,再把参数调整为(src,dest)
+            MethodHandle step = MethodHandles.filterArguments(
+                    writer.asType(MethodType.methodType(void.class, Object.class, to)), 1, value);
+            return MethodHandles.permuteArguments(step, STEP_TYPE, 1, 0);
+        }
+        Converter converter = registry.lookup(from, to);
+        if (converter == null) {
+            return null;
+        }
+        ConvertStep step = new ConvertStep(reader.asType(MethodType.methodType(Object.class, Object.class)),
+                writer.asType(STEP_TYPE), converter, to.isPrimitive());
+        return CONVERT_STEP.bindTo(step);
+    }
+
+    /**
+     * 是否为基本类型的拓宽转换,char只能拓宽为int及以上
+     */
+    private static boolean isWidening(Class<?> from, Class<?> to) {
+        int f = from == char.class ? NUMERIC.indexOf(int.class) : NUMERIC.indexOf(from);
+        int t = NUMERIC.indexOf(to);
+        return f >= 0 && t >= 0 && f <= t;
+    }
+
+    private static Class<?> unwrap(Class<?> type) {
+        return MethodType.methodType(type).unwrap().returnType();
+    }
+
+    /**
+     * 读方法句柄,类型为(Object)属性类型
+     */
+    private static MethodHandle reader(BeanStruct struct) {
+        Method method = struct.getReadMethod();
+        if (Factory.USE_METHOD_HANDLE) {
+            try {
+                return MethodHandles.publicLookup().unreflect(method)
+                        .asType(MethodType.methodType(method.getReturnType(), Object.class));
+            } catch (IllegalAccessException e) {
+                //类或方法不可访问,使用BeanStruct中的读写器
+            }
+        }
+        return ACCESSOR_GET.bindTo(struct.getAccessor())
+                .asType(MethodType.methodType(method.getReturnType(), Object.class));
+    }
+
+    /**
+     * 写方法句柄,类型为(Object,属性类型)void
+     */
+    private static MethodHandle writer(BeanStruct struct) {
+        Method method = struct.getWriteMethod();
+        Class<?> type = method.getParameterTypes()[0];
+        if (Factory.USE_METHOD_HANDLE) {
+            try {
+                return MethodHandles.publicLookup().unreflect(method)
+                        .asType(MethodType.methodType(void.class, Object.class, type));
+            } catch (IllegalAccessException e) {
+                //类或方法不可访问,使用BeanStruct中的读写器
+            }
+        }
+        return ACCESSOR_SET.bindTo(struct.getAccessor()).asType(MethodType.methodType(void.class, Object.class, type));
+    }
+
+    /**
+     * 复制属性
+     *
+     * @param srcBean  源Bean
+     * @param destBean 目标Bean
+     * @throws InvocationTargetException 读写方法或类型转换抛出异常
+     * @throws IllegalAccessException
+     */
+    public void copy(Object srcBean, Object destBean) throws InvocationTargetException, IllegalAccessException {
+        checkBeans(srcBean, destBean);
+        MethodHandle[] steps = this.steps;
+        try {
+            for (int i = 0; i < steps.length; i++) {
+                steps[i].invokeExact(srcBean, destBean);
+            }
+        } catch (InvocationTargetException | IllegalAccessException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    /**
+     * 复制属性,单个属性复制失败时继续复制其余的属性
+     *
+     * @param srcBean  源Bean
+     * @param destBean 目标Bean
+     */
+    public void copyPeaceful(Object srcBean, Object destBean) {
+        checkBeans(srcBean, destBean);
+        MethodHandle[] steps = this.steps;
+        for (int i = 0; i < steps.length; i++) {
+            try {
+                steps[i].invokeExact(srcBean, destBean);
+            } catch (InvocationTargetException | IllegalAccessException e) {
+                e.printStackTrace();
+            } catch (Throwable e) {
+                new InvocationTargetException(e).printStackTrace();
+            }
+        }
+    }
+
+    private void checkBeans(Object srcBean, Object destBean) {
+        if (!srcClass.isInstance(srcBean) || !destClass.isInstance(destBean)) {
+            throw new IllegalArgumentException("BeanCopier(" + srcClass.getName() + " -> " + destClass.getName()
+                    + ") can not copy " + srcBean + " to " + destBean);
+        }
+    }
+
+    public Class<?> getSrcClass() {
+        return srcClass;
+    }
+
+    public Class<?> getDestClass() {
+        return destClass;
+    }
+
+    /**
+     * 获取会被复制的属性名字(源Bean中的名字)
+     *
+     * @return 属性名字
+     */
+    public String[] getPropertyNames() {
+        return names.clone();
+    }
+
+    /**
+     * 需要经过转换器的拷贝步骤
+     * 源属性为空时目标属性设为空,目标属性是基本类型时保持原值
+     */
+    static final class ConvertStep {
+
+        private final MethodHandle reader;
+        private final MethodHandle writer;
+        private final Converter    converter;
+        private final boolean      primitive;
+
+        ConvertStep(MethodHandle reader, MethodHandle writer, Converter converter, boolean primitive) {
+            this.reader = reader;
+            this.writer = writer;
+            this.converter = converter;
+            this.primitive = primitive;
+        }
+
+        void copy(Object srcBean, Object destBean) throws Throwable {
+            Object value = (Object) reader.invokeExact(srcBean);
+            if (value != null) {
+                value = converter.convert(value);
+            } else if (primitive) {
+                return;
+            }
+            writer.invokeExact(destBean, value);
+        }
+    }
+}
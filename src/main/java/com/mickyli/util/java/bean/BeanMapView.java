@@ -0,0 +1,78 @@
+package com.mickyli.util.java.bean;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * 基于数组的只读Bean属性Map
+ * 属性名字和下标由BeanMetadata共享,每个实例只保存一个属性值数组
+ */
+final class BeanMapView extends AbstractMap<String,Object> {
+
+    private final String[]            names;
+    private final Map<String,Integer> index;
+    private final Object[]            values;
+
+    BeanMapView(String[] names, Map<String,Integer> index, Object[] values) {
+        this.names = names;
+        this.index = index;
+        this.values = values;
+    }
+
+    @Override
+    public int size() {
+        return names.length;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return index.containsKey(key);
+    }
+
+    @Override
+    public Object get(Object key) {
+        Integer i = index.get(key);
+        return i == null ? null : values[i];
+    }
+
+    @Override
+    public Set<Entry<String,Object>> entrySet() {
+        return new AbstractSet<Entry<String,Object>>() {
+            @Override
+            public Iterator<Entry<String,Object>> iterator() {
+                return new Iterator<Entry<String,Object>>() {
+                    private int cursor;
+
+                    @Override
+                    public boolean hasNext() {
+                        return cursor < names.length;
+                    }
+
+                    @Override
+                    public Entry<String,Object> next() {
+                        if (cursor >= names.length) {
+                            throw new NoSuchElementException();
+                        }
+                        Entry<String,Object> entry = new SimpleImmutableEntry<>(names[cursor], values[cursor]);
+                        cursor++;
+                        return entry;
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return names.length;
+            }
+        };
+    }
+}
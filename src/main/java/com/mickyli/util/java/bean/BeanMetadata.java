@@ -0,0 +1,93 @@
+package com.mickyli.util.java.bean;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 一个JavaBean类解析后的属性信息
+ * 创建后不再修改,可以在多个线程间共享
+ */
+public class BeanMetadata {
+
+    private final Class<?>               beanClass;
+    //简单的属性字段
+    private final Map<String,BeanStruct> simpleProperties;
+    //简单的属性字段(key为小写的字段名字)
+    private final Map<String,BeanStruct> simplePropertiesIgnore;
+    //无参构造函数,类型已适配为()Object,没有可访问的无参构造函数时为空
+    private final MethodHandle           constructor;
+    //可读属性的名字(按名字排序)和对应的属性信息,toMap/toMapView按下标访问
+    private final String[]               readableNames;
+    private final BeanStruct[]           readableStructs;
+    private final Map<String,Integer>    readableIndex;
+
+    public BeanMetadata(Class<?> beanClass, Map<String,BeanStruct> simpleProperties,
+            Map<String,BeanStruct> simplePropertiesIgnore, MethodHandle constructor) {
+        this.beanClass = beanClass;
+        this.constructor = constructor;
+        this.simpleProperties = Collections.unmodifiableMap(simpleProperties);
+        this.simplePropertiesIgnore = Collections.unmodifiableMap(simplePropertiesIgnore);
+        List<String> names = new ArrayList<>();
+        for (BeanStruct struct : simpleProperties.values()) {
+            if (struct.getReadMethod() != null) {
+                names.add(struct.getFieldName());
+            }
+        }
+        Collections.sort(names);
+        this.readableNames = names.toArray(new String[names.size()]);
+        this.readableStructs = new BeanStruct[readableNames.length];
+        Map<String,Integer> index = new HashMap<>();
+        for (int i = 0; i < readableNames.length; i++) {
+            readableStructs[i] = simpleProperties.get(readableNames[i]);
+            index.put(readableNames[i], i);
+        }
+        this.readableIndex = index;
+    }
+
+    public Class<?> getBeanClass() {
+        return beanClass;
+    }
+
+    public Map<String,BeanStruct> getSimpleProperties() {
+        return simpleProperties;
+    }
+
+    public Map<String,BeanStruct> getSimplePropertiesIgnore() {
+        return simplePropertiesIgnore;
+    }
+
+    String[] getReadableNames() {
+        return readableNames;
+    }
+
+    BeanStruct[] getReadableStructs() {
+        return readableStructs;
+    }
+
+    Map<String,Integer> getReadableIndex() {
+        return readableIndex;
+    }
+
+    /**
+     * 使用缓存的无参构造函数创建实例
+     *
+     * @return 新的实例
+     * @throws InstantiationException    没有可访问的无参构造函数
+     * @throws InvocationTargetException 构造函数抛出异常
+     */
+    public Object newInstance() throws InstantiationException, InvocationTargetException {
+        if (constructor == null) {
+            throw new InstantiationException(beanClass.getName());
+        }
+        try {
+            return (Object) constructor.invokeExact();
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+}
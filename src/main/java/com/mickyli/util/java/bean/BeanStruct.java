@@ -16,12 +16,15 @@ public class BeanStruct {
     //字段值写方法
     private Method  writeMethod;
     private boolean isDeclared;
+    //字段值读写器
+    private PropertyAccessor accessor;
 
     public BeanStruct(String fieldName, Object fieldType, Method readMethod, Method writeMethod, boolean isDeclared) {
         this.fieldName = fieldName;
         this.fieldType = fieldType;
         this.readMethod = readMethod;
         this.writeMethod = writeMethod;
+        this.accessor = PropertyAccessor.create(readMethod, writeMethod);
     }
 
     public boolean isDeclared() {
@@ -54,6 +57,7 @@ public class BeanStruct {
 
     public void setReadMethod(Method readMethod) {
         this.readMethod = readMethod;
+        this.accessor = PropertyAccessor.create(readMethod, writeMethod);
     }
 
     public Method getWriteMethod() {
@@ -62,5 +66,10 @@ public class BeanStruct {
 
     public void setWriteMethod(Method writeMethod) {
         this.writeMethod = writeMethod;
+        this.accessor = PropertyAccessor.create(readMethod, writeMethod);
+    }
+
+    public PropertyAccessor getAccessor() {
+        return accessor;
     }
 }
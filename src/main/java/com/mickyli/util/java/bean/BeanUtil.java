@@ -4,10 +4,14 @@ package com.mickyli.util.java.bean;
 
 import java.beans.IntrospectionException;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import com.mickyli.util.java.collection.CollectionUtil;
 import com.mickyli.util.java.valid.ValidUtil;
@@ -17,42 +21,37 @@ import com.mickyli.util.java.valid.ValidUtil;
  */
 public class BeanUtil {
 
+    /**
+     * mapAll并行执行时每个任务处理的最少元素个数,列表小于该值时顺序执行
+     */
+    public static final int MAP_ALL_THRESHOLD = 2048;
+
     private static Map<String,BeanStruct> simpleProperties(Object obj) {
-        return Factory.BEAN_SIMPLE_PROPERTIES.get(obj.getClass().getName());
+        return Factory.get(obj.getClass()).getSimpleProperties();
     }
 
     private static Map<String,BeanStruct> simplePropertiesIgnore(Object obj) {
-        return Factory.BEAN_SIMPLE_PROPERTIESIGNORE.get(obj.getClass().getName());
+        return Factory.get(obj.getClass()).getSimplePropertiesIgnore();
     }
 
-    private static Method getReadMethod(Object obj, String pro) {
+    private static PropertyAccessor getAccessor(Object obj, String pro) {
         BeanStruct st = simpleProperties(obj).get(pro);
-        return st.getReadMethod();
-    }
-
-    private static Method getWriteMethod(Object obj, String pro) {
-        BeanStruct st = simpleProperties(obj).get(pro);
-        return st.getWriteMethod();
-    }
-
-    private static Method getReadMethodIgnore(Object obj, String pro) {
-        BeanStruct st = simplePropertiesIgnore(obj).get(pro);
-        return st.getReadMethod();
+        return st.getAccessor();
     }
 
-    private static Method getWriteMethodIgnore(Object obj, String pro) {
+    private static PropertyAccessor getAccessorIgnore(Object obj, String pro) {
         BeanStruct st = simplePropertiesIgnore(obj).get(pro);
-        return st.getWriteMethod();
+        return st.getAccessor();
     }
 
     private static Object readMethod(Object bean,
-            Method readMethod) throws InvocationTargetException, IllegalAccessException {
-        return readMethod.invoke(bean);
+            PropertyAccessor accessor) throws InvocationTargetException, IllegalAccessException {
+        return accessor.get(bean);
     }
 
-    private static void writeMethod(Object bean, Method writeMethod,
+    private static void writeMethod(Object bean, PropertyAccessor accessor,
             Object value) throws InvocationTargetException, IllegalAccessException {
-        writeMethod.invoke(bean, value);
+        accessor.set(bean, value);
     }
 
 
@@ -91,7 +90,6 @@ public class BeanUtil {
      * @return 是否存在
      */
     public static boolean hasProperty(Object bean, String pro) {
-        add(bean);
         Map map = simpleProperties(bean);
         return map.containsKey(pro);
     }
@@ -105,7 +103,6 @@ public class BeanUtil {
      * @return 是否存在
      */
     public static boolean hasDeclaredProperty(Object bean, String pro) {
-        add(bean);
         Map        map = simpleProperties(bean);
         BeanStruct st  = (BeanStruct) map.get(pro);
         return ValidUtil.valid(st) && st.isDeclared();
@@ -119,7 +116,6 @@ public class BeanUtil {
      * @return 是否存在
      */
     public static boolean hasPropertyIgnoreCase(Object bean, String pro) {
-        add(bean);
         Map map = simplePropertiesIgnore(bean);
         return map.containsKey(pro.toLowerCase());
     }
@@ -134,7 +130,6 @@ public class BeanUtil {
      * @return 是否存在
      */
     public static boolean hasPropertyFilter(Object bean, String pro, PropertyFilter filter) {
-        add(bean);
         pro = filter.Properties(pro);
         Map<String,BeanStruct> map = simpleProperties(bean);
         if (ValidUtil.valid(map)) {
@@ -158,8 +153,7 @@ public class BeanUtil {
      * @throws IllegalAccessException
      */
     public static Object getProperty(Object bean, String pro) throws InvocationTargetException, IllegalAccessException {
-        add(bean);
-        return readMethod(bean, getReadMethod(bean, pro));
+        return readMethod(bean, getAccessor(bean, pro));
     }
 
     /**
@@ -170,10 +164,9 @@ public class BeanUtil {
      * @return 返回属性的值如果发生异常返回空
      */
     public static Object getPropertyPeaceful(Object bean, String pro) {
-        add(bean);
         Object result = null;
         try {
-            result = readMethod(bean, getReadMethod(bean, pro));
+            result = readMethod(bean, getAccessor(bean, pro));
         } catch (InvocationTargetException | IllegalAccessException e) {
             e.printStackTrace();
         }
@@ -192,8 +185,7 @@ public class BeanUtil {
      */
     public static Object getPropertyIgnoreCase(Object bean,
             String pro) throws InvocationTargetException, IllegalAccessException {
-        add(bean);
-        return readMethod(bean, getReadMethodIgnore(bean, pro));
+        return readMethod(bean, getAccessorIgnore(bean, pro));
     }
 
     /**
@@ -204,10 +196,9 @@ public class BeanUtil {
      * @return 返回属性的值如果发生异常返回空
      */
     public static Object getPropertyIgnoreCasePeaceful(Object bean, String pro) {
-        add(bean);
         Object result = null;
         try {
-            result = readMethod(bean, getReadMethodIgnore(bean, pro));
+            result = readMethod(bean, getAccessorIgnore(bean, pro));
         } catch (InvocationTargetException | IllegalAccessException e) {
             e.printStackTrace();
         }
@@ -226,7 +217,6 @@ public class BeanUtil {
      */
     public static Object getPropertyFilter(Object bean, String pro,
             PropertyFilter filter) throws InvocationTargetException, IllegalAccessException {
-        add(bean);
         Object result = null;
         pro = filter.Properties(pro);
         Map<String,BeanStruct> map = simpleProperties(bean);
@@ -234,7 +224,7 @@ public class BeanUtil {
             Set<String> set = map.keySet();
             for (String s : set) {
                 if (pro.equals(filter.Properties(s))) {
-                    result = readMethod(bean, getReadMethod(bean, s));
+                    result = readMethod(bean, getAccessor(bean, s));
                 }
             }
         }
@@ -250,7 +240,6 @@ public class BeanUtil {
      * @return 返回属性的值如果发生异常返回空
      */
     public static Object getPropertyFilterPeaceful(Object bean, String pro, PropertyFilter filter) {
-        add(bean);
         Object result = null;
         pro = filter.Properties(pro);
         Map<String,BeanStruct> map = simpleProperties(bean);
@@ -259,7 +248,7 @@ public class BeanUtil {
             try {
                 for (String s : set) {
                     if (pro.equals(filter.Properties(s))) {
-                        result = readMethod(bean, getReadMethod(bean, s));
+                        result = readMethod(bean, getAccessor(bean, s));
                     }
                 }
             } catch (InvocationTargetException | IllegalAccessException e) {
@@ -281,8 +270,7 @@ public class BeanUtil {
      */
     public static void setProperty(Object bean, String pro,
             Object value) throws InvocationTargetException, IllegalAccessException {
-        add(bean);
-        writeMethod(bean, getWriteMethod(bean, pro), value);
+        writeMethod(bean, getAccessor(bean, pro), value);
     }
 
     /**
@@ -293,9 +281,8 @@ public class BeanUtil {
      * @param value 设置属性的值
      */
     public static void setPropertyPeaceful(Object bean, String pro, Object value) {
-        add(bean);
         try {
-            writeMethod(bean, getWriteMethod(bean, pro), value);
+            writeMethod(bean, getAccessor(bean, pro), value);
         } catch (InvocationTargetException | IllegalAccessException e) {
             e.printStackTrace();
         }
@@ -316,8 +303,7 @@ public class BeanUtil {
      */
     public static void setPropertyIgnoreCase(Object bean, String pro,
             Object value) throws InvocationTargetException, IllegalAccessException {
-        add(bean);
-        writeMethod(bean, getWriteMethodIgnore(bean, pro), value);
+        writeMethod(bean, getAccessorIgnore(bean, pro), value);
     }
 
     /**
@@ -328,9 +314,8 @@ public class BeanUtil {
      * @param value 设置属性的值
      */
     public static void setPropertyIgnoreCasePeaceful(Object bean, String pro, Object value) {
-        add(bean);
         try {
-            writeMethod(bean, getWriteMethodIgnore(bean, pro), value);
+            writeMethod(bean, getAccessorIgnore(bean, pro), value);
         } catch (InvocationTargetException | IllegalAccessException e) {
             e.printStackTrace();
         }
@@ -349,14 +334,13 @@ public class BeanUtil {
      */
     public static void setPropertyFilter(Object bean, String pro, Object value,
             PropertyFilter filter) throws InvocationTargetException, IllegalAccessException {
-        add(bean);
         pro = filter.Properties(pro);
         Map<String,BeanStruct> map = simpleProperties(bean);
         if (ValidUtil.valid(map)) {
             Set<String> set = map.keySet();
             for (String s : set) {
                 if (pro.equals(filter.Properties(s))) {
-                    writeMethod(bean, getWriteMethodIgnore(bean, pro), value);
+                    writeMethod(bean, getAccessorIgnore(bean, pro), value);
                 }
             }
 
@@ -372,7 +356,6 @@ public class BeanUtil {
      * @param filter 自定义的函数
      */
     public static void setPropertyFilterPeaceful(Object bean, String pro, Object value, PropertyFilter filter) {
-        add(bean);
         pro = filter.Properties(pro);
         Map<String,BeanStruct> map = simpleProperties(bean);
         if (ValidUtil.valid(map)) {
@@ -380,7 +363,7 @@ public class BeanUtil {
             try {
                 for (String s : set) {
                     if (pro.equals(filter.Properties(s))) {
-                        writeMethod(bean, getWriteMethodIgnore(bean, pro), value);
+                        writeMethod(bean, getAccessorIgnore(bean, pro), value);
                     }
                 }
             } catch (InvocationTargetException | IllegalAccessException e) {
@@ -402,12 +385,10 @@ public class BeanUtil {
      */
     public static void copyProperty(Object srcBean, Object destBean,
             String[] pros) throws InvocationTargetException, IllegalAccessException {
-        add(srcBean);
-        add(destBean);
         if (ValidUtil.valid(pros)) {
             for (String s : pros) {
-                Object value = readMethod(srcBean, getReadMethod(srcBean, s));
-                writeMethod(destBean, getWriteMethod(destBean, s), value);
+                Object value = readMethod(srcBean, getAccessor(srcBean, s));
+                writeMethod(destBean, getAccessor(destBean, s), value);
             }
         }
     }
@@ -420,13 +401,11 @@ public class BeanUtil {
      * @param pros     copy的属性
      */
     public static void copyPropertyPeaceful(Object srcBean, Object destBean, String[] pros) {
-        add(srcBean);
-        add(destBean);
         if (ValidUtil.valid(pros)) {
             try {
                 for (String s : pros) {
-                    Object value =readMethod(srcBean, getReadMethod(srcBean, s));
-                    writeMethod(destBean, getWriteMethod(destBean, s),value );
+                    Object value =readMethod(srcBean, getAccessor(srcBean, s));
+                    writeMethod(destBean, getAccessor(destBean, s),value );
                 }
             } catch (InvocationTargetException | IllegalAccessException e) {
                 e.printStackTrace();
@@ -444,16 +423,7 @@ public class BeanUtil {
      */
     public static void copyProperties(Object srcBean,
             Object destBean) throws InvocationTargetException, IllegalAccessException {
-        add(srcBean);
-        add(destBean);
-        Map<String,BeanStruct> srcMap       = simpleProperties(srcBean);
-        Map<String,BeanStruct> dstMap       = simpleProperties(destBean);
-        Map<String,BeanStruct> intersection = CollectionUtil.intersection(srcMap, dstMap);
-        for (Map.Entry<String,BeanStruct> entry : intersection.entrySet()) {
-            String key = entry.getKey();
-            Object value = readMethod(srcBean, getReadMethod(srcBean, key));
-            writeMethod(destBean, getWriteMethod(destBean, key), value);
-        }
+        BeanCopier.of(srcBean.getClass(), destBean.getClass()).copy(srcBean, destBean);
     }
 
     /**
@@ -463,24 +433,7 @@ public class BeanUtil {
      * @param destBean 目标Bean
      */
     public static void copyPropertiesPeaceful(Object srcBean, Object destBean) {
-        add(srcBean);
-        add(destBean);
-        Map<String,BeanStruct> srcMap       = simpleProperties(srcBean);
-        Map<String,BeanStruct> dstMap       = simpleProperties(destBean);
-        Map<String,BeanStruct> intersection = CollectionUtil.intersection(srcMap, dstMap);
-        for (Map.Entry<String,BeanStruct> entry : intersection.entrySet()) {
-            String key = entry.getKey();
-            try{
-                //为什么会将try写在里面而不是foreach的外面？
-                //如果你想尽可能多的复制属性的话你可以
-                Object value = readMethod(srcBean, getReadMethod(srcBean, key));
-                writeMethod(destBean, getWriteMethod(destBean, key), value);
-            } catch (IllegalAccessException e) {
-                e.printStackTrace();
-            } catch (InvocationTargetException e) {
-                e.printStackTrace();
-            }
-        }
+        BeanCopier.of(srcBean.getClass(), destBean.getClass()).copyPeaceful(srcBean, destBean);
     }
 
     /**
@@ -493,15 +446,13 @@ public class BeanUtil {
      */
     public static void copyPropertiesIgnoreCase(Object srcBean,
             Object destBean) throws InvocationTargetException, IllegalAccessException {
-        add(srcBean);
-        add(destBean);
         Map<String,BeanStruct> srcMap       = simplePropertiesIgnore(srcBean);
         Map<String,BeanStruct> dstMap       = simplePropertiesIgnore(destBean);
         Map<String,BeanStruct> intersection = CollectionUtil.intersection(srcMap, dstMap);
         for (Map.Entry entry : intersection.entrySet()) {
             String key = (String) entry.getKey();
-            Object value = readMethod(srcBean, getReadMethodIgnore(srcBean, key));
-            writeMethod(destBean, getWriteMethodIgnore(destBean, key), value);
+            Object value = readMethod(srcBean, getAccessorIgnore(srcBean, key));
+            writeMethod(destBean, getAccessorIgnore(destBean, key), value);
         }
     }
 
@@ -512,8 +463,6 @@ public class BeanUtil {
      * @param destBean 目标Bean
      */
     public static void copyPropertiesIgnoreCasePeaceful(Object srcBean, Object destBean)  {
-        add(srcBean);
-        add(destBean);
         Map<String,BeanStruct> srcMap       = simplePropertiesIgnore(srcBean);
         Map<String,BeanStruct> dstMap       = simplePropertiesIgnore(destBean);
         Map<String,BeanStruct> intersection = CollectionUtil.intersection(srcMap, dstMap);
@@ -521,8 +470,8 @@ public class BeanUtil {
             String key = (String) entry.getKey();
             Object value = null;
             try {
-                value = readMethod(srcBean, getReadMethodIgnore(srcBean, key));
-                writeMethod(destBean, getWriteMethodIgnore(destBean, key), value);
+                value = readMethod(srcBean, getAccessorIgnore(srcBean, key));
+                writeMethod(destBean, getAccessorIgnore(destBean, key), value);
             } catch (InvocationTargetException e) {
                 e.printStackTrace();
             } catch (IllegalAccessException e) {
@@ -544,30 +493,7 @@ public class BeanUtil {
      */
     public static void copyProperties(Object srcBean, Object destBean,
             PropertyFilter filter) throws InvocationTargetException, IllegalAccessException {
-        add(srcBean);
-        add(destBean);
-        Map<String,BeanStruct> srcMap = simpleProperties(srcBean);
-        Map<String,BeanStruct> dstMap = simpleProperties(destBean);
-        if (ValidUtil.valid(srcMap, dstMap)) {
-            Map<String,String> srcMapFilter = new HashMap<>();
-            Map<String,String> dstMapFilter = new HashMap<>();
-            for (Map.Entry<String,BeanStruct> entry : srcMap.entrySet()) {
-                srcMapFilter.put(filter.Properties(entry.getKey()), entry.getKey());
-            }
-            for (Map.Entry<String,BeanStruct> entry : dstMap.entrySet()) {
-                dstMapFilter.put(filter.Properties(entry.getKey()), entry.getKey());
-            }
-            Map<String,String> intersection = CollectionUtil.intersection(srcMapFilter, dstMapFilter);
-            if (ValidUtil.valid(intersection)) {
-                for (Map.Entry<String,String> entry : intersection.entrySet()) {
-                    String key = entry.getKey();
-                    String srcKey = srcMapFilter.get(key);
-                    String dstKey = dstMapFilter.get(key);
-                    Object value = readMethod(srcBean, getReadMethod(srcBean, srcKey));
-                    writeMethod(destBean, getWriteMethod(destBean, dstKey), value);
-                }
-            }
-        }
+        BeanCopier.of(srcBean.getClass(), destBean.getClass(), filter).copy(srcBean, destBean);
     }
 
     /**
@@ -578,36 +504,247 @@ public class BeanUtil {
      * @param filter   自定义的过滤函数
      */
     public static void copyPropertiesPeaceful(Object srcBean, Object destBean, PropertyFilter filter)  {
-        add(srcBean);
-        add(destBean);
-        Map<String,BeanStruct> srcMap = simpleProperties(srcBean);
-        Map<String,BeanStruct> dstMap = simpleProperties(destBean);
-        if (ValidUtil.valid(srcMap, dstMap)) {
-            Map<String,String> srcMapFilter = new HashMap<>();
-            Map<String,String> dstMapFilter = new HashMap<>();
-            for (Map.Entry<String,BeanStruct> entry : srcMap.entrySet()) {
-                srcMapFilter.put(filter.Properties(entry.getKey()), entry.getKey());
+        BeanCopier.of(srcBean.getClass(), destBean.getClass(), filter).copyPeaceful(srcBean, destBean);
+    }
+
+
+    /**
+     * 将Bean的可读属性转换为Map
+     *
+     * @param bean 操作的Bean
+     * @return 属性名字到属性值的Map(HashMap,可以修改)
+     * @throws InvocationTargetException
+     * @throws IllegalAccessException
+     */
+    public static Map<String,Object> toMap(Object bean) throws InvocationTargetException, IllegalAccessException {
+        BeanStruct[] structs = Factory.get(bean.getClass()).getReadableStructs();
+        Map<String,Object> map = new HashMap<>(structs.length * 4 / 3 + 1);
+        for (BeanStruct st : structs) {
+            map.put(st.getFieldName(), st.getAccessor().get(bean));
+        }
+        return map;
+    }
+
+    /**
+     * 将Bean的可读属性转换为只读的Map视图
+     * 属性值在调用时读取一次保存在数组中,属性名字和下标与同类型的其他视图共享,不会创建HashMap
+     *
+     * @param bean 操作的Bean
+     * @return 只读的Map
+     * @throws InvocationTargetException
+     * @throws IllegalAccessException
+     */
+    public static Map<String,Object> toMapView(Object bean) throws InvocationTargetException, IllegalAccessException {
+        BeanMetadata metadata = Factory.get(bean.getClass());
+        BeanStruct[] structs = metadata.getReadableStructs();
+        Object[] values = new Object[structs.length];
+        for (int i = 0; i < structs.length; i++) {
+            values[i] = structs[i].getAccessor().get(bean);
+        }
+        return new BeanMapView(metadata.getReadableNames(), metadata.getReadableIndex(), values);
+    }
+
+    /**
+     * 使用Map中的值创建Bean
+     * 值的类型与属性类型不同时使用ConverterRegistry.getDefault()中的转换器,Bean中不存在或不可写的属性忽略
+     *
+     * @param map       属性名字到属性值的Map
+     * @param beanClass Bean的类型,需要有public的无参构造函数
+     * @return 新的Bean
+     * @throws InvocationTargetException
+     * @throws IllegalAccessException
+     * @throws InstantiationException beanClass没有可访问的无参构造函数
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T fromMap(Map<String,?> map,
+            Class<T> beanClass) throws InvocationTargetException, IllegalAccessException, InstantiationException {
+        T bean = (T) Factory.get(beanClass).newInstance();
+        fromMap(map, bean);
+        return bean;
+    }
+
+    /**
+     * 使用Map中的值设置Bean的属性
+     * 值的类型与属性类型不同时使用ConverterRegistry.getDefault()中的转换器,Bean中不存在或不可写的属性忽略
+     *
+     * @param map  属性名字到属性值的Map
+     * @param bean 操作的Bean
+     * @throws InvocationTargetException
+     * @throws IllegalAccessException
+     */
+    public static void fromMap(Map<String,?> map,
+            Object bean) throws InvocationTargetException, IllegalAccessException {
+        Map<String,BeanStruct> properties = simpleProperties(bean);
+        for (Map.Entry<String,?> entry : map.entrySet()) {
+            BeanStruct st = properties.get(entry.getKey());
+            if (st == null || st.getWriteMethod() == null) {
+                continue;
             }
-            for (Map.Entry<String,BeanStruct> entry : dstMap.entrySet()) {
-                dstMapFilter.put(filter.Properties(entry.getKey()), entry.getKey());
+            Class<?> type = st.getWriteMethod().getParameterTypes()[0];
+            Object value = entry.getValue();
+            if (value == null) {
+                //基本类型的属性保持原值
+                if (type.isPrimitive()) {
+                    continue;
+                }
+            } else if (!ConverterRegistry.wrap(type).isInstance(value)) {
+                Converter converter = ConverterRegistry.getDefault().lookup(value.getClass(), type);
+                if (converter != null) {
+                    value = converter.convert(value);
+                }
             }
-            Map<String,String> intersection = CollectionUtil.intersection(srcMapFilter, dstMapFilter);
-            if (ValidUtil.valid(intersection)) {
-                for (Map.Entry<String,String> entry : intersection.entrySet()) {
-                    String key = entry.getKey();
-                    String srcKey = srcMapFilter.get(key);
-                    String dstKey = dstMapFilter.get(key);
-                    try {
-                        Object value = readMethod(srcBean, getReadMethod(srcBean, srcKey));
-                        writeMethod(destBean, getWriteMethod(destBean, dstKey), value);
-                    } catch (InvocationTargetException e) {
-                        e.printStackTrace();
-                    } catch (IllegalAccessException e) {
-                        e.printStackTrace();
+            st.getAccessor().set(bean, value);
+        }
+    }
+
+    /**
+     * 将列表中的每个Bean复制为目标类型的新Bean(复制同名属性)
+     *
+     * @param srcList   源Bean列表,元素为空时结果中对应位置也为空
+     * @param destClass 目标Bean的类型,需要有public的无参构造函数
+     * @return 目标Bean列表
+     * @throws InvocationTargetException
+     * @throws IllegalAccessException
+     * @throws InstantiationException 目标类型没有可访问的无参构造函数
+     */
+    public static <S, D> List<D> mapAll(List<S> srcList,
+            Class<D> destClass) throws InvocationTargetException, IllegalAccessException, InstantiationException {
+        return mapAll(srcList, destClass, null);
+    }
+
+    /**
+     * 将列表中的每个Bean复制为目标类型的新Bean(复制同名属性)
+     *
+     * @param srcList   源Bean列表,元素为空时结果中对应位置也为空
+     * @param destClass 目标Bean的类型,需要有public的无参构造函数
+     * @param parallel  列表大于MAP_ALL_THRESHOLD时是否使用共享的ForkJoinPool并行复制
+     * @return 目标Bean列表
+     * @throws InvocationTargetException
+     * @throws IllegalAccessException
+     * @throws InstantiationException 目标类型没有可访问的无参构造函数
+     */
+    public static <S, D> List<D> mapAll(List<S> srcList, Class<D> destClass,
+            boolean parallel) throws InvocationTargetException, IllegalAccessException, InstantiationException {
+        return mapAll(srcList, destClass, parallel ? MapAllPool.POOL : null);
+    }
+
+    /**
+     * 将列表中的每个Bean复制为目标类型的新Bean(复制同名属性)
+     *
+     * @param srcList   源Bean列表,元素为空时结果中对应位置也为空
+     * @param destClass 目标Bean的类型,需要有public的无参构造函数
+     * @param pool      并行复制使用的ForkJoinPool,为空或列表小于MAP_ALL_THRESHOLD时顺序执行
+     * @return 目标Bean列表
+     * @throws InvocationTargetException
+     * @throws IllegalAccessException
+     * @throws InstantiationException 目标类型没有可访问的无参构造函数
+     */
+    @SuppressWarnings("unchecked")
+    public static <S, D> List<D> mapAll(List<S> srcList, Class<D> destClass,
+            ForkJoinPool pool) throws InvocationTargetException, IllegalAccessException, InstantiationException {
+        if (srcList == null) {
+            return null;
+        }
+        Object[] src = srcList.toArray();
+        Object[] dest = new Object[src.length];
+        BeanMetadata metadata = Factory.get(destClass);
+        if (pool == null || src.length <= MAP_ALL_THRESHOLD) {
+            mapRange(src, dest, 0, src.length, metadata);
+        } else {
+            try {
+                pool.invoke(new MapAllTask(src, dest, 0, src.length, metadata));
+            } catch (RuntimeException e) {
+                //ForkJoinPool可能会重新包装异常,找到任务中抛出的原始异常
+                for (Throwable t = e; t != null; t = t.getCause()) {
+                    if (t instanceof MapAllException) {
+                        Exception cause = (Exception) t.getCause();
+                        if (cause instanceof InvocationTargetException) {
+                            throw (InvocationTargetException) cause;
+                        }
+                        if (cause instanceof IllegalAccessException) {
+                            throw (IllegalAccessException) cause;
+                        }
+                        throw (InstantiationException) cause;
                     }
+                }
+                throw e;
+            }
+        }
+        return new ArrayList<>((List<D>) Arrays.asList(dest));
+    }
+
+    private static void mapRange(Object[] src, Object[] dest, int from, int to,
+            BeanMetadata metadata) throws InvocationTargetException, IllegalAccessException, InstantiationException {
+        Class<?> destClass = metadata.getBeanClass();
+        BeanCopier copier = null;
+        for (int i = from; i < to; i++) {
+            Object srcBean = src[i];
+            if (srcBean == null) {
+                continue;
+            }
+            //列表中可能混有子类,只在类型变化时重新获取BeanCopier
+            if (copier == null || copier.getSrcClass() != srcBean.getClass()) {
+                copier = BeanCopier.of(srcBean.getClass(), destClass);
+            }
+            Object destBean = metadata.newInstance();
+            copier.copy(srcBean, destBean);
+            dest[i] = destBean;
+        }
+    }
+
+    /**
+     * 延迟创建mapAll使用的共享ForkJoinPool
+     */
+    private static final class MapAllPool {
+        static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * 在ForkJoinPool中传递受检异常
+     */
+    private static final class MapAllException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        MapAllException(Exception cause) {
+            super(cause);
+        }
+    }
+
+    /**
+     * 将列表按区间二分,区间小于阈值时顺序复制
+     */
+    private static final class MapAllTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Object[]     src;
+        private final Object[]     dest;
+        private final int          from;
+        private final int          to;
+        private final BeanMetadata metadata;
+
+        MapAllTask(Object[] src, Object[] dest, int from, int to, BeanMetadata metadata) {
+            this.src = src;
+            this.dest = dest;
+            this.from = from;
+            this.to = to;
+            this.metadata = metadata;
+        }
 
+        @Override
+        protected void compute() {
+            if (to - from <= MAP_ALL_THRESHOLD) {
+                try {
+                    mapRange(src, dest, from, to, metadata);
+                } catch (InvocationTargetException | IllegalAccessException | InstantiationException e) {
+                    throw new MapAllException(e);
                 }
+                return;
             }
+            int mid = (from + to) >>> 1;
+            invokeAll(new MapAllTask(src, dest, from, mid, metadata),
+                    new MapAllTask(src, dest, mid, to, metadata));
         }
     }
 }
@@ -0,0 +1,16 @@
+package com.mickyli.util.java.bean;
+
+/**
+ * 属性值类型转换接口
+ */
+public interface Converter {
+
+    /**
+     * 转换属性的值
+     *
+     * @param value 源属性的值,不会为空
+     * @return 转换后的值
+     * @throws IllegalArgumentException 无法转换时抛出
+     */
+    public Object convert(Object value);
+}
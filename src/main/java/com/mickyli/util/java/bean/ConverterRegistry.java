@@ -0,0 +1,329 @@
+package com.mickyli.util.java.bean;
+
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.mickyli.util.java.date.DateUtil;
+
+/**
+ * 属性值类型转换器的注册表
+ * BeanCopier在生成拷贝计划时为每一对类型不同的属性查找一次转换器,拷贝时不再查找
+ * 基本类型之间的拓宽转换由BeanCopier直接完成,不经过转换器,也不会装箱
+ * 默认的数字转换器只做精确转换,超出目标类型的范围或者丢失小数部分时抛出IllegalArgumentException
+ */
+public class ConverterRegistry {
+
+    private static final ConverterRegistry DEFAULT = new ConverterRegistry(true);
+
+    //源类型 -> 目标类型 -> 转换器,基本类型使用对应的包装类型注册
+    private final ConcurrentMap<Class<?>,ConcurrentMap<Class<?>,Converter>> converters = new ConcurrentHashMap<>();
+
+    /**
+     * 创建不包含任何转换器的注册表
+     */
+    public ConverterRegistry() {
+    }
+
+    /**
+     * 创建注册表
+     *
+     * @param registerDefaults 是否注册默认的转换器(数字/字符串/Date/BigDecimal/Boolean)
+     */
+    public ConverterRegistry(boolean registerDefaults) {
+        if (registerDefaults) {
+            registerDefaults();
+        }
+    }
+
+    /**
+     * BeanCopier默认使用的注册表
+     * 注册新的转换器只对之后生成的拷贝计划生效
+     *
+     * @return 默认的注册表
+     */
+    public static ConverterRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * 注册转换器,相同的类型对会覆盖之前的转换器
+     *
+     * @param from      源类型
+     * @param to        目标类型
+     * @param converter 转换器
+     */
+    public void register(Class<?> from, Class<?> to, Converter converter) {
+        Class<?> key = wrap(from);
+        ConcurrentMap<Class<?>,Converter> map = converters.get(key);
+        if (map == null) {
+            map = new ConcurrentHashMap<>();
+            ConcurrentMap<Class<?>,Converter> old = converters.putIfAbsent(key, map);
+            if (old != null) {
+                map = old;
+            }
+        }
+        map.put(wrap(to), converter);
+    }
+
+    /**
+     * 查找转换器
+     * 先按源类型精确查找,再依次查找源类型的父类和接口
+     *
+     * @param from 源类型
+     * @param to   目标类型
+     * @return 转换器,找不到时返回空
+     */
+    public Converter lookup(Class<?> from, Class<?> to) {
+        Class<?> target = wrap(to);
+        for (Class<?> type : hierarchy(wrap(from))) {
+            ConcurrentMap<Class<?>,Converter> map = converters.get(type);
+            if (map != null) {
+                Converter converter = map.get(target);
+                if (converter != null) {
+                    return converter;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static List<Class<?>> hierarchy(Class<?> type) {
+        List<Class<?>> result = new ArrayList<>();
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            result.add(c);
+        }
+        for (int i = 0; i < result.size(); i++) {
+            for (Class<?> c : result.get(i).getInterfaces()) {
+                if (!result.contains(c)) {
+                    result.add(c);
+                }
+            }
+        }
+        if (!result.contains(Object.class)) {
+            result.add(Object.class);
+        }
+        return result;
+    }
+
+    static Class<?> wrap(Class<?> type) {
+        return MethodType.methodType(type).wrap().returnType();
+    }
+
+    /**
+     * 把数字精确转换为long
+     *
+     * @throws IllegalArgumentException 超出long的范围或者有小数部分
+     */
+    private static long longValueExact(Number value, long min, long max) {
+        long result;
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte
+                || value instanceof AtomicInteger || value instanceof AtomicLong) {
+            result = value.longValue();
+        } else {
+            BigInteger integer = bigIntegerValueExact(value);
+            if (integer.bitLength() > 63) {
+                throw new IllegalArgumentException("Numeric value out of range: " + value);
+            }
+            result = integer.longValue();
+        }
+        if (result < min || result > max) {
+            throw new IllegalArgumentException("Numeric value out of range: " + value);
+        }
+        return result;
+    }
+
+    /**
+     * 把数字精确转换为BigInteger
+     *
+     * @throws IllegalArgumentException 有小数部分或者不是有限的数
+     */
+    private static BigInteger bigIntegerValueExact(Number value) {
+        BigDecimal decimal;
+        if (value instanceof BigInteger) {
+            return (BigInteger) value;
+        } else if (value instanceof BigDecimal) {
+            decimal = (BigDecimal) value;
+        } else if (value instanceof Double || value instanceof Float) {
+            double d = value.doubleValue();
+            if (Double.isNaN(d) || Double.isInfinite(d)) {
+                throw new IllegalArgumentException("Numeric value out of range: " + value);
+            }
+            decimal = new BigDecimal(d);
+        } else {
+            decimal = new BigDecimal(value.toString());
+        }
+        try {
+            return decimal.toBigIntegerExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Rounding necessary: " + value, e);
+        }
+    }
+
+    /**
+     * 转换为float/double后变为无穷大说明超出了目标类型的范围
+     */
+    private static <T extends Number> T checkFinite(Number value, T result) {
+        boolean infinite = (value instanceof Double || value instanceof Float) && Double.isInfinite(value.doubleValue());
+        if (!infinite && Double.isInfinite(result.doubleValue())) {
+            throw new IllegalArgumentException("Numeric value out of range: " + value);
+        }
+        return result;
+    }
+
+    private void registerDefaults() {
+        Converter toByte = new Converter() {
+            @Override
+            public Object convert(Object value) {
+                if (value instanceof Number) {
+                    return (byte) longValueExact((Number) value, Byte.MIN_VALUE, Byte.MAX_VALUE);
+                }
+                return Byte.valueOf(value.toString().trim());
+            }
+        };
+        Converter toShort = new Converter() {
+            @Override
+            public Object convert(Object value) {
+                if (value instanceof Number) {
+                    return (short) longValueExact((Number) value, Short.MIN_VALUE, Short.MAX_VALUE);
+                }
+                return Short.valueOf(value.toString().trim());
+            }
+        };
+        Converter toInteger = new Converter() {
+            @Override
+            public Object convert(Object value) {
+                if (value instanceof Number) {
+                    return (int) longValueExact((Number) value, Integer.MIN_VALUE, Integer.MAX_VALUE);
+                }
+                return Integer.valueOf(value.toString().trim());
+            }
+        };
+        Converter toLong = new Converter() {
+            @Override
+            public Object convert(Object value) {
+                if (value instanceof Date) {
+                    return ((Date) value).getTime();
+                }
+                if (value instanceof Number) {
+                    return longValueExact((Number) value, Long.MIN_VALUE, Long.MAX_VALUE);
+                }
+                return Long.valueOf(value.toString().trim());
+            }
+        };
+        Converter toFloat = new Converter() {
+            @Override
+            public Object convert(Object value) {
+                if (value instanceof Number) {
+                    return checkFinite((Number) value, ((Number) value).floatValue());
+                }
+                return Float.valueOf(value.toString().trim());
+            }
+        };
+        Converter toDouble = new Converter() {
+            @Override
+            public Object convert(Object value) {
+                if (value instanceof Number) {
+                    return checkFinite((Number) value, ((Number) value).doubleValue());
+                }
+                return Double.valueOf(value.toString().trim());
+            }
+        };
+        Converter toBigDecimal = new Converter() {
+            @Override
+            public Object convert(Object value) {
+                if (value instanceof BigInteger) {
+                    return new BigDecimal((BigInteger) value);
+                }
+                if (value instanceof Double || value instanceof Float) {
+                    return BigDecimal.valueOf(((Number) value).doubleValue());
+                }
+                if (value instanceof Number && !(value instanceof BigDecimal)) {
+                    return BigDecimal.valueOf(((Number) value).longValue());
+                }
+                return new BigDecimal(value.toString().trim());
+            }
+        };
+        Converter toBigInteger = new Converter() {
+            @Override
+            public Object convert(Object value) {
+                if (value instanceof Number) {
+                    return bigIntegerValueExact((Number) value);
+                }
+                return bigIntegerValueExact(new BigDecimal(value.toString().trim()));
+            }
+        };
+        Converter toBoolean = new Converter() {
+            @Override
+            public Object convert(Object value) {
+                //按数字自身的类型与0比较,不先截断为int
+                if (value instanceof BigDecimal) {
+                    return ((BigDecimal) value).signum() != 0;
+                }
+                if (value instanceof BigInteger) {
+                    return ((BigInteger) value).signum() != 0;
+                }
+                if (value instanceof Double || value instanceof Float) {
+                    return ((Number) value).doubleValue() != 0;
+                }
+                if (value instanceof Number) {
+                    return ((Number) value).longValue() != 0;
+                }
+                return Boolean.valueOf(value.toString().trim());
+            }
+        };
+        Converter toString = new Converter() {
+            @Override
+            public Object convert(Object value) {
+                if (value instanceof Date) {
+                    return DateUtil.DateTime((Date) value);
+                }
+                if (value instanceof BigDecimal) {
+                    return ((BigDecimal) value).toPlainString();
+                }
+                return value.toString();
+            }
+        };
+        Converter toDate = new Converter() {
+            @Override
+            public Object convert(Object value) {
+                if (value instanceof Number) {
+                    return new Date(((Number) value).longValue());
+                }
+                String str = value.toString().trim();
+                try {
+                    return DateUtil.DateTime(str);
+                } catch (ParseException e) {
+                    try {
+                        return DateUtil.Date(str);
+                    } catch (ParseException e1) {
+                        throw new IllegalArgumentException("Unparseable date: " + str, e1);
+                    }
+                }
+            }
+        };
+        Class<?>[] sources = {Number.class, String.class};
+        for (Class<?> from : sources) {
+            register(from, Byte.class, toByte);
+            register(from, Short.class, toShort);
+            register(from, Integer.class, toInteger);
+            register(from, Long.class, toLong);
+            register(from, Float.class, toFloat);
+            register(from, Double.class, toDouble);
+            register(from, BigDecimal.class, toBigDecimal);
+            register(from, BigInteger.class, toBigInteger);
+            register(from, Boolean.class, toBoolean);
+            register(from, Date.class, toDate);
+        }
+        register(Date.class, Long.class, toLong);
+        register(Object.class, String.class, toString);
+    }
+}
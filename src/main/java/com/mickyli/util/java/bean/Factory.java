@@ -5,10 +5,15 @@ import java.beans.BeanInfo;
 import java.beans.IntrospectionException;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import java.util.Hashtable;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.mickyli.util.java.valid.ValidUtil;
 
@@ -20,16 +25,33 @@ public class Factory {
 
     /**
      * 存放BeanUtil解析过的JavaBean数据
-     * 只获取简单的属性字段
+     * 数据挂在Class对象上,读取时没有全局锁,不同ClassLoader加载的同名类互不影响,类卸载时一起回收
      */
-    public static Map<String,Map<String,BeanStruct>> BEAN_SIMPLE_PROPERTIES = new Hashtable<>();
+    private static final ClassValue<BeanMetadata> BEAN_METADATA = new ClassValue<BeanMetadata>() {
+        @Override
+        protected BeanMetadata computeValue(Class<?> type) {
+            MISS_COUNT.incrementAndGet();
+            try {
+                return introspect(type);
+            } catch (IntrospectionException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+    };
+
+    //获取解析结果的次数,包括未命中的次数
+    private static final AtomicLong LOOKUP_COUNT = new AtomicLong();
+
+    //缓存未命中(需要解析JavaBean)的次数
+    private static final AtomicLong MISS_COUNT = new AtomicLong();
 
 
     /**
-     * 存放BeanUtil解析过的JavaBean数据
-     * 只获取简单的属性字段(忽略字段名字的大小写)
+     * 解析JavaBean时是否为属性生成基于MethodHandle的读写器
+     * 读写器在解析时生成并缓存,因此只在启动时读取一次系统属性mickyli.bean.methodHandle,设为false时属性读写使用Method.invoke
      */
-    public static Map<String,Map<String,BeanStruct>> BEAN_SIMPLE_PROPERTIESIGNORE = new Hashtable<>();
+    public static final boolean USE_METHOD_HANDLE = Boolean.parseBoolean(
+            System.getProperty("mickyli.bean.methodHandle", "true"));
 
 
     static {
@@ -37,7 +59,10 @@ public class Factory {
     }
 
     public static boolean isDeclaredField(String className, String pro) throws ClassNotFoundException {
-        Class   classz = Class.forName(className);
+        return isDeclaredField(Class.forName(className), pro);
+    }
+
+    public static boolean isDeclaredField(Class classz, String pro) {
         Field[] fields = classz.getFields();
         if (ValidUtil.valid(fields)) {
             for (Field f : fields) {
@@ -61,28 +86,98 @@ public class Factory {
 
 
     public static void add(Class clazz) throws IntrospectionException, ClassNotFoundException {
-        String className = clazz.getName();
-        if (!ValidUtil.valid(BEAN_SIMPLE_PROPERTIES.get(className))) {
-            BeanInfo beanInfo = Introspector.getBeanInfo(clazz);
-            PropertyDescriptor[] proDescrtptors = beanInfo.getPropertyDescriptors();
-            if (proDescrtptors != null && proDescrtptors.length > 0) {
-                Map<String,BeanStruct> simpleProperties = new Hashtable<>();
-                Map<String,BeanStruct> simplePropertiesIgnore = new Hashtable<>();
-                for (PropertyDescriptor propDesc : proDescrtptors) {
-                    String fieldName = propDesc.getName();
-                    if (!"class".equals(fieldName)) {
-                        Object type = propDesc.getPropertyType();
-                        Method readMethod = propDesc.getReadMethod();
-                        Method writeMethod = propDesc.getWriteMethod();
-                        boolean isDeclared = isDeclaredField(className, fieldName);
-                        simpleProperties.put(fieldName, new BeanStruct(fieldName, type, readMethod, writeMethod, isDeclared));
-                        simplePropertiesIgnore.put(fieldName.toLowerCase(), new BeanStruct(fieldName, type, readMethod, writeMethod, isDeclared));
-                    }
+        try {
+            get(clazz);
+        } catch (IllegalArgumentException e) {
+            if (e.getCause() instanceof IntrospectionException) {
+                throw (IntrospectionException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+
+    /**
+     * 获取JavaBean解析后的属性信息,第一次获取时进行解析
+     *
+     * @param clazz JavaBean的类型
+     * @return 属性信息
+     * @throws IllegalArgumentException 解析JavaBean失败
+     */
+    public static BeanMetadata get(Class<?> clazz) {
+        LOOKUP_COUNT.incrementAndGet();
+        return BEAN_METADATA.get(clazz);
+    }
+
+
+    /**
+     * 清除某个类的缓存,下次获取时重新解析
+     * 已经生成的BeanCopier(包括BeanCopier.of(Class, Class)缓存的)仍然使用旧的解析结果,
+     * 类的属性变化后需要通过BeanCopier.of(Class, Class, PropertyFilter, ConverterRegistry)重新生成
+     *
+     * @param clazz JavaBean的类型
+     */
+    public static void remove(Class<?> clazz) {
+        BEAN_METADATA.remove(clazz);
+    }
+
+
+    /**
+     * 缓存命中的次数,只用于观察缓存的效果,是近似值
+     * 按获取次数(包括add)减去解析次数计算:多个线程同时解析同一个类时每个线程都计为未命中,
+     * 解析期间调用了remove(Class)时一次获取可能解析多次,两个计数器也不是同时读取的
+     *
+     * @return 命中次数,不小于0
+     */
+    public static long getHitCount() {
+        return Math.max(0, LOOKUP_COUNT.get() - MISS_COUNT.get());
+    }
+
+
+    /**
+     * 缓存未命中的次数(即解析JavaBean的次数)
+     *
+     * @return 未命中次数
+     */
+    public static long getMissCount() {
+        return MISS_COUNT.get();
+    }
+
+
+    private static BeanMetadata introspect(Class<?> clazz) throws IntrospectionException {
+        BeanInfo beanInfo = Introspector.getBeanInfo(clazz);
+        //解析结果已经挂在Class对象上,Introspector的全局缓存会阻止其他ClassLoader加载的类卸载
+        Introspector.flushFromCaches(clazz);
+        PropertyDescriptor[] proDescrtptors = beanInfo.getPropertyDescriptors();
+        Map<String,BeanStruct> simpleProperties = new HashMap<>();
+        Map<String,BeanStruct> simplePropertiesIgnore = new HashMap<>();
+        if (proDescrtptors != null && proDescrtptors.length > 0) {
+            for (PropertyDescriptor propDesc : proDescrtptors) {
+                String fieldName = propDesc.getName();
+                if (!"class".equals(fieldName)) {
+                    Object type = propDesc.getPropertyType();
+                    Method readMethod = propDesc.getReadMethod();
+                    Method writeMethod = propDesc.getWriteMethod();
+                    boolean isDeclared = isDeclaredField(clazz, fieldName);
+                    BeanStruct struct = new BeanStruct(fieldName, type, readMethod, writeMethod, isDeclared);
+                    simpleProperties.put(fieldName, struct);
+                    simplePropertiesIgnore.put(fieldName.toLowerCase(), struct);
                 }
-                BEAN_SIMPLE_PROPERTIES.put(className, simpleProperties);
-                BEAN_SIMPLE_PROPERTIESIGNORE.put(className, simplePropertiesIgnore);
             }
         }
+        return new BeanMetadata(clazz, simpleProperties, simplePropertiesIgnore, constructor(clazz));
+    }
+
+    private static MethodHandle constructor(Class<?> clazz) {
+        if (clazz.isInterface() || Modifier.isAbstract(clazz.getModifiers()) || clazz.isArray() || clazz.isPrimitive()) {
+            return null;
+        }
+        try {
+            return MethodHandles.publicLookup().findConstructor(clazz, MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
     }
 
 }
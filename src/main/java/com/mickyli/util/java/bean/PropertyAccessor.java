@@ -0,0 +1,212 @@
+package com.mickyli.util.java.bean;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 属性读写器
+ * 由Factory在解析JavaBean时为每个属性生成一次,之后的读写不再经过Method.invoke
+ */
+public abstract class PropertyAccessor {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    //基本数值类型的包装类型,按拓宽转换的顺序排列
+    private static final List<Class<?>> WIDENING = Arrays.<Class<?>>asList(Byte.class, Short.class, Integer.class,
+            Long.class, Float.class, Double.class);
+
+    /**
+     * 读取属性的值
+     *
+     * @param bean 操作的Bean
+     * @return 属性的值
+     * @throws InvocationTargetException
+     * @throws IllegalAccessException
+     */
+    public abstract Object get(Object bean) throws InvocationTargetException, IllegalAccessException;
+
+    /**
+     * 设置属性的值
+     *
+     * @param bean  操作的Bean
+     * @param value 设置属性的值
+     * @throws InvocationTargetException
+     * @throws IllegalAccessException
+     */
+    public abstract void set(Object bean, Object value) throws InvocationTargetException, IllegalAccessException;
+
+    /**
+     * 生成属性读写器
+     * 优先使用MethodHandle,方法不可访问时退回到反射调用
+     *
+     * @param readMethod  读方法,可以为空
+     * @param writeMethod 写方法,可以为空
+     * @return 属性读写器
+     */
+    public static PropertyAccessor create(Method readMethod, Method writeMethod) {
+        return create(readMethod, writeMethod, Factory.USE_METHOD_HANDLE);
+    }
+
+    /**
+     * 生成属性读写器
+     *
+     * @param readMethod      读方法,可以为空
+     * @param writeMethod     写方法,可以为空
+     * @param useMethodHandle 是否优先使用MethodHandle,为false时使用反射
+     * @return 属性读写器
+     */
+    public static PropertyAccessor create(Method readMethod, Method writeMethod, boolean useMethodHandle) {
+        if (useMethodHandle) {
+            try {
+                return new HandleAccessor(readMethod, writeMethod);
+            } catch (IllegalAccessException e) {
+                //类或方法不可访问,使用反射
+            }
+        }
+        return new ReflectAccessor(readMethod, writeMethod);
+    }
+
+    /**
+     * 按基本类型的拓宽转换把包装类型的值转换为目标包装类型
+     *
+     * @param value   值,Byte、Short、Character、Integer、Long或Float
+     * @param wrapper 目标包装类型
+     * @return 转换后的值,不能拓宽转换时返回null
+     */
+    static Object widen(Object value, Class<?> wrapper) {
+        int to = WIDENING.indexOf(wrapper);
+        if (to < 0) {
+            return null;
+        }
+        Number number;
+        int from;
+        if (value instanceof Character) {
+            //char只能拓宽为int及以上
+            number = (int) (Character) value;
+            from = WIDENING.indexOf(Integer.class);
+        } else {
+            from = WIDENING.indexOf(value.getClass());
+            if (from < 0) {
+                return null;
+            }
+            number = (Number) value;
+        }
+        if (from > to) {
+            return null;
+        }
+        switch (to) {
+            case 1:
+                return number.shortValue();
+            case 2:
+                return number.intValue();
+            case 3:
+                return number.longValue();
+            case 4:
+                return number.floatValue();
+            case 5:
+                return number.doubleValue();
+            default:
+                return number;
+        }
+    }
+
+    /**
+     * 基于Method.invoke的读写器
+     */
+    static final class ReflectAccessor extends PropertyAccessor {
+
+        private final Method readMethod;
+        private final Method writeMethod;
+
+        ReflectAccessor(Method readMethod, Method writeMethod) {
+            this.readMethod = readMethod;
+            this.writeMethod = writeMethod;
+        }
+
+        @Override
+        public Object get(Object bean) throws InvocationTargetException, IllegalAccessException {
+            return readMethod.invoke(bean);
+        }
+
+        @Override
+        public void set(Object bean, Object value) throws InvocationTargetException, IllegalAccessException {
+            writeMethod.invoke(bean, value);
+        }
+    }
+
+    /**
+     * 基于MethodHandle的读写器
+     * 句柄已经适配为(Object)Object和(Object,Object)void,调用时使用invokeExact,JIT可以直接内联目标方法
+     */
+    static final class HandleAccessor extends PropertyAccessor {
+
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+        private final Class<?>     readOwner;
+        private final Class<?>     writeOwner;
+        //写方法参数类型(基本类型取包装类型),用于与Method.invoke保持一致的参数检查
+        private final Class<?>     valueType;
+        private final boolean      primitive;
+
+        HandleAccessor(Method readMethod, Method writeMethod) throws IllegalAccessException {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            this.getter = readMethod == null ? null : lookup.unreflect(readMethod).asType(GETTER_TYPE);
+            this.readOwner = readMethod == null ? null : readMethod.getDeclaringClass();
+            this.writeOwner = writeMethod == null ? null : writeMethod.getDeclaringClass();
+            if (writeMethod == null) {
+                this.setter = null;
+                this.valueType = null;
+                this.primitive = false;
+            } else {
+                Class<?> type = writeMethod.getParameterTypes()[0];
+                this.setter = lookup.unreflect(writeMethod).asType(SETTER_TYPE);
+                this.valueType = MethodType.methodType(type).wrap().returnType();
+                this.primitive = type.isPrimitive();
+            }
+        }
+
+        @Override
+        public Object get(Object bean) throws InvocationTargetException, IllegalAccessException {
+            if (getter == null || bean == null) {
+                throw new NullPointerException();
+            }
+            if (!readOwner.isInstance(bean)) {
+                throw new IllegalArgumentException("object is not an instance of declaring class");
+            }
+            try {
+                return (Object) getter.invokeExact(bean);
+            } catch (Throwable e) {
+                throw new InvocationTargetException(e);
+            }
+        }
+
+        @Override
+        public void set(Object bean, Object value) throws InvocationTargetException, IllegalAccessException {
+            if (setter == null || bean == null) {
+                throw new NullPointerException();
+            }
+            if (!writeOwner.isInstance(bean)) {
+                throw new IllegalArgumentException("object is not an instance of declaring class");
+            }
+            if (value == null ? primitive : !valueType.isInstance(value)) {
+                //与Method.invoke一样,基本类型参数允许先拆箱再拓宽,例如Integer -> long
+                value = primitive ? widen(value, valueType) : null;
+                if (value == null) {
+                    throw new IllegalArgumentException("argument type mismatch");
+                }
+            }
+            try {
+                setter.invokeExact(bean, value);
+            } catch (Throwable e) {
+                throw new InvocationTargetException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.mickyli.util.java.file;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 文件和目录的复制
+ * <p>文件通过FileChannel.transferTo复制，数据不经过Java堆(操作系统支持时直接在内核中复制)
+ * <p>目录在当前线程中遍历并创建子目录，文件交给固定数量的线程并发复制，队列满时由当前线程复制，占用的内存与文件个数无关
+ * <p>开启{@link #setSkipUnchanged(boolean)}后，目标文件的长度和修改时间都与源文件相同时跳过；
+ * 复制后的文件保留源文件的修改时间
+ * <p>复制每个文件后通知{@link CopyListener}，可以用来显示进度和速度
+ */
+public class FileCopier {
+
+    /**
+     * 每次transferTo的最大字节数
+     */
+    private static final long TRANSFER_SIZE = 64L * 1024 * 1024;
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    private boolean skipUnchanged;
+
+    private CopyListener listener;
+
+    /**
+     * 复制一个文件，需要时创建目标文件所在的目录，目标文件保留源文件的修改时间
+     *
+     * @param source 源文件
+     * @param target 目标文件
+     * @return 复制的字节数
+     * @throws IOException 源文件不存在或者读写出错
+     */
+    public static long copyFile(File source, File target) throws IOException {
+        File parent = target.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs() && !parent.isDirectory()) {
+            throw new IOException("无法创建目录:" + parent);
+        }
+        long size;
+        try (
+                FileInputStream inStream = new FileInputStream(source);
+                FileOutputStream outStream = new FileOutputStream(target);
+                FileChannel in = inStream.getChannel();
+                FileChannel out = outStream.getChannel()
+        ) {
+            size = in.size();
+            //transferTo一次不一定能传输完
+            long position = 0;
+            while (position < size) {
+                long n = in.transferTo(position, Math.min(TRANSFER_SIZE, size - position), out);
+                if (n <= 0) {
+                    break;
+                }
+                position += n;
+            }
+            if (position < size) {
+                throw new IOException("复制" + source + "时文件被截断");
+            }
+        }
+        target.setLastModified(source.lastModified());
+        return size;
+    }
+
+    /**
+     * 复制文件或者目录
+     * <p>source是目录时把其中的内容(包括子目录)复制到target目录中，target不存在时创建
+     *
+     * @param source 源文件或目录
+     * @param target 目标文件或目录
+     * @return 复制结果
+     * @throws IOException 源文件不存在或者复制出错，出错后不再复制其他文件；多线程复制时其他异常包装为IOException
+     */
+    public Result copy(File source, File target) throws IOException {
+        if (!source.exists()) {
+            throw new FileNotFoundException(source.getPath());
+        }
+        Progress progress = new Progress();
+        if (!source.isDirectory()) {
+            copyOne(source, target, progress);
+            return progress.snapshot();
+        }
+        if (threads <= 1) {
+            walk(source, target, progress, null);
+            return progress.snapshot();
+        }
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(threads * 4), new CopyThreadFactory(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        try {
+            walk(source, target, progress, executor);
+        } finally {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+                throw new IOException("复制被中断", e);
+            }
+        }
+        progress.check();
+        return progress.snapshot();
+    }
+
+    /**
+     * 遍历目录，创建子目录，文件交给executor复制(为null时在当前线程中复制)
+     */
+    private void walk(File source, File target, final Progress progress, ThreadPoolExecutor executor)
+            throws IOException {
+        if (!target.isDirectory() && !target.mkdirs() && !target.isDirectory()) {
+            throw new IOException("无法创建目录:" + target);
+        }
+        File[] files = source.listFiles();
+        if (files == null) {
+            throw new IOException("无法读取目录:" + source);
+        }
+        for (final File file : files) {
+            progress.check();
+            final File dest = new File(target, file.getName());
+            if (file.isDirectory()) {
+                walk(file, dest, progress, executor);
+            } else if (executor == null) {
+                copyOne(file, dest, progress);
+            } else {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (progress.failure.get() != null) {
+                            return;
+                        }
+                        try {
+                            copyOne(file, dest, progress);
+                        } catch (IOException e) {
+                            progress.failure.compareAndSet(null, e);
+                        } catch (Throwable e) {
+                            //监听器等抛出的其他异常也要记录下来，否则复制线程吞掉异常后copy()仍然返回成功
+                            progress.failure.compareAndSet(null, new IOException("复制文件失败:" + file, e));
+                        }
+                    }
+                });
+            }
+        }
+    }
+
+    private void copyOne(File source, File target, Progress progress) throws IOException {
+        boolean skipped = skipUnchanged && isUnchanged(source, target);
+        long bytes = skipped ? 0 : copyFile(source, target);
+        Result snapshot = progress.add(skipped, bytes);
+        if (listener != null) {
+            listener.onFile(source, target, skipped, snapshot);
+        }
+    }
+
+    /**
+     * 目标文件的长度和修改时间是否都与源文件相同
+     */
+    static boolean isUnchanged(File source, File target) {
+        return target.isFile() && target.length() == source.length()
+                && target.lastModified() == source.lastModified();
+    }
+
+    /**
+     * 设置并发复制文件的线程数，默认为CPU核数，1表示在当前线程中复制
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("线程数必须大于0:" + threads);
+        }
+        this.threads = threads;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * 设置是否跳过长度和修改时间都没有变化的文件，默认不跳过
+     */
+    public void setSkipUnchanged(boolean skipUnchanged) {
+        this.skipUnchanged = skipUnchanged;
+    }
+
+    public boolean isSkipUnchanged() {
+        return skipUnchanged;
+    }
+
+    /**
+     * 设置复制进度的监听器
+     */
+    public void setListener(CopyListener listener) {
+        this.listener = listener;
+    }
+
+    public CopyListener getListener() {
+        return listener;
+    }
+
+    /**
+     * 复制进度的监听器
+     */
+    public interface CopyListener {
+
+        /**
+         * 复制或者跳过一个文件后调用，可能在多个线程中同时调用
+         *
+         * @param source   源文件
+         * @param target   目标文件
+         * @param skipped  是否因为没有变化而跳过
+         * @param progress 到目前为止的复制结果
+         */
+        public void onFile(File source, File target, boolean skipped, Result progress);
+
+    }
+
+    /**
+     * 复制结果
+     */
+    public static class Result {
+
+        private final int files;
+
+        private final int skippedFiles;
+
+        private final long bytes;
+
+        private final long nanos;
+
+        Result(int files, int skippedFiles, long bytes, long nanos) {
+            this.files = files;
+            this.skippedFiles = skippedFiles;
+            this.bytes = bytes;
+            this.nanos = nanos;
+        }
+
+        /**
+         * 复制的文件个数，不包括跳过的文件
+         */
+        public int getFiles() {
+            return files;
+        }
+
+        /**
+         * 跳过的文件个数
+         */
+        public int getSkippedFiles() {
+            return skippedFiles;
+        }
+
+        /**
+         * 复制的字节数
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * 耗时(纳秒)
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * 平均速度(字节/秒)
+         */
+        public double getThroughput() {
+            return nanos == 0 ? 0 : bytes * 1e9 / nanos;
+        }
+
+        @Override
+        public String toString() {
+            return "复制" + files + "个文件，跳过" + skippedFiles + "个文件，共" + bytes + "字节，耗时"
+                    + nanos / 1000000 + "毫秒，速度" + (long) (getThroughput() / 1024 / 1024) + "MB/s";
+        }
+
+    }
+
+    /**
+     * 复制过程中的计数，在多个线程中更新
+     */
+    private static class Progress {
+
+        private final long start = System.nanoTime();
+
+        private final AtomicInteger files = new AtomicInteger();
+
+        private final AtomicInteger skippedFiles = new AtomicInteger();
+
+        private final AtomicLong bytes = new AtomicLong();
+
+        private final AtomicReference<IOException> failure = new AtomicReference<>();
+
+        Result add(boolean skipped, long size) {
+            if (skipped) {
+                skippedFiles.incrementAndGet();
+            } else {
+                files.incrementAndGet();
+                bytes.addAndGet(size);
+            }
+            return snapshot();
+        }
+
+        Result snapshot() {
+            return new Result(files.get(), skippedFiles.get(), bytes.get(), System.nanoTime() - start);
+        }
+
+        /**
+         * 有文件复制失败时抛出第一个异常
+         */
+        void check() throws IOException {
+            IOException e = failure.get();
+            if (e != null) {
+                throw e;
+            }
+        }
+
+    }
+
+    /**
+     * 复制线程为守护线程，不阻止JVM退出
+     */
+    private static class CopyThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger number = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "file-copier-" + number.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+
+    }
+
+}
@@ -14,15 +14,11 @@ public class FileReadUtil {
      *
      * @param source
      * @param target
+     * @see FileCopier#copyFile(File, File)
      */
     public static void copyFileWithChannel(File source, File target) {
-        try (
-                FileInputStream inStream = new FileInputStream(source);
-                FileOutputStream outStream = new FileOutputStream(target);
-                FileChannel in = inStream.getChannel();
-                FileChannel out = outStream.getChannel();
-        ) {
-            in.transferTo(0, in.size(), out);
+        try {
+            FileCopier.copyFile(source, target);
         } catch (IOException e) {
             e.printStackTrace();
         }
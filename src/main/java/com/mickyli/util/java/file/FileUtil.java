@@ -2,29 +2,33 @@ package com.mickyli.util.java.file;
 
 
 
-import java.io.BufferedInputStream;
 import java.io.BufferedReader;
+import java.io.CharArrayReader;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.FilenameFilter;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.RandomAccessFile;
 import java.net.FileNameMap;
 import java.net.MalformedURLException;
 import java.net.URLConnection;
 import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
 
 import com.mickyli.util.java.security.SecUtil;
-import com.mickyli.util.java.valid.RegUtil;
 import com.mickyli.util.java.valid.ValidUtil;
 
 /**
@@ -38,32 +42,24 @@ public class FileUtil {
 
 
     /**
-     * 获取文件的行数
+     * 获取文件的行数(换行符'\n'的个数)
+     * <p>文件按块映射到内存中并行统计，每次比较8个字节
      *
      * @param file 统计的文件
      * @return 文件行数
      */
     public static int countLines(File file) {
-        int count = 0;
-        try (
-                InputStream is = new BufferedInputStream(new FileInputStream(file))
-        ) {
-            byte[] c = new byte[BUFFER_SIZE];
-            int readChars;
-            while ((readChars = is.read(c)) != -1) {
-                for (int i = 0; i < readChars; ++i) {
-                    if (c[i] == '\n')
-                        ++count;
-                }
-            }
+        try {
+            return (int) LineIndex.countNewlines(file);
         } catch (IOException e) {
             e.printStackTrace();
         }
-        return count;
+        return 0;
     }
 
     /**
      * 以列表的方式获取文件的所有行
+     * <p>所有行都保存在内存中，大文件请使用{@link #stream(File, Charset)}或{@link #forEachLine(File, Charset, LineHandler)}
      *
      * @param file 需要出来的文件
      * @return 包含所有行的list
@@ -154,6 +150,176 @@ public class FileUtil {
         return list;
     }
 
+    /**
+     * 以列表的方式获取文件从第from行(从0开始)开始的count行数据
+     * <p>通过{@link LineIndex}直接定位到第from行，索引保存在文件旁边，文件不变时只需建立一次
+     *
+     * @param file  处理的文件
+     * @param from  起始行
+     * @param count 需要读取的行数
+     * @return 包含指定行的list
+     */
+    public static List<String> lines(File file, int from, int count) {
+        return lines(file, from, count, Charset.defaultCharset().name());
+    }
+
+    /**
+     * 以列表的方式获取文件从第from行(从0开始)开始的count行数据
+     *
+     * @param file     处理的文件
+     * @param from     起始行
+     * @param count    需要读取的行数
+     * @param encoding 指定读取文件的编码
+     * @return 包含指定行的list
+     * @see #lines(File, int, int)
+     */
+    public static List<String> lines(File file, int from, int count, String encoding) {
+        List<String> list = new ArrayList<>();
+        try {
+            LineIndex index = LineIndex.of(file);
+            if (from >= index.getLineCount() || count <= 0) {
+                return list;
+            }
+            long offset = index.getOffset(Math.max(from, 0));
+            try (FileInputStream in = new FileInputStream(file)) {
+                in.getChannel().position(offset);
+                BufferedReader reader = new BufferedReader(new InputStreamReader(in, encoding));
+                String line;
+                while (list.size() < count && (line = reader.readLine()) != null) {
+                    list.add(line);
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return list;
+    }
+
+    /**
+     * 逐行读取文件，返回的迭代器每次只读取一行，适合处理大文件
+     * <p>可以通过{@link LineIterator#skip(long)}、{@link LineIterator#limit(long)}跳过和限制行数，
+     * 提前结束时需要关闭迭代器
+     *
+     * @param file    需要处理的文件
+     * @param charset 文件编码
+     * @return 行迭代器
+     * @throws IOException 文件不存在或者不能读取
+     */
+    public static LineIterator stream(File file, Charset charset) throws IOException {
+        return new LineIterator(file, charset, LineIterator.DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * 逐行读取文件，使用指定大小的缓冲区
+     *
+     * @param file       需要处理的文件
+     * @param charset    文件编码
+     * @param bufferSize 缓冲区大小(字符)
+     * @return 行迭代器
+     * @throws IOException 文件不存在或者不能读取
+     * @see #stream(File, Charset)
+     */
+    public static LineIterator stream(File file, Charset charset, int bufferSize) throws IOException {
+        return new LineIterator(file, charset, bufferSize);
+    }
+
+    /**
+     * 逐行处理文件，handler返回false时停止读取
+     *
+     * @param file    需要处理的文件
+     * @param charset 文件编码
+     * @param handler 处理每一行的回调
+     * @return 处理的行数
+     * @throws IOException 文件不存在或者读取出错
+     */
+    public static long forEachLine(File file, Charset charset, LineHandler handler) throws IOException {
+        return forEachLine(file, charset, 0, Long.MAX_VALUE, handler);
+    }
+
+    /**
+     * 跳过前skip行后最多处理limit行，handler返回false时停止读取
+     * <p>跳过的行不创建字符串，文件旁边有有效的{@link LineIndex}索引时直接定位
+     *
+     * @param file    需要处理的文件
+     * @param charset 文件编码
+     * @param skip    跳过的行数
+     * @param limit   最多处理的行数
+     * @param handler 处理每一行的回调
+     * @return 处理的行数
+     * @throws IOException 文件不存在或者读取出错
+     */
+    public static long forEachLine(File file, Charset charset, long skip, long limit, LineHandler handler)
+            throws IOException {
+        long count = 0;
+        try (LineIterator lines = stream(file, charset)) {
+            lines.skip(skip).limit(limit);
+            while (lines.hasNext()) {
+                count++;
+                if (!handler.handle(lines.next())) {
+                    break;
+                }
+            }
+        } catch (IllegalStateException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
+        return count;
+    }
+
+    /**
+     * 把文件按换行符分成若干块并行处理，不保证行的处理顺序，handler需要是线程安全的
+     * <p>任意一个handler返回false时各块都停止读取；换行符不是单字节'\n'的编码(例如UTF-16)按顺序处理
+     *
+     * @param file    需要处理的文件
+     * @param charset 文件编码
+     * @param handler 处理每一行的回调
+     * @return 处理的行数
+     * @throws IOException 文件不存在或者读取出错
+     */
+    public static long forEachLineParallel(final File file, final Charset charset, final LineHandler handler)
+            throws IOException {
+        if (!Arrays.equals("\n".getBytes(charset), new byte[]{'\n'})) {
+            return forEachLine(file, charset, handler);
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            final FileChannel channel = raf.getChannel();
+            final long[] boundaries = LineIndex.boundaries(channel, channel.size());
+            final AtomicBoolean stopped = new AtomicBoolean();
+            List<Callable<Long>> tasks = new ArrayList<>();
+            for (int i = 0; i + 1 < boundaries.length; i++) {
+                final long start = boundaries[i];
+                final long end = boundaries[i + 1];
+                tasks.add(new Callable<Long>() {
+                    @Override
+                    public Long call() throws IOException {
+                        ByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+                        CharBuffer chars = charset.newDecoder()
+                                .onMalformedInput(CodingErrorAction.REPLACE)
+                                .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                                .decode(bytes);
+                        LineIterator lines = new LineIterator(new CharArrayReader(chars.array(),
+                                chars.arrayOffset() + chars.position(), chars.remaining()), LineIterator.DEFAULT_BUFFER_SIZE);
+                        long count = 0;
+                        while (!stopped.get() && lines.hasNext()) {
+                            count++;
+                            if (!handler.handle(lines.next())) {
+                                stopped.set(true);
+                            }
+                        }
+                        return count;
+                    }
+                });
+            }
+            long count = 0;
+            for (Long c : FileWorkerPool.invokeAll(tasks)) {
+                count += c;
+            }
+            return count;
+        }
+    }
+
     /**
      * 在文件末尾追加一行
      *
@@ -339,28 +505,17 @@ public class FileUtil {
 
     /**
      * 复制文件
-     * 通过该方式复制文件文件越大速度越是明显
+     * 通过FileChannel.transferTo复制，数据不经过Java堆，文件越大速度越是明显
      *
      * @param file       需要处理的文件
      * @param targetFile 目标文件
      * @return 是否成功
+     * @see FileCopier#copyFile(File, File)
      */
     public static boolean copy(File file, String targetFile) {
-        try (
-                FileInputStream fin = new FileInputStream(file);
-                FileOutputStream fout = new FileOutputStream(new File(targetFile))
-        ) {
-            FileChannel in = fin.getChannel();
-            FileChannel out = fout.getChannel();
-            //设定缓冲区
-            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
-            while (in.read(buffer) != -1) {
-                //准备写入，防止其他读取，锁住文件
-                buffer.flip();
-                out.write(buffer);
-                //准备读取。将缓冲区清理完毕，移动文件内部指针
-                buffer.clear();
-            }
+        try {
+            FileCopier.copyFile(file, new File(targetFile));
+            return true;
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -484,25 +639,16 @@ public class FileUtil {
 
     /**
      * 复制目录
+     * 多个线程并发复制目录中的文件，参见{@link FileCopier}
      *
      * @param filePath   需要处理的文件
      * @param targetPath 目标文件
      */
     public static void copyDir(File filePath, String targetPath) {
-        File targetFile = new File(targetPath);
-        if (!targetFile.exists()) {
-            createPaths(targetPath);
-        }
-        File[] files = filePath.listFiles();
-        if (ValidUtil.valid(files)) {
-            for (File file : files) {
-                String path = file.getName();
-                if (file.isDirectory()) {
-                    copyDir(file, targetPath + "/" + path);
-                } else {
-                    copy(file, targetPath + "/" + path);
-                }
-            }
+        try {
+            new FileCopier().copy(filePath, new File(targetPath));
+        } catch (IOException e) {
+            e.printStackTrace();
         }
     }
 
@@ -530,64 +676,43 @@ public class FileUtil {
 
     /**
      * 罗列指定路径下的全部文件
+     * 多个子目录并行遍历，返回的顺序不固定，参见{@link FileWalker}
+     * 与原来基于File.listFiles的实现一样跟随符号链接，链接形成环时不再进入
      *
      * @param path 需要处理的文件
      * @return 返回文件列表
      */
     public static List<File> listFile(File path) {
-        List<File> list = new ArrayList<>();
-        File[] files = path.listFiles();
-        if (ValidUtil.valid(files)) {
-            for (File file : files) {
-                if (file.isDirectory()) {
-                    list.addAll(listFile(file));
-                } else {
-                    list.add(file);
-                }
-            }
-        }
-        return list;
+        return walker().list(path);
     }
 
     /**
      * 罗列指定路径下的全部文件
      * @param path 指定的路径
-     * @param child 是否罗列子目录
+     * @param child 是否罗列子目录，为false时只罗列当前目录下的文件和文件夹
      * @return
      */
     public static List<File> listFile(File path,boolean child){
-        List<File> list = new ArrayList<>();
-        File[] files = path.listFiles();
-        if (ValidUtil.valid(files)) {
-            for (File file : files) {
-                if (child && file.isDirectory()) {
-                    list.addAll(listFile(file));
-                } else {
-                    list.add(file);
-                }
-            }
+        if (child) {
+            return listFile(path);
         }
-        return list;
+        FileWalker walker = walker();
+        walker.setMaxDepth(1);
+        walker.setIncludeDirectories(true);
+        return walker.list(path);
     }
 
     /**
      * 罗列指定路径下的全部文件包括文件夹
+     * 多个子目录并行遍历，返回的顺序不固定，跟随符号链接
      *
      * @param path 需要处理的文件
      * @return 返回文件列表
      */
     public static List<File> listFileAll(File path) {
-        List<File> list = new ArrayList<>();
-        File[] files = path.listFiles();
-        if (ValidUtil.valid(files)) {
-            for (File file : files) {
-                list.add(file);
-                if (file.isDirectory()) {
-                    list.addAll(listFileAll(file));
-                }
-            }
-        }
-        return list;
+        FileWalker walker = walker();
+        walker.setIncludeDirectories(true);
+        return walker.list(path);
     }
 
     /**
@@ -655,46 +780,32 @@ public class FileUtil {
      * @return 返回文件列表
      */
     public static List<File> searchFile(File dirPath, String fileName) {
-        List<File> list = new ArrayList<>();
-        File[] files = dirPath.listFiles();
-        if (ValidUtil.valid(files)) {
-            for (File file : files) {
-                if (file.isDirectory()) {
-                    list.addAll(searchFile(file, fileName));
-                } else {
-                    String Name = file.getName();
-                    if (Name.equals(fileName)) {
-                        list.add(file);
-                    }
-                }
-            }
-        }
-        return list;
+        FileWalker walker = walker();
+        walker.setRegex(Pattern.quote(fileName));
+        return walker.list(dirPath);
     }
 
     /**
      * 查找符合正则表达式reg的的文件
+     * 正则表达式只编译一次，多个子目录并行搜索，跟随符号链接
      *
      * @param dirPath 搜索的目录
      * @param reg     正则表达式
      * @return 返回文件列表
      */
     public static List<File> searchFileReg(File dirPath, String reg) {
-        List<File> list = new ArrayList<>();
-        File[] files = dirPath.listFiles();
-        if (ValidUtil.valid(files)) {
-            for (File file : files) {
-                if (file.isDirectory()) {
-                    list.addAll(searchFile(file, reg));
-                } else {
-                    String Name = file.getName();
-                    if (RegUtil.isMatche(Name, reg)) {
-                        list.add(file);
-                    }
-                }
-            }
-        }
-        return list;
+        FileWalker walker = walker();
+        walker.setRegex(reg);
+        return walker.list(dirPath);
+    }
+
+    /**
+     * 罗列和搜索文件的方法原来基于File.listFiles递归，会进入符号链接指向的目录，这里保持这个行为
+     */
+    private static FileWalker walker() {
+        FileWalker walker = new FileWalker();
+        walker.setFollowLinks(true);
+        return walker;
     }
 
 
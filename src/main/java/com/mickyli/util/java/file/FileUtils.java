@@ -3,14 +3,12 @@ package com.mickyli.util.java.file;
 import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.OutputStream;
 import java.io.RandomAccessFile;
 import java.net.FileNameMap;
 import java.net.MalformedURLException;
@@ -45,22 +43,13 @@ public class FileUtils {
 	 * @param dest
 	 *            目标文件
 	 * @param bufferSize
-	 *            每次读取的字节数
+	 *            每次读取的字节数，通过FileChannel.transferTo复制后不再使用
 	 * @throws IOException
+	 * @see FileCopier#copyFile(File, File)
 	 */
 	public static void copyFile(String src, String dest, int bufferSize)
 			throws IOException {
-
-		FileInputStream fis = new FileInputStream(src);
-		FileOutputStream fos = new FileOutputStream(dest);
-		byte[] buffer = new byte[bufferSize];
-		int length;
-
-		while ((length = fis.read(buffer)) != -1) {
-			fos.write(buffer, 0, length);
-		}
-		fis.close();
-		fos.close();
+		FileCopier.copyFile(new File(src), new File(dest));
 	}
 
 	/**
@@ -281,40 +270,13 @@ public class FileUtils {
 	
 	/**
 	 * 复制一个目录及其子目录、文件到另外一个目录
+	 * 多个线程并发复制目录中的文件，参见{@link FileCopier}
 	 * @param src
 	 * @param dest
 	 * @throws IOException
 	 */
 	public static void copyDir(String _src, String _target) throws IOException {
-		
-		File src=new File(_src);
-		File dest=new File(_target);
-		
-		if (src.isDirectory()) {
-			if (!dest.exists()) {
-				dest.mkdir();
-			}
-			String files[] = src.list();
-			for (String file : files) {
-				File srcFile = new File(src, file);
-				File destFile = new File(dest, file);
-				// 递归复制
-				copyDir(srcFile.getAbsolutePath(), destFile.getAbsolutePath());
-			}
-		} else {
-			InputStream in = new FileInputStream(src);
-			OutputStream out = new FileOutputStream(dest);
-
-			byte[] buffer = new byte[1024];
-
-			int length;
-			
-			while ((length = in.read(buffer)) > 0) {
-				out.write(buffer, 0, length);
-			}
-			in.close();
-			out.close();
-		}
+		new FileCopier().copy(new File(_src), new File(_target));
 	}
 	/**
 	 * 文件重命名
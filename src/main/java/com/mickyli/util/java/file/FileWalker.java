@@ -0,0 +1,483 @@
+package com.mickyli.util.java.file;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+/**
+ * 并行遍历目录
+ * <p>每个子目录是一个ForkJoin任务，多个子目录同时遍历，结果的顺序不固定
+ * <p>文件名的glob、正则表达式和排除目录的glob在设置时编译一次；超过{@link #setMaxDepth(int)}的目录和被排除的目录不再进入
+ * <p>默认不跟随符号链接，符号链接作为文件返回；{@link #setFollowLinks(boolean)}打开后进入链接指向的目录，
+ * 链接指向自身所在的上级目录(形成环)时不再进入；不能读取的目录直接跳过
+ * <p>{@link #list(File)}返回全部结果，{@link #iterator(File)}边遍历边返回
+ */
+public class FileWalker {
+
+    /**
+     * 迭代器中缓存的结果个数，消费者跟不上时遍历线程等待
+     */
+    static final int QUEUE_SIZE = 1024;
+
+    private int maxDepth = Integer.MAX_VALUE;
+
+    private boolean includeDirectories;
+
+    private PathMatcher glob;
+
+    private Pattern regex;
+
+    private PathMatcher excludeDirectories;
+
+    private boolean followLinks;
+
+    /**
+     * 遍历目录，返回所有符合条件的文件
+     *
+     * @param root 根目录，不是目录时返回空列表
+     * @return 文件列表，顺序不固定
+     */
+    public List<File> list(File root) {
+        final ConcurrentLinkedQueue<File> files = new ConcurrentLinkedQueue<>();
+        walk(root.toPath(), new Sink() {
+            @Override
+            public boolean accept(Entry entry) {
+                files.add(entry.getFile());
+                return true;
+            }
+        });
+        return new ArrayList<>(files);
+    }
+
+    /**
+     * 在后台并行遍历目录，返回的迭代器边遍历边返回结果，不需要把所有结果保存在内存中
+     * <p>遍历在单独的ForkJoinPool(守护线程)中进行，等待消费者时不占用统计行数、压缩等共用的线程池；
+     * 提前结束时应关闭迭代器，遍历线程随之停止，迭代器不再被引用时遍历线程也会停止
+     *
+     * @param root 根目录
+     * @return 结果迭代器
+     */
+    public WalkIterator iterator(File root) {
+        WalkIterator iterator = new WalkIterator();
+        final WalkSink sink = new WalkSink(iterator);
+        final Path path = root.toPath();
+        final ForkJoinPool pool = new ForkJoinPool();
+        pool.execute(new RecursiveAction() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected void compute() {
+                try {
+                    walk(path, sink);
+                } finally {
+                    sink.finish();
+                    pool.shutdown();
+                }
+            }
+        });
+        return iterator;
+    }
+
+    private void walk(Path root, Sink sink) {
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        Ancestor ancestor = null;
+        if (followLinks) {
+            try {
+                ancestor = new Ancestor(key(root, Files.readAttributes(root, BasicFileAttributes.class)), null);
+            } catch (IOException e) {
+                return;
+            }
+        }
+        WalkTask task = new WalkTask(root, 0, ancestor, sink);
+        if (ForkJoinTask.inForkJoinPool()) {
+            task.compute();
+        } else {
+            FileWorkerPool.get().invoke(task);
+        }
+    }
+
+    /**
+     * 目录的唯一标识，用于发现符号链接形成的环；文件系统不提供fileKey时使用真实路径
+     */
+    private static Object key(Path dir, BasicFileAttributes attributes) throws IOException {
+        Object key = attributes.fileKey();
+        return key != null ? key : dir.toRealPath();
+    }
+
+    /**
+     * 读取文件属性，跟随符号链接时链接指向的文件不存在则读取链接本身的属性
+     */
+    private BasicFileAttributes readAttributes(Path path) throws IOException {
+        if (followLinks) {
+            try {
+                return Files.readAttributes(path, BasicFileAttributes.class);
+            } catch (IOException e) {
+                //失效的链接作为文件返回
+            }
+        }
+        return Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+    }
+
+    private boolean matches(Path name) {
+        if (glob != null && !glob.matches(name)) {
+            return false;
+        }
+        return regex == null || regex.matcher(name.toString()).matches();
+    }
+
+    /**
+     * 设置最大深度，1表示只遍历根目录下的文件，默认不限制
+     */
+    public void setMaxDepth(int maxDepth) {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("maxDepth必须大于0:" + maxDepth);
+        }
+        this.maxDepth = maxDepth;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * 设置结果中是否包括目录，默认只包括文件
+     */
+    public void setIncludeDirectories(boolean includeDirectories) {
+        this.includeDirectories = includeDirectories;
+    }
+
+    public boolean isIncludeDirectories() {
+        return includeDirectories;
+    }
+
+    /**
+     * 设置文件名需要匹配的glob，例如*.{log,txt}
+     *
+     * @param glob glob，为null时不限制
+     */
+    public void setGlob(String glob) {
+        this.glob = glob == null ? null : FileSystems.getDefault().getPathMatcher("glob:" + glob);
+    }
+
+    /**
+     * 设置文件名需要完全匹配的正则表达式
+     *
+     * @param regex 正则表达式，为null时不限制
+     */
+    public void setRegex(String regex) {
+        this.regex = regex == null ? null : Pattern.compile(regex);
+    }
+
+    /**
+     * 设置需要排除的目录名的glob，例如{.git,target}，排除的目录不再进入
+     *
+     * @param glob glob，为null时不排除
+     */
+    public void setExcludeDirectories(String glob) {
+        this.excludeDirectories = glob == null ? null : FileSystems.getDefault().getPathMatcher("glob:" + glob);
+    }
+
+    /**
+     * 设置是否跟随符号链接，默认不跟随
+     * <p>跟随时链接指向的目录会被遍历，返回的路径仍然是链接下的路径；链接指向上级目录形成环时不再进入
+     */
+    public void setFollowLinks(boolean followLinks) {
+        this.followLinks = followLinks;
+    }
+
+    public boolean isFollowLinks() {
+        return followLinks;
+    }
+
+    /**
+     * 遍历到的文件或目录
+     */
+    public static final class Entry {
+
+        private final Path path;
+
+        private final BasicFileAttributes attributes;
+
+        private final int depth;
+
+        Entry(Path path, BasicFileAttributes attributes, int depth) {
+            this.path = path;
+            this.attributes = attributes;
+            this.depth = depth;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public File getFile() {
+            return path.toFile();
+        }
+
+        /**
+         * 遍历时读取的文件属性(大小、修改时间等)，不需要再次读取
+         */
+        public BasicFileAttributes getAttributes() {
+            return attributes;
+        }
+
+        /**
+         * 深度，根目录下的文件为1
+         */
+        public int getDepth() {
+            return depth;
+        }
+
+        @Override
+        public String toString() {
+            return path.toString();
+        }
+
+    }
+
+    /**
+     * 遍历结果的接收者，可能在多个线程中同时调用
+     */
+    private interface Sink {
+
+        /**
+         * @return 返回false时停止遍历
+         */
+        boolean accept(Entry entry);
+
+    }
+
+    /**
+     * 跟随符号链接时当前目录及其上级目录的标识，用于发现环
+     */
+    private static final class Ancestor {
+
+        private final Object key;
+
+        private final Ancestor parent;
+
+        Ancestor(Object key, Ancestor parent) {
+            this.key = key;
+            this.parent = parent;
+        }
+
+        boolean contains(Object key) {
+            for (Ancestor a = this; a != null; a = a.parent) {
+                if (a.key.equals(key)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+    }
+
+    /**
+     * 遍历一个目录，子目录交给新的任务
+     */
+    private final class WalkTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Path dir;
+
+        private final int depth;
+
+        private final Ancestor ancestor;
+
+        private final Sink sink;
+
+        WalkTask(Path dir, int depth, Ancestor ancestor, Sink sink) {
+            this.dir = dir;
+            this.depth = depth;
+            this.ancestor = ancestor;
+            this.sink = sink;
+        }
+
+        @Override
+        protected void compute() {
+            List<WalkTask> tasks = new ArrayList<>();
+            int childDepth = depth + 1;
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+                for (Path path : stream) {
+                    BasicFileAttributes attributes;
+                    try {
+                        attributes = readAttributes(path);
+                    } catch (IOException e) {
+                        //遍历时被删除
+                        continue;
+                    }
+                    Path name = path.getFileName();
+                    if (attributes.isDirectory()) {
+                        if (excludeDirectories != null && excludeDirectories.matches(name)) {
+                            continue;
+                        }
+                        if (includeDirectories && matches(name)
+                                && !sink.accept(new Entry(path, attributes, childDepth))) {
+                            return;
+                        }
+                        if (childDepth < maxDepth) {
+                            Ancestor child = null;
+                            if (ancestor != null) {
+                                Object key = key(path, attributes);
+                                if (ancestor.contains(key)) {
+                                    //符号链接形成环
+                                    continue;
+                                }
+                                child = new Ancestor(key, ancestor);
+                            }
+                            tasks.add(new WalkTask(path, childDepth, child, sink));
+                        }
+                    } else if (matches(name) && !sink.accept(new Entry(path, attributes, childDepth))) {
+                        return;
+                    }
+                }
+            } catch (IOException | DirectoryIteratorException e) {
+                //不能读取的目录跳过
+            }
+            invokeAll(tasks);
+        }
+
+    }
+
+    /**
+     * 边遍历边返回结果的迭代器
+     */
+    public static final class WalkIterator implements Iterator<Entry>, Closeable {
+
+        /**
+         * 遍历结束的标记
+         */
+        private static final Entry END = new Entry(null, null, 0);
+
+        private final BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Entry next;
+
+        private boolean finished;
+
+        WalkIterator() {
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+            if (finished) {
+                return false;
+            }
+            try {
+                next = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new IllegalStateException("遍历被中断", e);
+            }
+            if (next == END) {
+                next = null;
+                finished = true;
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public Entry next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Entry entry = next;
+            next = null;
+            return entry;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * 停止遍历
+         */
+        @Override
+        public void close() {
+            closed.set(true);
+            finished = true;
+            next = null;
+            queue.clear();
+        }
+
+    }
+
+    /**
+     * 把结果放入迭代器的队列，队列满时等待
+     * <p>只弱引用迭代器，迭代器没有关闭就不再被引用时，遍历线程在下一次等待超时后停止
+     */
+    private static final class WalkSink implements Sink {
+
+        private final BlockingQueue<Entry> queue;
+
+        private final AtomicBoolean closed;
+
+        private final WeakReference<WalkIterator> owner;
+
+        WalkSink(WalkIterator iterator) {
+            this.queue = iterator.queue;
+            this.closed = iterator.closed;
+            this.owner = new WeakReference<>(iterator);
+        }
+
+        /**
+         * 队列满时等待，迭代器关闭或者不再被引用后返回false
+         */
+        @Override
+        public boolean accept(Entry entry) {
+            try {
+                while (!closed.get() && owner.get() != null) {
+                    if (queue.offer(entry, 100, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+
+        /**
+         * 遍历结束后放入结束标记
+         */
+        void finish() {
+            accept(WalkIterator.END);
+        }
+
+    }
+
+}
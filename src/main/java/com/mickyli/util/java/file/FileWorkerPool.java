@@ -0,0 +1,67 @@
+package com.mickyli.util.java.file;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * 文件工具类中并行处理(统计行数、建立索引等)共用的ForkJoinPool
+ * <p>JDK7没有ForkJoinPool.commonPool()，第一次使用时创建，线程数等于CPU核数
+ */
+final class FileWorkerPool {
+
+    private static class Holder {
+        static final ForkJoinPool POOL = new ForkJoinPool();
+    }
+
+    static ForkJoinPool get() {
+        return Holder.POOL;
+    }
+
+    /**
+     * 执行任务并等待全部完成，只有一个任务时在当前线程中执行
+     *
+     * @param tasks 任务
+     * @return 按任务顺序排列的结果
+     * @throws IOException 任务抛出的IOException，其他受检异常包装为IOException
+     */
+    static <T> List<T> invokeAll(List<? extends Callable<T>> tasks) throws IOException {
+        List<T> results = new ArrayList<>(tasks.size());
+        if (tasks.size() == 1) {
+            try {
+                results.add(tasks.get(0).call());
+            } catch (IOException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException(e);
+            }
+            return results;
+        }
+        for (Future<T> future : get().invokeAll(tasks)) {
+            try {
+                results.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new IOException(cause);
+            }
+        }
+        return results;
+    }
+
+    private FileWorkerPool() {
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.mickyli.util.java.file;
+
+/**
+ * 逐行处理文件的回调接口
+ *
+ * @see FileUtil#forEachLine(java.io.File, java.nio.charset.Charset, LineHandler)
+ */
+public interface LineHandler {
+
+    /**
+     * 处理一行
+     *
+     * @param line 一行内容，不包括换行符
+     * @return 返回false时停止读取后面的行
+     */
+    public boolean handle(String line);
+
+}
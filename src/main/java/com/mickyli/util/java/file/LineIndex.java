@@ -0,0 +1,450 @@
+package com.mickyli.util.java.file;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * 文件的行偏移量索引
+ * <p>把文件按{@link #CHUNK_SIZE}分块映射到内存中并行扫描，每{@link #STRIDE}行记录一次行首的偏移量，
+ * 定位到第N行时从最近的记录点向后最多扫描{@link #STRIDE}-1行，不必从文件头开始读
+ * <p>以'\n'作为换行符('\r\n'同样适用)，不支持UTF-16等换行符不是单字节'\n'的编码
+ * <p>索引可以保存在文件旁边(文件名加{@link #SUFFIX})，文件的长度或修改时间变化后索引失效，需要重新建立
+ */
+public final class LineIndex {
+
+    /**
+     * 并行扫描时每块的大小
+     */
+    static final int CHUNK_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * 每隔多少行记录一次偏移量
+     */
+    public static final int STRIDE = 128;
+
+    /**
+     * 索引文件的后缀
+     */
+    public static final String SUFFIX = ".lidx";
+
+    /**
+     * 索引文件的标识("LIDX")
+     */
+    private static final int MAGIC = 0x4C494458;
+
+    /**
+     * 每个字节都是'\n'的long，用于一次比较8个字节
+     */
+    private static final long NEWLINES = 0x0A0A0A0A0A0A0A0AL;
+
+    private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+
+    private final File file;
+
+    private final long length;
+
+    private final long lastModified;
+
+    private final long lineCount;
+
+    /**
+     * 第i个元素是第i*STRIDE行行首的偏移量
+     */
+    private final long[] checkpoints;
+
+    private LineIndex(File file, long length, long lastModified, long lineCount, long[] checkpoints) {
+        this.file = file;
+        this.length = length;
+        this.lastModified = lastModified;
+        this.lineCount = lineCount;
+        this.checkpoints = checkpoints;
+    }
+
+    /**
+     * 获取文件的索引，文件旁边有有效的索引文件时直接读取，否则重新建立并尝试保存
+     *
+     * @param file 文件
+     * @return 行偏移量索引
+     * @throws IOException 文件不存在或者读取出错
+     */
+    public static LineIndex of(File file) throws IOException {
+        File indexFile = indexFile(file);
+        if (indexFile.isFile()) {
+            try {
+                LineIndex index = load(file, indexFile);
+                if (index.isValid()) {
+                    return index;
+                }
+            } catch (IOException e) {
+                //索引文件损坏时重新建立
+            }
+        }
+        LineIndex index = build(file);
+        try {
+            index.save(indexFile);
+        } catch (IOException e) {
+            //目录不可写时只在内存中使用
+        }
+        return index;
+    }
+
+    /**
+     * 扫描文件建立索引，不读写索引文件
+     *
+     * @param file 文件
+     * @return 行偏移量索引
+     * @throws IOException 文件不存在或者读取出错
+     */
+    public static LineIndex build(File file) throws IOException {
+        long lastModified = file.lastModified();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            final FileChannel channel = raf.getChannel();
+            final long size = channel.size();
+            //第一遍统计每块的换行符个数，第二遍按每块开始的行号记录偏移量
+            long[] counts = countChunks(channel, size);
+
+            long newlines = 0;
+            final long[] starts = new long[counts.length];
+            for (int i = 0; i < counts.length; i++) {
+                starts[i] = newlines;
+                newlines += counts[i];
+            }
+            long lineCount = newlines;
+            if (size > 0 && lastByte(channel, size) != '\n') {
+                lineCount++;
+            }
+            final long lines = lineCount;
+            final long[] checkpoints = new long[(int) ((lineCount + STRIDE - 1) / STRIDE)];
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (int i = 0; i < counts.length; i++) {
+                final int chunk = i;
+                tasks.add(new Callable<Void>() {
+                    @Override
+                    public Void call() throws IOException {
+                        record(map(channel, chunk, size), (long) chunk * CHUNK_SIZE, starts[chunk], lines, checkpoints);
+                        return null;
+                    }
+                });
+            }
+            FileWorkerPool.invokeAll(tasks);
+            return new LineIndex(file, size, lastModified, lineCount, checkpoints);
+        }
+    }
+
+    /**
+     * 读取索引文件
+     *
+     * @param file      索引对应的文件
+     * @param indexFile 索引文件
+     * @return 行偏移量索引，可能已经失效，需要通过{@link #isValid()}检查
+     * @throws IOException 索引文件不存在、格式不正确或者读取出错
+     */
+    public static LineIndex load(File file, File indexFile) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != STRIDE) {
+                throw new IOException("不是有效的行索引文件:" + indexFile);
+            }
+            long length = in.readLong();
+            long lastModified = in.readLong();
+            long lineCount = in.readLong();
+            int size = in.readInt();
+            if (size != (lineCount + STRIDE - 1) / STRIDE) {
+                throw new IOException("不是有效的行索引文件:" + indexFile);
+            }
+            long[] checkpoints = new long[size];
+            for (int i = 0; i < size; i++) {
+                checkpoints[i] = in.readLong();
+            }
+            return new LineIndex(file, length, lastModified, lineCount, checkpoints);
+        }
+    }
+
+    /**
+     * 保存索引
+     *
+     * @param indexFile 索引文件
+     * @throws IOException 写入出错
+     */
+    public void save(File indexFile) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(STRIDE);
+            out.writeLong(length);
+            out.writeLong(lastModified);
+            out.writeLong(lineCount);
+            out.writeInt(checkpoints.length);
+            for (long checkpoint : checkpoints) {
+                out.writeLong(checkpoint);
+            }
+        }
+    }
+
+    /**
+     * 获取文件对应的索引文件
+     *
+     * @param file 文件
+     * @return 文件旁边的索引文件
+     */
+    public static File indexFile(File file) {
+        return new File(file.getPath() + SUFFIX);
+    }
+
+    /**
+     * 文件的长度和修改时间是否与建立索引时相同
+     *
+     * @return 索引是否仍然有效
+     */
+    public boolean isValid() {
+        return file.length() == length && file.lastModified() == lastModified;
+    }
+
+    /**
+     * 获取第line行(从0开始)行首的偏移量
+     *
+     * @param line 行号，等于行数时返回文件长度
+     * @return 偏移量
+     * @throws IOException 读取出错
+     */
+    public long getOffset(long line) throws IOException {
+        if (line < 0 || line > lineCount) {
+            throw new IndexOutOfBoundsException("line: " + line + ", lineCount: " + lineCount);
+        }
+        if (line == lineCount) {
+            return length;
+        }
+        long offset = checkpoints[(int) (line / STRIDE)];
+        int skip = (int) (line % STRIDE);
+        if (skip == 0) {
+            return offset;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            FileChannel channel = raf.getChannel();
+            ByteBuffer buffer = ByteBuffer.allocate(8192);
+            while (channel.read(buffer, offset) > 0) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    offset++;
+                    if (buffer.get() == '\n' && --skip == 0) {
+                        return offset;
+                    }
+                }
+                buffer.clear();
+            }
+        }
+        throw new IOException("文件已经被修改，索引失效:" + file);
+    }
+
+    /**
+     * 获取文件的行数，与BufferedReader逐行读取到的行数相同
+     */
+    public long getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * 获取建立索引时文件的长度
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * 获取建立索引时文件的修改时间
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * 获取索引对应的文件
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * 并行统计文件中'\n'的个数
+     *
+     * @param file 文件
+     * @return '\n'的个数
+     * @throws IOException 文件不存在或者读取出错
+     */
+    static long countNewlines(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            FileChannel channel = raf.getChannel();
+            long count = 0;
+            for (long c : countChunks(channel, channel.size())) {
+                count += c;
+            }
+            return count;
+        }
+    }
+
+    /**
+     * 并行统计每块中'\n'的个数
+     */
+    private static long[] countChunks(final FileChannel channel, final long size) throws IOException {
+        final long[] counts = new long[chunks(size)];
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            final int chunk = i;
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() throws IOException {
+                    counts[chunk] = countNewlines(map(channel, chunk, size));
+                    return null;
+                }
+            });
+        }
+        FileWorkerPool.invokeAll(tasks);
+        return counts;
+    }
+
+    /**
+     * 把文件大致按{@link #CHUNK_SIZE}分块，每块的边界都在'\n'之后
+     *
+     * @param channel 文件通道
+     * @param size    文件长度
+     * @return 依次排列的边界，第一个为0，最后一个为文件长度，相邻的边界不相同
+     */
+    static long[] boundaries(FileChannel channel, long size) throws IOException {
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long previous = 0;
+        for (long position = CHUNK_SIZE; position < size; position += CHUNK_SIZE) {
+            if (position <= previous) {
+                continue;
+            }
+            //从position-1开始找'\n'，边界就在它后面
+            long boundary = size;
+            long offset = position - 1;
+            buffer.clear();
+            search:
+            while (channel.read(buffer, offset) > 0) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    offset++;
+                    if (buffer.get() == '\n') {
+                        boundary = offset;
+                        break search;
+                    }
+                }
+                buffer.clear();
+            }
+            if (boundary >= size) {
+                break;
+            }
+            boundaries.add(boundary);
+            previous = boundary;
+        }
+        if (size > 0) {
+            boundaries.add(size);
+        }
+        long[] result = new long[boundaries.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = boundaries.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * 统计缓冲区中'\n'的个数，每次取8个字节一起比较
+     */
+    static long countNewlines(ByteBuffer buffer) {
+        long count = 0;
+        int limit = buffer.limit();
+        int i = 0;
+        for (; i + 8 <= limit; i += 8) {
+            count += newlines(buffer.getLong(i));
+        }
+        for (; i < limit; i++) {
+            if (buffer.get(i) == '\n') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 记录一块中落在记录点上的行首偏移量
+     *
+     * @param buffer      块的内容
+     * @param position    块在文件中的位置
+     * @param start       块之前的换行符个数
+     * @param lineCount   文件的行数
+     * @param checkpoints 记录点
+     */
+    private static void record(ByteBuffer buffer, long position, long start, long lineCount, long[] checkpoints) {
+        if (position == 0 && checkpoints.length > 0) {
+            checkpoints[0] = 0;
+        }
+        //number为已经遇到的换行符个数，第number个换行符之后是第number行的行首
+        long number = start;
+        long next = (number / STRIDE + 1) * STRIDE;
+        int limit = buffer.limit();
+        int i = 0;
+        for (; i + 8 <= limit; i += 8) {
+            int n = newlines(buffer.getLong(i));
+            if (number + n < next) {
+                number += n;
+                continue;
+            }
+            for (int j = i; j < i + 8; j++) {
+                if (buffer.get(j) == '\n' && ++number == next) {
+                    if (number < lineCount) {
+                        checkpoints[(int) (number / STRIDE)] = position + j + 1;
+                    }
+                    next += STRIDE;
+                }
+            }
+        }
+        for (; i < limit; i++) {
+            if (buffer.get(i) == '\n' && ++number == next) {
+                if (number < lineCount) {
+                    checkpoints[(int) (number / STRIDE)] = position + i + 1;
+                }
+                next += STRIDE;
+            }
+        }
+    }
+
+    /**
+     * 统计8个字节中等于'\n'的个数
+     */
+    private static int newlines(long word) {
+        long x = word ^ NEWLINES;
+        //等于'\n'的字节异或后为0，只有为0的字节最高位置1
+        long t = ~(((x & LOW_BITS) + LOW_BITS) | x | LOW_BITS);
+        return Long.bitCount(t);
+    }
+
+    private static int chunks(long size) {
+        return (int) ((size + CHUNK_SIZE - 1) / CHUNK_SIZE);
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, int chunk, long size) throws IOException {
+        long position = (long) chunk * CHUNK_SIZE;
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(CHUNK_SIZE, size - position));
+    }
+
+    private static byte lastByte(FileChannel channel, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(1);
+        channel.read(buffer, size - 1);
+        return buffer.get(0);
+    }
+
+}
@@ -0,0 +1,303 @@
+package com.mickyli.util.java.file;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 逐行读取文件的迭代器
+ * <p>每次只读取一行，占用的内存与文件大小无关；换行符的处理与BufferedReader.readLine()相同('\n'、'\r'或"\r\n")
+ * <p>{@link #skip(long)}跳过的行不创建字符串，还没有读取时如果文件旁边有有效的{@link LineIndex}索引，直接定位到目标行；
+ * 索引只按'\n'分行，单独以'\r'换行的文件不能使用索引；{@link #limit(long)}限制之后最多返回的行数
+ * <p>读完或者出错时自动关闭文件，提前结束时需要调用{@link #close()}
+ */
+public class LineIterator implements Iterator<String>, Closeable {
+
+    /**
+     * 默认的缓冲区大小(字符)
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 跳过行时readLine的返回值
+     */
+    private static final String SKIPPED = "";
+
+    private final Reader reader;
+
+    private final char[] buffer;
+
+    private int position;
+
+    private int end;
+
+    private boolean eof;
+
+    /**
+     * 上一行以'\r'结尾，下一个'\n'需要跳过
+     */
+    private boolean skipLF;
+
+    /**
+     * 已经读取但还没有返回的行
+     */
+    private String next;
+
+    /**
+     * 还可以返回的行数
+     */
+    private long remaining = Long.MAX_VALUE;
+
+    private boolean started;
+
+    private boolean closed;
+
+    /**
+     * 文件和文件通道，可以通过索引定位时不为null
+     */
+    private final File file;
+
+    private final FileChannel channel;
+
+    /**
+     * 打开文件
+     *
+     * @param file       文件
+     * @param charset    文件编码
+     * @param bufferSize 缓冲区大小(字符)
+     * @throws IOException 文件不存在或者不能读取
+     */
+    public LineIterator(File file, Charset charset, int bufferSize) throws IOException {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize必须大于0:" + bufferSize);
+        }
+        FileInputStream in = new FileInputStream(file);
+        this.reader = new InputStreamReader(in, charset);
+        this.buffer = new char[bufferSize];
+        //只有换行符是单字节'\n'的编码才能按索引中的字节偏移量定位
+        if (Arrays.equals("\n".getBytes(charset), new byte[]{'\n'})) {
+            this.file = file;
+            this.channel = in.getChannel();
+        } else {
+            this.file = null;
+            this.channel = null;
+        }
+    }
+
+    /**
+     * 逐行读取reader
+     *
+     * @param reader     字符流
+     * @param bufferSize 缓冲区大小(字符)
+     */
+    LineIterator(Reader reader, int bufferSize) {
+        this.reader = reader;
+        this.buffer = new char[bufferSize];
+        this.file = null;
+        this.channel = null;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        if (closed) {
+            return false;
+        }
+        if (remaining <= 0) {
+            closeQuietly();
+            return false;
+        }
+        try {
+            next = readLine(true);
+        } catch (IOException e) {
+            closeQuietly();
+            throw new IllegalStateException(e);
+        }
+        if (next == null) {
+            closeQuietly();
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String line = next;
+        next = null;
+        remaining--;
+        return line;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("不支持删除行");
+    }
+
+    /**
+     * 跳过n行，跳过的行不计入{@link #limit(long)}
+     *
+     * @param n 跳过的行数
+     * @return 当前迭代器
+     * @throws IOException 读取出错
+     */
+    public LineIterator skip(long n) throws IOException {
+        if (n > 0 && next != null) {
+            next = null;
+            n--;
+        }
+        if (n <= 0 || closed) {
+            return this;
+        }
+        if (!started && seek(n)) {
+            return this;
+        }
+        for (; n > 0; n--) {
+            if (readLine(false) == null) {
+                closeQuietly();
+                break;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * 限制之后最多返回的行数
+     *
+     * @param n 行数
+     * @return 当前迭代器
+     */
+    public LineIterator limit(long n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("limit不能为负数:" + n);
+        }
+        remaining = n;
+        return this;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            next = null;
+            reader.close();
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            close();
+        } catch (IOException e) {
+            //已经读完，关闭出错不影响结果
+        }
+    }
+
+    /**
+     * 通过文件旁边的索引直接定位到第n行
+     *
+     * @return 是否定位成功
+     */
+    private boolean seek(long n) throws IOException {
+        if (channel == null) {
+            return false;
+        }
+        File indexFile = LineIndex.indexFile(file);
+        if (!indexFile.isFile()) {
+            return false;
+        }
+        LineIndex index;
+        try {
+            index = LineIndex.load(file, indexFile);
+        } catch (IOException e) {
+            return false;
+        }
+        if (!index.isValid()) {
+            return false;
+        }
+        channel.position(index.getOffset(Math.min(n, index.getLineCount())));
+        return true;
+    }
+
+    /**
+     * 读取下一行
+     *
+     * @param keep 是否需要这一行的内容，为false时不创建字符串
+     * @return 一行内容，到达末尾时返回null
+     */
+    private String readLine(boolean keep) throws IOException {
+        StringBuilder line = null;
+        boolean read = false;
+        while (true) {
+            if (position >= end && !fill()) {
+                if (!read) {
+                    return null;
+                }
+                return line == null ? SKIPPED : line.toString();
+            }
+            if (skipLF) {
+                skipLF = false;
+                if (buffer[position] == '\n') {
+                    position++;
+                    continue;
+                }
+            }
+            int i = position;
+            while (i < end && buffer[i] != '\n' && buffer[i] != '\r') {
+                i++;
+            }
+            if (i < end) {
+                String result;
+                if (!keep) {
+                    result = SKIPPED;
+                } else if (line == null) {
+                    result = new String(buffer, position, i - position);
+                } else {
+                    result = line.append(buffer, position, i - position).toString();
+                }
+                skipLF = buffer[i] == '\r';
+                position = i + 1;
+                return result;
+            }
+            //这一行跨越了缓冲区
+            read = true;
+            if (keep) {
+                if (line == null) {
+                    line = new StringBuilder(end - position + 80);
+                }
+                line.append(buffer, position, end - position);
+            }
+            position = end;
+        }
+    }
+
+    private boolean fill() throws IOException {
+        started = true;
+        if (eof) {
+            return false;
+        }
+        int n;
+        do {
+            n = reader.read(buffer, 0, buffer.length);
+        } while (n == 0);
+        if (n < 0) {
+            eof = true;
+            return false;
+        }
+        position = 0;
+        end = n;
+        return true;
+    }
+
+}
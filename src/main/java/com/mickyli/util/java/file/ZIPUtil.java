@@ -17,16 +17,19 @@ import com.mickyli.util.java.valid.ValidUtil;
  * 压缩文档相关的工具类
  */
 public class ZIPUtil {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     /**
-     * 文档压缩
+     * 文档压缩，目录连同其中的内容(包括空目录)以目录名压缩，由{@link ZipArchiver}多线程压缩
      *
      * @param file 需要压缩的文件或目录
      * @param dest 压缩后的文件名称
      * @throws Exception
      */
     public static void deCompress(File file, String dest) throws Exception {
-        try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(dest))) {
-            zipFile(file, zos, "");
+        try {
+            new ZipArchiver().zipAll(new File(dest), file);
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -54,9 +57,10 @@ public class ZIPUtil {
             ZipEntry entry = new ZipEntry(entryName);
             zos.putNextEntry(entry);
             try (InputStream is = new FileInputStream(inFile)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
                 int len = 0;
-                while ((len = is.read()) != -1) {
-                    zos.write(len);
+                while ((len = is.read(buffer)) != -1) {
+                    zos.write(buffer, 0, len);
                 }
             } catch (IOException e) {
                 e.printStackTrace();
@@ -82,15 +86,20 @@ public class ZIPUtil {
             while ((zipEntry = zipInputStream.getNextEntry()) != null) {
                 String fileName = zipEntry.getName();
                 File temp = new File(path + "/" + fileName);
+                if (zipEntry.isDirectory()) {
+                    temp.mkdirs();
+                    continue;
+                }
                 if (!temp.getParentFile().exists()) {
                     temp.getParentFile().mkdirs();
                 }
                 try (OutputStream os = new FileOutputStream(temp);
                      //通过ZipFile的getInputStream方法拿到具体的ZipEntry的输入流
                      InputStream is = zipFile.getInputStream(zipEntry)) {
+                    byte[] buffer = new byte[BUFFER_SIZE];
                     int len = 0;
-                    while ((len = is.read()) != -1) {
-                        os.write(len);
+                    while ((len = is.read(buffer)) != -1) {
+                        os.write(buffer, 0, len);
                     }
                 }
             }
@@ -0,0 +1,702 @@
+package com.mickyli.util.java.file;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * 多线程ZIP压缩
+ * <p>当前线程按顺序读取文件，每{@link #BLOCK_SIZE}字节为一块交给多个线程同时压缩，
+ * 小文件之间、大文件的各块之间都可以并行；每块以前一块最后32K为字典，除最后一块外以SYNC_FLUSH结束，
+ * 拼接后是一个完整的deflate数据流(与pigz相同的方法)，压缩率与单线程压缩接近
+ * <p>压缩结果按块的顺序通过1M的缓冲区写入文件通道，同时在内存中的块数有上限，占用的内存与文件大小无关
+ * <p>保留目录结构(包括空目录)，文件名使用UTF-8编码；可以按文件后缀指定压缩级别，例如已经压缩过的文件使用0级；
+ * 超过4G的文件和文件个数超过65535时使用ZIP64格式
+ * <p>文件头、数据描述符和中央目录的写法与java.util.zip.ZipOutputStream相同，可以用ZipFile和ZipInputStream读取
+ */
+public class ZipArchiver {
+
+    /**
+     * 每块的大小
+     */
+    public static final int BLOCK_SIZE = 1024 * 1024;
+
+    /**
+     * deflate字典的大小
+     */
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+
+    private static final int OUTPUT_BUFFER_SIZE = 1024 * 1024;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final long LOCSIG = 0x04034b50L;
+
+    private static final long EXTSIG = 0x08074b50L;
+
+    private static final long CENSIG = 0x02014b50L;
+
+    private static final long ENDSIG = 0x06054b50L;
+
+    private static final long ZIP64_ENDSIG = 0x06064b50L;
+
+    private static final long ZIP64_LOCSIG = 0x07064b50L;
+
+    private static final long ZIP64_MAGICVAL = 0xFFFFFFFFL;
+
+    private static final int ZIP64_MAGICCOUNT = 0xFFFF;
+
+    private static final int ZIP64_EXTID = 0x0001;
+
+    /**
+     * 文件名使用UTF-8编码的标志
+     */
+    private static final int FLAG_EFS = 0x800;
+
+    /**
+     * 使用数据描述符的标志
+     */
+    private static final int FLAG_DATA_DESCRIPTOR = 0x08;
+
+    private static final int STORED = 0;
+
+    private static final int DEFLATED = 8;
+
+    /**
+     * 每个线程复用的Deflater，每个压缩级别一个，下标为级别+1
+     * <p>不能对用过的Deflater调用setLevel：新级别在下一次deflate时才生效，那一次调用不输出任何数据
+     */
+    private static final ThreadLocal<Deflater[]> DEFLATERS = new ThreadLocal<Deflater[]>() {
+        @Override
+        protected Deflater[] initialValue() {
+            return new Deflater[Deflater.BEST_COMPRESSION + 2];
+        }
+    };
+
+    private int defaultLevel = Deflater.DEFAULT_COMPRESSION;
+
+    private final Map<String, Integer> levels = new HashMap<>();
+
+    private String comment;
+
+    /**
+     * 压缩文件或目录
+     * <p>source是目录时压缩其中的内容，条目名称相对于source；source是文件时只有一个条目
+     *
+     * @param source 需要压缩的文件或目录
+     * @param dest   压缩后的文件
+     * @return 压缩后的文件大小
+     * @throws IOException 读写出错
+     */
+    public long zip(File source, File dest) throws IOException {
+        List<Item> items = new ArrayList<>();
+        if (source.isDirectory()) {
+            addDirectory(items, source, "", dest);
+        } else {
+            items.add(new Item(source, source.getName()));
+        }
+        return write(items, dest);
+    }
+
+    /**
+     * 把多个文件或目录压缩到一个文件中
+     * <p>文件的条目名称为文件名，目录的条目名称以目录名开头
+     *
+     * @param dest    压缩后的文件
+     * @param sources 需要压缩的文件或目录
+     * @return 压缩后的文件大小
+     * @throws IOException 读写出错
+     */
+    public long zipAll(File dest, File... sources) throws IOException {
+        List<Item> items = new ArrayList<>();
+        for (File source : sources) {
+            if (source.isDirectory()) {
+                String prefix = source.getName() + "/";
+                items.add(new Item(source, prefix));
+                addDirectory(items, source, prefix, dest);
+            } else {
+                items.add(new Item(source, source.getName()));
+            }
+        }
+        return write(items, dest);
+    }
+
+    /**
+     * 按相对路径排序添加目录中的全部文件和子目录，跳过正在写入的压缩文件
+     */
+    private static void addDirectory(List<Item> items, File dir, String prefix, File dest) {
+        FileWalker walker = new FileWalker();
+        walker.setIncludeDirectories(true);
+        File target = dest.getAbsoluteFile();
+        //遍历结果都以dir.toPath()开头
+        int base = dir.toPath().toString().length() + 1;
+        List<Item> children = new ArrayList<>();
+        for (File file : walker.list(dir)) {
+            if (file.getAbsoluteFile().equals(target)) {
+                continue;
+            }
+            String name = file.getPath().substring(base).replace(File.separatorChar, '/');
+            children.add(new Item(file, prefix + name + (file.isDirectory() ? "/" : "")));
+        }
+        Collections.sort(children, new Comparator<Item>() {
+            @Override
+            public int compare(Item o1, Item o2) {
+                return o1.name.compareTo(o2.name);
+            }
+        });
+        items.addAll(children);
+    }
+
+    private long write(List<Item> items, File dest) throws IOException {
+        File parent = dest.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs() && !parent.isDirectory()) {
+            throw new IOException("无法创建目录:" + parent);
+        }
+        try (Output out = new Output(new FileOutputStream(dest).getChannel())) {
+            Pipeline pipeline = new Pipeline(out);
+            try {
+                for (Item item : items) {
+                    if (item.file.isDirectory()) {
+                        pipeline.directory(item);
+                    } else {
+                        pipeline.file(item, getLevel(item.name));
+                    }
+                }
+                pipeline.drainAll();
+            } catch (IOException | RuntimeException e) {
+                pipeline.cancel();
+                throw e;
+            }
+            writeCentralDirectory(out, pipeline.entries);
+            return out.written;
+        }
+    }
+
+    /**
+     * 获取文件使用的压缩级别
+     *
+     * @param name 文件名
+     * @return 压缩级别
+     */
+    public int getLevel(String name) {
+        int index = name.lastIndexOf('.');
+        if (index >= 0 && index > name.lastIndexOf('/')) {
+            Integer level = levels.get(name.substring(index + 1).toLowerCase(Locale.ENGLISH));
+            if (level != null) {
+                return level;
+            }
+        }
+        return defaultLevel;
+    }
+
+    /**
+     * 设置指定后缀的文件使用的压缩级别
+     *
+     * @param extension 文件后缀，不含'.'，不区分大小写
+     * @param level     压缩级别，0到9，0表示不压缩
+     */
+    public void setLevel(String extension, int level) {
+        checkLevel(level);
+        levels.put(extension.toLowerCase(Locale.ENGLISH), level);
+    }
+
+    /**
+     * 设置默认的压缩级别，默认为Deflater.DEFAULT_COMPRESSION
+     *
+     * @param level 压缩级别，-1到9
+     */
+    public void setDefaultLevel(int level) {
+        checkLevel(level);
+        this.defaultLevel = level;
+    }
+
+    public int getDefaultLevel() {
+        return defaultLevel;
+    }
+
+    /**
+     * 设置压缩文件的注释
+     */
+    public void setComment(String comment) {
+        this.comment = comment;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+
+    private static void checkLevel(int level) {
+        if (level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("压缩级别不正确:" + level);
+        }
+    }
+
+    /**
+     * 压缩一块数据
+     *
+     * @param data       数据
+     * @param length     数据长度
+     * @param dictionary 前一块数据，没有时为null
+     * @param level      压缩级别
+     * @param last       是否为最后一块
+     * @return 压缩后的数据
+     */
+    static byte[] deflate(byte[] data, int length, byte[] dictionary, int level, boolean last) {
+        Deflater[] deflaters = DEFLATERS.get();
+        Deflater deflater = deflaters[level + 1];
+        if (deflater == null) {
+            deflater = new Deflater(level, true);
+            deflaters[level + 1] = deflater;
+        } else {
+            deflater.reset();
+        }
+        if (dictionary != null) {
+            deflater.setDictionary(dictionary, dictionary.length - DICTIONARY_SIZE, DICTIONARY_SIZE);
+        }
+        deflater.setInput(data, 0, length);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(length / 2 + 64);
+        byte[] buffer = new byte[64 * 1024];
+        if (last) {
+            deflater.finish();
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+        } else {
+            //输入没有用完或者输出填满缓冲区时还有数据没有刷出
+            int n;
+            do {
+                n = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                out.write(buffer, 0, n);
+            } while (!deflater.needsInput() || n == buffer.length);
+        }
+        return out.toByteArray();
+    }
+
+    private void writeCentralDirectory(Output out, List<Entry> entries) throws IOException {
+        long start = out.written;
+        for (Entry entry : entries) {
+            writeCEN(out, entry);
+        }
+        long length = out.written - start;
+        byte[] commentBytes = comment == null ? new byte[0] : comment.getBytes(UTF_8);
+        long xlen = length;
+        long xoff = start;
+        boolean zip64 = false;
+        if (xlen >= ZIP64_MAGICVAL) {
+            xlen = ZIP64_MAGICVAL;
+            zip64 = true;
+        }
+        if (xoff >= ZIP64_MAGICVAL) {
+            xoff = ZIP64_MAGICVAL;
+            zip64 = true;
+        }
+        int count = entries.size();
+        if (count >= ZIP64_MAGICCOUNT) {
+            count = ZIP64_MAGICCOUNT;
+            zip64 = true;
+        }
+        if (zip64) {
+            long off64 = out.written;
+            //ZIP64中央目录结束记录
+            out.writeInt(ZIP64_ENDSIG);
+            out.writeLong(44);
+            out.writeShort(45);
+            out.writeShort(45);
+            out.writeInt(0);
+            out.writeInt(0);
+            out.writeLong(entries.size());
+            out.writeLong(entries.size());
+            out.writeLong(length);
+            out.writeLong(start);
+            //ZIP64中央目录结束记录的位置
+            out.writeInt(ZIP64_LOCSIG);
+            out.writeInt(0);
+            out.writeLong(off64);
+            out.writeInt(1);
+        }
+        out.writeInt(ENDSIG);
+        out.writeShort(0);
+        out.writeShort(0);
+        out.writeShort(count);
+        out.writeShort(count);
+        out.writeInt(xlen);
+        out.writeInt(xoff);
+        out.writeShort(commentBytes.length);
+        out.write(commentBytes, 0, commentBytes.length);
+    }
+
+    private static void writeCEN(Output out, Entry entry) throws IOException {
+        long csize = entry.csize;
+        long size = entry.size;
+        long offset = entry.offset;
+        int elen64 = 0;
+        if (csize >= ZIP64_MAGICVAL) {
+            csize = ZIP64_MAGICVAL;
+            elen64 += 8;
+        }
+        if (size >= ZIP64_MAGICVAL) {
+            size = ZIP64_MAGICVAL;
+            elen64 += 8;
+        }
+        if (offset >= ZIP64_MAGICVAL) {
+            offset = ZIP64_MAGICVAL;
+            elen64 += 8;
+        }
+        int version = elen64 > 0 ? 45 : entry.version();
+        out.writeInt(CENSIG);
+        out.writeShort(version);
+        out.writeShort(version);
+        out.writeShort(entry.flag);
+        out.writeShort(entry.method);
+        out.writeInt(entry.time);
+        out.writeInt(entry.crc);
+        out.writeInt(csize);
+        out.writeInt(size);
+        out.writeShort(entry.name.length);
+        out.writeShort(elen64 > 0 ? elen64 + 4 : 0);
+        out.writeShort(0);
+        out.writeShort(0);
+        out.writeShort(0);
+        out.writeInt(0);
+        out.writeInt(offset);
+        out.write(entry.name, 0, entry.name.length);
+        if (elen64 > 0) {
+            out.writeShort(ZIP64_EXTID);
+            out.writeShort(elen64);
+            if (size == ZIP64_MAGICVAL) {
+                out.writeLong(entry.size);
+            }
+            if (csize == ZIP64_MAGICVAL) {
+                out.writeLong(entry.csize);
+            }
+            if (offset == ZIP64_MAGICVAL) {
+                out.writeLong(entry.offset);
+            }
+        }
+    }
+
+    /**
+     * 把Java时间转换为DOS时间
+     */
+    static long dosTime(long time) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(time);
+        int year = calendar.get(Calendar.YEAR);
+        if (year < 1980) {
+            return (1 << 21) | (1 << 16);
+        }
+        return (year - 1980) << 25 | (calendar.get(Calendar.MONTH) + 1) << 21
+                | calendar.get(Calendar.DAY_OF_MONTH) << 16 | calendar.get(Calendar.HOUR_OF_DAY) << 11
+                | calendar.get(Calendar.MINUTE) << 5 | calendar.get(Calendar.SECOND) >> 1;
+    }
+
+    /**
+     * 需要压缩的文件或目录和条目名称
+     */
+    private static final class Item {
+
+        final File file;
+
+        final String name;
+
+        Item(File file, String name) {
+            this.file = file;
+            this.name = name;
+        }
+
+    }
+
+    /**
+     * 已经写入的条目，用于生成中央目录
+     */
+    private static final class Entry {
+
+        final byte[] name;
+
+        final int method;
+
+        final int flag;
+
+        final long time;
+
+        long offset;
+
+        long crc;
+
+        long size;
+
+        long csize;
+
+        Entry(String name, int method, int flag, long time) {
+            this.name = name.getBytes(UTF_8);
+            this.method = method;
+            this.flag = flag;
+            this.time = time;
+        }
+
+        int version() {
+            return method == DEFLATED ? 20 : 10;
+        }
+
+    }
+
+    /**
+     * 读取、并行压缩和按顺序写出的流水线
+     * <p>当前线程读取文件并计算CRC32，压缩任务交给{@link FileWorkerPool}，
+     * 待写出的块超过上限时先按顺序写出最早的块
+     */
+    private static final class Pipeline {
+
+        private final Output out;
+
+        private final int window = Math.max(2, FileWorkerPool.get().getParallelism() * 4);
+
+        /**
+         * 按顺序待写出的操作:Entry表示写文件头，Future表示写压缩后的块，Long表示写数据描述符
+         */
+        private final ArrayDeque<Object> pending = new ArrayDeque<>();
+
+        private int blocks;
+
+        final List<Entry> entries = new ArrayList<>();
+
+        private Entry current;
+
+        Pipeline(Output out) {
+            this.out = out;
+        }
+
+        void directory(Item item) {
+            pending.add(new Entry(item.name, STORED, FLAG_EFS, dosTime(item.file.lastModified())));
+        }
+
+        void file(Item item, final int level) throws IOException {
+            Entry entry = new Entry(item.name, DEFLATED, FLAG_EFS | FLAG_DATA_DESCRIPTOR,
+                    dosTime(item.file.lastModified()));
+            pending.add(entry);
+            CRC32 crc = new CRC32();
+            long size = 0;
+            try (InputStream in = new FileInputStream(item.file)) {
+                //多读一块，用来判断当前块是否为最后一块
+                byte[] block = new byte[BLOCK_SIZE];
+                int length = fill(in, block);
+                byte[] previous = null;
+                while (true) {
+                    byte[] next = null;
+                    int nextLength = 0;
+                    if (length == BLOCK_SIZE) {
+                        next = new byte[BLOCK_SIZE];
+                        nextLength = fill(in, next);
+                    }
+                    boolean last = nextLength == 0;
+                    crc.update(block, 0, length);
+                    size += length;
+                    submit(block, length, previous, level, last);
+                    if (last) {
+                        break;
+                    }
+                    previous = block;
+                    block = next;
+                    length = nextLength;
+                }
+            }
+            entry.crc = crc.getValue();
+            entry.size = size;
+            pending.add(Long.valueOf(size));
+        }
+
+        private void submit(final byte[] block, final int length, final byte[] previous, final int level,
+                            final boolean last) throws IOException {
+            //前一块不足字典大小时只可能是空文件，不需要字典
+            final byte[] dictionary = previous != null && previous.length >= DICTIONARY_SIZE ? previous : null;
+            pending.add(FileWorkerPool.get().submit(new Callable<byte[]>() {
+                @Override
+                public byte[] call() {
+                    return deflate(block, length, dictionary, level, last);
+                }
+            }));
+            if (++blocks >= window) {
+                drainOne();
+            }
+        }
+
+        /**
+         * 写出最早的一个待写出操作，遇到块时等待压缩完成
+         */
+        @SuppressWarnings("unchecked")
+        private void drainOne() throws IOException {
+            Object head = pending.poll();
+            if (head instanceof Entry) {
+                current = (Entry) head;
+                current.offset = out.written;
+                writeLOC(current);
+                entries.add(current);
+            } else if (head instanceof Future) {
+                byte[] data;
+                try {
+                    data = ((Future<byte[]>) head).get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("压缩被中断", e);
+                } catch (ExecutionException e) {
+                    throw new IOException(e.getCause());
+                }
+                blocks--;
+                out.write(data, 0, data.length);
+                current.csize += data.length;
+            } else if (head instanceof Long) {
+                writeEXT(current);
+            }
+        }
+
+        void drainAll() throws IOException {
+            while (!pending.isEmpty()) {
+                drainOne();
+            }
+        }
+
+        /**
+         * 出错时取消还没有完成的压缩任务
+         */
+        void cancel() {
+            for (Object item : pending) {
+                if (item instanceof Future) {
+                    ((Future<?>) item).cancel(false);
+                }
+            }
+            pending.clear();
+        }
+
+        private void writeLOC(Entry entry) throws IOException {
+            out.writeInt(LOCSIG);
+            out.writeShort(entry.version());
+            out.writeShort(entry.flag);
+            out.writeShort(entry.method);
+            out.writeInt(entry.time);
+            //大小和CRC32写在数据描述符中，目录的都为0
+            out.writeInt(0);
+            out.writeInt(0);
+            out.writeInt(0);
+            out.writeShort(entry.name.length);
+            out.writeShort(0);
+            out.write(entry.name, 0, entry.name.length);
+        }
+
+        private void writeEXT(Entry entry) throws IOException {
+            out.writeInt(EXTSIG);
+            out.writeInt(entry.crc);
+            if (entry.csize >= ZIP64_MAGICVAL || entry.size >= ZIP64_MAGICVAL) {
+                out.writeLong(entry.csize);
+                out.writeLong(entry.size);
+            } else {
+                out.writeInt(entry.csize);
+                out.writeInt(entry.size);
+            }
+        }
+
+        private static int fill(InputStream in, byte[] buffer) throws IOException {
+            int total = 0;
+            while (total < buffer.length) {
+                int n = in.read(buffer, total, buffer.length - total);
+                if (n < 0) {
+                    break;
+                }
+                total += n;
+            }
+            return total;
+        }
+
+    }
+
+    /**
+     * 带缓冲区的小端输出，记录已经写出的字节数
+     */
+    private static final class Output implements Closeable {
+
+        private final FileChannel channel;
+
+        private final ByteBuffer buffer = ByteBuffer.allocate(OUTPUT_BUFFER_SIZE);
+
+        long written;
+
+        Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void write(byte[] data, int offset, int length) throws IOException {
+            written += length;
+            while (length > 0) {
+                if (!buffer.hasRemaining()) {
+                    flush();
+                }
+                int n = Math.min(length, buffer.remaining());
+                buffer.put(data, offset, n);
+                offset += n;
+                length -= n;
+            }
+        }
+
+        void writeShort(int v) throws IOException {
+            ensure(2);
+            buffer.put((byte) v).put((byte) (v >>> 8));
+            written += 2;
+        }
+
+        void writeInt(long v) throws IOException {
+            ensure(4);
+            buffer.put((byte) v).put((byte) (v >>> 8)).put((byte) (v >>> 16)).put((byte) (v >>> 24));
+            written += 4;
+        }
+
+        void writeLong(long v) throws IOException {
+            writeInt(v);
+            writeInt(v >>> 32);
+        }
+
+        private void ensure(int n) throws IOException {
+            if (buffer.remaining() < n) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+
+    }
+
+}
@@ -1,17 +1,13 @@
 package com.mickyli.util.java.file;
 
-import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.util.zip.CRC32;
 import java.util.zip.CheckedInputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
-import java.util.zip.ZipOutputStream;
 
 /**
  * 文件解压缩
@@ -19,7 +15,8 @@ import java.util.zip.ZipOutputStream;
 public class ZipUtils {
 	
 	/**
-	 * 压缩目录，注意，中文乱码，目录中不能有嵌套的目录,将不会被压缩到压缩文件中
+	 * 压缩目录，包括子目录和空目录，条目名称相对于dir
+	 * <p>由{@link ZipArchiver}多线程压缩
 	 * @param dir 目录
 	 * @param dest 目标压缩文件.zip
 	 * @throws Exception
@@ -29,57 +26,23 @@ public class ZipUtils {
 		File directory=new File(dir);
 		if(!directory.isDirectory())throw new Exception("\""+dir+"\"不是一个目录");
 		
-		File destination=new File(dest);
-		OutputStream os=new FileOutputStream(destination);
-		BufferedOutputStream bos=new BufferedOutputStream(os);
-		ZipOutputStream zos=new ZipOutputStream(bos);
-		
-		File[] files=directory.listFiles(); 
-		
-		InputStream is=null;
-		byte[] buffer=new byte[1024];
-		int length=0;
-		
-		for(File file:files){
-			if(file.isDirectory())continue;
-			is=new FileInputStream(file);
-			zos.putNextEntry(new ZipEntry(file.getName()));
-			while ((length=is.read(buffer))!=-1) {
-				zos.write(buffer, 0, length);
-			}
-		}
-		zos.closeEntry();
-		zos.close();
+		new ZipArchiver().zip(directory, new File(dest));
 	}
 	
 	/**
-	 * 压缩一个或者多个文件
+	 * 压缩一个或者多个文件，目录连同其中的内容以目录名压缩
+	 * <p>由{@link ZipArchiver}多线程压缩
 	 * @param dest 目标压缩文件.zip
 	 * @param src 单个文件路径字符串或者文件路径字符串数组
 	 * @throws Exception
 	 */
 	public static void zip(String dest,String... src) throws Exception{
 		
-		File destination=new File(dest);
-		OutputStream os=new FileOutputStream(destination);
-		BufferedOutputStream bos=new BufferedOutputStream(os);
-		ZipOutputStream zos=new ZipOutputStream(bos);
-		
-		InputStream is=null;
-		byte[] buffer=new byte[1024];
-		int length=0;
-		File file=null;
-		
-		for(String s:src){
-			file=new File(s);
-			is=new FileInputStream(file);
-			zos.putNextEntry(new ZipEntry(file.getName()));
-			while ((length=is.read(buffer))!=-1) {
-				zos.write(buffer, 0, length);
-			}
+		File[] files=new File[src.length];
+		for(int i=0;i<src.length;i++){
+			files[i]=new File(src[i]);
 		}
-		zos.closeEntry();
-		zos.close();
+		new ZipArchiver().zipAll(new File(dest), files);
 	}
 	
 	/**
@@ -15,6 +15,7 @@ public class Password {
             "^(?=.*?[0-9])(?=.*?[a-z])(?=.*?[A-Z])(?=.*?[@!#$%^&*()_+\\.\\-\\?<>'\"|=]+).{8,15}$";
     /**
      * 字符串加密函数MD5实现
+     * 只做一次不加盐的MD5,保存密码应使用{@link com.mickyli.util.java.security.PasswordHasher}
      */
     public static String md5(String password){
         MessageDigest md;
@@ -1,10 +1,15 @@
 package com.mickyli.util.java.security;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.security.Key;
+import java.security.spec.AlgorithmParameterSpec;
 
 import javax.crypto.Cipher;
 import javax.crypto.SecretKey;
-import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 
 
@@ -18,6 +23,7 @@ import javax.crypto.spec.SecretKeySpec;
  *   <li>填充方式:NoPadding、PKCS5Padding和ISO10126Padding。
  *   
  *   <p>注:如果使用CTR和CTS工作模式，填充方式必须使用NoPadding。否则会产生NoSuchPaddingException异常!
+ *   <p>GCM工作模式(AES/GCM/NoPadding)使用128位认证标签，加密结果的末尾带有认证标签。
  *
  */
 public class AESUtils {
@@ -68,8 +74,8 @@ public class AESUtils {
 	public static byte[] encrypt(byte[] data, byte[] key, String transformation, byte[] iv){
 		Assert.notNull(iv, "初始化向量不能为空!");
 		Assert.isTrue(iv.length == 16, "初始化向量的数组长度必须为16位!");
-		IvParameterSpec ivParameterSpec = new IvParameterSpec(iv);
-		return EncryptionBase.processData(data, toKey(key), transformation, Cipher.ENCRYPT_MODE, ivParameterSpec);
+		AlgorithmParameterSpec parameterSpec = EncryptionBase.toParameterSpec(transformation, iv);
+		return EncryptionBase.processData(data, toKey(key), transformation, Cipher.ENCRYPT_MODE, parameterSpec);
 	}
 
 	/**
@@ -140,8 +146,8 @@ public class AESUtils {
 	public static byte[] decrypt(byte[] data, byte[] key, String transformation, byte[] iv){
 		Assert.notNull(iv, "初始化向量不能为空!");
 		Assert.isTrue(iv.length == 16, "初始化向量的数组长度必须为16位!");
-		IvParameterSpec ivParameterSpec = new IvParameterSpec(iv);
-		return EncryptionBase.processData(data, toKey(key), transformation, Cipher.DECRYPT_MODE, ivParameterSpec);
+		AlgorithmParameterSpec parameterSpec = EncryptionBase.toParameterSpec(transformation, iv);
+		return EncryptionBase.processData(data, toKey(key), transformation, Cipher.DECRYPT_MODE, parameterSpec);
 	}
 
 	/**
@@ -197,6 +203,119 @@ public class AESUtils {
 		return new String(result, SystemUtils.DEFAULT_CHARSET);
 	}
 
+	/**
+	 * 创建绑定了密钥的加解密对象，密钥只转换一次，适合用同一个密钥重复加解密。
+	 * 使用默认的转换名称:AES/CBC/PKCS5Padding，结果与{@link #encrypt(byte[], byte[])}、{@link #decrypt(byte[], byte[])}相同。
+	 * 
+	 * @param key 字节数组形式的密钥(数组长度必须等于16位)。
+	 * @return
+	 *      加解密对象。
+	 * @throws IllegalArgumentException 如果参数不合法。
+	 */
+	public static SymmetricCipher newCipher(byte[] key){
+		return newCipher(key, DEFAULT_TRANSFORMATION, DEFAULT_IV);
+	}
+
+	/**
+	 * 创建绑定了密钥的加解密对象，密钥只转换一次，适合用同一个密钥重复加解密。
+	 * 
+	 * @param key 字节数组形式的密钥(数组长度必须等于16位)。
+	 * @param transformation 转换名称，例如 AES/CBC/PKCS5Padding。
+	 * @param iv 初始化向量(数组长度必须等于16位)。
+	 * @return
+	 *      加解密对象。
+	 * @throws IllegalArgumentException 如果参数不合法。
+	 */
+	public static SymmetricCipher newCipher(byte[] key, String transformation, byte[] iv){
+		return new SymmetricCipher(toKey(key), transformation, toParameterSpec(transformation, iv));
+	}
+
+	/**
+	 * 对输入流中的数据进行加密处理并写入输出流，数据分块处理，不会全部读入内存。两个流都不会被关闭。
+	 * 
+	 * @param in 输入流。
+	 * @param out 输出流。
+	 * @param key 字节数组形式的密钥(数组长度必须等于16位)。
+	 * @param transformation 转换名称，例如 AES/CBC/PKCS5Padding。
+	 * @param iv 初始化向量(数组长度必须等于16位)。
+	 * @return
+	 *      写入输出流的字节数。
+	 * @throws IOException 如果读写过程中出错。
+	 * @throws IllegalArgumentException 如果参数不合法。
+	 * @throws IllegalStateException 如果在加密过程中发生任何异常。
+	 */
+	public static long encrypt(InputStream in, OutputStream out, byte[] key, String transformation, byte[] iv) throws IOException{
+		return EncryptionBase.processData(in, out, toKey(key), transformation, Cipher.ENCRYPT_MODE, toParameterSpec(transformation, iv));
+	}
+
+	/**
+	 * 对输入通道从当前位置开始的数据进行加密处理并写入输出通道，例如两个FileChannel。通道都不会被关闭。
+	 * 
+	 * @param in 输入通道。
+	 * @param out 输出通道。
+	 * @param key 字节数组形式的密钥(数组长度必须等于16位)。
+	 * @param transformation 转换名称，例如 AES/CBC/PKCS5Padding。
+	 * @param iv 初始化向量(数组长度必须等于16位)。
+	 * @return
+	 *      写入输出通道的字节数。
+	 * @throws IOException 如果读写过程中出错。
+	 * @throws IllegalArgumentException 如果参数不合法。
+	 * @throws IllegalStateException 如果在加密过程中发生任何异常。
+	 */
+	public static long encrypt(ReadableByteChannel in, WritableByteChannel out, byte[] key, String transformation, byte[] iv) throws IOException{
+		return EncryptionBase.processData(in, out, toKey(key), transformation, Cipher.ENCRYPT_MODE, toParameterSpec(transformation, iv));
+	}
+
+	/**
+	 * 对输入流中的数据进行解密处理并写入输出流，数据分块处理，不会全部读入内存。两个流都不会被关闭。
+	 * 
+	 * @param in 输入流。
+	 * @param out 输出流。
+	 * @param key 字节数组形式的密钥(数组长度必须等于16位)。
+	 * @param transformation 转换名称，例如 AES/CBC/PKCS5Padding。
+	 * @param iv 初始化向量(数组长度必须等于16位)。
+	 * @return
+	 *      写入输出流的字节数。
+	 * @throws IOException 如果读写过程中出错。
+	 * @throws IllegalArgumentException 如果参数不合法。
+	 * @throws IllegalStateException 如果在解密过程中发生任何异常。
+	 */
+	public static long decrypt(InputStream in, OutputStream out, byte[] key, String transformation, byte[] iv) throws IOException{
+		return EncryptionBase.processData(in, out, toKey(key), transformation, Cipher.DECRYPT_MODE, toParameterSpec(transformation, iv));
+	}
+
+	/**
+	 * 对输入通道从当前位置开始的数据进行解密处理并写入输出通道，例如两个FileChannel。通道都不会被关闭。
+	 * 
+	 * @param in 输入通道。
+	 * @param out 输出通道。
+	 * @param key 字节数组形式的密钥(数组长度必须等于16位)。
+	 * @param transformation 转换名称，例如 AES/CBC/PKCS5Padding。
+	 * @param iv 初始化向量(数组长度必须等于16位)。
+	 * @return
+	 *      写入输出通道的字节数。
+	 * @throws IOException 如果读写过程中出错。
+	 * @throws IllegalArgumentException 如果参数不合法。
+	 * @throws IllegalStateException 如果在解密过程中发生任何异常。
+	 */
+	public static long decrypt(ReadableByteChannel in, WritableByteChannel out, byte[] key, String transformation, byte[] iv) throws IOException{
+		return EncryptionBase.processData(in, out, toKey(key), transformation, Cipher.DECRYPT_MODE, toParameterSpec(transformation, iv));
+	}
+
+	/**
+	 * 检查初始化向量并转换成参数规范。
+	 * 
+	 * @param transformation 转换名称。
+	 * @param iv 初始化向量(数组长度必须等于16位)。
+	 * @return
+	 *      参数规范。
+	 */
+	private static AlgorithmParameterSpec toParameterSpec(String transformation, byte[] iv){
+		Assert.notNull(iv, "初始化向量不能为空!");
+		Assert.isTrue(iv.length == 16, "初始化向量的数组长度必须为16位!");
+		return EncryptionBase.toParameterSpec(transformation, iv);
+	}
+
 	/**
 	 * 将字节数组形式的密钥转换成密钥对象。
 	 * 
@@ -37,6 +37,33 @@ public class Base16Encoder extends BaseEncoder{
 		super();
 	}
 
+	/**
+	 * 对数据进行编码，按行直接写入字节列表的缓冲区。
+	 */
+	@Override
+	void encode(byte[] data, ByteList byteList) {
+		int dataLen = data.length;
+		int byteLineLength = getByteLineLength();
+		int count = byteList.getByteCount();
+		byteList.ensureCapacity(count + encodedLength(dataLen));
+		byte[] buffer = byteList.getBuffer();
+		byte[] table = eTable;
+		for(int i = 0; i < dataLen;){
+			int end = Math.min(i + byteLineLength, dataLen);
+			for(; i < end; i++){
+				byte b = data[i];
+				buffer[count++] = table[(b >>> 4) & 0x0f];
+				buffer[count++] = table[b & 0x0f];
+			}
+			//写入换行符。
+			if(i % byteLineLength == 0){
+				System.arraycopy(LS_BYTES, 0, buffer, count, LS_BYTES.length);
+				count += LS_BYTES.length;
+			}
+		}
+		byteList.setByteCount(count);
+	}
+
 	@Override
 	protected void encodeUnit(byte[] data, int offset, ByteList byteList) {
 		byte b = data[offset];
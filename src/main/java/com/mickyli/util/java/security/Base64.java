@@ -2,6 +2,7 @@ package com.mickyli.util.java.security;
 
 
 import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
 import java.util.Arrays;
 
 import com.mickyli.util.java.project.CharsetUtil;
@@ -12,6 +13,8 @@ import com.mickyli.util.java.project.CharsetUtil;
 public class Base64 {
     private static final char[] CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
     private static final int[]  INV   = new int[256];
+    private static final Charset ISO_8859_1 = Charset.forName("ISO-8859-1");
+    private static final byte[] CRLF  = {'\r', '\n'};
 
     static {
         Arrays.fill(INV, -1);
@@ -94,36 +97,9 @@ public class Base64 {
         if (len == 0) {
             return new byte[0];
         }
-
-        int    evenlen = (len / 3) * 3;
-        int    cnt     = ((len - 1) / 3 + 1) << 2;
-        int    destlen = cnt + (lineSep ? (cnt - 1) / 76 << 1 : 0);
-        byte[] dest    = new byte[destlen];
-
-        for (int s = 0, d = 0, cc = 0; s < evenlen; ) {
-            int i = (arr[s++] & 0xff) << 16 | (arr[s++] & 0xff) << 8 | (arr[s++] & 0xff);
-
-            dest[d++] = (byte) CHARS[(i >>> 18) & 0x3f];
-            dest[d++] = (byte) CHARS[(i >>> 12) & 0x3f];
-            dest[d++] = (byte) CHARS[(i >>> 6) & 0x3f];
-            dest[d++] = (byte) CHARS[i & 0x3f];
-
-            if (lineSep && ++cc == 19 && d < destlen - 2) {
-                dest[d++] = '\r';
-                dest[d++] = '\n';
-                cc = 0;
-            }
-        }
-
-        int left = len - evenlen;
-        if (left > 0) {
-            int i = ((arr[evenlen] & 0xff) << 10) | (left == 2 ? ((arr[len - 1] & 0xff) << 2) : 0);
-
-            dest[destlen - 4] = (byte) CHARS[i >> 12];
-            dest[destlen - 3] = (byte) CHARS[(i >>> 6) & 0x3f];
-            dest[destlen - 2] = left == 2 ? (byte) CHARS[i & 0x3f] : (byte) '=';
-            dest[destlen - 1] = '=';
-        }
+        int    lineUnits = lineSep ? 19 : 0;
+        byte[] dest      = new byte[Base64Codec.encodedLength(len, true, lineUnits, CRLF.length, false)];
+        Base64Codec.encode(arr, 0, len, dest, 0, Base64Codec.STANDARD_ENCODE_TABLE, true, (byte) '=', lineUnits, CRLF, false);
         return dest;
     }
 
@@ -180,7 +156,7 @@ public class Base64 {
 
     public static String encodeToString(String s) {
         try {
-            return new String(encodeToChar(s.getBytes(CharsetUtil.UTF_8), false));
+            return encodeToString(s.getBytes(CharsetUtil.UTF_8), false);
         } catch (UnsupportedEncodingException ignore) {
             return null;
         }
@@ -188,21 +164,21 @@ public class Base64 {
 
     public static String encodeToString(String s, boolean lineSep) {
         try {
-            return new String(encodeToChar(s.getBytes(CharsetUtil.UTF_8), lineSep));
+            return encodeToString(s.getBytes(CharsetUtil.UTF_8), lineSep);
         } catch (UnsupportedEncodingException ignore) {
             return null;
         }
     }
 
     public static String encodeToString(byte[] arr) {
-        return new String(encodeToChar(arr, false));
+        return encodeToString(arr, false);
     }
 
     /**
      * Encodes a raw byte array into a BASE64 <code>String</code>.
      */
     public static String encodeToString(byte[] arr, boolean lineSep) {
-        return new String(encodeToChar(arr, lineSep));
+        return new String(encodeToByte(arr, lineSep), ISO_8859_1);
     }
 
     public static String decodeToString(String s) {
@@ -0,0 +1,128 @@
+package com.mickyli.util.java.security;
+
+/**
+ *   <B>说       明</B>:Base64批量编码。
+ *   <p>先计算编码后的长度，再按行把整块数据编码到预先分配好的数组中，不再逐个字节单元回调。
+ *   <p>供{@link Base64Encoder}(以及{@link Base64Utils}、{@link Base64UFSUtils})和{@link Base64}共用，
+ *   换行和填充方式由参数决定，分别与原来的逐单元编码结果一致。
+ *
+ */
+final class Base64Codec {
+
+	/**
+	 * 标准Base64编码字符表，参考RFC 4648。
+	 */
+	static final byte[] STANDARD_ENCODE_TABLE = {
+		'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H', 'I', 'J', 'K', 'L', 'M',
+		'N', 'O', 'P', 'Q', 'R', 'S', 'T', 'U', 'V', 'W', 'X', 'Y', 'Z',
+		'a', 'b', 'c', 'd', 'e', 'f', 'g', 'h', 'i', 'j', 'k', 'l', 'm',
+		'n', 'o', 'p', 'q', 'r', 's', 't', 'u', 'v', 'w', 'x', 'y', 'z',
+		'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', '+', '/'
+	};
+
+	/**
+	 * 应用于URL和FileName的编码字符表，参考RFC 4648。
+	 */
+	static final byte[] URL_AND_FILENAME_SAFE_ENCODE_TABLE = {
+		'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H', 'I', 'J', 'K', 'L', 'M',
+		'N', 'O', 'P', 'Q', 'R', 'S', 'T', 'U', 'V', 'W', 'X', 'Y', 'Z',
+		'a', 'b', 'c', 'd', 'e', 'f', 'g', 'h', 'i', 'j', 'k', 'l', 'm',
+		'n', 'o', 'p', 'q', 'r', 's', 't', 'u', 'v', 'w', 'x', 'y', 'z',
+		'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', '-', '_'
+	};
+
+	private Base64Codec() {
+	}
+
+	/**
+	 * 计算编码后的长度。
+	 *
+	 * @param length 待编码数据的长度。
+	 * @param needPad 不完整的字节单元是否填充到4个字符。
+	 * @param lineUnits 每行的字节单元数，0表示不换行。
+	 * @param separatorLength 换行符的长度。
+	 * @param trailingSeparator 数据正好结束在行尾时是否写入换行符。
+	 * @return
+	 *      编码后的长度。
+	 */
+	static int encodedLength(int length, boolean needPad, int lineUnits, int separatorLength,
+			boolean trailingSeparator){
+		int units = length / 3;
+		int left = length - units * 3;
+		int result = units * 4;
+		if(left > 0){
+			result += needPad ? 4 : left + 1;
+		}
+		if(lineUnits > 0){
+			int lines = trailingSeparator ? units / lineUnits : (units + (left > 0 ? 1 : 0) - 1) / lineUnits;
+			result += lines * separatorLength;
+		}
+		return result;
+	}
+
+	/**
+	 * 编码数据。换行以offset为起点计算，dest的剩余空间必须不小于
+	 * {@link #encodedLength(int, boolean, int, int, boolean)}的结果。
+	 *
+	 * @param data 待编码的数据。
+	 * @param offset 偏移量。
+	 * @param length 长度。
+	 * @param dest 存放编码结果的数组。
+	 * @param destOffset dest的偏移量。
+	 * @param table 编码字符表。
+	 * @param needPad 不完整的字节单元是否填充。
+	 * @param pad 填充字符。
+	 * @param lineUnits 每行的字节单元数，0表示不换行。
+	 * @param separator 换行符。
+	 * @param trailingSeparator 数据正好结束在行尾时是否写入换行符。
+	 * @return
+	 *      编码结果在dest中的结束位置。
+	 */
+	static int encode(byte[] data, int offset, int length, byte[] dest, int destOffset, byte[] table,
+			boolean needPad, byte pad, int lineUnits, byte[] separator, boolean trailingSeparator){
+		int end = offset + length;
+		int fullEnd = offset + length / 3 * 3;
+		int lineBytes = lineUnits > 0 ? lineUnits * 3 : Integer.MAX_VALUE;
+		int sp = offset;
+		int dp = destOffset;
+		while(sp < fullEnd){
+			int lineEnd = fullEnd - sp > lineBytes ? sp + lineBytes : fullEnd;
+			for(; sp < lineEnd; sp += 3){
+				int bits = (data[sp] & 0xff) << 16 | (data[sp + 1] & 0xff) << 8 | (data[sp + 2] & 0xff);
+				dest[dp] = table[(bits >>> 18) & 0x3f];
+				dest[dp + 1] = table[(bits >>> 12) & 0x3f];
+				dest[dp + 2] = table[(bits >>> 6) & 0x3f];
+				dest[dp + 3] = table[bits & 0x3f];
+				dp += 4;
+			}
+			//写满一行后写入换行符。
+			if(lineUnits > 0
+					&& (sp - offset) % lineBytes == 0
+					&& (trailingSeparator || sp < end)){
+				System.arraycopy(separator, 0, dest, dp, separator.length);
+				dp += separator.length;
+			}
+		}
+		int left = end - fullEnd;
+		if(left == 1){
+			int f = data[sp] & 0xff;
+			dest[dp++] = table[f >>> 2];
+			dest[dp++] = table[(f << 4) & 0x30];
+			if(needPad){
+				dest[dp++] = pad;
+				dest[dp++] = pad;
+			}
+		}else if(left == 2){
+			int f = data[sp] & 0xff;
+			int s = data[sp + 1] & 0xff;
+			dest[dp++] = table[f >>> 2];
+			dest[dp++] = table[((f << 4) & 0x30) | (s >>> 4)];
+			dest[dp++] = table[(s << 2) & 0x3c];
+			if(needPad){
+				dest[dp++] = pad;
+			}
+		}
+		return dp;
+	}
+
+}
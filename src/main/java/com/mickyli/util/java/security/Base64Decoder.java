@@ -41,6 +41,50 @@ public class Base64Decoder extends BaseDecoder{
 	 */
 	private int decodedUnitLength = 3;
 
+	/**
+	 * 对数据进行解码，完整且有效的字节单元直接写入字节列表的缓冲区，
+	 * 含有填充字符或无效字符的字节单元仍交给{@link #decodeUnit(byte[], int, ByteList)}处理。
+	 */
+	@Override
+	void decode(byte[] data, ByteList byteList) {
+		int dataLen = data.length;
+		int decodeLineLimit = getDecodeLineLimit();
+		byte[] table = dTable;
+		byteList.ensureCapacity(byteList.getByteCount() + maxDecodedLength(dataLen));
+		for(int i = 0; i < dataLen; i += decodeUnitLength){
+			int count = byteList.getByteCount();
+			int bits = -1;
+			if(i + decodeUnitLength <= dataLen){
+				byte d3 = data[i + 2];
+				byte d4 = data[i + 3];
+				if(d3 != pad && d4 != pad){
+					bits = value(table, data[i]) << 18 | value(table, data[i + 1]) << 12
+							| value(table, d3) << 6 | value(table, d4);
+				}
+			}
+			if(bits >= 0){
+				byte[] buffer = byteList.getBuffer();
+				buffer[count] = (byte)(bits >> 16);
+				buffer[count + 1] = (byte)(bits >> 8);
+				buffer[count + 2] = (byte)bits;
+				byteList.setByteCount(count += decodedUnitLength);
+			}else{
+				decodeUnit(data, i, byteList);
+				count = byteList.getByteCount();
+			}
+			if(count > 0 && count % decodeLineLimit == 0){
+				i += LS_BYTES_LENGTH;
+			}
+		}
+	}
+	
+	/**
+	 * 获取字符在解码表中的值，不在解码表中返回-1。
+	 */
+	private static int value(byte[] table, byte data) {
+		return data >= 0 && data < table.length ? table[data] : -1;
+	}
+	
 	@Override
 	protected void decodeUnit(byte[] data, int offset, ByteList byteList) {
 		int diff = (offset + decodeUnitLength) - data.length;
@@ -13,28 +13,6 @@ package com.mickyli.util.java.security;
  */
 public class Base64Encoder extends BaseEncoder{
 	
-	/**
-	 * 标准Base64编码字符表，参考RFC 4648。
-	 */
-	private static final byte[] STANDARD_ENCODE_TABLE = {
-		'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H', 'I', 'J', 'K', 'L', 'M',
-        'N', 'O', 'P', 'Q', 'R', 'S', 'T', 'U', 'V', 'W', 'X', 'Y', 'Z',
-        'a', 'b', 'c', 'd', 'e', 'f', 'g', 'h', 'i', 'j', 'k', 'l', 'm',
-        'n', 'o', 'p', 'q', 'r', 's', 't', 'u', 'v', 'w', 'x', 'y', 'z',
-        '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', '+', '/'
-	};
-	
-	/**
-	 * 应用于URL和FileName的编码字符表，参考RFC 4648。
-	 */
-	private static final byte[] URL_AND_FILENAME_SAFE_ENCODE_TABLE = {
-		'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H', 'I', 'J', 'K', 'L', 'M',
-        'N', 'O', 'P', 'Q', 'R', 'S', 'T', 'U', 'V', 'W', 'X', 'Y', 'Z',
-        'a', 'b', 'c', 'd', 'e', 'f', 'g', 'h', 'i', 'j', 'k', 'l', 'm',
-        'n', 'o', 'p', 'q', 'r', 's', 't', 'u', 'v', 'w', 'x', 'y', 'z',
-        '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', '-', '_'
-	};
-	
 	/**
 	 * 以3个字节为编码字节单元。
 	 */
@@ -64,15 +42,52 @@ public class Base64Encoder extends BaseEncoder{
 	 */
 	public Base64Encoder(boolean isUrlAndFileNameSafe) {
 		if(isUrlAndFileNameSafe){
-			this.eTable = URL_AND_FILENAME_SAFE_ENCODE_TABLE;
+			this.eTable = Base64Codec.URL_AND_FILENAME_SAFE_ENCODE_TABLE;
 			this.needPad = false;
 		}else{
-			this.eTable = STANDARD_ENCODE_TABLE;
+			this.eTable = Base64Codec.STANDARD_ENCODE_TABLE;
 			this.needPad = true;
 		}
 		
 	}
 	
+	/**
+	 * 对数据进行编码，按块批量编码到预先分配好长度的数组中。
+	 * 
+	 * @param data 待编码的数据。
+	 * @return
+	 *      编码后的数据。
+	 * @throws IllegalArgumentException 如果data为null。 
+	 */
+	@Override
+	public byte[] encode(byte[] data){
+		Assert.notNull(data, "要进行编码的数据不能为null!");
+		if(data.length == 0){
+			return EMPTY_BYTES;
+		}
+		byte[] dest = new byte[encodedLength(data.length)];
+		encode(data, dest, 0);
+		return dest;
+	}
+	
+	@Override
+	void encode(byte[] data, ByteList byteList) {
+		int count = byteList.getByteCount();
+		byteList.ensureCapacity(count + encodedLength(data.length));
+		byteList.setByteCount(encode(data, byteList.getBuffer(), count));
+	}
+	
+	@Override
+	int encodedLength(int length) {
+		return Base64Codec.encodedLength(length, needPad, getByteLineLength() / encodeUnitLength,
+				LS_BYTES.length, true);
+	}
+	
+	private int encode(byte[] data, byte[] dest, int destOffset) {
+		return Base64Codec.encode(data, 0, data.length, dest, destOffset, eTable, needPad, pad,
+				getByteLineLength() / encodeUnitLength, LS_BYTES, true);
+	}
+	
 	@Override
 	protected void encodeUnit(byte[] data, int offset, ByteList byteList) {
 		int dataLength = data.length;
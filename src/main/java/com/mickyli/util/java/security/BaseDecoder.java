@@ -2,6 +2,11 @@ package com.mickyli.util.java.security;
 
 import static com.mickyli.util.java.security.SystemUtils.LINESEPARATOR;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
 
 /** 
  *   <B>说       明</B>:Base解码基类。
@@ -12,7 +17,7 @@ abstract class BaseDecoder implements BaseCoder{
 	/**
 	 * 换行符的字节个数。
 	 */
-	private final static int LS_BYTES_LENGTH = LINESEPARATOR.getBytes().length;
+	final static int LS_BYTES_LENGTH = LINESEPARATOR.getBytes().length;
 	
 	/**
 	 * 填充字符。
@@ -33,10 +38,28 @@ abstract class BaseDecoder implements BaseCoder{
 		if(dataLen == 0){
 			return EMPTY_BYTES;
 		}
+		//借用线程缓存的缓冲区，解码后只复制一次。
+		final ByteList byteList = ByteList.pooled(maxDecodedLength(dataLen));
+		try{
+			decode(data, byteList);
+			return byteList.getBytes();
+		}finally{
+			byteList.release();
+		}
+	}
+	
+	/**
+	 * 对数据进行解码，解码后的字节追加到字节列表中。
+	 * <p>换行符按byteList中的字节数跳过，分块解码时传入空的字节列表，
+	 * 且每块的长度必须是{@link #getCharLineLength()}的整数倍(最后一块除外)。
+	 * 
+	 * @param data 待解码的数据。
+	 * @param byteList 字节列表。(存放解码后的字节)
+	 */
+	void decode(byte[] data, ByteList byteList){
 		int decodeUnitLength = getDecodeUnitLength();
-		//创建一个字节列表。
-		final ByteList byteList = new ByteList(dataLen);
-		int decodeLineLimit = DEFAULT_CHAR_LINE_LIMIT / getDecodeUnitLength() * getDecodedUnitLength();
+		int decodeLineLimit = getDecodeLineLimit();
+		byteList.ensureCapacity(byteList.getByteCount() + maxDecodedLength(data.length));
 		for(int i = 0; i < data.length; i += decodeUnitLength){
 			decodeUnit(data, i, byteList);
 			if(byteList.getByteCount() > 0 
@@ -44,7 +67,79 @@ abstract class BaseDecoder implements BaseCoder{
 				i += LS_BYTES_LENGTH;
 			}
 		}
-		return byteList.getBytes();
+	}
+	
+	/**
+	 * 计算解码后的最大长度。
+	 * 
+	 * @param length 编码数据长度。
+	 * @return
+	 *      解码后的最大长度。
+	 */
+	int maxDecodedLength(int length){
+		return length / getDecodeUnitLength() * getDecodedUnitLength() + getDecodedUnitLength();
+	}
+	
+	/**
+	 * 获取每行解码后的长度(字节)。
+	 * 
+	 * @return
+	 *      每行解码后的长度。
+	 */
+	int getDecodeLineLimit(){
+		return DEFAULT_CHAR_LINE_LIMIT / getDecodeUnitLength() * getDecodedUnitLength();
+	}
+	
+	/**
+	 * 获取编码数据每行的长度(字节)，包括换行符。
+	 * 
+	 * @return
+	 *      每行的长度。
+	 */
+	int getCharLineLength(){
+		return DEFAULT_CHAR_LINE_LIMIT / getDecodeUnitLength() * getDecodeUnitLength() + LS_BYTES_LENGTH;
+	}
+	
+	/**
+	 * 包装输入流，从返回的流中读取到的是in中数据解码后的结果。
+	 * <p>数据按固定大小的块解码，占用的内存与数据总长度无关，结果与{@link #decode(byte[])}相同。
+	 * 
+	 * @param in 编码数据的输入流。
+	 * @return
+	 *      解码输入流。
+	 * @throws IllegalArgumentException 如果in为null。
+	 */
+	public BaseDecoderInputStream wrap(InputStream in){
+		Assert.notNull(in, "输入流不能为null!");
+		return new BaseDecoderInputStream(this, in);
+	}
+	
+	/**
+	 * 包装输出流，写入的编码数据解码后写到out。
+	 * <p>关闭返回的流时才写出最后不完整的块，并关闭out。
+	 * 
+	 * @param out 解码后数据的输出流。
+	 * @return
+	 *      解码输出流。
+	 * @throws IllegalArgumentException 如果out为null。
+	 */
+	public BaseDecoderOutputStream wrap(OutputStream out){
+		Assert.notNull(out, "输出流不能为null!");
+		return new BaseDecoderOutputStream(this, out);
+	}
+	
+	/**
+	 * 包装通道，写入的编码数据解码后写到channel。
+	 * <p>关闭返回的通道时才写出最后不完整的块，并关闭channel。
+	 * 
+	 * @param channel 解码后数据的输出通道。
+	 * @return
+	 *      解码通道。
+	 * @throws IllegalArgumentException 如果channel为null。
+	 */
+	public WritableByteChannel wrap(WritableByteChannel channel){
+		Assert.notNull(channel, "输出通道不能为null!");
+		return Channels.newChannel(wrap(Channels.newOutputStream(channel)));
 	}
 	
 	/**
@@ -0,0 +1,132 @@
+package com.mickyli.util.java.security;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/** 
+ *   <B>说       明</B>:Base解码输入流。
+ *   <p>从底层输入流按整行读取固定大小的块解码，读取到的数据与{@link BaseDecoder#decode(byte[])}的结果相同。
+ *
+ */
+public class BaseDecoderInputStream extends FilterInputStream {
+
+	/**
+	 * 每块包含的行数。
+	 */
+	private static final int BLOCK_LINES = 128;
+
+	private final BaseDecoder decoder;
+
+	/**
+	 * 从底层输入流读取的数据块，长度是整行(包括换行符)的倍数。
+	 */
+	private final byte[] block;
+
+	/**
+	 * 解码后的字节。
+	 */
+	private final ByteList byteList;
+
+	/**
+	 * 下一个要返回的字节在byteList中的位置。
+	 */
+	private int position;
+
+	private boolean eof;
+
+	BaseDecoderInputStream(BaseDecoder decoder, InputStream in) {
+		super(in);
+		this.decoder = decoder;
+		this.block = new byte[decoder.getCharLineLength() * BLOCK_LINES];
+		this.byteList = new ByteList(block.length);
+	}
+
+	@Override
+	public int read() throws IOException {
+		if(!fill()){
+			return -1;
+		}
+		return byteList.get(position++) & 0xff;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if((off | len | (off + len) | (b.length - (off + len))) < 0){
+			throw new IndexOutOfBoundsException();
+		}
+		if(len == 0){
+			return 0;
+		}
+		if(!fill()){
+			return -1;
+		}
+		int n = Math.min(len, byteList.getByteCount() - position);
+		byteList.copyTo(position, b, off, n);
+		position += n;
+		return n;
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		long skipped = 0;
+		while(skipped < n && fill()){
+			int k = (int) Math.min(n - skipped, byteList.getByteCount() - position);
+			position += k;
+			skipped += k;
+		}
+		return skipped;
+	}
+
+	@Override
+	public int available() throws IOException {
+		return byteList.getByteCount() - position;
+	}
+
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+
+	@Override
+	public synchronized void mark(int readlimit) {
+	}
+
+	@Override
+	public synchronized void reset() throws IOException {
+		throw new IOException("不支持mark/reset!");
+	}
+
+	/**
+	 * 解码后的字节已经读完时，读取并解码下一块。
+	 * 
+	 * @return
+	 *      还有数据返回true，已经读到末尾返回false。
+	 */
+	private boolean fill() throws IOException {
+		while(position == byteList.getByteCount()){
+			if(eof){
+				return false;
+			}
+			int count = 0;
+			while(count < block.length){
+				int n = in.read(block, count, block.length - count);
+				if(n < 0){
+					eof = true;
+					break;
+				}
+				count += n;
+			}
+			byteList.reset();
+			position = 0;
+			if(count == block.length){
+				decoder.decode(block, byteList);
+			}else if(count > 0){
+				decoder.decode(Arrays.copyOf(block, count), byteList);
+			}
+		}
+		return true;
+	}
+
+}
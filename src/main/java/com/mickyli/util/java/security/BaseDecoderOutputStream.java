@@ -0,0 +1,112 @@
+package com.mickyli.util.java.security;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/** 
+ *   <B>说       明</B>:Base解码输出流。
+ *   <p>写入的编码数据按整行组成固定大小的块解码后写到底层输出流，解码结果与{@link BaseDecoder#decode(byte[])}相同。
+ *   <p>最后不完整的块在{@link #finish()}或{@link #close()}时才解码，此后不能再写入数据。
+ *
+ */
+public class BaseDecoderOutputStream extends FilterOutputStream {
+
+	/**
+	 * 每块包含的行数。
+	 */
+	private static final int BLOCK_LINES = 128;
+
+	private final BaseDecoder decoder;
+
+	/**
+	 * 待解码的数据块，长度是整行(包括换行符)的倍数。
+	 */
+	private final byte[] block;
+
+	/**
+	 * 块中已有的字节数。
+	 */
+	private int count;
+
+	/**
+	 * 解码后的字节。
+	 */
+	private final ByteList byteList;
+
+	private boolean finished;
+
+	BaseDecoderOutputStream(BaseDecoder decoder, OutputStream out) {
+		super(out);
+		this.decoder = decoder;
+		this.block = new byte[decoder.getCharLineLength() * BLOCK_LINES];
+		this.byteList = new ByteList(block.length);
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		ensureOpen();
+		block[count++] = (byte) b;
+		if(count == block.length){
+			decodeBlock(block);
+		}
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		ensureOpen();
+		if((off | len | (off + len) | (b.length - (off + len))) < 0){
+			throw new IndexOutOfBoundsException();
+		}
+		while(len > 0){
+			int n = Math.min(len, block.length - count);
+			System.arraycopy(b, off, block, count, n);
+			count += n;
+			off += n;
+			len -= n;
+			if(count == block.length){
+				decodeBlock(block);
+			}
+		}
+	}
+
+	/**
+	 * 解码并写出最后不完整的块，不关闭底层输出流。
+	 * 
+	 * @throws IOException 写入出错。
+	 */
+	public void finish() throws IOException {
+		if(finished){
+			return;
+		}
+		finished = true;
+		if(count > 0){
+			decodeBlock(Arrays.copyOf(block, count));
+		}
+		out.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		try{
+			finish();
+		}finally{
+			out.close();
+		}
+	}
+
+	private void decodeBlock(byte[] data) throws IOException {
+		byteList.reset();
+		decoder.decode(data, byteList);
+		byteList.writeTo(out);
+		count = 0;
+	}
+
+	private void ensureOpen() throws IOException {
+		if(finished){
+			throw new IOException("解码输出流已经结束!");
+		}
+	}
+
+}
@@ -2,6 +2,10 @@ package com.mickyli.util.java.security;
 
 import static com.mickyli.util.java.security.SystemUtils.LINESEPARATOR;
 
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
 /** 
  *   <B>说       明</B>:Base编码基类。
  */
@@ -10,7 +14,7 @@ abstract class BaseEncoder implements BaseCoder{
 	/**
 	 * 换行符(字节)。
 	 */
-	private static final byte[] LS_BYTES = LINESEPARATOR.getBytes();
+	static final byte[] LS_BYTES = LINESEPARATOR.getBytes();
 	
 	/**
 	 * 填充字符。
@@ -31,10 +35,28 @@ abstract class BaseEncoder implements BaseCoder{
 		if(dataLen == 0){
 			return EMPTY_BYTES;
 		}
+		//借用线程缓存的缓冲区，编码后只复制一次。
+		final ByteList byteList = ByteList.pooled(encodedLength(dataLen));
+		try{
+			encode(data, byteList);
+			return byteList.getBytes();
+		}finally{
+			byteList.release();
+		}
+	}
+	
+	/**
+	 * 对数据进行编码，编码后的字节追加到字节列表中。
+	 * <p>换行符按data内的位置计算，分块编码时每块的长度必须是{@link #getByteLineLength()}的整数倍(最后一块除外)。
+	 * 
+	 * @param data 待编码的数据。
+	 * @param byteList 字节列表。(存放编码后的字节)
+	 */
+	void encode(byte[] data, ByteList byteList){
+		int dataLen = data.length;
 		int encodeUnitLength = getEncodeUnitLength();
-		int byteLineLength = DEFAULT_CHAR_LINE_LIMIT / getEncodedUnitLength() * getEncodeUnitLength();
-		//创建一个字节列表。
-		final ByteList byteList = new ByteList(dataLen);
+		int byteLineLength = getByteLineLength();
+		byteList.ensureCapacity(byteList.getByteCount() + encodedLength(dataLen));
 		for(int i = 0; i < dataLen;){
 			encodeUnit(data, i, byteList);
 			i += encodeUnitLength;
@@ -42,12 +64,61 @@ abstract class BaseEncoder implements BaseCoder{
 			if(i > 0 
 				&& i <= dataLen 
 				&& i % byteLineLength == 0){
-				for(int j = 0; j < LS_BYTES.length; j++){
-					byteList.add(LS_BYTES[j]);
-				}
+				byteList.add(LS_BYTES);
 			}
 		}
-		return byteList.getBytes();
+	}
+	
+	/**
+	 * 计算编码后的长度，包括换行符和填充字符。
+	 * 
+	 * @param length 原始数据长度。
+	 * @return
+	 *      编码后的长度。
+	 */
+	int encodedLength(int length){
+		int encodeUnitLength = getEncodeUnitLength();
+		int units = (length + encodeUnitLength - 1) / encodeUnitLength;
+		return units * getEncodedUnitLength() + length / getByteLineLength() * LS_BYTES.length;
+	}
+	
+	/**
+	 * 获取每行对应的原始数据长度(字节)。
+	 * 
+	 * @return
+	 *      每行对应的原始数据长度。
+	 */
+	int getByteLineLength(){
+		return DEFAULT_CHAR_LINE_LIMIT / getEncodedUnitLength() * getEncodeUnitLength();
+	}
+	
+	/**
+	 * 包装输出流，写入的数据编码后写到out。
+	 * <p>数据按固定大小的块编码，占用的内存与数据总长度无关，结果与{@link #encode(byte[])}相同。
+	 * 关闭返回的流时才写出最后不完整的块(包括填充字符)，并关闭out。
+	 * 
+	 * @param out 编码后数据的输出流。
+	 * @return
+	 *      编码输出流。
+	 * @throws IllegalArgumentException 如果out为null。
+	 */
+	public BaseEncoderOutputStream wrap(OutputStream out){
+		Assert.notNull(out, "输出流不能为null!");
+		return new BaseEncoderOutputStream(this, out);
+	}
+	
+	/**
+	 * 包装通道，写入的数据编码后写到channel。
+	 * <p>关闭返回的通道时才写出最后不完整的块，并关闭channel。
+	 * 
+	 * @param channel 编码后数据的输出通道。
+	 * @return
+	 *      编码通道。
+	 * @throws IllegalArgumentException 如果channel为null。
+	 */
+	public WritableByteChannel wrap(WritableByteChannel channel){
+		Assert.notNull(channel, "输出通道不能为null!");
+		return Channels.newChannel(wrap(Channels.newOutputStream(channel)));
 	}
 
 	/**
@@ -0,0 +1,112 @@
+package com.mickyli.util.java.security;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/** 
+ *   <B>说       明</B>:Base编码输出流。
+ *   <p>写入的数据按整行组成固定大小的块编码后写到底层输出流，编码结果与{@link BaseEncoder#encode(byte[])}相同。
+ *   <p>最后不完整的块在{@link #finish()}或{@link #close()}时才编码，此后不能再写入数据。
+ *
+ */
+public class BaseEncoderOutputStream extends FilterOutputStream {
+
+	/**
+	 * 每块包含的行数。
+	 */
+	private static final int BLOCK_LINES = 128;
+
+	private final BaseEncoder encoder;
+
+	/**
+	 * 待编码的数据块，长度是整行的倍数。
+	 */
+	private final byte[] block;
+
+	/**
+	 * 块中已有的字节数。
+	 */
+	private int count;
+
+	/**
+	 * 编码后的字节。
+	 */
+	private final ByteList byteList;
+
+	private boolean finished;
+
+	BaseEncoderOutputStream(BaseEncoder encoder, OutputStream out) {
+		super(out);
+		this.encoder = encoder;
+		this.block = new byte[encoder.getByteLineLength() * BLOCK_LINES];
+		this.byteList = new ByteList(block.length / 3 * 8 + BLOCK_LINES * 2);
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		ensureOpen();
+		block[count++] = (byte) b;
+		if(count == block.length){
+			encodeBlock(block);
+		}
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		ensureOpen();
+		if((off | len | (off + len) | (b.length - (off + len))) < 0){
+			throw new IndexOutOfBoundsException();
+		}
+		while(len > 0){
+			int n = Math.min(len, block.length - count);
+			System.arraycopy(b, off, block, count, n);
+			count += n;
+			off += n;
+			len -= n;
+			if(count == block.length){
+				encodeBlock(block);
+			}
+		}
+	}
+
+	/**
+	 * 编码并写出最后不完整的块，不关闭底层输出流。
+	 * 
+	 * @throws IOException 写入出错。
+	 */
+	public void finish() throws IOException {
+		if(finished){
+			return;
+		}
+		finished = true;
+		if(count > 0){
+			encodeBlock(Arrays.copyOf(block, count));
+		}
+		out.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		try{
+			finish();
+		}finally{
+			out.close();
+		}
+	}
+
+	private void encodeBlock(byte[] data) throws IOException {
+		byteList.reset();
+		encoder.encode(data, byteList);
+		byteList.writeTo(out);
+		count = 0;
+	}
+
+	private void ensureOpen() throws IOException {
+		if(finished){
+			throw new IOException("编码输出流已经结束!");
+		}
+	}
+
+}
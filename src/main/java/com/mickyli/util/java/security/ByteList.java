@@ -1,14 +1,32 @@
 package com.mickyli.util.java.security;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /** 
  *   <B>说       明</B>:字节列表。
- *   <p>可变长度的字节数组，只提供添加字节和获取字节数组的功能，供Base编码解码相关类使用。
+ *   <p>可变长度的字节数组，支持逐个和批量添加字节，供Base编码解码相关类使用。
+ *   <p>编码解码流重复使用同一个字节列表，通过{@link #reset()}清空。
+ *   <p>{@link #pooled(int)}借用当前线程缓存的缓冲区，用完后通过{@link #release()}归还，
+ *   一次性编码解码时不必每次都分配与数据等长的缓冲区。
  *
  */
 class ByteList {
 
+	/**
+	 * 可以归还给线程缓存的最大缓冲区长度，更大的缓冲区直接丢弃。
+	 */
+	static final int MAX_POOLED_SIZE = 1024 * 1024;
+
+	/**
+	 * 每个线程缓存的缓冲区。
+	 */
+	private static final ThreadLocal<byte[]> POOL = new ThreadLocal<byte[]>();
+
+	private static final byte[] EMPTY = new byte[0];
+
 	/**
 	 * 字节缓冲区。
 	 */
@@ -19,6 +37,11 @@ class ByteList {
 	 */
 	private int count = 0;
 
+	/**
+	 * 缓冲区是否借自线程缓存。
+	 */
+	private boolean pooled;
+
 	public ByteList() {
 		this(32);
 	}
@@ -30,6 +53,48 @@ class ByteList {
 		this.buffer = new byte[size];
 	}
 
+	private ByteList(byte[] buffer){
+		this.buffer = buffer;
+		this.pooled = true;
+	}
+
+	/**
+	 * 创建使用当前线程缓存的缓冲区的字节列表，缓冲区不够大时重新分配。
+	 * <p>用完后必须调用{@link #release()}，并且之后不能再使用该字节列表。
+	 * 
+	 * @param size 初始容量。
+	 * @return
+	 *      字节列表。
+	 */
+	static ByteList pooled(int size){
+		if(size < 0){
+			throw new IllegalArgumentException("ByteList的长度不能为负数!");
+		}
+		byte[] buffer = POOL.get();
+		if(buffer == null || buffer.length < size){
+			buffer = new byte[size];
+		}else{
+			//借出期间从缓存中移除，嵌套使用时不会共享同一个缓冲区。
+			POOL.remove();
+		}
+		return new ByteList(buffer);
+	}
+
+	/**
+	 * 把缓冲区归还给当前线程的缓存，只对{@link #pooled(int)}创建的字节列表有效。
+	 */
+	void release(){
+		if(pooled && buffer.length <= MAX_POOLED_SIZE){
+			byte[] cached = POOL.get();
+			if(cached == null || cached.length < buffer.length){
+				POOL.set(buffer);
+			}
+		}
+		pooled = false;
+		buffer = EMPTY;
+		count = 0;
+	}
+
 	/**
 	 * 添加一个字节到字节列表。
 	 * 
@@ -45,6 +110,65 @@ class ByteList {
 		count = newCount;
 	}
 
+	/**
+	 * 添加字节数组中的一段到字节列表。
+	 * 
+	 * @param b 字节数组。
+	 * @param offset 偏移量。
+	 * @param length 长度。
+	 */
+	public void add(byte[] b, int offset, int length){
+		if((offset | length | (offset + length) | (b.length - (offset + length))) < 0){
+			throw new IndexOutOfBoundsException();
+		}
+		int newCount = count + length;
+		ensureCapacity(newCount);
+		System.arraycopy(b, offset, buffer, count, length);
+		count = newCount;
+	}
+
+	/**
+	 * 添加字节数组中的全部字节到字节列表。
+	 * 
+	 * @param b 字节数组。
+	 */
+	public void add(byte[] b){
+		add(b, 0, b.length);
+	}
+
+	/**
+	 * 确保缓冲区至少能容纳capacity个字节。
+	 * 
+	 * @param capacity 需要的容量。
+	 */
+	public void ensureCapacity(int capacity){
+		if (capacity > buffer.length) {
+			buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, capacity));
+		}
+	}
+	
+	/**
+	 * 获取内部缓冲区，供批量编码解码直接写入，写入后通过{@link #setByteCount(int)}更新字节数量。
+	 * 
+	 * @return
+	 *      内部缓冲区。
+	 */
+	byte[] getBuffer(){
+		return buffer;
+	}
+	
+	/**
+	 * 设置字节数量。
+	 * 
+	 * @param count 字节数量，不能超过缓冲区的长度。
+	 */
+	void setByteCount(int count){
+		if(count < 0 || count > buffer.length){
+			throw new IndexOutOfBoundsException("count: " + count);
+		}
+		this.count = count;
+	}
+	
 	/**
 	 * 获取字节数组。
 	 * 
@@ -55,6 +179,17 @@ class ByteList {
 		return Arrays.copyOf(buffer, count);
 	}
 
+	/**
+	 * 获取包含所有字节的只读ByteBuffer，不复制缓冲区。
+	 * <p>之后添加字节或清空字节列表都会影响返回的ByteBuffer的内容。
+	 * 
+	 * @return
+	 *      position为0、limit为字节数量的ByteBuffer。
+	 */
+	public ByteBuffer asByteBuffer(){
+		return ByteBuffer.wrap(buffer, 0, count).slice().asReadOnlyBuffer();
+	}
+
 	/**
 	 * 获取字节数量。
 	 * 
@@ -64,4 +199,44 @@ class ByteList {
 		return count;
 	}
 	
+	/**
+	 * 清空字节列表，保留已分配的缓冲区。
+	 */
+	public void reset(){
+		count = 0;
+	}
+	
+	/**
+	 * 获取指定位置的字节。
+	 * 
+	 * @param index 位置。
+	 * @return
+	 *      字节。
+	 */
+	public byte get(int index){
+		return buffer[index];
+	}
+	
+	/**
+	 * 复制字节到数组中。
+	 * 
+	 * @param index 起始位置。
+	 * @param dest 目标数组。
+	 * @param offset 目标数组的偏移量。
+	 * @param length 复制的长度。
+	 */
+	public void copyTo(int index, byte[] dest, int offset, int length){
+		System.arraycopy(buffer, index, dest, offset, length);
+	}
+	
+	/**
+	 * 把所有字节写到输出流中，不复制缓冲区。
+	 * 
+	 * @param out 输出流。
+	 * @throws IOException 写入出错。
+	 */
+	public void writeTo(OutputStream out) throws IOException{
+		out.write(buffer, 0, count);
+	}
+	
 }
@@ -2,6 +2,15 @@ package com.mickyli.util.java.security;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.RecursiveTask;
 import java.util.zip.Adler32;
 import java.util.zip.CRC32;
 import java.util.zip.Checksum;
@@ -12,6 +21,38 @@ import java.util.zip.Checksum;
  */
 public class CRCUtils {
 
+	/**
+	 * 并行计算时每块的最大长度。
+	 */
+	static final int PARALLEL_CHUNK_SIZE = 1024 * 1024;
+
+	/**
+	 * 文件每次映射的最大长度。
+	 */
+	private static final long MAP_REGION_SIZE = 1024L * 1024 * 1024;
+
+	/**
+	 * 分段复制直接缓冲区时使用的数组长度。
+	 */
+	private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * JDK9以上java.util.zip.CRC32C的构造方法，可以使用CPU的CRC32C指令。JDK7、8中为null。
+	 */
+	private static final MethodHandle JDK_CRC32C;
+
+	static {
+		MethodHandle constructor = null;
+		try {
+			Class<?> type = Class.forName("java.util.zip.CRC32C");
+			constructor = MethodHandles.publicLookup().findConstructor(type, MethodType.methodType(void.class))
+					.asType(MethodType.methodType(Checksum.class));
+		} catch (ReflectiveOperationException e) {
+			//JDK9以下没有CRC32C，使用PureJavaCRC32C
+		}
+		JDK_CRC32C = constructor;
+	}
+
 	/**
 	 * 计算并获取数据的CRC32校验码
 	 * 
@@ -205,6 +246,348 @@ public class CRCUtils {
 		return checksum.getValue();
 	}
 
+	/**
+	 * 创建CRC32C(Castagnoli多项式)校验类
+	 * <p>运行在JDK9以上时使用java.util.zip.CRC32C(由CPU指令加速)，否则使用纯Java的查表实现。
+	 * 
+	 * @return
+	 *      CRC32C校验类
+	 */
+	public static Checksum newCRC32C(){
+		if(JDK_CRC32C != null){
+			try {
+				return (Checksum) JDK_CRC32C.invokeExact();
+			} catch (Throwable e) {
+				//不会发生，使用纯Java实现
+			}
+		}
+		return new PureJavaCRC32C();
+	}
+
+	/**
+	 * 计算并获取数据的CRC32C校验码
+	 * 
+	 * @param input 进行校验码计算的数据
+	 * @return
+	 *      长整型的CRC32C校验码
+	 * @throws IllegalArgumentException 如果input为null。
+	 */
+	public static long getCRC32CValue(byte[] input){
+		return getCheckValue(input, newCRC32C());
+	}
+
+	/**
+	 * 计算并获取数据的CRC32C校验码
+	 * 
+	 * @param inputStream 进行校验码计算的数据流
+	 * @return
+	 *      长整型的CRC32C校验码
+	 * @throws IOException 如果从数据流中读数据发生错误
+	 * @throws IllegalArgumentException 如果inputStream为null。
+	 */
+	public static long getCRC32CValue(InputStream inputStream) throws IOException{
+		return getCheckValue(inputStream, newCRC32C());
+	}
+
+	/**
+	 * 并行计算缓冲区中剩余数据的CRC32校验码，结果与{@link #getCRC32Value(byte[])}相同
+	 * <p>数据按{@link #PARALLEL_CHUNK_SIZE}分块在ForkJoinPool中计算，再用crc32_combine合并。完成后缓冲区的position等于limit。
+	 * 
+	 * @param buffer 进行校验码计算的数据
+	 * @return
+	 *      长整型的CRC32校验码
+	 * @throws IllegalArgumentException 如果buffer为null。
+	 */
+	public static long parallelCrc32(ByteBuffer buffer){
+		return parallelChecksum(buffer, ChecksumType.CRC32);
+	}
+
+	/**
+	 * 并行计算文件的CRC32校验码，结果与{@link #getCRC32Value(InputStream)}相同
+	 * <p>文件通过内存映射读取，每次最多映射1GB。
+	 * 
+	 * @param path 文件路径
+	 * @return
+	 *      长整型的CRC32校验码
+	 * @throws IOException 如果文件不存在或者读取出错
+	 * @throws IllegalArgumentException 如果path为null。
+	 */
+	public static long parallelCrc32(Path path) throws IOException{
+		return parallelChecksum(path, ChecksumType.CRC32);
+	}
+
+	/**
+	 * 并行计算缓冲区中剩余数据的CRC32C校验码，完成后缓冲区的position等于limit。
+	 * 
+	 * @param buffer 进行校验码计算的数据
+	 * @return
+	 *      长整型的CRC32C校验码
+	 * @throws IllegalArgumentException 如果buffer为null。
+	 * @see #newCRC32C()
+	 */
+	public static long parallelCrc32C(ByteBuffer buffer){
+		return parallelChecksum(buffer, ChecksumType.CRC32C);
+	}
+
+	/**
+	 * 并行计算文件的CRC32C校验码。
+	 * 
+	 * @param path 文件路径
+	 * @return
+	 *      长整型的CRC32C校验码
+	 * @throws IOException 如果文件不存在或者读取出错
+	 * @throws IllegalArgumentException 如果path为null。
+	 * @see #newCRC32C()
+	 */
+	public static long parallelCrc32C(Path path) throws IOException{
+		return parallelChecksum(path, ChecksumType.CRC32C);
+	}
+
+	static long parallelChecksum(ByteBuffer buffer, ChecksumType type){
+		Assert.notNull(buffer, "进行校验码计算的数据不能为空!");
+		ChecksumTask task = new ChecksumTask(buffer.slice(), type);
+		buffer.position(buffer.limit());
+		if(task.buffer.remaining() <= PARALLEL_CHUNK_SIZE){
+			return task.compute();
+		}
+		return WorkerPool.get().invoke(task);
+	}
+
+	static long parallelChecksum(Path path, ChecksumType type) throws IOException{
+		Assert.notNull(path, "文件路径不能为空!");
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+		try {
+			return parallelChecksum(channel, type);
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * 并行计算文件通道中全部数据的校验码，按{@link #MAP_REGION_SIZE}分段映射，段内并行计算，段之间按顺序合并。
+	 */
+	static long parallelChecksum(FileChannel channel, ChecksumType type) throws IOException{
+		long size = channel.size();
+		long value = type.newChecksum().getValue();
+		for(long position = 0; position < size; position += MAP_REGION_SIZE){
+			long length = Math.min(MAP_REGION_SIZE, size - position);
+			long region = parallelChecksum(channel.map(MapMode.READ_ONLY, position, length), type);
+			value = type.combine(value, region, length);
+		}
+		return value;
+	}
+
+	/**
+	 * 用缓冲区中剩余的数据更新校验码，完成后缓冲区的position等于limit。
+	 * <p>JDK7中Checksum不能直接处理ByteBuffer，直接缓冲区需要分段复制到数组中。
+	 */
+	static long update(Checksum checksum, ByteBuffer buffer){
+		if(buffer.hasArray()){
+			checksum.update(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+			buffer.position(buffer.limit());
+		}else{
+			byte[] bytes = new byte[Math.min(COPY_BUFFER_SIZE, buffer.remaining())];
+			while(buffer.hasRemaining()){
+				int n = Math.min(bytes.length, buffer.remaining());
+				buffer.get(bytes, 0, n);
+				checksum.update(bytes, 0, n);
+			}
+		}
+		return checksum.getValue();
+	}
+
 	private CRCUtils() {}
 
+	/**
+	 * 校验算法，包括创建校验类和合并两段校验码。
+	 */
+	static enum ChecksumType {
+
+		CRC32 {
+			@Override
+			Checksum newChecksum() {
+				return new CRC32();
+			}
+
+			@Override
+			long combine(long value1, long value2, long length2) {
+				return combineCRC32(value1, value2, length2);
+			}
+		},
+
+		ADLER32 {
+			@Override
+			Checksum newChecksum() {
+				return new Adler32();
+			}
+
+			@Override
+			long combine(long value1, long value2, long length2) {
+				return combineAdler32(value1, value2, length2);
+			}
+		},
+
+		CRC32C {
+			@Override
+			Checksum newChecksum() {
+				return newCRC32C();
+			}
+
+			@Override
+			long combine(long value1, long value2, long length2) {
+				return combineCRC(PureJavaCRC32C.POLYNOMIAL, value1, value2, length2);
+			}
+		};
+
+		abstract Checksum newChecksum();
+
+		abstract long combine(long value1, long value2, long length2);
+
+	}
+
+	/**
+	 * 并行计算校验码的任务，数据超过{@link CRCUtils#PARALLEL_CHUNK_SIZE}时分成两半，右半部分交给其他线程。
+	 */
+	static final class ChecksumTask extends RecursiveTask<Long> {
+
+		private static final long serialVersionUID = 1L;
+
+		final ByteBuffer buffer;
+
+		private final ChecksumType type;
+
+		ChecksumTask(ByteBuffer buffer, ChecksumType type) {
+			this.buffer = buffer;
+			this.type = type;
+		}
+
+		@Override
+		protected Long compute() {
+			int length = buffer.remaining();
+			if(length <= PARALLEL_CHUNK_SIZE){
+				return update(type.newChecksum(), buffer);
+			}
+			int half = length >>> 1;
+			ChecksumTask left = new ChecksumTask(slice(buffer, 0, half), type);
+			ChecksumTask right = new ChecksumTask(slice(buffer, half, length), type);
+			right.fork();
+			long leftValue = left.compute();
+			long rightValue = right.join();
+			return type.combine(leftValue, rightValue, length - half);
+		}
+
+		private static ByteBuffer slice(ByteBuffer buffer, int from, int to){
+			ByteBuffer duplicate = buffer.duplicate();
+			duplicate.limit(duplicate.position() + to);
+			duplicate.position(duplicate.position() + from);
+			return duplicate.slice();
+		}
+
+	}
+
+	/**
+	 * 合并两段连续数据的CRC32校验码(参考zlib的crc32_combine)
+	 * 
+	 * @param crc1 第一段数据的CRC32校验码
+	 * @param crc2 第二段数据的CRC32校验码
+	 * @param length2 第二段数据的长度
+	 * @return
+	 *      两段数据连在一起的CRC32校验码
+	 */
+	static long combineCRC32(long crc1, long crc2, long length2){
+		return combineCRC(0xedb88320L, crc1, crc2, length2);
+	}
+
+	/**
+	 * 合并两段连续数据的CRC校验码(反射形式的32位CRC)
+	 * 
+	 * @param polynomial 反射形式的生成多项式
+	 * @param crc1 第一段数据的校验码
+	 * @param crc2 第二段数据的校验码
+	 * @param length2 第二段数据的长度
+	 * @return
+	 *      两段数据连在一起的校验码
+	 */
+	private static long combineCRC(long polynomial, long crc1, long crc2, long length2){
+		if(length2 <= 0){
+			return crc1;
+		}
+		long[] even = new long[32];
+		long[] odd = new long[32];
+		//odd为移动1位的算子
+		odd[0] = polynomial;
+		long row = 1;
+		for(int n = 1; n < 32; n++){
+			odd[n] = row;
+			row <<= 1;
+		}
+		//even为移动2位的算子，odd为移动4位的算子
+		gf2MatrixSquare(even, odd);
+		gf2MatrixSquare(odd, even);
+		//每次把算子平方，按length2的二进制位把crc1向后移动length2个0字节
+		do{
+			gf2MatrixSquare(even, odd);
+			if((length2 & 1) != 0){
+				crc1 = gf2MatrixTimes(even, crc1);
+			}
+			length2 >>= 1;
+			if(length2 == 0){
+				break;
+			}
+			gf2MatrixSquare(odd, even);
+			if((length2 & 1) != 0){
+				crc1 = gf2MatrixTimes(odd, crc1);
+			}
+			length2 >>= 1;
+		}while(length2 != 0);
+		return crc1 ^ crc2;
+	}
+
+	/**
+	 * 合并两段连续数据的Adler32校验码(参考zlib的adler32_combine)
+	 * 
+	 * @param adler1 第一段数据的Adler32校验码
+	 * @param adler2 第二段数据的Adler32校验码
+	 * @param length2 第二段数据的长度
+	 * @return
+	 *      两段数据连在一起的Adler32校验码
+	 */
+	static long combineAdler32(long adler1, long adler2, long length2){
+		final long base = 65521;
+		long rem = length2 % base;
+		long sum1 = adler1 & 0xffff;
+		long sum2 = (rem * sum1) % base;
+		sum1 += (adler2 & 0xffff) + base - 1;
+		sum2 += ((adler1 >> 16) & 0xffff) + ((adler2 >> 16) & 0xffff) + base - rem;
+		if(sum1 >= base){
+			sum1 -= base;
+		}
+		if(sum1 >= base){
+			sum1 -= base;
+		}
+		if(sum2 >= (base << 1)){
+			sum2 -= (base << 1);
+		}
+		if(sum2 >= base){
+			sum2 -= base;
+		}
+		return sum1 | (sum2 << 16);
+	}
+
+	private static long gf2MatrixTimes(long[] matrix, long vector){
+		long sum = 0;
+		for(int i = 0; vector != 0; i++, vector >>>= 1){
+			if((vector & 1) != 0){
+				sum ^= matrix[i];
+			}
+		}
+		return sum;
+	}
+
+	private static void gf2MatrixSquare(long[] square, long[] matrix){
+		for(int n = 0; n < 32; n++){
+			square[n] = gf2MatrixTimes(matrix, matrix[n]);
+		}
+	}
+
 }
@@ -1,7 +1,13 @@
 package com.mickyli.util.java.security;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.security.InvalidKeyException;
 import java.security.Key;
+import java.security.spec.AlgorithmParameterSpec;
 
 import javax.crypto.Cipher;
 import javax.crypto.spec.DESKeySpec;
@@ -196,6 +202,118 @@ public class DESUtils {
 		return new String(result, SystemUtils.DEFAULT_CHARSET);
 	}
 
+	/**
+	 * 创建绑定了密钥的加解密对象，密钥只转换一次，适合用同一个密钥重复加解密。
+	 * 使用默认的转换名称:DES/CBC/PKCS5Padding，结果与{@link #encrypt(byte[], byte[])}、{@link #decrypt(byte[], byte[])}相同。
+	 * 
+	 * @param key 字节数组形式的密钥(数组长度必须不能小于8位)。
+	 * @return
+	 *      加解密对象。
+	 * @throws IllegalArgumentException 如果参数不合法。
+	 */
+	public static SymmetricCipher newCipher(byte[] key){
+		return newCipher(key, DEFAULT_TRANSFORMATION, DEFAULT_IV);
+	}
+
+	/**
+	 * 创建绑定了密钥的加解密对象，密钥只转换一次，适合用同一个密钥重复加解密。
+	 * 
+	 * @param key 字节数组形式的密钥(数组长度必须不能小于8位)。
+	 * @param transformation 转换名称，例如 DES/CBC/PKCS5Padding。
+	 * @param iv 初始化向量(数组长度必须等于8位)。
+	 * @return
+	 *      加解密对象。
+	 * @throws IllegalArgumentException 如果参数不合法。
+	 */
+	public static SymmetricCipher newCipher(byte[] key, String transformation, byte[] iv){
+		return new SymmetricCipher(toKey(key), transformation, toParameterSpec(iv));
+	}
+
+	/**
+	 * 对输入流中的数据进行加密处理并写入输出流，数据分块处理，不会全部读入内存。两个流都不会被关闭。
+	 * 
+	 * @param in 输入流。
+	 * @param out 输出流。
+	 * @param key 字节数组形式的密钥(数组长度不能小于8位)。
+	 * @param transformation 转换名称，例如 DES/CBC/PKCS5Padding。
+	 * @param iv 初始化向量(数组长度必须等于8位)。
+	 * @return
+	 *      写入输出流的字节数。
+	 * @throws IOException 如果读写过程中出错。
+	 * @throws IllegalArgumentException 如果参数不合法。
+	 * @throws IllegalStateException 如果在加密过程中发生任何异常。
+	 */
+	public static long encrypt(InputStream in, OutputStream out, byte[] key, String transformation, byte[] iv) throws IOException{
+		return EncryptionBase.processData(in, out, toKey(key), transformation, Cipher.ENCRYPT_MODE, toParameterSpec(iv));
+	}
+
+	/**
+	 * 对输入通道从当前位置开始的数据进行加密处理并写入输出通道，例如两个FileChannel。通道都不会被关闭。
+	 * 
+	 * @param in 输入通道。
+	 * @param out 输出通道。
+	 * @param key 字节数组形式的密钥(数组长度不能小于8位)。
+	 * @param transformation 转换名称，例如 DES/CBC/PKCS5Padding。
+	 * @param iv 初始化向量(数组长度必须等于8位)。
+	 * @return
+	 *      写入输出通道的字节数。
+	 * @throws IOException 如果读写过程中出错。
+	 * @throws IllegalArgumentException 如果参数不合法。
+	 * @throws IllegalStateException 如果在加密过程中发生任何异常。
+	 */
+	public static long encrypt(ReadableByteChannel in, WritableByteChannel out, byte[] key, String transformation, byte[] iv) throws IOException{
+		return EncryptionBase.processData(in, out, toKey(key), transformation, Cipher.ENCRYPT_MODE, toParameterSpec(iv));
+	}
+
+	/**
+	 * 对输入流中的数据进行解密处理并写入输出流，数据分块处理，不会全部读入内存。两个流都不会被关闭。
+	 * 
+	 * @param in 输入流。
+	 * @param out 输出流。
+	 * @param key 字节数组形式的密钥(数组长度不能小于8位)。
+	 * @param transformation 转换名称，例如 DES/CBC/PKCS5Padding。
+	 * @param iv 初始化向量(数组长度必须等于8位)。
+	 * @return
+	 *      写入输出流的字节数。
+	 * @throws IOException 如果读写过程中出错。
+	 * @throws IllegalArgumentException 如果参数不合法。
+	 * @throws IllegalStateException 如果在解密过程中发生任何异常。
+	 */
+	public static long decrypt(InputStream in, OutputStream out, byte[] key, String transformation, byte[] iv) throws IOException{
+		return EncryptionBase.processData(in, out, toKey(key), transformation, Cipher.DECRYPT_MODE, toParameterSpec(iv));
+	}
+
+	/**
+	 * 对输入通道从当前位置开始的数据进行解密处理并写入输出通道，例如两个FileChannel。通道都不会被关闭。
+	 * 
+	 * @param in 输入通道。
+	 * @param out 输出通道。
+	 * @param key 字节数组形式的密钥(数组长度不能小于8位)。
+	 * @param transformation 转换名称，例如 DES/CBC/PKCS5Padding。
+	 * @param iv 初始化向量(数组长度必须等于8位)。
+	 * @return
+	 *      写入输出通道的字节数。
+	 * @throws IOException 如果读写过程中出错。
+	 * @throws IllegalArgumentException 如果参数不合法。
+	 * @throws IllegalStateException 如果在解密过程中发生任何异常。
+	 */
+	public static long decrypt(ReadableByteChannel in, WritableByteChannel out, byte[] key, String transformation, byte[] iv) throws IOException{
+		return EncryptionBase.processData(in, out, toKey(key), transformation, Cipher.DECRYPT_MODE, toParameterSpec(iv));
+	}
+
+	/**
+	 * 检查初始化向量并转换成参数规范。
+	 * 
+	 * @param iv 初始化向量(数组长度必须等于8位)。
+	 * @return
+	 *      参数规范。
+	 */
+	private static AlgorithmParameterSpec toParameterSpec(byte[] iv){
+		Assert.notNull(iv, "初始化向量不能为空!");
+		Assert.isTrue(iv.length == 8, "初始化向量的数组长度必须为8位!");
+		return new IvParameterSpec(iv);
+	}
+
 	/**
 	 * 将字节数组形式的密钥转换成密钥对象。
 	 * 
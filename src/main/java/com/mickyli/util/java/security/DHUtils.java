@@ -1,5 +1,6 @@
 package com.mickyli.util.java.security;
 
+import java.nio.ByteBuffer;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
 import java.security.KeyFactory;
@@ -16,6 +17,9 @@ import javax.crypto.KeyAgreement;
 import javax.crypto.SecretKey;
 import javax.crypto.interfaces.DHPublicKey;
 import javax.crypto.spec.DHParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.mickyli.util.java.security.MessageDigestUtils.MessageDigestAlgorithm;
 
 /** 
  *   <B>说       明</B>:DH工具类。
@@ -25,6 +29,9 @@ import javax.crypto.spec.DHParameterSpec;
  *   <p>甲方根据自己的私钥和乙方的公钥可生成本地密钥，同理乙方根据自己的私钥和甲方的公钥可生成本地密钥。甲方和乙方的本地密钥应该相同，所以甲方乙方可以以其他对称加密方式用本地密钥对消息进行加密。
  *   <p>本类中采用AES算法提供对数据加解密的支持。
  *   加解密过程需要在双方安全交换密钥后进行。
+ *   <p>协商本地密钥需要解析双方的密钥并做一次完整的密钥协商，加解密时按双方密钥的SHA-256指纹缓存最近使用的
+ *   {@value #SESSION_CACHE_SIZE}个会话，同一对密钥之间的后续消息只需要进行AES加解密。
+ *   也可以通过{@link #newSession(byte[], byte[])}自行持有会话对象。
  *
  */
 public class DHUtils {
@@ -44,6 +51,21 @@ public class DHUtils {
 	 */
 	private static final String KEY_SECRET_ALGORITHM = "AES";
 
+	/**
+	 * 缓存的会话个数。
+	 */
+	static final int SESSION_CACHE_SIZE = 32;
+
+	/**
+	 * 按双方密钥指纹缓存的会话。
+	 */
+	private static final LRUCache<ByteBuffer, SymmetricCipher> SESSIONS = new LRUCache<ByteBuffer, SymmetricCipher>(SESSION_CACHE_SIZE);
+
+	/**
+	 * JDK支持的AES密钥长度(字节)，从大到小。
+	 */
+	private static final int[] AES_KEY_LENGTHS = {32, 24, 16};
+
 	/**
 	 * 生成一个密钥对Bean(包括公钥和私钥)。
 	 * 
@@ -130,13 +152,7 @@ public class DHUtils {
 	 * @throws IllegalStateException - 如果在加密过程中发生任何异常。
 	 */
 	public static byte[] encrypt(byte[] data, byte[] publicKey, byte[] privateKey){
-		SecretKey secretKey = getSecretKey(publicKey, privateKey);
-		/*
-		 * 利用AES算法完成加密过程。由于AES要求密钥长度为16位，所以这里
-		 * 取密钥内容的MD5值。
-		 */
-		byte[] key = MessageDigestUtils.getMD5Digest(secretKey.getEncoded());
-		return AESUtils.encrypt(data, key);
+		return getSession(publicKey, privateKey).encrypt(data);
 	}
 	
 	/**
@@ -170,13 +186,7 @@ public class DHUtils {
 	 * @throws IllegalStateException - 如果在解密过程中发生任何异常。
 	 */
 	public static byte[] decrypt(byte[] data, byte[] publicKey, byte[] privateKey){
-		SecretKey secretKey = getSecretKey(publicKey, privateKey);
-		/*
-		 * 利用AES算法完成加密过程。由于AES要求密钥长度为16位，所以这里
-		 * 取密钥内容的MD5值。
-		 */
-		byte[] key = MessageDigestUtils.getMD5Digest(secretKey.getEncoded());
-		return AESUtils.decrypt(data, key);
+		return getSession(publicKey, privateKey).decrypt(data);
 	}
 	
 	/**
@@ -198,6 +208,53 @@ public class DHUtils {
 		return new String(result, SystemUtils.DEFAULT_CHARSET);
 	}
 
+	/**
+	 * 通过对方的公钥和我方的私钥创建会话，会话中持有协商好的本地密钥，加解密结果与{@link #encrypt(byte[], byte[], byte[])}、
+	 * {@link #decrypt(byte[], byte[], byte[])}相同。会话对象可以在多个线程间共享。
+	 * 
+	 * @param publicKey 对方的公钥。
+	 * @param privateKey 我方的私钥。
+	 * @return
+	 *      会话。
+	 * @throws IllegalArgumentException 如果密钥为null或不合法或者密钥材料不合法。
+	 * @throws IllegalStateException 如果系统不支持相应的算法。
+	 */
+	public static SymmetricCipher newSession(byte[] publicKey, byte[] privateKey){
+		SecretKey secretKey = getSecretKey(publicKey, privateKey);
+		/*
+		 * 利用AES算法完成加解密过程。由于AES要求密钥长度为16位，所以这里
+		 * 取密钥内容的MD5值。
+		 */
+		byte[] key = MessageDigestUtils.getMD5Digest(secretKey.getEncoded());
+		return AESUtils.newCipher(key);
+	}
+
+	/**
+	 * 清空缓存的会话，例如在更换密钥之后。
+	 */
+	public static void clearSessions(){
+		SESSIONS.clear();
+	}
+
+	/**
+	 * 从缓存中获取会话，没有时创建一个。
+	 */
+	private static SymmetricCipher getSession(byte[] publicKey, byte[] privateKey){
+		Assert.notNull(publicKey, "公钥不能为null!");
+		Assert.notNull(privateKey, "私钥不能为null!");
+		//缓存的键只保存双方密钥的摘要。
+		ByteBuffer fingerprint = ByteBuffer.allocate(64);
+		fingerprint.put(MessageDigestUtils.digest(publicKey, MessageDigestAlgorithm.SHA256));
+		fingerprint.put(MessageDigestUtils.digest(privateKey, MessageDigestAlgorithm.SHA256));
+		fingerprint.flip();
+		SymmetricCipher session = SESSIONS.get(fingerprint);
+		if(session == null){
+			session = newSession(publicKey, privateKey);
+			SESSIONS.put(fingerprint, session);
+		}
+		return session;
+	}
+
 	/**
 	 * 通过对方的公钥和我方的私钥构建密钥(即本地密钥)。
 	 * 
@@ -223,7 +280,17 @@ public class DHUtils {
 			KeyAgreement keyAgreement = KeyAgreement.getInstance(ALGORITHM);
 			keyAgreement.init(priKey);
 			keyAgreement.doPhase(pubKey, true);
-			return keyAgreement.generateSecret(KEY_SECRET_ALGORITHM);
+			/*
+			 * 较新的JDK不再支持generateSecret("AES")，这里按原来JDK的方式
+			 * 取共享秘密的前32(或24、16)个字节作为AES密钥，结果保持不变。
+			 */
+			byte[] secret = keyAgreement.generateSecret();
+			for(int length : AES_KEY_LENGTHS){
+				if(secret.length >= length){
+					return new SecretKeySpec(secret, 0, length, KEY_SECRET_ALGORITHM);
+				}
+			}
+			throw new IllegalStateException("共享秘密的长度不足16个字节!");
 		} catch (NoSuchAlgorithmException e) {
 			throw new IllegalStateException(e);
 		} catch (InvalidKeySpecException e) {
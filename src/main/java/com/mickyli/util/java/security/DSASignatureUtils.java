@@ -3,7 +3,6 @@ package com.mickyli.util.java.security;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.security.PrivateKey;
-import java.security.PublicKey;
 import java.security.Signature;
 import java.security.SignatureException;
 
@@ -99,19 +98,21 @@ public class DSASignatureUtils {
 		Assert.notNull(data, "要验证的数据不能为null!");
 		Assert.notNull(sign, "数字签名不能为null!");
 		Assert.notNull(signatureAlgorithm, "数字签名算法不能为null!");
-		try {
-			PublicKey key = EncryptionBase.toPublicKey(publicKey, ALGORITHM);
-			Signature signature = Signature.getInstance(signatureAlgorithm.getName());
-			signature.initVerify(key);
-			signature.update(data);
-			return signature.verify(sign);
-		} catch (NoSuchAlgorithmException e) {
-			throw new IllegalArgumentException(e);
-		} catch (InvalidKeyException e) {
-			throw new IllegalArgumentException(e);
-		} catch (SignatureException e) {
-			throw new IllegalStateException(e);
-		}
+		return SignatureVerifier.cached(publicKey, ALGORITHM, signatureAlgorithm.getName()).verify(data, sign);
+	}
+
+	/**
+	 * 获取公钥对应的数字签名验证对象，公钥只解析一次，适合用同一个公钥验证大量签名，参见{@link SignatureVerifier}。
+	 * 
+	 * @param publicKey 公钥。
+	 * @param signatureAlgorithm 数字签名算法。参见{@link SignatureAlgorithm}
+	 * @return
+	 *      数字签名验证对象。
+	 * @throws IllegalArgumentException 如果参数不合法。
+	 */
+	public static SignatureVerifier newVerifier(byte[] publicKey, SignatureAlgorithm signatureAlgorithm){
+		Assert.notNull(signatureAlgorithm, "数字签名算法不能为null!");
+		return SignatureVerifier.cached(publicKey, ALGORITHM, signatureAlgorithm.getName());
 	}
 
 	/** 
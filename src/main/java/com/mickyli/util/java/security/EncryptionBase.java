@@ -1,11 +1,20 @@
 package com.mickyli.util.java.security;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.security.GeneralSecurityException;
+import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
 import java.security.Key;
 import java.security.KeyFactory;
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
 import java.security.NoSuchAlgorithmException;
+import java.security.NoSuchProviderException;
 import java.security.PrivateKey;
 import java.security.PublicKey;
 import java.security.spec.AlgorithmParameterSpec;
@@ -13,17 +22,26 @@ import java.security.spec.InvalidKeySpecException;
 import java.security.spec.KeySpec;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.X509EncodedKeySpec;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Pattern;
 
 import javax.crypto.Cipher;
 import javax.crypto.KeyGenerator;
+import javax.crypto.NoSuchPaddingException;
 import javax.crypto.SecretKey;
 import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.IvParameterSpec;
 
 /** 
  *   <B>说       明</B>:加解密工具基础支持类。
  *   
  *   <p>该类作为其他加解密工具的支持类，仅包内可见。
+ *   <p>Cipher和SecretKeyFactory的查找开销较大，每个线程按转换名称(算法名称)缓存一份重复使用，
+ *   每次使用前都会重新初始化，不会带入上一次的状态。
  *
  */
 class EncryptionBase {
@@ -33,6 +51,46 @@ class EncryptionBase {
 	 */
 	private static final Pattern TRANSFORMATION_NOTNEEDIV = Pattern.compile("^[^/]+/(ECB)/[^/]+$");
 
+	/**
+	 * 每个线程最多缓存的Cipher(SecretKeyFactory)个数。
+	 */
+	private static final int MAX_CACHED = 32;
+
+	/**
+	 * 流式处理时每次读取的数据长度。
+	 */
+	static final int BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * GCM工作模式的认证标签长度(位)。
+	 */
+	static final int GCM_TAG_LENGTH = 128;
+
+	/**
+	 * 转换名称是否需要初始化向量的判断结果。
+	 */
+	private static final ConcurrentMap<String, Boolean> NEED_IV = new ConcurrentHashMap<String, Boolean>();
+
+	/**
+	 * 每个线程缓存的Cipher，以转换名称(和提供者名称)为键。
+	 */
+	private static final ThreadLocal<Map<String, Cipher>> CIPHERS = new ThreadLocal<Map<String, Cipher>>(){
+		@Override
+		protected Map<String, Cipher> initialValue() {
+			return new HashMap<String, Cipher>();
+		}
+	};
+
+	/**
+	 * 每个线程缓存的SecretKeyFactory，以算法名称为键。
+	 */
+	private static final ThreadLocal<Map<String, SecretKeyFactory>> KEY_FACTORIES = new ThreadLocal<Map<String, SecretKeyFactory>>(){
+		@Override
+		protected Map<String, SecretKeyFactory> initialValue() {
+			return new HashMap<String, SecretKeyFactory>();
+		}
+	};
+
 	/**
 	 * 生成一个随机的密钥。
 	 * 
@@ -71,15 +129,10 @@ class EncryptionBase {
 		Assert.notNull(secretKey, "密钥不能为null!");
 		Assert.isNotBlank(transformation, "转换名称不能为null或空!");
 		Assert.notNull(parameterSpec, "算法参数不能为null!");
+		Cipher cipher = null;
 		try {
-			Cipher cipher = Cipher.getInstance(transformation);
-			//判断Cipher的工作模式是否需要初始化向量。
-			boolean isNeedIV = !TRANSFORMATION_NOTNEEDIV.matcher(cipher.getAlgorithm()).matches();
-			if(isNeedIV){
-				cipher.init(opmode, secretKey,parameterSpec);
-			}else{
-				cipher.init(opmode, secretKey);
-			}
+			cipher = acquireCipher(transformation, null);
+			init(cipher, opmode, secretKey, parameterSpec);
 			return cipher.doFinal(data);
 		} catch (NoSuchAlgorithmException e) {
 			throw new IllegalArgumentException(e);
@@ -87,7 +140,271 @@ class EncryptionBase {
 			throw new IllegalArgumentException(e);
 		} catch (Exception e) {
 			throw new IllegalStateException(e);
-		} 
+		} finally {
+			releaseCipher(transformation, null, cipher);
+		}
+	}
+
+	/**
+	 * 从输入流读取数据进行处理后写入输出流，使用当前线程缓存的Cipher，不创建{@link SymmetricCipher}。两个流都不会被关闭。
+	 * 
+	 * @param in 输入流。
+	 * @param out 输出流。
+	 * @param secretKey 密钥对象。
+	 * @param transformation 转换的名称，例如 DES/CBC/PKCS5Padding。
+	 * @param opmode Cipher的操作模式，ENCRYPT_MODE或DECRYPT_MODE。
+	 * @param parameterSpec 参数规范。
+	 * @return 
+	 *      写入输出流的字节数。
+	 * @throws IOException 如果读写过程中出错。
+	 * @throws IllegalStateException 在处理过程中发生其他异常。
+	 */
+	static long processData(InputStream in, OutputStream out, Key secretKey, String transformation, int opmode, AlgorithmParameterSpec parameterSpec) throws IOException{
+		Assert.notNull(in, "输入流不能为null!");
+		Assert.notNull(out, "输出流不能为null!");
+		Cipher cipher = acquire(secretKey, transformation, opmode, parameterSpec);
+		try {
+			return process(cipher, in, out);
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException(e);
+		} finally {
+			//下次取出时重新初始化，出错时留下的数据也会被清除
+			releaseCipher(transformation, null, cipher);
+		}
+	}
+
+	/**
+	 * 从输入通道读取数据进行处理后写入输出通道，使用当前线程缓存的Cipher，不创建{@link SymmetricCipher}。通道都不会被关闭。
+	 * 
+	 * @param in 输入通道。
+	 * @param out 输出通道。
+	 * @param secretKey 密钥对象。
+	 * @param transformation 转换的名称，例如 DES/CBC/PKCS5Padding。
+	 * @param opmode Cipher的操作模式，ENCRYPT_MODE或DECRYPT_MODE。
+	 * @param parameterSpec 参数规范。
+	 * @return 
+	 *      写入输出通道的字节数。
+	 * @throws IOException 如果读写过程中出错。
+	 * @throws IllegalStateException 在处理过程中发生其他异常。
+	 */
+	static long processData(ReadableByteChannel in, WritableByteChannel out, Key secretKey, String transformation, int opmode, AlgorithmParameterSpec parameterSpec) throws IOException{
+		Assert.notNull(in, "输入通道不能为null!");
+		Assert.notNull(out, "输出通道不能为null!");
+		Cipher cipher = acquire(secretKey, transformation, opmode, parameterSpec);
+		try {
+			return process(cipher, in, out);
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException(e);
+		} finally {
+			releaseCipher(transformation, null, cipher);
+		}
+	}
+
+	/**
+	 * 从当前线程的缓存中取出Cipher并初始化，初始化失败时放回缓存。
+	 */
+	private static Cipher acquire(Key secretKey, String transformation, int opmode, AlgorithmParameterSpec parameterSpec){
+		Assert.notNull(secretKey, "密钥不能为null!");
+		Assert.isNotBlank(transformation, "转换名称不能为null或空!");
+		Assert.notNull(parameterSpec, "算法参数不能为null!");
+		Cipher cipher = null;
+		try {
+			cipher = acquireCipher(transformation, null);
+			init(cipher, opmode, secretKey, parameterSpec);
+			return cipher;
+		} catch (NoSuchAlgorithmException e) {
+			releaseCipher(transformation, null, cipher);
+			throw new IllegalArgumentException(e);
+		} catch (InvalidKeyException e) {
+			releaseCipher(transformation, null, cipher);
+			throw new IllegalArgumentException(e);
+		} catch (Exception e) {
+			releaseCipher(transformation, null, cipher);
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * 初始化Cipher，转换名称的工作模式需要初始化向量时才使用参数规范。
+	 * 
+	 * @param cipher Cipher对象。
+	 * @param opmode Cipher的操作模式。
+	 * @param key 密钥。
+	 * @param parameterSpec 参数规范。
+	 * @throws InvalidKeyException 如果密钥不合法。
+	 * @throws InvalidAlgorithmParameterException 如果参数规范不合法。
+	 */
+	static void init(Cipher cipher, int opmode, Key key, AlgorithmParameterSpec parameterSpec) throws InvalidKeyException, InvalidAlgorithmParameterException{
+		if(isNeedIV(cipher.getAlgorithm())){
+			cipher.init(opmode, key, parameterSpec);
+		}else{
+			cipher.init(opmode, key);
+		}
+	}
+
+	/**
+	 * 判断转换名称的工作模式是否需要初始化向量，结果按转换名称缓存。
+	 * 
+	 * @param transformation 转换名称。
+	 * @return
+	 *      需要初始化向量返回true，否则返回false。
+	 */
+	static boolean isNeedIV(String transformation){
+		Boolean needIV = NEED_IV.get(transformation);
+		if(needIV == null){
+			needIV = !TRANSFORMATION_NOTNEEDIV.matcher(transformation).matches();
+			if(NEED_IV.size() < MAX_CACHED * 8){
+				NEED_IV.put(transformation, needIV);
+			}
+		}
+		return needIV;
+	}
+
+	/**
+	 * 从当前线程的缓存中取出一个Cipher，没有时新建一个。用完后需要通过
+	 * {@link #releaseCipher(String, String, Cipher)}放回，取出期间其他调用不会拿到同一个对象。
+	 * 
+	 * @param transformation 转换名称。
+	 * @param provider 提供者名称，为null时使用默认的提供者。
+	 * @return
+	 *      未初始化(或者处于上一次初始化状态)的Cipher，使用前必须重新初始化。
+	 * @throws NoSuchAlgorithmException 如果不支持转换名称中的算法或工作模式。
+	 * @throws NoSuchPaddingException 如果不支持转换名称中的填充方式。
+	 * @throws NoSuchProviderException 如果提供者不存在。
+	 */
+	static Cipher acquireCipher(String transformation, String provider) throws NoSuchAlgorithmException, NoSuchPaddingException, NoSuchProviderException{
+		Cipher cipher = CIPHERS.get().remove(cacheKey(transformation, provider));
+		if(cipher == null){
+			cipher = provider == null ? Cipher.getInstance(transformation) : Cipher.getInstance(transformation, provider);
+		}
+		return cipher;
+	}
+
+	/**
+	 * 把Cipher放回当前线程的缓存。
+	 * 
+	 * @param transformation 转换名称。
+	 * @param provider 提供者名称。
+	 * @param cipher 通过{@link #acquireCipher(String, String)}取出的Cipher，为null时忽略。
+	 */
+	static void releaseCipher(String transformation, String provider, Cipher cipher){
+		//GCM模式的Cipher会记住上次加密使用的密钥和初始化向量，不放回缓存。
+		if(cipher != null && !isGCM(transformation)){
+			Map<String, Cipher> ciphers = CIPHERS.get();
+			if(ciphers.size() < MAX_CACHED){
+				ciphers.put(cacheKey(transformation, provider), cipher);
+			}
+		}
+	}
+
+	/**
+	 * 判断转换名称的工作模式是否为GCM。
+	 * 
+	 * @param transformation 转换名称。
+	 * @return
+	 *      工作模式为GCM返回true，否则返回false。
+	 */
+	static boolean isGCM(String transformation){
+		int start = transformation.indexOf('/');
+		int end = transformation.indexOf('/', start + 1);
+		return start > 0 && end == start + 4 && transformation.regionMatches(true, start + 1, "GCM", 0, 3);
+	}
+
+	/**
+	 * 根据转换名称把初始化向量转换成参数规范，GCM模式使用{@link GCMParameterSpec}(128位认证标签)，其他模式使用{@link IvParameterSpec}。
+	 * 
+	 * @param transformation 转换名称，可以为null。
+	 * @param iv 初始化向量。
+	 * @return
+	 *      参数规范。
+	 */
+	static AlgorithmParameterSpec toParameterSpec(String transformation, byte[] iv){
+		if(transformation != null && isGCM(transformation)){
+			return new GCMParameterSpec(GCM_TAG_LENGTH, iv);
+		}
+		return new IvParameterSpec(iv);
+	}
+
+	/**
+	 * 从输入流读取数据，按{@link #BUFFER_SIZE}分块经过Cipher处理后写入输出流，输入和输出缓冲区在整个过程中重复使用。
+	 * <p>GCM模式解密时，Cipher会在最后校验认证标签后才输出全部明文。
+	 * 
+	 * @param cipher 已经初始化的Cipher。
+	 * @param in 输入流，不会被关闭。
+	 * @param out 输出流，不会被关闭。
+	 * @return
+	 *      写入输出流的字节数。
+	 * @throws IOException 如果读写过程中出错。
+	 * @throws GeneralSecurityException 如果加解密过程中出错。
+	 */
+	static long process(Cipher cipher, InputStream in, OutputStream out) throws IOException, GeneralSecurityException{
+		byte[] input = new byte[BUFFER_SIZE];
+		byte[] output = new byte[cipher.getOutputSize(BUFFER_SIZE)];
+		long total = 0;
+		int read;
+		while((read = in.read(input)) != -1){
+			output = ensureCapacity(output, cipher.getOutputSize(read));
+			int length = cipher.update(input, 0, read, output);
+			out.write(output, 0, length);
+			total += length;
+		}
+		output = ensureCapacity(output, cipher.getOutputSize(0));
+		int length = cipher.doFinal(output, 0);
+		out.write(output, 0, length);
+		return total + length;
+	}
+
+	/**
+	 * 从输入通道读取数据，按{@link #BUFFER_SIZE}分块经过Cipher处理后写入输出通道，输入和输出缓冲区在整个过程中重复使用。
+	 * 
+	 * @param cipher 已经初始化的Cipher。
+	 * @param in 输入通道，从当前位置读到结尾，不会被关闭。
+	 * @param out 输出通道，不会被关闭。
+	 * @return
+	 *      写入输出通道的字节数。
+	 * @throws IOException 如果读写过程中出错。
+	 * @throws GeneralSecurityException 如果加解密过程中出错。
+	 */
+	static long process(Cipher cipher, ReadableByteChannel in, WritableByteChannel out) throws IOException, GeneralSecurityException{
+		ByteBuffer input = ByteBuffer.allocate(BUFFER_SIZE);
+		byte[] output = new byte[cipher.getOutputSize(BUFFER_SIZE)];
+		long total = 0;
+		//每次读满缓冲区再处理，最后不满的一块交给doFinal。
+		while(fill(in, input)){
+			output = ensureCapacity(output, cipher.getOutputSize(input.position()));
+			int length = cipher.update(input.array(), 0, input.position(), output);
+			writeFully(out, output, length);
+			total += length;
+			input.clear();
+		}
+		output = ensureCapacity(output, cipher.getOutputSize(input.position()));
+		int length = cipher.doFinal(input.array(), 0, input.position(), output);
+		writeFully(out, output, length);
+		return total + length;
+	}
+
+	private static byte[] ensureCapacity(byte[] buffer, int size){
+		return size > buffer.length ? new byte[size] : buffer;
+	}
+
+	private static boolean fill(ReadableByteChannel in, ByteBuffer buffer) throws IOException{
+		while(buffer.hasRemaining()){
+			if(in.read(buffer) == -1){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static void writeFully(WritableByteChannel out, byte[] data, int length) throws IOException{
+		ByteBuffer buffer = ByteBuffer.wrap(data, 0, length);
+		while(buffer.hasRemaining()){
+			out.write(buffer);
+		}
+	}
+
+	private static String cacheKey(String transformation, String provider){
+		return provider == null ? transformation : provider + ":" + transformation;
 	}
 
 	/**
@@ -103,7 +420,14 @@ class EncryptionBase {
 		try {
 			Assert.notNull(keySpec, "密钥内容规范不能为null!");
 			Assert.notNull(algorithm, "请求的密钥算法标准名称不能为null!");
-			SecretKeyFactory keyFactory = SecretKeyFactory.getInstance(algorithm);
+			Map<String, SecretKeyFactory> keyFactories = KEY_FACTORIES.get();
+			SecretKeyFactory keyFactory = keyFactories.get(algorithm);
+			if(keyFactory == null){
+				keyFactory = SecretKeyFactory.getInstance(algorithm);
+				if(keyFactories.size() < MAX_CACHED){
+					keyFactories.put(algorithm, keyFactory);
+				}
+			}
 			return keyFactory.generateSecret(keySpec);
 		} catch (NoSuchAlgorithmException e) {
 			throw new IllegalArgumentException(e);
@@ -0,0 +1,345 @@
+package com.mickyli.util.java.security;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.zip.CRC32;
+
+import com.mickyli.util.java.security.CRCUtils.ChecksumType;
+import com.mickyli.util.java.security.MessageDigestUtils.MessageDigestAlgorithm;
+
+/**
+ *   <B>说       明</B>:文件摘要和校验工具类。
+ *
+ *   <p>根据文件大小选择读取方式，结果{@link Result}中带有实际使用的方式、文件长度和吞吐量:
+ *   <li>{@link Strategy#READ}:小于{@link #MAP_THRESHOLD}的文件，通过FileChannel读入缓冲区。
+ *   <li>{@link Strategy#MAPPED}:较大的文件，按{@link #MAP_REGION_SIZE}分段映射后顺序计算。
+ *   <li>{@link Strategy#PARALLEL_MAPPED}:大于{@link #CHUNK_SIZE}的文件的CRC32、Adler32校验码
+ *   (参见{@link CRCUtils#parallelCrc32(java.nio.file.Path)})和树形摘要，分块并行计算后合并。
+ *
+ *   <p>MessageDigest只能顺序计算，普通摘要不会并行。{@link #treeDigest(File, MessageDigestAlgorithm)}
+ *   先并行计算每块的摘要，再对所有块的摘要按顺序计算一次摘要，结果与普通摘要不同，只能与同样方式计算的结果比较。
+ *
+ */
+public class FileDigest {
+
+	/**
+	 * 使用内存映射的最小文件长度。
+	 */
+	public static final long MAP_THRESHOLD = 1024 * 1024;
+
+	/**
+	 * 顺序计算时每次映射的长度。
+	 */
+	public static final long MAP_REGION_SIZE = 64L * 1024 * 1024;
+
+	/**
+	 * 树形摘要的分块长度，超过此长度的文件才并行计算。
+	 */
+	public static final int CHUNK_SIZE = 4 * 1024 * 1024;
+
+	/**
+	 * 读取和复制数据的缓冲区大小。
+	 */
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * 计算方式。
+	 */
+	public static enum Strategy {
+		READ, MAPPED, PARALLEL_MAPPED
+	}
+
+	/**
+	 * 计算结果。
+	 */
+	public static class Result {
+
+		private final byte[] value;
+
+		private final Strategy strategy;
+
+		private final long length;
+
+		private final long nanos;
+
+		Result(byte[] value, Strategy strategy, long length, long nanos) {
+			this.value = value;
+			this.strategy = strategy;
+			this.length = length;
+			this.nanos = nanos;
+		}
+
+		/**
+		 * 摘要或校验码，校验码为4个字节(高位在前)。
+		 */
+		public byte[] getValue() {
+			return value.clone();
+		}
+
+		/**
+		 * 十六进制(小写)形式的摘要或校验码。
+		 */
+		public String getHex() {
+			return HexUtils.toHexString(value);
+		}
+
+		/**
+		 * 长整型形式的校验码，与{@link CRC32#getValue()}一致，只对CRC32和Adler32有意义。
+		 */
+		public long getChecksum() {
+			long checksum = 0;
+			for(int i = 0; i < value.length && i < 8; i++){
+				checksum = (checksum << 8) | (value[i] & 0xff);
+			}
+			return checksum;
+		}
+
+		public Strategy getStrategy() {
+			return strategy;
+		}
+
+		/**
+		 * 文件长度(字节)。
+		 */
+		public long getLength() {
+			return length;
+		}
+
+		/**
+		 * 耗时(纳秒)。
+		 */
+		public long getNanos() {
+			return nanos;
+		}
+
+		/**
+		 * 吞吐量(MB/s)。
+		 */
+		public double getThroughput() {
+			return nanos == 0 ? 0 : length * 1e9 / nanos / (1024 * 1024);
+		}
+
+		@Override
+		public String toString() {
+			return getHex() + " (" + strategy + ", " + length + " bytes, "
+					+ String.format("%.1f", getThroughput()) + " MB/s)";
+		}
+
+	}
+
+	/**
+	 * 计算文件的消息摘要，结果与对文件全部内容调用MessageDigest.digest()相同。
+	 *
+	 * @param file 文件
+	 * @param algorithm 消息摘要算法
+	 * @return
+	 *      计算结果
+	 * @throws IOException 如果文件不存在或者读取出错
+	 * @throws IllegalArgumentException 如果file为null，或者algorithm为空或不被JDK支持。
+	 */
+	public static Result digest(File file, MessageDigestAlgorithm algorithm) throws IOException{
+		Assert.notNull(file, "文件不能为空!");
+		long start = System.nanoTime();
+		MessageDigest messageDigest = MessageDigestUtils.acquire(algorithm);
+		RandomAccessFile raf = null;
+		try {
+			raf = new RandomAccessFile(file, "r");
+			FileChannel channel = raf.getChannel();
+			long size = channel.size();
+			Strategy strategy = Strategy.READ;
+			if(size >= MAP_THRESHOLD){
+				strategy = Strategy.MAPPED;
+				for(long position = 0; position < size; position += MAP_REGION_SIZE){
+					messageDigest.update(channel.map(MapMode.READ_ONLY, position, Math.min(MAP_REGION_SIZE, size - position)));
+				}
+			}else{
+				ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+				while(channel.read(buffer) > -1){
+					buffer.flip();
+					messageDigest.update(buffer);
+					buffer.clear();
+				}
+			}
+			return new Result(messageDigest.digest(), strategy, size, System.nanoTime() - start);
+		} finally {
+			MessageDigestUtils.release(algorithm, messageDigest);
+			if(raf != null){
+				raf.close();
+			}
+		}
+	}
+
+	/**
+	 * 计算文件的树形摘要:按{@link #CHUNK_SIZE}分块并行计算摘要，再对各块的摘要依次计算摘要。
+	 * <p>文件只有一块时不再计算第二层，结果与{@link #digest(File, MessageDigestAlgorithm)}相同。
+	 *
+	 * @param file 文件
+	 * @param algorithm 消息摘要算法
+	 * @return
+	 *      计算结果
+	 * @throws IOException 如果文件不存在或者读取出错
+	 * @throws IllegalArgumentException 如果file为null，或者algorithm为空或不被JDK支持。
+	 */
+	public static Result treeDigest(File file, final MessageDigestAlgorithm algorithm) throws IOException{
+		Assert.notNull(file, "文件不能为空!");
+		Assert.notNull(algorithm, "消息摘要算法不能为空!");
+		if(file.length() <= CHUNK_SIZE){
+			return digest(file, algorithm);
+		}
+		long start = System.nanoTime();
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			final FileChannel channel = raf.getChannel();
+			long size = channel.size();
+			List<ChunkTask> tasks = new ArrayList<ChunkTask>();
+			for(long position = 0; position < size; position += CHUNK_SIZE){
+				tasks.add(new ChunkTask(channel, position, Math.min(CHUNK_SIZE, size - position)){
+					@Override
+					byte[] compute(ByteBuffer chunk) {
+						return MessageDigestUtils.digest(chunk, algorithm);
+					}
+				});
+			}
+			MessageDigest messageDigest = MessageDigestUtils.acquire(algorithm);
+			try {
+				for(ChunkTask task : invokeAll(tasks)){
+					messageDigest.update(task.value());
+				}
+				return new Result(messageDigest.digest(), Strategy.PARALLEL_MAPPED, size, System.nanoTime() - start);
+			} finally {
+				MessageDigestUtils.release(algorithm, messageDigest);
+			}
+		} finally {
+			raf.close();
+		}
+	}
+
+	/**
+	 * 计算文件的CRC32校验码，大文件分块并行计算后合并，结果与顺序计算相同。
+	 *
+	 * @param file 文件
+	 * @return
+	 *      计算结果
+	 * @throws IOException 如果文件不存在或者读取出错
+	 * @throws IllegalArgumentException 如果file为null。
+	 */
+	public static Result crc32(File file) throws IOException{
+		return checksum(file, ChecksumType.CRC32);
+	}
+
+	/**
+	 * 计算文件的Adler32校验码，大文件分块并行计算后合并，结果与顺序计算相同。
+	 *
+	 * @param file 文件
+	 * @return
+	 *      计算结果
+	 * @throws IOException 如果文件不存在或者读取出错
+	 * @throws IllegalArgumentException 如果file为null。
+	 */
+	public static Result adler32(File file) throws IOException{
+		return checksum(file, ChecksumType.ADLER32);
+	}
+
+	private static Result checksum(File file, ChecksumType type) throws IOException{
+		Assert.notNull(file, "文件不能为空!");
+		long start = System.nanoTime();
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = raf.getChannel();
+			long size = channel.size();
+			long value;
+			Strategy strategy;
+			if(size <= CHUNK_SIZE){
+				strategy = size >= MAP_THRESHOLD ? Strategy.MAPPED : Strategy.READ;
+				ByteBuffer buffer = strategy == Strategy.MAPPED ? channel.map(MapMode.READ_ONLY, 0, size)
+						: readFully(channel, (int) size);
+				value = CRCUtils.update(type.newChecksum(), buffer);
+			}else{
+				strategy = Strategy.PARALLEL_MAPPED;
+				value = CRCUtils.parallelChecksum(channel, type);
+			}
+			return new Result(toBytes(value), strategy, size, System.nanoTime() - start);
+		} finally {
+			raf.close();
+		}
+	}
+
+	private static ByteBuffer readFully(FileChannel channel, int size) throws IOException{
+		ByteBuffer buffer = ByteBuffer.allocate(size);
+		while(buffer.hasRemaining() && channel.read(buffer) > -1){
+		}
+		buffer.flip();
+		return buffer;
+	}
+
+	private static List<ChunkTask> invokeAll(List<ChunkTask> tasks) throws IOException{
+		ForkJoinPool pool = WorkerPool.get();
+		for(ChunkTask task : tasks){
+			pool.execute(task);
+		}
+		for(ChunkTask task : tasks){
+			task.join();
+			if(task.exception != null){
+				throw task.exception;
+			}
+		}
+		return tasks;
+	}
+
+	private static byte[] toBytes(long checksum){
+		return new byte[]{(byte)(checksum >>> 24), (byte)(checksum >>> 16), (byte)(checksum >>> 8), (byte)checksum};
+	}
+
+	/**
+	 * 映射文件中的一块并计算。
+	 */
+	static abstract class ChunkTask extends RecursiveTask<byte[]> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final FileChannel channel;
+
+		private final long position;
+
+		final long length;
+
+		IOException exception;
+
+		ChunkTask(FileChannel channel, long position, long length) {
+			this.channel = channel;
+			this.position = position;
+			this.length = length;
+		}
+
+		@Override
+		protected byte[] compute() {
+			try {
+				MappedByteBuffer chunk = channel.map(MapMode.READ_ONLY, position, length);
+				return compute(chunk);
+			} catch (IOException e) {
+				exception = e;
+				return null;
+			}
+		}
+
+		abstract byte[] compute(ByteBuffer chunk);
+
+		byte[] value() {
+			return getRawResult();
+		}
+
+	}
+
+	private FileDigest() {}
+
+}
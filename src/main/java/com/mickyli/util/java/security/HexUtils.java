@@ -1,8 +1,12 @@
 package com.mickyli.util.java.security; 
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
 
 /** 
  *   <B>说       明</B>:十六进制工具类
+ *   <p>编码和解码都基于查表完成,可以直接写入调用方提供的char[]、byte[]或ByteBuffer,不产生中间字符串。
  *
  */
 public class HexUtils {
@@ -12,6 +16,39 @@ public class HexUtils {
 	 */
 	private static final char[] DIGITS = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
 	
+	/**
+	 * 用于构建十六进制的数据(大写)
+	 */
+	private static final char[] DIGITS_UPPER = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E', 'F'};
+	
+	/**
+	 * 字节到两个十六进制字符的编码表,下标2*b和2*b+1分别是高4位和低4位对应的字符
+	 */
+	private static final char[] ENCODE_TABLE = new char[512];
+	
+	private static final char[] ENCODE_TABLE_UPPER = new char[512];
+	
+	/**
+	 * 字符到数值的解码表,非十六进制字符为-1
+	 */
+	private static final byte[] DECODE_TABLE = new byte[128];
+	
+	static {
+		for (int i = 0; i < 256; i++) {
+			ENCODE_TABLE[i << 1] = DIGITS[i >>> 4];
+			ENCODE_TABLE[(i << 1) + 1] = DIGITS[i & 0x0F];
+			ENCODE_TABLE_UPPER[i << 1] = DIGITS_UPPER[i >>> 4];
+			ENCODE_TABLE_UPPER[(i << 1) + 1] = DIGITS_UPPER[i & 0x0F];
+		}
+		for (int i = 0; i < DECODE_TABLE.length; i++) {
+			DECODE_TABLE[i] = -1;
+		}
+		for (int i = 0; i < 16; i++) {
+			DECODE_TABLE[DIGITS[i]] = (byte) i;
+			DECODE_TABLE[DIGITS_UPPER[i]] = (byte) i;
+		}
+	}
+	
 	/**
 	 * 将一个字节数组转化成十六进制字符的字符串
 	 * 
@@ -21,29 +58,202 @@ public class HexUtils {
 	 * @throws IllegalArgumentException 如果data为null。
 	 */
 	public static String toHexString(byte[] data){
+		return toHexString(data, false);
+	}
+	
+	/**
+	 * 将一个字节数组转化成十六进制字符的字符串
+	 * 
+	 * @param data 要转化的字节数组
+	 * @param upperCase 是否使用大写字母
+	 * @return
+	 *      包含十六进制字符的字符串
+	 * @throws IllegalArgumentException 如果data为null。
+	 */
+	public static String toHexString(byte[] data, boolean upperCase){
 		Assert.notNull(data,"要转化为字符串(十六进制字符)的字节数组不能为空!");
-		return new String(toHex(data));
+		char[] out = new char[data.length << 1];
+		encode(data, 0, data.length, out, 0, upperCase);
+		return new String(out);
 	}
 	
 	/**
-	 * 将一个字节数组转化成十六进制字符数组
+	 * 将字节数组中的数据编码为十六进制字符写入out
 	 * 
 	 * @param data 要转化的字节数组
+	 * @param offset data中的起始位置
+	 * @param length 要转化的字节数
+	 * @param out 写入的字符数组,需要至少有2*length个可用位置
+	 * @param outOffset out中的起始位置
+	 * @param upperCase 是否使用大写字母
 	 * @return
-	 *      包含十六进制字符的字符数组
+	 *      写入的字符数
+	 */
+	public static int encode(byte[] data, int offset, int length, char[] out, int outOffset, boolean upperCase){
+		char[] table = upperCase ? ENCODE_TABLE_UPPER : ENCODE_TABLE;
+		for (int i = offset, end = offset + length, j = outOffset; i < end; i++) {
+			int index = (data[i] & 0xFF) << 1;
+			out[j++] = table[index];
+			out[j++] = table[index + 1];
+		}
+		return length << 1;
+	}
+	
+	/**
+	 * 将字节数组中的数据编码为十六进制字符(ASCII)写入out
+	 * 
+	 * @param data 要转化的字节数组
+	 * @param offset data中的起始位置
+	 * @param length 要转化的字节数
+	 * @param out 写入的字节数组,需要至少有2*length个可用位置
+	 * @param outOffset out中的起始位置
+	 * @param upperCase 是否使用大写字母
+	 * @return
+	 *      写入的字节数
+	 */
+	public static int encode(byte[] data, int offset, int length, byte[] out, int outOffset, boolean upperCase){
+		char[] table = upperCase ? ENCODE_TABLE_UPPER : ENCODE_TABLE;
+		for (int i = offset, end = offset + length, j = outOffset; i < end; i++) {
+			int index = (data[i] & 0xFF) << 1;
+			out[j++] = (byte) table[index];
+			out[j++] = (byte) table[index + 1];
+		}
+		return length << 1;
+	}
+	
+	/**
+	 * 将src中剩余的数据编码为十六进制字符(ASCII)写入dst
+	 * 
+	 * @param src 要转化的数据
+	 * @param dst 写入的缓冲区,需要至少有2*src.remaining()个可用位置
+	 * @param upperCase 是否使用大写字母
+	 * @throws BufferOverflowException 如果dst空间不足
 	 */
-	private static char[] toHex(byte[] data) {
-		//参考commons codec Hex
-        final int l = data.length;
-        final char[] out = new char[l << 1];
-        for (int i = 0, j = 0; i < l; i++) {
-            out[j++] = DIGITS[(0xF0 & data[i]) >>> 4];
-            out[j++] = DIGITS[0x0F & data[i]];
-        }
-        return out;
-    }
+	public static void encode(ByteBuffer src, ByteBuffer dst, boolean upperCase){
+		char[] table = upperCase ? ENCODE_TABLE_UPPER : ENCODE_TABLE;
+		if (dst.remaining() < src.remaining() << 1) {
+			throw new BufferOverflowException();
+		}
+		if (src.hasArray() && dst.hasArray()) {
+			int length = src.remaining();
+			encode(src.array(), src.arrayOffset() + src.position(), length, dst.array(), dst.arrayOffset() + dst.position(), upperCase);
+			src.position(src.position() + length);
+			dst.position(dst.position() + (length << 1));
+			return;
+		}
+		while (src.hasRemaining()) {
+			int index = (src.get() & 0xFF) << 1;
+			dst.put((byte) table[index]);
+			dst.put((byte) table[index + 1]);
+		}
+	}
+	
+	/**
+	 * 获取十六进制字符对应的数值
+	 * 
+	 * @param c 十六进制字符(大小写均可)
+	 * @return
+	 *      0-15,不是十六进制字符时返回-1
+	 */
+	public static int digit(int c){
+		return c < DECODE_TABLE.length && c >= 0 ? DECODE_TABLE[c] : -1;
+	}
+	
+	/**
+	 * 将十六进制字符串解码为字节数组
+	 * 
+	 * @param hex 十六进制字符串(大小写均可)
+	 * @return
+	 *      解码后的字节数组
+	 * @throws IllegalArgumentException 如果hex为null、长度不是偶数或包含非十六进制字符。
+	 */
+	public static byte[] decode(CharSequence hex){
+		Assert.notNull(hex,"要解码的十六进制字符串不能为空!");
+		byte[] out = new byte[checkLength(hex.length()) >> 1];
+		decode(hex, 0, hex.length(), out, 0);
+		return out;
+	}
+	
+	/**
+	 * 将十六进制字符解码后写入out
+	 * 
+	 * @param hex 十六进制字符
+	 * @param start hex中的起始位置
+	 * @param end hex中的结束位置(不包含)
+	 * @param out 写入的字节数组
+	 * @param outOffset out中的起始位置
+	 * @return
+	 *      写入的字节数
+	 * @throws IllegalArgumentException 如果长度不是偶数或包含非十六进制字符。
+	 */
+	public static int decode(CharSequence hex, int start, int end, byte[] out, int outOffset){
+		checkLength(end - start);
+		for (int i = start, j = outOffset; i < end; i += 2) {
+			out[j++] = (byte) (toDigit(hex.charAt(i), i) << 4 | toDigit(hex.charAt(i + 1), i + 1));
+		}
+		return (end - start) >> 1;
+	}
+	
+	/**
+	 * 将十六进制字符(ASCII)解码后写入out
+	 * 
+	 * @param hex 十六进制字符(ASCII)
+	 * @param offset hex中的起始位置
+	 * @param length 要解码的字节数
+	 * @param out 写入的字节数组
+	 * @param outOffset out中的起始位置
+	 * @return
+	 *      写入的字节数
+	 * @throws IllegalArgumentException 如果长度不是偶数或包含非十六进制字符。
+	 */
+	public static int decode(byte[] hex, int offset, int length, byte[] out, int outOffset){
+		checkLength(length);
+		for (int i = offset, end = offset + length, j = outOffset; i < end; i += 2) {
+			out[j++] = (byte) (toDigit(hex[i] & 0xFF, i) << 4 | toDigit(hex[i + 1] & 0xFF, i + 1));
+		}
+		return length >> 1;
+	}
+	
+	/**
+	 * 将src中剩余的十六进制字符(ASCII)解码后写入dst
+	 * 
+	 * @param src 十六进制字符(ASCII)
+	 * @param dst 写入的缓冲区,需要至少有src.remaining()/2个可用位置
+	 * @throws IllegalArgumentException 如果长度不是偶数或包含非十六进制字符。
+	 * @throws BufferOverflowException 如果dst空间不足
+	 */
+	public static void decode(ByteBuffer src, ByteBuffer dst){
+		int length = checkLength(src.remaining());
+		if (dst.remaining() < length >> 1) {
+			throw new BufferOverflowException();
+		}
+		if (src.hasArray() && dst.hasArray()) {
+			decode(src.array(), src.arrayOffset() + src.position(), length, dst.array(), dst.arrayOffset() + dst.position());
+			src.position(src.position() + length);
+			dst.position(dst.position() + (length >> 1));
+			return;
+		}
+		for (int i = 0; i < length; i += 2) {
+			int hi = toDigit(src.get() & 0xFF, i);
+			dst.put((byte) (hi << 4 | toDigit(src.get() & 0xFF, i + 1)));
+		}
+	}
+	
+	private static int checkLength(int length) {
+		if ((length & 1) != 0) {
+			throw new IllegalArgumentException("十六进制字符的长度必须是偶数!");
+		}
+		return length;
+	}
+	
+	private static int toDigit(int c, int index) {
+		int digit = digit(c);
+		if (digit < 0) {
+			throw new IllegalArgumentException("非法的十六进制字符 " + (char) c + " 位置 " + index);
+		}
+		return digit;
+	}
 	
 	private HexUtils() {}
 	
 }
- 
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.mickyli.util.java.security;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** 
+ *   <B>说       明</B>:容量固定的LRU缓存，超过容量时移除最近最少使用的元素。
+ *   <p>所有操作都在同一把锁内完成，只适合缓存创建代价较高、数量较少的对象(例如解析后的公钥、协商出的密钥)，
+ *   创建对象应在锁外进行。
+ *
+ */
+final class LRUCache<K, V> {
+
+	private final Map<K, V> map;
+
+	LRUCache(final int capacity) {
+		this.map = new LinkedHashMap<K, V>(capacity, 0.75f, true){
+			private static final long serialVersionUID = 1L;
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+				return size() > capacity;
+			}
+		};
+	}
+
+	synchronized V get(K key){
+		return map.get(key);
+	}
+
+	synchronized void put(K key, V value){
+		map.put(key, value);
+	}
+
+	synchronized void clear(){
+		map.clear();
+	}
+
+	synchronized int size(){
+		return map.size();
+	}
+
+}
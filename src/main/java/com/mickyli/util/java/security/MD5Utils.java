@@ -7,10 +7,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.security.DigestException;
-import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
 import com.mickyli.util.java.character.StringUtils;
+import com.mickyli.util.java.security.MessageDigestUtils.MessageDigestAlgorithm;
 
 /** 
  *   <B>说       明</B>:基于MD5算法的工具类
@@ -97,17 +97,12 @@ public class MD5Utils {
 		}
 		
 		byte[] byteString=target.getBytes(Charset.forName("utf-8"));
-		MessageDigest md=MessageDigest.getInstance("MD5");
-		byte[] array=md.digest(byteString);
-		StringBuffer sb = new StringBuffer();
-		for (int i = 0; i < array.length; ++i) {
-	          sb.append(Integer.toHexString((array[i] & 0xFF) | 0x100).substring(1,3));
-	    }
-		return sb.toString();
+		return MessageDigestUtils.getMD5StringDigest(byteString);
 	}
 	
 	/**
 	 * 获取文件MD5
+	 * <p>大文件通过内存映射读取，参见{@link FileDigest}
 	 * @param filePath 文件路径
 	 * @return String
 	 * @throws NoSuchAlgorithmException
@@ -115,25 +110,7 @@ public class MD5Utils {
 	 * @throws DigestException
 	 */
 	public static String getFileMD5(String filePath) throws NoSuchAlgorithmException, IOException, DigestException{
-		MessageDigest md=MessageDigest.getInstance("MD5");
-		int length=0;
-		byte[] buffer=new byte[1024];
-		byte[] array=null;
-		InputStream is=new FileInputStream(new File(filePath));
-		while((length=is.read(buffer))!=-1){
-			md.update(buffer,0,length);
-		}
-		
-		is.close();
-		
-		array=md.digest();
-		
-		StringBuffer sb = new StringBuffer();
-		for (int i = 0; i < array.length; ++i) {
-	          sb.append(Integer.toHexString((array[i] & 0xFF) | 0x100).substring(1,3));
-	    }
-		
-		return sb.toString();
+		return FileDigest.digest(new File(filePath), MessageDigestAlgorithm.MD5).getHex();
 	}
 	private MD5Utils() {}
 
@@ -2,6 +2,7 @@ package com.mickyli.util.java.security;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
@@ -16,6 +17,13 @@ public class MessageDigestUtils {
 	 */
 	private static final int DEFAULT_BUFFER_SIZE = 1024 * 8;
 	
+	/**
+	 * 每个线程缓存的MessageDigest实例，下标为{@link MessageDigestAlgorithm#ordinal()}。
+	 * <p>使用时从缓存中取出，用完reset后放回，因此在摘要过程中再次调用本类(例如读取的数据流内部也在计算摘要)也不会共用同一个实例。
+	 * <p>这里只存放JDK中的类，不会因为线程池中的线程而导致当前类加载器无法回收。
+	 */
+	private static final ThreadLocal<MessageDigest[]> DIGESTS = new ThreadLocal<MessageDigest[]>();
+	
 	/**
 	 * 通过MD2算法进行消息摘要
 	 * 
@@ -328,13 +336,7 @@ public class MessageDigestUtils {
 	 */
 	private static byte[] getMessageDigest(byte[] input,MessageDigestAlgorithm algorithm){
 		Assert.notNull(input, "要进行消息摘要的数据不能为空!");
-		Assert.notNull(algorithm, "消息摘要算法不能为空!");
-		try {
-			MessageDigest messageDigest = MessageDigest.getInstance(algorithm.getName());
-			return messageDigest.digest(input);
-		} catch (NoSuchAlgorithmException e) {
-			throw new IllegalArgumentException(e);
-		}
+		return digest(input, 0, input.length, algorithm);
 	}
 	
 	/**
@@ -363,17 +365,16 @@ public class MessageDigestUtils {
 	 */
 	private static byte[] getMessageDigest(InputStream inputStream,MessageDigestAlgorithm algorithm) throws IOException{
 		Assert.notNull(inputStream, "要进行消息摘要的数据流不能为空!");
-		Assert.notNull(algorithm, "消息摘要算法不能为空!");
+		MessageDigest messageDigest = acquire(algorithm);
 		try {
-			MessageDigest messageDigest = MessageDigest.getInstance(algorithm.getName());
 			byte[] buffer = new byte[DEFAULT_BUFFER_SIZE];
 			int len = -1;
 			while((len = inputStream.read(buffer)) > -1){
 				messageDigest.update(buffer, 0, len);
 			}
 			return messageDigest.digest();
-		} catch (NoSuchAlgorithmException e) {
-			throw new IllegalArgumentException(e);
+		} finally {
+			release(algorithm, messageDigest);
 		}
 	}
 	
@@ -392,6 +393,105 @@ public class MessageDigestUtils {
 		return HexUtils.toHexString(digest);
 	}
 	
+	/**
+	 * 获取消息摘要
+	 * 
+	 * @param input 要进行消息摘要的数据
+	 * @param algorithm 消息摘要算法 @see {@link MessageDigestAlgorithm}
+	 * @return
+	 *      字节数组形式的消息摘要
+	 * @throws IllegalArgumentException 如果参数input为null，或者algorithm为空或不被JDK支持。
+	 */
+	public static byte[] digest(byte[] input, MessageDigestAlgorithm algorithm){
+		return getMessageDigest(input, algorithm);
+	}
+	
+	/**
+	 * 获取数组中一部分数据的消息摘要，不需要先复制数组
+	 * 
+	 * @param input 要进行消息摘要的数据
+	 * @param offset 数据的起始位置
+	 * @param length 数据的长度
+	 * @param algorithm 消息摘要算法 @see {@link MessageDigestAlgorithm}
+	 * @return
+	 *      字节数组形式的消息摘要
+	 * @throws IllegalArgumentException 如果参数input为null，offset和length超出范围，或者algorithm为空或不被JDK支持。
+	 */
+	public static byte[] digest(byte[] input, int offset, int length, MessageDigestAlgorithm algorithm){
+		Assert.notNull(input, "要进行消息摘要的数据不能为空!");
+		Assert.isTrue(offset >= 0 && length >= 0 && offset <= input.length - length, "数据的起始位置或长度超出范围!");
+		MessageDigest messageDigest = acquire(algorithm);
+		try {
+			messageDigest.update(input, offset, length);
+			return messageDigest.digest();
+		} finally {
+			release(algorithm, messageDigest);
+		}
+	}
+	
+	/**
+	 * 获取缓冲区中剩余数据的消息摘要，完成后缓冲区的position等于limit
+	 * <p>直接缓冲区的数据不会被复制到堆中
+	 * 
+	 * @param input 要进行消息摘要的数据
+	 * @param algorithm 消息摘要算法 @see {@link MessageDigestAlgorithm}
+	 * @return
+	 *      字节数组形式的消息摘要
+	 * @throws IllegalArgumentException 如果参数input为null，或者algorithm为空或不被JDK支持。
+	 */
+	public static byte[] digest(ByteBuffer input, MessageDigestAlgorithm algorithm){
+		Assert.notNull(input, "要进行消息摘要的数据不能为空!");
+		MessageDigest messageDigest = acquire(algorithm);
+		try {
+			messageDigest.update(input);
+			return messageDigest.digest();
+		} finally {
+			release(algorithm, messageDigest);
+		}
+	}
+	
+	/**
+	 * 从当前线程的缓存中取出MessageDigest，缓存中没有时新建一个
+	 * <p>用完后必须调用{@link #release(MessageDigestAlgorithm, MessageDigest)}放回。
+	 * 
+	 * @param algorithm 消息摘要算法
+	 * @return
+	 *      MessageDigest实例
+	 * @throws IllegalArgumentException 如果algorithm为空或不被JDK支持。
+	 */
+	static MessageDigest acquire(MessageDigestAlgorithm algorithm){
+		Assert.notNull(algorithm, "消息摘要算法不能为空!");
+		MessageDigest[] digests = DIGESTS.get();
+		if(digests != null){
+			MessageDigest messageDigest = digests[algorithm.ordinal()];
+			if(messageDigest != null){
+				digests[algorithm.ordinal()] = null;
+				return messageDigest;
+			}
+		}
+		try {
+			return MessageDigest.getInstance(algorithm.getName());
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
+	
+	/**
+	 * 重置MessageDigest并放回当前线程的缓存
+	 * 
+	 * @param algorithm 消息摘要算法
+	 * @param messageDigest 由{@link #acquire(MessageDigestAlgorithm)}取出的实例
+	 */
+	static void release(MessageDigestAlgorithm algorithm, MessageDigest messageDigest){
+		messageDigest.reset();
+		MessageDigest[] digests = DIGESTS.get();
+		if(digests == null){
+			digests = new MessageDigest[MessageDigestAlgorithm.values().length];
+			DIGESTS.set(digests);
+		}
+		digests[algorithm.ordinal()] = messageDigest;
+	}
+	
 	private MessageDigestUtils() {}
 	
 	/** 
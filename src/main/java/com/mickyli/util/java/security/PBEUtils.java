@@ -1,12 +1,9 @@
 package com.mickyli.util.java.security;
 
 import java.security.Key;
-import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
-import java.security.spec.InvalidKeySpecException;
 
 import javax.crypto.Cipher;
-import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.PBEKeySpec;
 import javax.crypto.spec.PBEParameterSpec;
 
@@ -228,15 +225,8 @@ public class PBEUtils {
 	 * @throws IllegalArgumentException 如果不支持algorithm算法或者由密码产生密钥材料不合法!。
 	 */
 	private static Key toKey(String password,String algorithm) {
-		try {
-			PBEKeySpec pbeKeySpec = new PBEKeySpec(password.toCharArray());
-			SecretKeyFactory keyFactory = SecretKeyFactory.getInstance(algorithm);
-			return keyFactory.generateSecret(pbeKeySpec);
-		} catch (NoSuchAlgorithmException e) {
-			throw new IllegalArgumentException(e);
-		} catch (InvalidKeySpecException e) {
-			throw new IllegalArgumentException(e);
-		}
+		PBEKeySpec pbeKeySpec = new PBEKeySpec(password.toCharArray());
+		return EncryptionBase.toKey(pbeKeySpec, algorithm);
 	}
 
 
@@ -0,0 +1,370 @@
+package com.mickyli.util.java.security;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ *   <B>说       明</B>:基于PBKDF2的密码散列工具。
+ *
+ *   <p>每次散列随机生成16个字节的盐，结果为自描述的字符串，包含算法、迭代次数、盐和散列值:
+ *   <pre>$pbkdf2-sha256$迭代次数$盐$散列值</pre>
+ *   盐和散列值使用Base64(URL And FileName Safe)编码。校验时从字符串中读取参数，
+ *   修改迭代次数或算法后，原来的散列结果仍然可以校验，可以通过{@link #needsRehash(String)}判断是否需要重新散列。
+ *   <p>{@link #getDefault()}在第一次使用时按{@link #DEFAULT_TARGET_MILLIS}毫秒校准迭代次数，
+ *   也可以通过{@link #calibrate(Algorithm, long)}按其他耗时校准。
+ *   <p>PBKDF2有意很慢，登录高峰时同步校验会占满请求线程。{@link #verifyAsync(char[], String)}
+ *   在线程数和队列长度都有限的线程池中校验，队列已满时立即拒绝。
+ *   <p>该类的对象可以在多个线程间共享。
+ *   <p>注:{@link com.mickyli.util.java.project.Password#md5(String)}和{@link SecUtil#md5(String)}
+ *   只做一次不加盐的MD5，不应再用于保存密码。
+ *
+ */
+public final class PasswordHasher {
+
+	/**
+	 * 默认校准的单次散列耗时(毫秒)。
+	 */
+	public static final long DEFAULT_TARGET_MILLIS = 100;
+
+	/**
+	 * 最小迭代次数，校准结果不会低于此值。
+	 */
+	public static final int MIN_ITERATIONS = 10000;
+
+	/**
+	 * 盐的长度(字节)。
+	 */
+	private static final int SALT_LENGTH = 16;
+
+	/**
+	 * 散列值的最大长度(字节)。
+	 */
+	private static final int MAX_HASH_LENGTH = 32;
+
+	private static final String PREFIX = "$pbkdf2-";
+
+	private static final SecureRandom RANDOM = new SecureRandom();
+
+	/**
+	 * PBKDF2使用的伪随机函数。
+	 */
+	public static enum Algorithm {
+
+		/**
+		 * JDK6、JDK7也支持。
+		 */
+		PBKDF2_SHA1("PBKDF2WithHmacSHA1", "sha1", 20),
+
+		PBKDF2_SHA256("PBKDF2WithHmacSHA256", "sha256", 32),
+
+		PBKDF2_SHA512("PBKDF2WithHmacSHA512", "sha512", 64);
+
+		private final String name;
+
+		private final String id;
+
+		private final int hashLength;
+
+		private Algorithm(String name, String id, int hashLength) {
+			this.name = name;
+			this.id = id;
+			this.hashLength = Math.min(hashLength, MAX_HASH_LENGTH);
+		}
+
+		/**
+		 * 获取JDK中SecretKeyFactory的算法名称。
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * 获取散列结果中的算法标识，例如sha256。
+		 */
+		public String getId() {
+			return id;
+		}
+
+		/**
+		 * 判断当前JDK是否支持该算法。
+		 */
+		public boolean isSupported() {
+			try {
+				SecretKeyFactory.getInstance(name);
+				return true;
+			} catch (NoSuchAlgorithmException e) {
+				return false;
+			}
+		}
+
+		static Algorithm forId(String id) {
+			for(Algorithm algorithm : values()){
+				if(algorithm.id.equals(id)){
+					return algorithm;
+				}
+			}
+			return null;
+		}
+
+	}
+
+	private static class DefaultHolder {
+		static final PasswordHasher DEFAULT = calibrate(
+				Algorithm.PBKDF2_SHA256.isSupported() ? Algorithm.PBKDF2_SHA256 : Algorithm.PBKDF2_SHA1,
+				DEFAULT_TARGET_MILLIS);
+	}
+
+	private static class ExecutorHolder {
+		static final ExecutorService EXECUTOR = newVerifyExecutor(Runtime.getRuntime().availableProcessors(), 1024);
+	}
+
+	private final Algorithm algorithm;
+
+	private final int iterations;
+
+	/**
+	 * 创建密码散列工具。
+	 *
+	 * @param algorithm 算法。
+	 * @param iterations 迭代次数。
+	 * @throws IllegalArgumentException 如果algorithm为null或不被当前JDK支持，或者iterations小于1。
+	 */
+	public PasswordHasher(Algorithm algorithm, int iterations){
+		Assert.notNull(algorithm, "算法不能为null!");
+		Assert.isTrue(algorithm.isSupported(), "当前JDK不支持" + algorithm.getName() + "算法!");
+		Assert.isTrue(iterations > 0, "迭代次数必须大于0!");
+		this.algorithm = algorithm;
+		this.iterations = iterations;
+	}
+
+	/**
+	 * 获取默认的密码散列工具:PBKDF2_SHA256(不支持时使用PBKDF2_SHA1)，
+	 * 迭代次数在第一次调用时按{@link #DEFAULT_TARGET_MILLIS}毫秒校准。
+	 *
+	 * @return
+	 *      默认的密码散列工具。
+	 */
+	public static PasswordHasher getDefault(){
+		return DefaultHolder.DEFAULT;
+	}
+
+	/**
+	 * 在当前机器上测量散列耗时，按目标耗时计算迭代次数(取整到1000，不小于{@link #MIN_ITERATIONS})。
+	 *
+	 * @param algorithm 算法。
+	 * @param targetMillis 单次散列的目标耗时(毫秒)。
+	 * @return
+	 *      使用校准后迭代次数的密码散列工具。
+	 * @throws IllegalArgumentException 如果algorithm为null或不被当前JDK支持，或者targetMillis小于1。
+	 */
+	public static PasswordHasher calibrate(Algorithm algorithm, long targetMillis){
+		Assert.notNull(algorithm, "算法不能为null!");
+		Assert.isTrue(algorithm.isSupported(), "当前JDK不支持" + algorithm.getName() + "算法!");
+		Assert.isTrue(targetMillis > 0, "目标耗时必须大于0!");
+		char[] password = "calibrate".toCharArray();
+		byte[] salt = new byte[SALT_LENGTH];
+		//前几次包含类加载和JIT编译的时间，取多次测量中的最小值。
+		long best = Long.MAX_VALUE;
+		for(int i = 0; i < 5; i++){
+			long start = System.nanoTime();
+			derive(password, salt, MIN_ITERATIONS, algorithm);
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		long iterations = MIN_ITERATIONS * TimeUnit.MILLISECONDS.toNanos(targetMillis) / Math.max(best, 1);
+		iterations = Math.min(iterations / 1000 * 1000, Integer.MAX_VALUE / 1000 * 1000);
+		return new PasswordHasher(algorithm, (int) Math.max(iterations, MIN_ITERATIONS));
+	}
+
+	/**
+	 * 散列密码。
+	 *
+	 * @param password 密码。
+	 * @return
+	 *      自描述格式的散列结果。
+	 * @throws IllegalArgumentException 如果password为null。
+	 */
+	public String hash(char[] password){
+		Assert.notNull(password, "密码不能为null!");
+		byte[] salt = new byte[SALT_LENGTH];
+		RANDOM.nextBytes(salt);
+		byte[] hash = derive(password, salt, iterations, algorithm);
+		return PREFIX + algorithm.getId() + '$' + iterations + '$'
+				+ Base64UFSUtils.encode2string(salt) + '$' + Base64UFSUtils.encode2string(hash);
+	}
+
+	/**
+	 * 校验密码与散列结果是否匹配。散列结果中的算法和迭代次数可以与当前对象不同。
+	 *
+	 * @param password 密码。
+	 * @param encoded {@link #hash(char[])}返回的散列结果。
+	 * @return
+	 *      匹配返回true，否则返回false。
+	 * @throws IllegalArgumentException 如果参数为null，或者encoded的格式不正确。
+	 */
+	public boolean verify(char[] password, String encoded){
+		Assert.notNull(password, "密码不能为null!");
+		Encoded parsed = parse(encoded);
+		byte[] hash = derive(password, parsed.salt, parsed.iterations, parsed.algorithm);
+		//比较时间与内容无关。
+		return MessageDigest.isEqual(hash, parsed.hash);
+	}
+
+	/**
+	 * 在默认的校验线程池中校验密码，线程数等于CPU核数，最多排队1024个任务。
+	 *
+	 * @param password 密码，会复制一份，调用后可以立即清除。
+	 * @param encoded {@link #hash(char[])}返回的散列结果。
+	 * @return
+	 *      校验结果。
+	 * @throws IllegalArgumentException 如果参数为null，或者encoded的格式不正确。
+	 * @throws RejectedExecutionException 如果校验任务已经排满。
+	 */
+	public Future<Boolean> verifyAsync(char[] password, String encoded){
+		return verifyAsync(password, encoded, ExecutorHolder.EXECUTOR);
+	}
+
+	/**
+	 * 在指定的线程池中校验密码。
+	 *
+	 * @param password 密码，会复制一份，调用后可以立即清除。
+	 * @param encoded {@link #hash(char[])}返回的散列结果。
+	 * @param executor 线程池，参见{@link #newVerifyExecutor(int, int)}。
+	 * @return
+	 *      校验结果。
+	 * @throws IllegalArgumentException 如果参数为null，或者encoded的格式不正确。
+	 * @throws RejectedExecutionException 如果线程池拒绝了校验任务。
+	 */
+	public Future<Boolean> verifyAsync(char[] password, final String encoded, ExecutorService executor){
+		Assert.notNull(password, "密码不能为null!");
+		Assert.notNull(executor, "线程池不能为null!");
+		//格式错误在调用线程中直接抛出。
+		parse(encoded);
+		final char[] copy = password.clone();
+		try {
+			return executor.submit(new Callable<Boolean>() {
+				@Override
+				public Boolean call() {
+					try {
+						return verify(copy, encoded);
+					} finally {
+						Arrays.fill(copy, '\0');
+					}
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			Arrays.fill(copy, '\0');
+			throw e;
+		}
+	}
+
+	/**
+	 * 判断散列结果是否使用了与当前对象不同的算法，或者更少的迭代次数，登录成功后可以据此重新散列。
+	 *
+	 * @param encoded {@link #hash(char[])}返回的散列结果。
+	 * @return
+	 *      需要重新散列返回true。
+	 * @throws IllegalArgumentException 如果encoded的格式不正确。
+	 */
+	public boolean needsRehash(String encoded){
+		Encoded parsed = parse(encoded);
+		return parsed.algorithm != algorithm || parsed.iterations < iterations;
+	}
+
+	/**
+	 * 创建用于校验密码的线程池:线程数和队列长度固定，队列已满时抛出{@link RejectedExecutionException}，
+	 * 使用守护线程，空闲60秒后回收。
+	 *
+	 * @param threads 线程数。
+	 * @param queueSize 队列长度。
+	 * @return
+	 *      线程池。
+	 * @throws IllegalArgumentException 如果threads或queueSize小于1。
+	 */
+	public static ExecutorService newVerifyExecutor(int threads, int queueSize){
+		Assert.isTrue(threads > 0, "线程数必须大于0!");
+		Assert.isTrue(queueSize > 0, "队列长度必须大于0!");
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<Runnable>(queueSize), new ThreadFactory() {
+					private final AtomicInteger count = new AtomicInteger();
+					@Override
+					public Thread newThread(Runnable r) {
+						Thread thread = new Thread(r, "password-verify-" + count.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					}
+				}, new ThreadPoolExecutor.AbortPolicy());
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	public Algorithm getAlgorithm() {
+		return algorithm;
+	}
+
+	public int getIterations() {
+		return iterations;
+	}
+
+	private static byte[] derive(char[] password, byte[] salt, int iterations, Algorithm algorithm){
+		PBEKeySpec keySpec = new PBEKeySpec(password, salt, iterations, algorithm.hashLength * 8);
+		try {
+			return EncryptionBase.toKey(keySpec, algorithm.getName()).getEncoded();
+		} finally {
+			keySpec.clearPassword();
+		}
+	}
+
+	private static Encoded parse(String encoded){
+		Assert.notNull(encoded, "散列结果不能为null!");
+		String[] parts = encoded.split("\\$");
+		Assert.isTrue(parts.length == 5 && parts[0].isEmpty() && parts[1].startsWith(PREFIX.substring(1)),
+				"散列结果的格式不正确!");
+		Algorithm algorithm = Algorithm.forId(parts[1].substring(PREFIX.length() - 1));
+		Assert.notNull(algorithm, "不支持的算法:" + parts[1]);
+		int iterations;
+		try {
+			iterations = Integer.parseInt(parts[2]);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("散列结果中的迭代次数不正确!", e);
+		}
+		Assert.isTrue(iterations > 0, "散列结果中的迭代次数不正确!");
+		byte[] salt = Base64UFSUtils.decode(parts[3]);
+		byte[] hash = Base64UFSUtils.decode(parts[4]);
+		Assert.isTrue(hash.length > 0, "散列结果中的散列值不正确!");
+		return new Encoded(algorithm, iterations, salt, hash);
+	}
+
+	private static final class Encoded {
+
+		final Algorithm algorithm;
+
+		final int iterations;
+
+		final byte[] salt;
+
+		final byte[] hash;
+
+		Encoded(Algorithm algorithm, int iterations, byte[] salt, byte[] hash) {
+			this.algorithm = algorithm;
+			this.iterations = iterations;
+			this.salt = salt;
+			this.hash = hash;
+		}
+
+	}
+
+}
@@ -0,0 +1,271 @@
+package com.mickyli.util.java.security;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ *   <B>说       明</B>:RSA数字信封。
+ *
+ *   <p>随机生成一个AES密钥加密数据，再用RSA公钥加密AES密钥，数据长度不再受RSA密钥长度的限制，加解密速度与AES相同。
+ *   <p>数据格式:
+ *   <li>1个字节:版本号，目前为1。
+ *   <li>2个字节:RSA加密后的AES密钥长度n(高位在前)。
+ *   <li>n个字节:使用RSA/ECB/OAEPWithSHA-1AndMGF1Padding加密的128位AES密钥。
+ *   <li>数据段:明文按{@link #SEGMENT_SIZE}分段(最后一段可以为0到{@link #SEGMENT_SIZE}个字节)，
+ *   每段使用AES/GCM/NoPadding加密，密文比明文多16个字节的认证标签。
+ *   <p>每个信封使用不同的AES密钥，各段的初始化向量由段序号和是否为最后一段组成，不写入数据中。
+ *   每段单独认证，解密时可以逐段输出，数据段被修改、调换或截断都会导致解密失败。
+ *   <p>注:需要支持AES/GCM的提供者(JDK8及以上)。
+ *
+ */
+final class RSAEnvelope {
+
+	/**
+	 * 格式版本号。
+	 */
+	static final int VERSION = 1;
+
+	/**
+	 * 每段明文的长度。
+	 */
+	static final int SEGMENT_SIZE = 64 * 1024;
+
+	/**
+	 * 每段的认证标签长度(字节)。
+	 */
+	static final int TAG_SIZE = EncryptionBase.GCM_TAG_LENGTH / 8;
+
+	/**
+	 * 加密AES密钥使用的转换名称。
+	 */
+	static final String KEY_TRANSFORMATION = "RSA/ECB/OAEPWithSHA-1AndMGF1Padding";
+
+	/**
+	 * 加密数据使用的转换名称。
+	 */
+	static final String DATA_TRANSFORMATION = "AES/GCM/NoPadding";
+
+	private static final String AES = "AES";
+
+	private RSAEnvelope() {
+	}
+
+	/**
+	 * 加密输入流中的全部数据，按信封格式写入输出流，两个流都不会被关闭。
+	 *
+	 * @param in 输入流。
+	 * @param out 输出流。
+	 * @param publicKey RSA公钥。
+	 * @return
+	 *      写入输出流的字节数。
+	 * @throws IOException 如果读写过程中出错。
+	 * @throws GeneralSecurityException 如果加密过程中出错。
+	 */
+	static long encrypt(InputStream in, OutputStream out, PublicKey publicKey) throws IOException, GeneralSecurityException{
+		byte[] key = AESUtils.generateKey();
+		Cipher rsa = Cipher.getInstance(KEY_TRANSFORMATION);
+		rsa.init(Cipher.ENCRYPT_MODE, publicKey);
+		byte[] wrappedKey = rsa.doFinal(key);
+		out.write(VERSION);
+		out.write(wrappedKey.length >>> 8);
+		out.write(wrappedKey.length);
+		out.write(wrappedKey);
+		long total = 3 + wrappedKey.length;
+
+		SecretKeySpec secretKey = new SecretKeySpec(key, AES);
+		Cipher aes = Cipher.getInstance(DATA_TRANSFORMATION);
+		//多读一个字节，用来判断当前段是否为最后一段。
+		byte[] input = new byte[SEGMENT_SIZE + 1];
+		byte[] output = new byte[SEGMENT_SIZE + TAG_SIZE];
+		int carry = 0;
+		for(int index = 0; ; index++){
+			int length = carry + fill(in, input, carry, input.length - carry);
+			boolean last = length < input.length;
+			int segment = last ? length : SEGMENT_SIZE;
+			aes.init(Cipher.ENCRYPT_MODE, secretKey, nonce(index, last));
+			int written = aes.doFinal(input, 0, segment, output, 0);
+			out.write(output, 0, written);
+			total += written;
+			if(last){
+				return total;
+			}
+			input[0] = input[SEGMENT_SIZE];
+			carry = 1;
+		}
+	}
+
+	/**
+	 * 读取信封的头部并解密出AES密钥，返回逐段解密的输入流。
+	 *
+	 * @param in 信封格式的输入流，关闭返回的流时一起关闭。
+	 * @param privateKey RSA私钥。
+	 * @return
+	 *      解密输入流。
+	 * @throws IOException 如果读取出错、格式不正确或者无法解密AES密钥。
+	 */
+	static InputStream decrypt(InputStream in, PrivateKey privateKey) throws IOException{
+		int version = in.read();
+		if(version != VERSION){
+			throw new IOException("不支持的数字信封版本:" + version);
+		}
+		int high = in.read();
+		int low = in.read();
+		if((high | low) < 0){
+			throw new EOFException("数字信封的数据不完整!");
+		}
+		byte[] wrappedKey = new byte[high << 8 | low];
+		if(fill(in, wrappedKey, 0, wrappedKey.length) < wrappedKey.length){
+			throw new EOFException("数字信封的数据不完整!");
+		}
+		try {
+			Cipher rsa = Cipher.getInstance(KEY_TRANSFORMATION);
+			rsa.init(Cipher.DECRYPT_MODE, privateKey);
+			SecretKeySpec secretKey = new SecretKeySpec(rsa.doFinal(wrappedKey), AES);
+			return new DecryptInputStream(in, secretKey, Cipher.getInstance(DATA_TRANSFORMATION));
+		} catch (GeneralSecurityException e) {
+			throw new IOException("无法解密数字信封中的密钥!", e);
+		}
+	}
+
+	/**
+	 * 生成数据段的初始化向量:前7个字节为0，之后4个字节为段序号(高位在前)，最后1个字节表示是否为最后一段。
+	 */
+	static GCMParameterSpec nonce(int index, boolean last){
+		byte[] iv = new byte[12];
+		iv[7] = (byte)(index >>> 24);
+		iv[8] = (byte)(index >>> 16);
+		iv[9] = (byte)(index >>> 8);
+		iv[10] = (byte)index;
+		iv[11] = (byte)(last ? 1 : 0);
+		return new GCMParameterSpec(EncryptionBase.GCM_TAG_LENGTH, iv);
+	}
+
+	/**
+	 * 尽量读满指定长度，只有到达流的末尾时才会少于length。
+	 *
+	 * @return
+	 *      实际读取的字节数。
+	 */
+	private static int fill(InputStream in, byte[] buffer, int offset, int length) throws IOException{
+		int total = 0;
+		while(total < length){
+			int read = in.read(buffer, offset + total, length - total);
+			if(read == -1){
+				break;
+			}
+			total += read;
+		}
+		return total;
+	}
+
+	/**
+	 * 逐段解密的输入流，每次只在内存中保留一段数据。
+	 */
+	static final class DecryptInputStream extends InputStream {
+
+		private final InputStream in;
+
+		private final SecretKeySpec secretKey;
+
+		private final Cipher cipher;
+
+		//多读一个字节，用来判断当前段是否为最后一段。
+		private final byte[] input = new byte[SEGMENT_SIZE + TAG_SIZE + 1];
+
+		private final byte[] plain = new byte[SEGMENT_SIZE];
+
+		private int carry;
+
+		private int position;
+
+		private int limit;
+
+		private int index;
+
+		private boolean finished;
+
+		DecryptInputStream(InputStream in, SecretKeySpec secretKey, Cipher cipher) {
+			this.in = in;
+			this.secretKey = secretKey;
+			this.cipher = cipher;
+		}
+
+		@Override
+		public int read() throws IOException {
+			if(position == limit && !nextSegment()){
+				return -1;
+			}
+			return plain[position++] & 0xff;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if(off < 0 || len < 0 || len > b.length - off){
+				throw new IndexOutOfBoundsException();
+			}
+			if(len == 0){
+				return 0;
+			}
+			if(position == limit && !nextSegment()){
+				return -1;
+			}
+			int count = Math.min(len, limit - position);
+			System.arraycopy(plain, position, b, off, count);
+			position += count;
+			return count;
+		}
+
+		@Override
+		public int available() throws IOException {
+			return limit - position;
+		}
+
+		@Override
+		public void close() throws IOException {
+			in.close();
+		}
+
+		/**
+		 * 解密下一段数据，已经解密完最后一段时返回false。
+		 */
+		private boolean nextSegment() throws IOException {
+			//空的数据段(只有认证标签)也要继续读下一段。
+			while(!finished){
+				int length = carry + fill(in, input, carry, input.length - carry);
+				boolean last = length < input.length;
+				int segment = last ? length : input.length - 1;
+				if(segment < TAG_SIZE){
+					throw new EOFException("数字信封的数据不完整!");
+				}
+				try {
+					cipher.init(Cipher.DECRYPT_MODE, secretKey, nonce(index++, last));
+					limit = cipher.doFinal(input, 0, segment, plain, 0);
+				} catch (GeneralSecurityException e) {
+					throw new IOException("数字信封的数据段校验失败!", e);
+				}
+				position = 0;
+				if(last){
+					finished = true;
+				}else{
+					input[0] = input[segment];
+					carry = 1;
+				}
+				if(limit > 0){
+					return true;
+				}
+			}
+			return false;
+		}
+
+	}
+
+}
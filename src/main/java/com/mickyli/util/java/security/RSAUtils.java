@@ -1,5 +1,11 @@
 package com.mickyli.util.java.security;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.GeneralSecurityException;
 import java.security.PrivateKey;
 import java.security.PublicKey;
 
@@ -19,6 +25,9 @@ import javax.crypto.Cipher;
  *   
  *   <p>注：如果使用NoPadding填充方式，解压后的数据会和原始数据不一致(数据长度)，需要进行额外处理。
  *   
+ *   <p>RSA每次只能加密不超过密钥长度的数据，较大的数据应使用数字信封(encryptEnvelope/decryptEnvelope)，
+ *   用随机的AES密钥加密数据，RSA只加密AES密钥，格式参见{@link RSAEnvelope}。
+ *   
  */
 public class RSAUtils {
 
@@ -218,6 +227,114 @@ public class RSAUtils {
 		return EncryptionBase.processData(data, key, DEFAULT_TRANSFORMATION, Cipher.DECRYPT_MODE, EmptyParameterSpec.getInstance());
 	}
 
+	/**
+	 * 用公钥生成数字信封:随机生成AES密钥加密数据，再用公钥加密AES密钥，数据长度不受RSA密钥长度的限制。
+	 * 
+	 * @param data 待加密的数据。
+	 * @param publicKey 公钥。
+	 * @return
+	 *      数字信封格式的数据。
+	 * @throws IllegalArgumentException 如果参数不合法。
+	 * @throws IllegalStateException 如果在加密过程中发生任何错误。
+	 */
+	public static byte[] encryptEnvelope(byte[] data, byte[] publicKey){
+		Assert.notNull(data, "待加密的数据不能为null!");
+		int segments = data.length / RSAEnvelope.SEGMENT_SIZE + 1;
+		ByteArrayOutputStream out = new ByteArrayOutputStream(data.length + segments * RSAEnvelope.TAG_SIZE + 1024);
+		try {
+			encryptEnvelope(new ByteArrayInputStream(data), out, publicKey);
+		} catch (IOException e) {
+			//never here
+			throw new IllegalStateException(e);
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * 用公钥生成数字信封，从输入流读取数据，逐段加密后写入输出流。两个流都不会被关闭。
+	 * 
+	 * @param in 输入流。
+	 * @param out 输出流。
+	 * @param publicKey 公钥。
+	 * @return
+	 *      写入输出流的字节数。
+	 * @throws IOException 如果读写过程中出错。
+	 * @throws IllegalArgumentException 如果参数不合法。
+	 * @throws IllegalStateException 如果在加密过程中发生任何错误。
+	 */
+	public static long encryptEnvelope(InputStream in, OutputStream out, byte[] publicKey) throws IOException{
+		Assert.notNull(in, "输入流不能为null!");
+		Assert.notNull(out, "输出流不能为null!");
+		PublicKey key = EncryptionBase.toPublicKey(publicKey, ALGORITHM);
+		try {
+			return RSAEnvelope.encrypt(in, out, key);
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * 用私钥打开数字信封。
+	 * 
+	 * @param data 数字信封格式的数据。
+	 * @param privateKey 私钥。
+	 * @return
+	 *      解密后的数据。
+	 * @throws IllegalArgumentException 如果参数不合法。
+	 * @throws IllegalStateException 如果数据格式不正确、被修改或者密钥不匹配。
+	 */
+	public static byte[] decryptEnvelope(byte[] data, byte[] privateKey){
+		Assert.notNull(data, "待解密的数据不能为null!");
+		ByteArrayOutputStream out = new ByteArrayOutputStream(data.length);
+		try {
+			decryptEnvelope(new ByteArrayInputStream(data), out, privateKey);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * 用私钥打开数字信封，从输入流读取数据，逐段解密后写入输出流。两个流都不会被关闭。
+	 * 
+	 * @param in 数字信封格式的输入流。
+	 * @param out 输出流。
+	 * @param privateKey 私钥。
+	 * @return
+	 *      写入输出流的字节数。
+	 * @throws IOException 如果读写过程中出错，或者数据格式不正确、被修改、密钥不匹配。
+	 * @throws IllegalArgumentException 如果参数不合法。
+	 */
+	public static long decryptEnvelope(InputStream in, OutputStream out, byte[] privateKey) throws IOException{
+		Assert.notNull(out, "输出流不能为null!");
+		InputStream decrypted = newEnvelopeInputStream(in, privateKey);
+		byte[] buffer = new byte[RSAEnvelope.SEGMENT_SIZE];
+		long total = 0;
+		int read;
+		while((read = decrypted.read(buffer)) != -1){
+			out.write(buffer, 0, read);
+			total += read;
+		}
+		return total;
+	}
+
+	/**
+	 * 用私钥打开数字信封，返回逐段解密的输入流，内存中每次只保留一段数据。
+	 * <p>读取时如果发现数据被修改或截断，会抛出IOException，之前已经读出的数据属于校验通过的数据段。
+	 * 
+	 * @param in 数字信封格式的输入流，关闭返回的流时一起关闭。
+	 * @param privateKey 私钥。
+	 * @return
+	 *      解密输入流。
+	 * @throws IOException 如果读取信封头部出错，或者无法用私钥解密AES密钥。
+	 * @throws IllegalArgumentException 如果参数不合法。
+	 */
+	public static InputStream newEnvelopeInputStream(InputStream in, byte[] privateKey) throws IOException{
+		Assert.notNull(in, "输入流不能为null!");
+		PrivateKey key = EncryptionBase.toPrivateKey(privateKey, ALGORITHM);
+		return RSAEnvelope.decrypt(in, key);
+	}
+
 	private RSAUtils(){}
 
 }
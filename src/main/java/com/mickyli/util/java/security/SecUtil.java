@@ -1,12 +1,12 @@
 package com.mickyli.util.java.security;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.math.BigInteger;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
+import com.mickyli.util.java.security.MessageDigestUtils.MessageDigestAlgorithm;
+
 /**
  * 一些常用的安全相关的操作方法
  */
@@ -23,39 +23,37 @@ public class SecUtil {
     }
 
     public static String FileMD5(File file) {
-        FileInputStream fileInputStream = null;
         try {
-            fileInputStream = new FileInputStream(file);
-            byte[] buffer = new byte[8192];
-            int length;
-            while ((length = fileInputStream.read(buffer)) != -1) {
-                MD5.update(buffer, 0, length);
-            }
-            return new BigInteger(1, MD5.digest()).toString(16);
+            return toHex(FileDigest.digest(file, MessageDigestAlgorithm.MD5).getValue());
         } catch (IOException e) {
             e.printStackTrace();
             return null;
-        } finally {
-            try {
-                if (fileInputStream != null)
-                    fileInputStream.close();
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
         }
     }
 
     /**
      * @Function:字符串加密函数MD5实现
+     * 只做一次不加盐的MD5,保存密码应使用{@link PasswordHasher}
      */
     public static String md5(String password) {
         try {
-            MD5.update(password.getBytes());
-            String pwd = new BigInteger(1, MD5.digest()).toString(16);
-            return pwd;
+            return toHex(MessageDigestUtils.getMD5Digest(password.getBytes()));
         } catch (Exception e) {
             e.printStackTrace();
         }
         return password;
     }
+
+    /**
+     * 摘要转为十六进制字符串,与BigInteger(1, digest).toString(16)的结果一致(去掉开头的0)
+     */
+    private static String toHex(byte[] digest) {
+        char[] out = new char[digest.length << 1];
+        HexUtils.encode(digest, 0, digest.length, out, 0, false);
+        int start = 0;
+        while (start < out.length - 1 && out[start] == '0') {
+            start++;
+        }
+        return new String(out, start, out.length - start);
+    }
 }
@@ -0,0 +1,256 @@
+package com.mickyli.util.java.security;
+
+import java.nio.ByteBuffer;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ *   <B>说       明</B>:绑定了公钥和签名算法的数字签名验证对象。
+ *
+ *   <p>创建时解析一次公钥，每个线程持有一个已经初始化好的Signature，验证后Signature回到初始化后的状态，
+ *   之后的验证不再解析公钥、查找和初始化Signature。
+ *   <p>{@link #verifyAll(List, List)}把一批签名分给多个线程验证，结果以BitSet返回。
+ *   <p>{@link RSASignatureUtils}、{@link DSASignatureUtils}按公钥内容缓存最近使用的{@value #CACHE_SIZE}个验证对象，
+ *   同一个公钥只解析一次。
+ *   <p>该类的对象可以在多个线程间共享。
+ *
+ */
+public final class SignatureVerifier {
+
+	/**
+	 * 按公钥缓存的验证对象个数。
+	 */
+	static final int CACHE_SIZE = 64;
+
+	/**
+	 * 批量验证时每个任务至少处理的签名个数，少于此值时在当前线程中验证。
+	 */
+	static final int BATCH_THRESHOLD = 16;
+
+	/**
+	 * 按签名算法和公钥内容缓存的验证对象。
+	 */
+	private static final LRUCache<CacheKey, SignatureVerifier> CACHE = new LRUCache<CacheKey, SignatureVerifier>(CACHE_SIZE);
+
+	private final PublicKey publicKey;
+
+	private final String algorithm;
+
+	private final ThreadLocal<Signature> signatures = new ThreadLocal<Signature>();
+
+	/**
+	 * 创建验证对象。
+	 *
+	 * @param publicKey 公钥。
+	 * @param algorithm 数字签名算法名称，例如SHA256WithRSA。
+	 * @throws IllegalArgumentException 如果参数为null、不支持签名算法或者公钥不合法。
+	 */
+	public SignatureVerifier(PublicKey publicKey, String algorithm){
+		Assert.notNull(publicKey, "公钥不能为null!");
+		Assert.notNull(algorithm, "数字签名算法不能为null!");
+		this.publicKey = publicKey;
+		this.algorithm = algorithm;
+		//创建时检查签名算法和公钥。
+		getSignature();
+	}
+
+	/**
+	 * 获取字节数组形式公钥对应的验证对象，相同的公钥和算法会返回同一个对象。
+	 *
+	 * @param publicKey 字节数组形式的公钥。
+	 * @param keyAlgorithm 密钥算法，例如RSA。
+	 * @param algorithm 数字签名算法名称。
+	 * @return
+	 *      验证对象。
+	 * @throws IllegalArgumentException 如果参数为null、不支持签名算法或者公钥不合法。
+	 */
+	static SignatureVerifier cached(byte[] publicKey, String keyAlgorithm, String algorithm){
+		Assert.notNull(publicKey, "要进行转换的字节数组形式的公钥不能为null!");
+		Assert.notNull(algorithm, "数字签名算法不能为null!");
+		SignatureVerifier verifier = CACHE.get(new CacheKey(algorithm, ByteBuffer.wrap(publicKey)));
+		if(verifier == null){
+			//解析公钥在锁外进行，并发时可能重复解析，结果相同。
+			verifier = new SignatureVerifier(EncryptionBase.toPublicKey(publicKey, keyAlgorithm), algorithm);
+			CACHE.put(new CacheKey(algorithm, ByteBuffer.wrap(publicKey.clone())), verifier);
+		}
+		return verifier;
+	}
+
+	/**
+	 * 验证数据的数字签名。
+	 *
+	 * @param data 待验证数据。
+	 * @param sign data的数字签名。
+	 * @return
+	 *      签名是否有效。
+	 * @throws IllegalArgumentException 如果参数为null。
+	 * @throws IllegalStateException 如果在验证过程中发生错误(例如签名的格式不正确)。
+	 */
+	public boolean verify(byte[] data, byte[] sign){
+		Assert.notNull(data, "要验证的数据不能为null!");
+		Assert.notNull(sign, "数字签名不能为null!");
+		Signature signature = getSignature();
+		try {
+			signature.update(data);
+			return signature.verify(sign);
+		} catch (SignatureException e) {
+			//出错后Signature中可能还留有数据，丢弃后下次重新创建。
+			signatures.remove();
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * 批量验证数字签名，数据较多时分给多个线程验证。
+	 * <p>签名格式不正确等验证过程中的错误视为签名无效。
+	 *
+	 * @param data 待验证数据。
+	 * @param signs 与data一一对应的数字签名。
+	 * @return
+	 *      第i位表示第i个签名是否有效。
+	 * @throws IllegalArgumentException 如果参数为null、包含null元素，或者两个列表的长度不同。
+	 */
+	public BitSet verifyAll(List<byte[]> data, List<byte[]> signs){
+		Assert.notNull(data, "要验证的数据不能为null!");
+		Assert.notNull(signs, "数字签名不能为null!");
+		Assert.isTrue(data.size() == signs.size(), "数据和数字签名的个数必须相同!");
+		int size = data.size();
+		byte[][] dataArray = data.toArray(new byte[size][]);
+		byte[][] signArray = signs.toArray(new byte[size][]);
+		for(int i = 0; i < size; i++){
+			Assert.isTrue(dataArray[i] != null && signArray[i] != null, "要验证的数据和数字签名不能为null!");
+		}
+		boolean[] results = new boolean[size];
+		VerifyTask task = new VerifyTask(dataArray, signArray, results, 0, size);
+		if(size < BATCH_THRESHOLD * 2){
+			task.compute();
+		}else{
+			WorkerPool.get().invoke(task);
+		}
+		BitSet bitmap = new BitSet(size);
+		for(int i = 0; i < size; i++){
+			if(results[i]){
+				bitmap.set(i);
+			}
+		}
+		return bitmap;
+	}
+
+	/**
+	 * 获取数字签名算法名称。
+	 */
+	public String getAlgorithm() {
+		return algorithm;
+	}
+
+	/**
+	 * 获取公钥。
+	 */
+	public PublicKey getPublicKey() {
+		return publicKey;
+	}
+
+	private boolean verifyQuietly(byte[] data, byte[] sign){
+		try {
+			return verify(data, sign);
+		} catch (IllegalStateException e) {
+			return false;
+		}
+	}
+
+	private Signature getSignature(){
+		Signature signature = signatures.get();
+		if(signature == null){
+			try {
+				signature = Signature.getInstance(algorithm);
+				signature.initVerify(publicKey);
+			} catch (NoSuchAlgorithmException e) {
+				throw new IllegalArgumentException(e);
+			} catch (InvalidKeyException e) {
+				throw new IllegalArgumentException(e);
+			}
+			signatures.set(signature);
+		}
+		return signature;
+	}
+
+	/**
+	 * 验证[from, to)范围内的签名，范围较大时一分为二。
+	 */
+	private final class VerifyTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final byte[][] data;
+
+		private final byte[][] signs;
+
+		private final boolean[] results;
+
+		private final int from;
+
+		private final int to;
+
+		VerifyTask(byte[][] data, byte[][] signs, boolean[] results, int from, int to) {
+			this.data = data;
+			this.signs = signs;
+			this.results = results;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if(to - from < BATCH_THRESHOLD * 2){
+				for(int i = from; i < to; i++){
+					results[i] = verifyQuietly(data[i], signs[i]);
+				}
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new VerifyTask(data, signs, results, from, middle),
+					new VerifyTask(data, signs, results, middle, to));
+		}
+
+	}
+
+	/**
+	 * 缓存的键:签名算法和公钥内容。
+	 */
+	private static final class CacheKey {
+
+		private final String algorithm;
+
+		private final ByteBuffer key;
+
+		CacheKey(String algorithm, ByteBuffer key) {
+			this.algorithm = algorithm;
+			this.key = key;
+		}
+
+		@Override
+		public int hashCode() {
+			return algorithm.hashCode() * 31 + key.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj){
+				return true;
+			}
+			if(!(obj instanceof CacheKey)){
+				return false;
+			}
+			CacheKey other = (CacheKey) obj;
+			return algorithm.equals(other.algorithm) && key.equals(other.key);
+		}
+
+	}
+
+}
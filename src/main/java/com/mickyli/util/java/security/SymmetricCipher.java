@@ -0,0 +1,392 @@
+package com.mickyli.util.java.security;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.security.GeneralSecurityException;
+import java.security.InvalidKeyException;
+import java.security.Key;
+import java.security.NoSuchAlgorithmException;
+import java.security.spec.AlgorithmParameterSpec;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.crypto.Cipher;
+import javax.crypto.CipherInputStream;
+import javax.crypto.CipherOutputStream;
+
+/**
+ *   <B>说       明</B>:绑定了密钥、转换名称和初始化向量的对称加解密对象。
+ *
+ *   <p>创建时转换一次密钥，每个线程分别持有已经初始化好的加密和解密Cipher，
+ *   之后的每次加解密只调用doFinal，不再查找Cipher、转换密钥和初始化。
+ *   需要用同一个密钥处理大量数据时，应创建一个对象重复使用，而不是每次调用{@link AESUtils}等工具类的静态方法。
+ *   <p>除了字节数组，还可以处理输入输出流、通道(例如FileChannel之间)和ByteBuffer，
+ *   流和通道按固定大小分块处理，不需要把全部数据读入内存。
+ *   <p>该类的对象可以在多个线程间共享。
+ *   <p>注:初始化向量在创建时固定。GCM模式重复使用初始化向量会泄露明文的异或值和认证密钥，
+ *   因此与JDK的Cipher一样，GCM模式的对象只能加密一次(包括{@link #newEncryptStream(OutputStream)})，
+ *   再次加密抛出IllegalStateException，每次加密应创建使用新初始化向量的对象；解密不受限制。
+ *
+ */
+public final class SymmetricCipher {
+
+	private final Key key;
+
+	private final String transformation;
+
+	private final String provider;
+
+	private final AlgorithmParameterSpec parameterSpec;
+
+	private final boolean gcm;
+
+	private final ThreadLocal<Cipher> encryptor = new ThreadLocal<Cipher>();
+
+	private final ThreadLocal<Cipher> decryptor = new ThreadLocal<Cipher>();
+
+	/**
+	 * GCM模式是否已经加密过。
+	 */
+	private final AtomicBoolean gcmEncrypted = new AtomicBoolean();
+
+	/**
+	 * 使用默认的提供者创建加解密对象。
+	 *
+	 * @param key 密钥。
+	 * @param transformation 转换名称，例如 AES/CBC/PKCS5Padding。
+	 * @param parameterSpec 参数规范(例如初始化向量)，工作模式为ECB时不使用。
+	 * @throws IllegalArgumentException 如果参数为null，或者不支持转换名称中的算法，或者密钥不合法。
+	 * @throws IllegalStateException 如果初始化过程中发生其他异常。
+	 */
+	public SymmetricCipher(Key key, String transformation, AlgorithmParameterSpec parameterSpec){
+		this(key, transformation, parameterSpec, null);
+	}
+
+	/**
+	 * 创建加解密对象。
+	 *
+	 * @param key 密钥。
+	 * @param transformation 转换名称，例如 AES/CBC/PKCS5Padding。
+	 * @param parameterSpec 参数规范(例如初始化向量)，工作模式为ECB时不使用。
+	 * @param provider 提供者名称，为null时使用默认的提供者。
+	 * @throws IllegalArgumentException 如果参数为null，或者不支持转换名称中的算法，或者密钥不合法。
+	 * @throws IllegalStateException 如果初始化过程中发生其他异常。
+	 */
+	public SymmetricCipher(Key key, String transformation, AlgorithmParameterSpec parameterSpec, String provider){
+		Assert.notNull(key, "密钥不能为null!");
+		Assert.isNotBlank(transformation, "转换名称不能为null或空!");
+		Assert.notNull(parameterSpec, "算法参数不能为null!");
+		this.key = key;
+		this.transformation = transformation;
+		this.provider = provider;
+		this.parameterSpec = parameterSpec;
+		this.gcm = EncryptionBase.isGCM(transformation);
+		//创建时检查转换名称和密钥，当前线程的加密Cipher同时准备好。GCM模式只能加密一次，改为准备解密Cipher。
+		getCipher(gcm ? Cipher.DECRYPT_MODE : Cipher.ENCRYPT_MODE);
+	}
+
+	/**
+	 * 对数据进行加密处理。
+	 *
+	 * @param data 待加密的数据。
+	 * @return
+	 *      加密后的数据。
+	 * @throws IllegalArgumentException 如果data为null。
+	 * @throws IllegalStateException 如果在加密过程中发生任何异常。
+	 */
+	public byte[] encrypt(byte[] data){
+		Assert.notNull(data, "要进行处理的数据不能null!");
+		return doFinal(Cipher.ENCRYPT_MODE, data, 0, data.length);
+	}
+
+	/**
+	 * 对数据中的一段进行加密处理。
+	 *
+	 * @param data 待加密的数据。
+	 * @param offset 偏移量。
+	 * @param length 长度。
+	 * @return
+	 *      加密后的数据。
+	 * @throws IllegalArgumentException 如果data为null或者offset、length越界。
+	 * @throws IllegalStateException 如果在加密过程中发生任何异常。
+	 */
+	public byte[] encrypt(byte[] data, int offset, int length){
+		checkRange(data, offset, length);
+		return doFinal(Cipher.ENCRYPT_MODE, data, offset, length);
+	}
+
+	/**
+	 * 对数据进行解密处理。
+	 *
+	 * @param data 待解密的数据。
+	 * @return
+	 *      解密后的数据。
+	 * @throws IllegalArgumentException 如果data为null。
+	 * @throws IllegalStateException 如果在解密过程中发生任何异常。
+	 */
+	public byte[] decrypt(byte[] data){
+		Assert.notNull(data, "要进行处理的数据不能null!");
+		return doFinal(Cipher.DECRYPT_MODE, data, 0, data.length);
+	}
+
+	/**
+	 * 对数据中的一段进行解密处理。
+	 *
+	 * @param data 待解密的数据。
+	 * @param offset 偏移量。
+	 * @param length 长度。
+	 * @return
+	 *      解密后的数据。
+	 * @throws IllegalArgumentException 如果data为null或者offset、length越界。
+	 * @throws IllegalStateException 如果在解密过程中发生任何异常。
+	 */
+	public byte[] decrypt(byte[] data, int offset, int length){
+		checkRange(data, offset, length);
+		return doFinal(Cipher.DECRYPT_MODE, data, offset, length);
+	}
+
+	/**
+	 * 加密ByteBuffer中剩余的数据，结果写入output。
+	 *
+	 * @param input 待加密的数据，处理后position移到limit。
+	 * @param output 存放加密结果的缓冲区，剩余空间不能小于加密结果的长度。
+	 * @return
+	 *      写入output的字节数。
+	 * @throws IllegalArgumentException 如果参数为null或者output的剩余空间不足。
+	 * @throws IllegalStateException 如果在加密过程中发生任何异常。
+	 */
+	public int encrypt(ByteBuffer input, ByteBuffer output){
+		return doFinal(Cipher.ENCRYPT_MODE, input, output);
+	}
+
+	/**
+	 * 解密ByteBuffer中剩余的数据，结果写入output。
+	 *
+	 * @param input 待解密的数据，处理后position移到limit。
+	 * @param output 存放解密结果的缓冲区，剩余空间不能小于解密结果的长度。
+	 * @return
+	 *      写入output的字节数。
+	 * @throws IllegalArgumentException 如果参数为null或者output的剩余空间不足。
+	 * @throws IllegalStateException 如果在解密过程中发生任何异常。
+	 */
+	public int decrypt(ByteBuffer input, ByteBuffer output){
+		return doFinal(Cipher.DECRYPT_MODE, input, output);
+	}
+
+	/**
+	 * 加密输入流中的全部数据并写入输出流，两个流都不会被关闭。
+	 *
+	 * @param in 输入流。
+	 * @param out 输出流。
+	 * @return
+	 *      写入输出流的字节数。
+	 * @throws IOException 如果读写过程中出错。
+	 * @throws IllegalArgumentException 如果参数为null。
+	 * @throws IllegalStateException 如果在加密过程中发生任何异常。
+	 */
+	public long encrypt(InputStream in, OutputStream out) throws IOException{
+		return process(Cipher.ENCRYPT_MODE, in, out);
+	}
+
+	/**
+	 * 解密输入流中的全部数据并写入输出流，两个流都不会被关闭。
+	 *
+	 * @param in 输入流。
+	 * @param out 输出流。
+	 * @return
+	 *      写入输出流的字节数。
+	 * @throws IOException 如果读写过程中出错。
+	 * @throws IllegalArgumentException 如果参数为null。
+	 * @throws IllegalStateException 如果在解密过程中发生任何异常。
+	 */
+	public long decrypt(InputStream in, OutputStream out) throws IOException{
+		return process(Cipher.DECRYPT_MODE, in, out);
+	}
+
+	/**
+	 * 加密输入通道从当前位置开始的全部数据并写入输出通道，例如两个FileChannel，通道都不会被关闭。
+	 *
+	 * @param in 输入通道。
+	 * @param out 输出通道。
+	 * @return
+	 *      写入输出通道的字节数。
+	 * @throws IOException 如果读写过程中出错。
+	 * @throws IllegalArgumentException 如果参数为null。
+	 * @throws IllegalStateException 如果在加密过程中发生任何异常。
+	 */
+	public long encrypt(ReadableByteChannel in, WritableByteChannel out) throws IOException{
+		return process(Cipher.ENCRYPT_MODE, in, out);
+	}
+
+	/**
+	 * 解密输入通道从当前位置开始的全部数据并写入输出通道，例如两个FileChannel，通道都不会被关闭。
+	 *
+	 * @param in 输入通道。
+	 * @param out 输出通道。
+	 * @return
+	 *      写入输出通道的字节数。
+	 * @throws IOException 如果读写过程中出错。
+	 * @throws IllegalArgumentException 如果参数为null。
+	 * @throws IllegalStateException 如果在解密过程中发生任何异常。
+	 */
+	public long decrypt(ReadableByteChannel in, WritableByteChannel out) throws IOException{
+		return process(Cipher.DECRYPT_MODE, in, out);
+	}
+
+	/**
+	 * 包装输出流，写入的数据加密后写入out，关闭返回的流时写入最后一块数据并关闭out。
+	 * <p>返回的流使用单独的Cipher，不能在多个线程间共享。
+	 *
+	 * @param out 输出流。
+	 * @return
+	 *      加密输出流。
+	 * @throws IllegalArgumentException 如果out为null。
+	 */
+	public CipherOutputStream newEncryptStream(OutputStream out){
+		Assert.notNull(out, "输出流不能为null!");
+		checkGCMEncrypt();
+		return new CipherOutputStream(out, createCipher(Cipher.ENCRYPT_MODE));
+	}
+
+	/**
+	 * 包装输入流，读取时返回in中数据解密后的结果。
+	 * <p>返回的流使用单独的Cipher，不能在多个线程间共享。
+	 *
+	 * @param in 输入流。
+	 * @return
+	 *      解密输入流。
+	 * @throws IllegalArgumentException 如果in为null。
+	 */
+	public CipherInputStream newDecryptStream(InputStream in){
+		Assert.notNull(in, "输入流不能为null!");
+		return new CipherInputStream(in, createCipher(Cipher.DECRYPT_MODE));
+	}
+
+	/**
+	 * 获取转换名称。
+	 */
+	public String getTransformation() {
+		return transformation;
+	}
+
+	/**
+	 * 获取密钥的算法名称。
+	 */
+	public String getAlgorithm() {
+		return key.getAlgorithm();
+	}
+
+	private byte[] doFinal(int opmode, byte[] data, int offset, int length){
+		Cipher cipher = getCipher(opmode);
+		try {
+			//doFinal结束后Cipher回到初始化后的状态，可以直接再次使用。
+			return cipher.doFinal(data, offset, length);
+		} catch (Exception e) {
+			discard(opmode);
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private int doFinal(int opmode, ByteBuffer input, ByteBuffer output){
+		Assert.notNull(input, "要进行处理的数据不能null!");
+		Assert.notNull(output, "输出缓冲区不能为null!");
+		Cipher cipher = getCipher(opmode);
+		Assert.isTrue(output.remaining() >= cipher.getOutputSize(input.remaining()), "输出缓冲区的剩余空间不足!");
+		try {
+			return cipher.doFinal(input, output);
+		} catch (Exception e) {
+			discard(opmode);
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private long process(int opmode, InputStream in, OutputStream out) throws IOException{
+		Assert.notNull(in, "输入流不能为null!");
+		Assert.notNull(out, "输出流不能为null!");
+		Cipher cipher = getCipher(opmode);
+		try {
+			return EncryptionBase.process(cipher, in, out);
+		} catch (IOException e) {
+			discard(opmode);
+			throw e;
+		} catch (GeneralSecurityException e) {
+			discard(opmode);
+			throw new IllegalStateException(e);
+		} catch (RuntimeException e) {
+			discard(opmode);
+			throw e;
+		}
+	}
+
+	private long process(int opmode, ReadableByteChannel in, WritableByteChannel out) throws IOException{
+		Assert.notNull(in, "输入通道不能为null!");
+		Assert.notNull(out, "输出通道不能为null!");
+		Cipher cipher = getCipher(opmode);
+		try {
+			return EncryptionBase.process(cipher, in, out);
+		} catch (IOException e) {
+			discard(opmode);
+			throw e;
+		} catch (GeneralSecurityException e) {
+			discard(opmode);
+			throw new IllegalStateException(e);
+		} catch (RuntimeException e) {
+			discard(opmode);
+			throw e;
+		}
+	}
+
+	/**
+	 * 出错后Cipher中可能还留有上一次的数据，丢弃后下次重新创建。
+	 */
+	private void discard(int opmode){
+		(opmode == Cipher.ENCRYPT_MODE ? encryptor : decryptor).remove();
+	}
+
+	private Cipher getCipher(int opmode){
+		//GCM模式的对象只加密一次，不缓存加密Cipher。
+		if(gcm && opmode == Cipher.ENCRYPT_MODE){
+			checkGCMEncrypt();
+			return createCipher(opmode);
+		}
+		ThreadLocal<Cipher> holder = opmode == Cipher.ENCRYPT_MODE ? encryptor : decryptor;
+		Cipher cipher = holder.get();
+		if(cipher == null){
+			cipher = createCipher(opmode);
+			holder.set(cipher);
+		}
+		return cipher;
+	}
+
+	/**
+	 * GCM模式第二次加密时抛出异常，不允许同一个密钥和初始化向量加密两份数据。
+	 */
+	private void checkGCMEncrypt(){
+		if(gcm && !gcmEncrypted.compareAndSet(false, true)){
+			throw new IllegalStateException("GCM模式不能重复使用初始化向量，每次加密需要创建新的对象!");
+		}
+	}
+
+	private Cipher createCipher(int opmode){
+		try {
+			Cipher cipher = provider == null ? Cipher.getInstance(transformation) : Cipher.getInstance(transformation, provider);
+			EncryptionBase.init(cipher, opmode, key, parameterSpec);
+			return cipher;
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalArgumentException(e);
+		} catch (InvalidKeyException e) {
+			throw new IllegalArgumentException(e);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void checkRange(byte[] data, int offset, int length){
+		Assert.notNull(data, "要进行处理的数据不能null!");
+		Assert.isTrue(offset >= 0 && length >= 0 && offset + length <= data.length && offset + length >= 0, "偏移量或长度越界!");
+	}
+
+}
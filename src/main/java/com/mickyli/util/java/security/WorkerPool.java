@@ -0,0 +1,22 @@
+package com.mickyli.util.java.security;
+
+import java.util.concurrent.ForkJoinPool;
+
+/** 
+ *   <B>说       明</B>:安全工具类中并行计算(文件摘要、校验码等)共用的ForkJoinPool。
+ *   <p>JDK7没有ForkJoinPool.commonPool()，第一次使用时创建，线程数等于CPU核数。
+ *
+ */
+final class WorkerPool {
+
+	private static class Holder {
+		static final ForkJoinPool POOL = new ForkJoinPool();
+	}
+
+	static ForkJoinPool get(){
+		return Holder.POOL;
+	}
+
+	private WorkerPool() {}
+
+}
@@ -5,11 +5,11 @@ import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
-import java.util.ArrayList;
-import java.util.List;
 
 import org.apache.tools.zip.ZipEntry;
 import org.apache.tools.zip.ZipOutputStream;
+
+import com.mickyli.util.java.file.ZipArchiver;
 /**
  * 文件压缩工具类
  */
@@ -19,85 +19,24 @@ import org.apache.tools.zip.ZipOutputStream;
 public class ApacheZip {
 
 	/**
-	 * dir路径请使用/,不要使用\\
+	 * 压缩目录，保留目录结构(包括空目录)，条目名称相对于dir
+	 * <p>由{@link ZipArchiver}多线程压缩，文件名和注释使用UTF-8编码
 	 * @param comments zip注释
 	 * @param targetZip zip路径
 	 * @param dir 要压缩的目录
 	 */
 	public static void zipDir(String comments, String targetZip, String dir) {
 
-		List<File> files = getFiles(dir, new ArrayList<File>());
-
-		byte buffer[] = new byte[40960];
-
 		try {
-
-			BufferedInputStream bis = null;
-
-			FileOutputStream fos = new FileOutputStream(targetZip);
-
-			FileInputStream fis = null;
-
-			ZipOutputStream zos = new ZipOutputStream(new BufferedOutputStream(fos));
-
-			ZipEntry entry = null;
-
-			zos.setEncoding("GBK");
-			zos.setComment(comments);
-			
-			for (File file : files) {
-				
-				fis = new FileInputStream(file);
-				bis = new BufferedInputStream(fis);
-				
-				String entryName = file.getAbsolutePath().replace(dir, "");
-				entry = new ZipEntry(entryName);
-				zos.putNextEntry(entry);
-				int count;
-				while ((count = bis.read(buffer)) != -1) {
-					zos.write(buffer, 0, count);
-				}
-				bis.close();
-
-			}
-			zos.close();
-			if(fis!=null)
-				fis.close();
-			if(fos!=null)
-				fos.close();
-			if(bis!=null)
-				bis.close();
-
+			ZipArchiver archiver = new ZipArchiver();
+			archiver.setComment(comments);
+			archiver.zip(new File(dir), new File(targetZip));
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
 
 	}
 
-	/**
-	 * 
-	 * 获取目录下所有文件(包括子文件夹) 递归调用
-	 * 
-	 * @param realpath
-	 * @param files
-	 * @return
-	 */
-	private static List<File> getFiles(String realpath, List<File> files) {
-
-		File realFile = new File(realpath);
-		if (realFile.isDirectory()) {
-			File[] subfiles = realFile.listFiles();
-			for (File file : subfiles) {
-				if (file.isDirectory()) {
-					getFiles(file.getAbsolutePath(), files);
-				}else{
-					files.add(file);
-				}
-			}
-		}
-		return files;
-	}
-
 	/**
 	 * 支持单个或者多个文件压缩到一个压缩包，不支持目录压缩，没有层级关系
 	 * 
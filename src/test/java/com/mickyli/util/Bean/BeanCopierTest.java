@@ -0,0 +1,255 @@
+package com.mickyli.util.Bean;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationTargetException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Date;
+
+import junit.framework.TestCase;
+import model.BusinessLog;
+import model.Log;
+import model.Log2;
+import model.Product;
+import model.ProductDto;
+
+import org.junit.Test;
+
+import com.mickyli.util.java.bean.BeanCopier;
+import com.mickyli.util.java.bean.Converter;
+import com.mickyli.util.java.bean.ConverterRegistry;
+import com.mickyli.util.java.bean.PropertyFilter;
+import com.mickyli.util.java.character.StringUtil;
+import com.mickyli.util.java.date.DateUtil;
+
+public class BeanCopierTest extends TestCase {
+
+    @Test
+    public void testCopy() throws InvocationTargetException, IllegalAccessException {
+        BusinessLog bean1 = new BusinessLog();
+        bean1.setLogId(1);
+        bean1.setOperationName("operationName test");
+        bean1.setOperation_type("operationName type");
+
+        //相同的两个类只解析一次
+        BeanCopier copier = BeanCopier.of(BusinessLog.class, Log.class);
+        assertSame(copier, BeanCopier.of(BusinessLog.class, Log.class));
+
+        Log bean2 = new Log();
+        copier.copy(bean1, bean2);
+        assertEquals(Integer.valueOf(1), bean2.getLogId());
+        assertEquals("operationName test", bean2.getOperationName());
+        assertEquals("operationName type", bean2.getOperation_type());
+
+        Log bean3 = new Log();
+        copier.copyPeaceful(bean1, bean3);
+        assertEquals("operationName test", bean3.getOperationName());
+    }
+
+    @Test
+    public void testCopyFilter() throws InvocationTargetException, IllegalAccessException {
+        BusinessLog bean1 = new BusinessLog();
+        bean1.setOperationName("operationName test");
+        bean1.setLogType("logTypevalue");
+
+        BeanCopier copier = BeanCopier.of(BusinessLog.class, Log2.class, new PropertyFilter() {
+            @Override
+            public String Properties(String pro) {
+                return StringUtil.remove(pro, "_").toLowerCase().replaceAll("yy", "ty");
+            }
+        });
+        assertTrue(Arrays.asList(copier.getPropertyNames()).contains("logType"));
+
+        Log2 bean2 = new Log2();
+        copier.copy(bean1, bean2);
+        assertEquals("logTypevalue", bean2.getLogyype());
+        assertEquals("operationName test", bean2.getOperationname());
+    }
+
+    @Test
+    public void testCopyConvert() throws Exception {
+        Product product = new Product();
+        product.setId(7);
+        product.setStock(100);
+        product.setCreated(DateUtil.DateTime("2016-05-01 10:20:30"));
+        product.setPrice(new BigDecimal("12.50"));
+        product.setCode("42");
+
+        ProductDto dto = new ProductDto();
+        dto.setCount(3);
+        BeanCopier.of(Product.class, ProductDto.class).copy(product, dto);
+        //int -> Long, int -> long
+        assertEquals(Long.valueOf(7), dto.getId());
+        assertEquals(100L, dto.getStock());
+        //Integer(null) -> int 保持原值
+        assertEquals(3, dto.getCount());
+        //Date -> String, BigDecimal -> String, String -> Integer
+        assertEquals("2016-05-01 10:20:30", dto.getCreated());
+        assertEquals("12.50", dto.getPrice());
+        assertEquals(Integer.valueOf(42), dto.getCode());
+
+        //反向转换
+        Product back = new Product();
+        BeanCopier.of(ProductDto.class, Product.class).copy(dto, back);
+        assertEquals(7, back.getId());
+        assertEquals(Integer.valueOf(3), back.getCount());
+        assertEquals(product.getCreated(), back.getCreated());
+        assertEquals(new BigDecimal("12.50"), back.getPrice());
+        assertEquals("42", back.getCode());
+    }
+
+    @Test
+    public void testCopyNarrowing() throws Exception {
+        ProductDto dto = new ProductDto();
+        dto.setId(7L);
+        dto.setStock(5000000000L);
+        BeanCopier copier = BeanCopier.of(ProductDto.class, Product.class);
+        Product product = new Product();
+        try {
+            //long -> int 超出范围
+            copier.copy(dto, product);
+            fail();
+        } catch (InvocationTargetException e) {
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+        //单个属性失败时跳过
+        product = new Product();
+        copier.copyPeaceful(dto, product);
+        assertEquals(0, product.getStock());
+        assertEquals(7, product.getId());
+
+        dto.setStock(-100L);
+        copier.copy(dto, product);
+        assertEquals(-100, product.getStock());
+    }
+
+    @Test
+    public void testCheckedConverters() {
+        ConverterRegistry registry = ConverterRegistry.getDefault();
+        Converter toInteger = registry.lookup(Double.class, int.class);
+        assertEquals(3, toInteger.convert(3.0d));
+        assertEquals(Integer.MIN_VALUE, toInteger.convert(new BigDecimal("-2147483648.000")));
+        for (Object value : new Object[]{3.9d, 5000000000L, Double.NaN, new BigDecimal("0.5")}) {
+            try {
+                toInteger.convert(value);
+                fail(String.valueOf(value));
+            } catch (IllegalArgumentException e) {
+                //expected
+            }
+        }
+        Converter toLong = registry.lookup(Double.class, Long.class);
+        assertEquals(Long.MAX_VALUE, toLong.convert(new BigDecimal(Long.MAX_VALUE)));
+        try {
+            toLong.convert(9.3e18d);
+            fail();
+        } catch (IllegalArgumentException e) {
+            //expected
+        }
+        try {
+            registry.lookup(Double.class, Float.class).convert(1e300d);
+            fail();
+        } catch (IllegalArgumentException e) {
+            //expected
+        }
+        assertEquals(Float.POSITIVE_INFINITY, registry.lookup(Double.class, Float.class)
+                .convert(Double.POSITIVE_INFINITY));
+
+        Converter toBoolean = registry.lookup(Long.class, boolean.class);
+        assertEquals(Boolean.TRUE, toBoolean.convert(4294967296L));
+        assertEquals(Boolean.TRUE, toBoolean.convert(0.5d));
+        assertEquals(Boolean.TRUE, toBoolean.convert(new BigDecimal("0.01")));
+        assertEquals(Boolean.FALSE, toBoolean.convert(0.0d));
+        assertEquals(Boolean.FALSE, toBoolean.convert(0L));
+    }
+
+    @Test
+    public void testCopyCustomConverter() throws Exception {
+        ConverterRegistry registry = new ConverterRegistry();
+        registry.register(Date.class, String.class, new Converter() {
+            @Override
+            public Object convert(Object value) {
+                return DateUtil.Date((Date) value);
+            }
+        });
+        Product product = new Product();
+        product.setCreated(DateUtil.DateTime("2016-05-01 10:20:30"));
+        product.setPrice(BigDecimal.ONE);
+
+        ProductDto dto = new ProductDto();
+        BeanCopier copier = BeanCopier.of(Product.class, ProductDto.class, null, registry);
+        copier.copy(product, dto);
+        assertEquals("2016-05-01", dto.getCreated());
+        //没有注册BigDecimal -> String的转换器,不复制
+        assertNull(dto.getPrice());
+        assertFalse(Arrays.asList(copier.getPropertyNames()).contains("price"));
+    }
+
+    @Test
+    public void testPluginClassUnload() throws Exception {
+        //源类由父加载器加载、目标类由子加载器加载,或者反过来,缓存都不能阻止子加载器卸载
+        WeakReference<ClassLoader> dest = copyWithPluginClass(true);
+        WeakReference<ClassLoader> src = copyWithPluginClass(false);
+        for (int i = 0; i < 50 && (dest.get() != null || src.get() != null); i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertNull(dest.get());
+        assertNull(src.get());
+    }
+
+    private static WeakReference<ClassLoader> copyWithPluginClass(boolean pluginDest) throws Exception {
+        PluginLoader loader = new PluginLoader(Log.class);
+        Class<?> plugin = loader.loadClass(Log.class.getName());
+        assertNotSame(Log.class, plugin);
+        if (pluginDest) {
+            BusinessLog bean = new BusinessLog();
+            bean.setOperationName("plugin");
+            Object log = plugin.newInstance();
+            BeanCopier.of(BusinessLog.class, plugin).copy(bean, log);
+            assertEquals("plugin", plugin.getMethod("getOperationName").invoke(log));
+        } else {
+            Object log = plugin.newInstance();
+            plugin.getMethod("setOperationName", String.class).invoke(log, "plugin");
+            BusinessLog bean = new BusinessLog();
+            BeanCopier.of(plugin, BusinessLog.class).copy(log, bean);
+            assertEquals("plugin", bean.getOperationName());
+        }
+        return new WeakReference<ClassLoader>(loader);
+    }
+
+    /**
+     * 重新定义指定的类,其他类交给父加载器
+     */
+    private static class PluginLoader extends ClassLoader {
+
+        private final Class<?> type;
+
+        PluginLoader(Class<?> type) {
+            super(type.getClassLoader());
+            this.type = type;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.equals(type.getName())) {
+                return super.loadClass(name, resolve);
+            }
+            String resource = name.replace('.', '/') + ".class";
+            try (InputStream in = getParent().getResourceAsStream(resource)) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+                int n;
+                while ((n = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, n);
+                }
+                return defineClass(name, out.toByteArray(), 0, out.size());
+            } catch (IOException e) {
+                throw new ClassNotFoundException(name, e);
+            }
+        }
+
+    }
+}
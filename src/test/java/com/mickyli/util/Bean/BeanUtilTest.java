@@ -1,17 +1,28 @@
 package com.mickyli.util.Bean;
 
 import java.lang.reflect.InvocationTargetException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import junit.framework.TestCase;
 import model.BusinessLog;
 import model.Log;
 import model.Log2;
+import model.Product;
 
 import org.junit.Test;
 
+import com.mickyli.util.java.bean.BeanMetadata;
+import com.mickyli.util.java.bean.BeanStruct;
 import com.mickyli.util.java.bean.BeanUtil;
+import com.mickyli.util.java.bean.PropertyAccessor;
+import com.mickyli.util.java.bean.Factory;
 import com.mickyli.util.java.bean.PropertyFilter;
 import com.mickyli.util.java.character.StringUtil;
+import com.mickyli.util.java.date.DateUtil;
 
 public class BeanUtilTest extends TestCase {
 
@@ -168,4 +179,174 @@ public class BeanUtilTest extends TestCase {
         System.out.println("复制后:" + bean1);
         System.out.println("复制后:" + bean2);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testPropertyAccessor() throws Exception {
+        BusinessLog bean = new BusinessLog();
+        BeanStruct st = Factory.get(BusinessLog.class).getSimpleProperties().get("logId");
+
+        //通过读写器设置和读取继承的属性
+        st.getAccessor().set(bean, 10);
+        assertEquals(Integer.valueOf(10), st.getAccessor().get(bean));
+        assertEquals(Integer.valueOf(10), BeanUtil.getProperty(bean, "logId"));
+
+        //参数类型不一致时与Method.invoke一样抛出IllegalArgumentException
+        try {
+            BeanUtil.setProperty(bean, "logId", "10");
+            fail();
+        } catch (IllegalArgumentException e) {
+            //expected
+        }
+
+        //反射调用的读写器,不修改缓存中的BeanStruct
+        PropertyAccessor reflect = PropertyAccessor.create(st.getReadMethod(), st.getWriteMethod(), false);
+        reflect.set(bean, 20);
+        assertEquals(Integer.valueOf(20), bean.getLogId());
+        assertEquals(Integer.valueOf(20), reflect.get(bean));
+    }
+
+    @Test
+    public void testPropertyAccessorWidening() throws Exception {
+        //与Method.invoke一样允许拆箱后拓宽,不允许缩窄
+        for (boolean useMethodHandle : new boolean[]{true, false}) {
+            Numbers bean = new Numbers();
+            PropertyAccessor n = accessor(Numbers.class, "n", useMethodHandle);
+            PropertyAccessor d = accessor(Numbers.class, "d", useMethodHandle);
+            n.set(bean, Integer.valueOf(7));
+            assertEquals(7L, bean.getN());
+            n.set(bean, Character.valueOf('a'));
+            assertEquals(97L, bean.getN());
+            d.set(bean, Float.valueOf(1.5f));
+            assertEquals(1.5d, bean.getD());
+            d.set(bean, Long.valueOf(3));
+            assertEquals(3d, bean.getD());
+            try {
+                n.set(bean, Double.valueOf(1));
+                fail();
+            } catch (IllegalArgumentException e) {
+                //expected
+            }
+        }
+        Numbers bean = new Numbers();
+        BeanUtil.setProperty(bean, "n", Integer.valueOf(7));
+        assertEquals(7L, bean.getN());
+    }
+
+    private static PropertyAccessor accessor(Class<?> type, String name, boolean useMethodHandle) {
+        BeanStruct st = Factory.get(type).getSimpleProperties().get(name);
+        return PropertyAccessor.create(st.getReadMethod(), st.getWriteMethod(), useMethodHandle);
+    }
+
+    public static class Numbers {
+
+        private long   n;
+        private double d;
+
+        public long getN() {
+            return n;
+        }
+
+        public void setN(long n) {
+            this.n = n;
+        }
+
+        public double getD() {
+            return d;
+        }
+
+        public void setD(double d) {
+            this.d = d;
+        }
+    }
+
+    @Test
+    public void testFactoryCache() {
+        long miss = Factory.getMissCount();
+        BeanMetadata metadata = Factory.get(Log2.class);
+        assertSame(metadata, Factory.get(Log2.class));
+        assertTrue(Factory.getMissCount() - miss <= 1);
+        assertTrue(Factory.getHitCount() > 0);
+        assertTrue(metadata.getSimplePropertiesIgnore().containsKey("logyype"));
+
+        //没有属性的类也会被缓存
+        assertTrue(Factory.get(Object.class).getSimpleProperties().isEmpty());
+    }
+
+    @Test
+    public void testMapAll() throws Exception {
+        List<BusinessLog> list = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            BusinessLog bean = new BusinessLog();
+            bean.setLogId(i);
+            bean.setOperationName("operation" + i);
+            list.add(bean);
+        }
+        list.add(null);
+
+        List<Log> result = BeanUtil.mapAll(list, Log.class);
+        assertEquals(list.size(), result.size());
+        assertEquals("operation10", result.get(10).getOperationName());
+        assertNull(result.get(5000));
+
+        //并行复制
+        List<Log> parallel = BeanUtil.mapAll(list, Log.class, true);
+        assertEquals(list.size(), parallel.size());
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(Integer.valueOf(i), parallel.get(i).getLogId());
+        }
+
+        //目标类型没有无参构造函数
+        try {
+            BeanUtil.mapAll(list, Integer.class, true);
+            fail();
+        } catch (InstantiationException e) {
+            //expected
+        }
+    }
+
+    @Test
+    public void testToMap() throws Exception {
+        BusinessLog bean = new BusinessLog();
+        bean.setLogId(1);
+        bean.setOperationName("operationName test");
+
+        Map<String,Object> map = BeanUtil.toMap(bean);
+        assertEquals(Integer.valueOf(1), map.get("logId"));
+        assertEquals("operationName test", map.get("operationName"));
+        assertFalse(map.containsKey("class"));
+
+        //只读视图与toMap的内容一致
+        Map<String,Object> view = BeanUtil.toMapView(bean);
+        assertEquals(map, view);
+        assertEquals(map.hashCode(), view.hashCode());
+        assertNull(view.get("notExists"));
+        try {
+            view.put("logId", 2);
+            fail();
+        } catch (UnsupportedOperationException e) {
+            //expected
+        }
+    }
+
+    @Test
+    public void testFromMap() throws Exception {
+        Map<String,Object> map = new HashMap<>();
+        map.put("id", "12");
+        map.put("stock", 5L);
+        map.put("count", null);
+        map.put("price", "3.14");
+        map.put("created", "2016-05-01");
+        map.put("notExists", "value");
+
+        Product product = BeanUtil.fromMap(map, Product.class);
+        assertEquals(12, product.getId());
+        assertEquals(5, product.getStock());
+        assertNull(product.getCount());
+        assertEquals(new BigDecimal("3.14"), product.getPrice());
+        assertEquals("2016-05-01", DateUtil.Date(product.getCreated()));
+
+        //Bean -> Map -> Bean
+        Product copy = BeanUtil.fromMap(BeanUtil.toMapView(product), Product.class);
+        assertEquals(product.toString(), copy.toString());
+    }
+}
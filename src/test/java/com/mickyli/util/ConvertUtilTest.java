@@ -3,6 +3,7 @@ package com.mickyli.util;
 import java.io.UnsupportedEncodingException;
 import java.util.Arrays;
 
+import org.junit.Assert;
 import org.junit.Test;
 
 import com.mickyli.util.java.ConvertUtil;
@@ -25,6 +26,16 @@ public class ConvertUtilTest {
         String utf8_hexStr = ConvertUtil.bytesToHexString(uft8_bytes);
         System.out.println("UTF-8 BYTE:"+ Arrays.toString(uft8_bytes));
         System.out.println("UTF-8 HEX: " + utf8_hexStr);
+        Assert.assertEquals("E4 B8 AD E6 96 87 ", utf8_hexStr);
+        Assert.assertArrayEquals(uft8_bytes, ConvertUtil.hexStringToByte("e4b8ade69687"));
+        Assert.assertArrayEquals(uft8_bytes, ConvertUtil.hexStringToByte(utf8_hexStr));
+        for (String invalid : new String[]{"e4b8ag", "e4b8a"}) {
+            try {
+                ConvertUtil.hexStringToByte(invalid);
+                Assert.fail(invalid);
+            } catch (IllegalArgumentException e) {
+            }
+        }
         byte[] gbk_bytes = str.getBytes(CharsetUtil.GBK);
         String gbk_hexStr = ConvertUtil.bytesToHexString(str.getBytes(CharsetUtil.GBK));
         System.out.println("GBK BYTE:" + Arrays.toString(gbk_bytes));
@@ -59,7 +70,9 @@ public class ConvertUtilTest {
     }
     @Test
     public void testHex() {
-        String hexStr = "E4 B8 AD E6 96 87";
+        //byteToLong需要8个字节
+        String hexStr = "E4 B8 AD E6 96 87 00 01";
+        Assert.assertEquals(8, ConvertUtil.hexStringToByte(hexStr).length);
         System.out.println(ConvertUtil.hexStringtoBinarg(hexStr));
         System.out.println(Arrays.toString(ConvertUtil.hexStringToByte(hexStr)));
         for(byte b:ConvertUtil.hexStringToByte(hexStr)){
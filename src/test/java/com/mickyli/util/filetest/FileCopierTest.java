@@ -0,0 +1,122 @@
+package com.mickyli.util.filetest;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.mickyli.util.java.file.FileCopier;
+import com.mickyli.util.java.file.FileUtil;
+import com.mickyli.util.java.security.MD5Utils;
+
+public class FileCopierTest {
+
+    private File root;
+
+    private File source;
+
+    @Before
+    public void setUp() throws IOException {
+        root = File.createTempFile("copier", "");
+        root.delete();
+        source = new File(root, "source");
+        Random random = new Random(23L);
+        //三层目录，包括空文件和空目录
+        for (int i = 0; i < 30; i++) {
+            File file = new File(source, "d" + (i % 3) + "/e" + (i % 2) + "/f" + i + ".bin");
+            file.getParentFile().mkdirs();
+            byte[] data = new byte[i == 0 ? 0 : random.nextInt(200000)];
+            random.nextBytes(data);
+            Files.write(file.toPath(), data);
+        }
+        new File(source, "empty").mkdirs();
+    }
+
+    @After
+    public void tearDown() {
+        FileUtil.deleteDir(root);
+    }
+
+    @Test
+    public void testCopyDir() throws IOException {
+        File target = new File(root, "target");
+        final List<File> copied = Collections.synchronizedList(new ArrayList<File>());
+        FileCopier copier = new FileCopier();
+        copier.setThreads(4);
+        copier.setListener(new FileCopier.CopyListener() {
+            @Override
+            public void onFile(File source, File target, boolean skipped, FileCopier.Result progress) {
+                copied.add(source);
+            }
+        });
+        FileCopier.Result result = copier.copy(source, target);
+        Assert.assertEquals(30, result.getFiles());
+        Assert.assertEquals(0, result.getSkippedFiles());
+        Assert.assertEquals(30, copied.size());
+        assertSameTree(source, target);
+        Assert.assertTrue(new File(target, "empty").isDirectory());
+
+        //没有变化的文件全部跳过，修改过的文件重新复制
+        File changed = new File(source, "d1/e1/f1.bin");
+        Files.write(changed.toPath(), new byte[]{1, 2, 3});
+        copier.setSkipUnchanged(true);
+        result = copier.copy(source, target);
+        Assert.assertEquals(1, result.getFiles());
+        Assert.assertEquals(29, result.getSkippedFiles());
+        Assert.assertEquals(3, result.getBytes());
+        assertSameTree(source, target);
+    }
+
+    @Test
+    public void testListenerFailure() {
+        //复制线程中抛出的非IO异常也要报告给调用方
+        FileCopier copier = new FileCopier();
+        copier.setThreads(4);
+        copier.setListener(new FileCopier.CopyListener() {
+            @Override
+            public void onFile(File source, File target, boolean skipped, FileCopier.Result progress) {
+                throw new IllegalStateException("listener");
+            }
+        });
+        try {
+            copier.copy(source, new File(root, "target"));
+            Assert.fail();
+        } catch (IOException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void testCopyFile() throws IOException {
+        File file = new File(source, "d2/e1/f5.bin");
+        File target = new File(root, "a/b/f5.bin");
+        Assert.assertEquals(file.length(), FileCopier.copyFile(file, target));
+        Assert.assertEquals(MD5Utils.getMD5(file), MD5Utils.getMD5(target));
+        Assert.assertEquals(file.lastModified(), target.lastModified());
+        Assert.assertTrue(FileUtil.copy(file, new File(root, "f5.bin").getPath()));
+    }
+
+    private static void assertSameTree(File expected, File actual) throws IOException {
+        String[] names = expected.list();
+        Assert.assertNotNull(actual.getPath(), actual.list());
+        Assert.assertEquals(actual.getPath(), names.length, actual.list().length);
+        for (String name : names) {
+            File e = new File(expected, name);
+            File a = new File(actual, name);
+            if (e.isDirectory()) {
+                assertSameTree(e, a);
+            } else {
+                Assert.assertEquals(a.getPath(), MD5Utils.getMD5(e), MD5Utils.getMD5(a));
+            }
+        }
+    }
+
+}
@@ -4,6 +4,9 @@ import static org.junit.Assert.assertEquals;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
@@ -13,6 +16,9 @@ import org.junit.Test;
 import test.TestUtil;
 
 import com.mickyli.util.java.file.FileUtil;
+import com.mickyli.util.java.file.LineHandler;
+import com.mickyli.util.java.file.LineIndex;
+import com.mickyli.util.java.file.LineIterator;
 import com.mickyli.util.java.project.CharsetUtil;
 
 public class FileUtilTest  {
@@ -24,6 +30,136 @@ public class FileUtilTest  {
         Assert.assertEquals("文件行数计算有误", 5, FileUtil.countLines(new File(file)));
     }
 
+    @Test
+    public void testLineIndex() throws IOException {
+        File file = File.createTempFile("lines", ".txt");
+        File indexFile = LineIndex.indexFile(file);
+        try {
+            List<String> expected = new ArrayList<>();
+            StringBuilder content = new StringBuilder();
+            for (int i = 0; i < 1000; i++) {
+                String line = "第" + i + "行" + (i % 7 == 0 ? "" : "abcdefg".substring(i % 7));
+                expected.add(line);
+                content.append(line).append(i % 3 == 0 ? "\r\n" : "\n");
+            }
+            //最后一行没有换行符
+            content.append("last");
+            expected.add("last");
+            FileUtil.write(file, content.toString(), "UTF-8");
+
+            Assert.assertEquals(1000, FileUtil.countLines(file));
+            LineIndex index = LineIndex.of(file);
+            Assert.assertEquals(1001, index.getLineCount());
+            Assert.assertTrue("索引文件没有保存", indexFile.isFile());
+            Assert.assertEquals(0, index.getOffset(0));
+            Assert.assertEquals(file.length(), index.getOffset(1001));
+
+            int[][] ranges = {{0, 5}, {127, 3}, {128, 1}, {500, 200}, {998, 10}, {1001, 5}};
+            for (int[] range : ranges) {
+                int to = Math.min(range[0] + range[1], expected.size());
+                Assert.assertEquals("从第" + range[0] + "行开始", expected.subList(range[0], to),
+                        FileUtil.lines(file, range[0], range[1], "UTF-8"));
+            }
+
+            //从索引文件读取的结果与重新建立的相同
+            LineIndex loaded = LineIndex.load(file, indexFile);
+            Assert.assertTrue(loaded.isValid());
+            for (int line = 0; line <= 1001; line += 37) {
+                Assert.assertEquals(index.getOffset(line), loaded.getOffset(line));
+            }
+        } finally {
+            file.delete();
+            indexFile.delete();
+        }
+    }
+
+    @Test
+    public void testStream() throws IOException {
+        File file = File.createTempFile("stream", ".txt");
+        File indexFile = LineIndex.indexFile(file);
+        Charset utf8 = Charset.forName("UTF-8");
+        try {
+            //包括空行、\r、\r\n，以及比缓冲区长的行
+            String longLine = new String(new char[300]).replace('\0', '长');
+            FileUtil.write(file, "a\r\n\nb\rc\n" + longLine + "\nd", "UTF-8");
+            List<String> expected = FileUtil.lines(file, "UTF-8");
+            Assert.assertEquals(6, expected.size());
+
+            List<String> lines = new ArrayList<>();
+            try (LineIterator it = FileUtil.stream(file, utf8, 16)) {
+                while (it.hasNext()) {
+                    lines.add(it.next());
+                }
+            }
+            Assert.assertEquals(expected, lines);
+
+            //跳过和限制行数
+            lines.clear();
+            try (LineIterator it = FileUtil.stream(file, utf8, 16).skip(2).limit(3)) {
+                while (it.hasNext()) {
+                    lines.add(it.next());
+                }
+            }
+            Assert.assertEquals(expected.subList(2, 5), lines);
+
+            //提前结束
+            final List<String> handled = new ArrayList<>();
+            long count = FileUtil.forEachLine(file, utf8, 1, 100, new LineHandler() {
+                @Override
+                public boolean handle(String line) {
+                    handled.add(line);
+                    return handled.size() < 2;
+                }
+            });
+            Assert.assertEquals(2, count);
+            Assert.assertEquals(expected.subList(1, 3), handled);
+
+            //有索引时直接定位，索引只按'\n'分行
+            FileUtil.write(file, "a\r\n\nb\nc\n" + longLine + "\nd", "UTF-8");
+            expected = FileUtil.lines(file, "UTF-8");
+            LineIndex.of(file);
+            Assert.assertTrue(indexFile.isFile());
+            handled.clear();
+            FileUtil.forEachLine(file, utf8, 4, 100, new LineHandler() {
+                @Override
+                public boolean handle(String line) {
+                    return handled.add(line);
+                }
+            });
+            Assert.assertEquals(expected.subList(4, 6), handled);
+        } finally {
+            file.delete();
+            indexFile.delete();
+        }
+    }
+
+    @Test
+    public void testForEachLineParallel() throws IOException {
+        File file = File.createTempFile("parallel", ".txt");
+        try {
+            StringBuilder content = new StringBuilder();
+            List<String> expected = new ArrayList<>();
+            for (int i = 0; i < 5000; i++) {
+                expected.add("行" + i);
+                content.append("行").append(i).append('\n');
+            }
+            FileUtil.write(file, content.toString(), "UTF-8");
+            final List<String> lines = Collections.synchronizedList(new ArrayList<String>());
+            long count = FileUtil.forEachLineParallel(file, Charset.forName("UTF-8"), new LineHandler() {
+                @Override
+                public boolean handle(String line) {
+                    return lines.add(line);
+                }
+            });
+            Assert.assertEquals(5000, count);
+            Collections.sort(lines);
+            Collections.sort(expected);
+            Assert.assertEquals(expected, lines);
+        } finally {
+            file.delete();
+        }
+    }
+
     @Test
     public void testHash() {
         String file = TestUtil.path + "ali.gif";
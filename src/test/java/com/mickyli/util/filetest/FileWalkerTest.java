@@ -0,0 +1,149 @@
+package com.mickyli.util.filetest;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.mickyli.util.java.file.FileUtil;
+import com.mickyli.util.java.file.FileWalker;
+
+public class FileWalkerTest {
+
+    private File root;
+
+    @Before
+    public void setUp() throws IOException {
+        root = File.createTempFile("walker", "");
+        root.delete();
+        //root/a.txt root/b.log root/x/c.txt root/x/y/d.txt root/x/y/z/e.log root/.git/f.txt
+        String[] files = {"a.txt", "b.log", "x/c.txt", "x/y/d.txt", "x/y/z/e.log", ".git/f.txt"};
+        for (String name : files) {
+            File file = new File(root, name);
+            file.getParentFile().mkdirs();
+            file.createNewFile();
+        }
+    }
+
+    @After
+    public void tearDown() {
+        FileUtil.deleteDir(root);
+    }
+
+    @Test
+    public void testList() {
+        FileWalker walker = new FileWalker();
+        Assert.assertEquals(names("a.txt", "b.log", "x/c.txt", "x/y/d.txt", "x/y/z/e.log", ".git/f.txt"),
+                relative(walker.list(root)));
+
+        walker.setGlob("*.txt");
+        walker.setExcludeDirectories("{.git,z}");
+        Assert.assertEquals(names("a.txt", "x/c.txt", "x/y/d.txt"), relative(walker.list(root)));
+
+        walker.setMaxDepth(2);
+        Assert.assertEquals(names("a.txt", "x/c.txt"), relative(walker.list(root)));
+
+        walker = new FileWalker();
+        walker.setRegex("[a-c]\\..*");
+        walker.setIncludeDirectories(true);
+        walker.setMaxDepth(1);
+        Assert.assertEquals(names("a.txt", "b.log"), relative(walker.list(root)));
+
+        Assert.assertTrue(new FileWalker().list(new File(root, "none")).isEmpty());
+    }
+
+    @Test
+    public void testIterator() {
+        FileWalker walker = new FileWalker();
+        walker.setIncludeDirectories(true);
+        List<String> names = new ArrayList<>();
+        FileWalker.WalkIterator it = walker.iterator(root);
+        while (it.hasNext()) {
+            FileWalker.Entry entry = it.next();
+            names.add(root.toPath().relativize(entry.getPath()).toString().replace(File.separatorChar, '/'));
+            Assert.assertEquals(entry.getFile().isDirectory(), entry.getAttributes().isDirectory());
+        }
+        Collections.sort(names);
+        Assert.assertEquals(names("a.txt", "b.log", "x/c.txt", "x/y/d.txt", "x/y/z/e.log", ".git/f.txt",
+                "x", "x/y", "x/y/z", ".git"), names);
+
+        //提前关闭
+        it = walker.iterator(root);
+        Assert.assertTrue(it.hasNext());
+        it.next();
+        it.close();
+        Assert.assertFalse(it.hasNext());
+    }
+
+    @Test(timeout = 30000)
+    public void testIteratorNotClosed() throws IOException {
+        //结果超过队列长度，遍历线程等待消费者时不能占用共用的线程池
+        File many = new File(root, "many");
+        many.mkdirs();
+        for (int i = 0; i < 3000; i++) {
+            new File(many, "m" + i + ".txt").createNewFile();
+        }
+        FileWalker.WalkIterator it = new FileWalker().iterator(root);
+        Assert.assertTrue(it.hasNext());
+        it.next();
+        Assert.assertEquals(3006, new FileWalker().list(root).size());
+        it.close();
+    }
+
+    @Test
+    public void testSearch() {
+        Assert.assertEquals(names("x/y/d.txt"), relative(FileUtil.searchFile(root, "d.txt")));
+        Assert.assertEquals(names("b.log", "x/y/z/e.log"), relative(FileUtil.searchFileReg(root, "\\w+\\.log$")));
+        Assert.assertEquals(10, FileUtil.listFileAll(root).size());
+        Assert.assertEquals(6, FileUtil.listFile(root).size());
+        Assert.assertEquals(4, FileUtil.listFile(root, false).size());
+    }
+
+    @Test
+    public void testFollowLinks() throws IOException {
+        try {
+            //x/link -> x 形成环, out -> x/y
+            Files.createSymbolicLink(new File(root, "x/link").toPath(), new File(root, "x").toPath());
+            Files.createSymbolicLink(new File(root, "out").toPath(), new File(root, "x/y").toPath());
+        } catch (UnsupportedOperationException | IOException e) {
+            //不支持符号链接的文件系统
+            return;
+        }
+        FileWalker walker = new FileWalker();
+        walker.setGlob("*.txt");
+        Assert.assertEquals(names("a.txt", "x/c.txt", "x/y/d.txt", ".git/f.txt"), relative(walker.list(root)));
+
+        walker.setFollowLinks(true);
+        //x/link指向上级目录，不再进入
+        Assert.assertEquals(names("a.txt", "x/c.txt", "x/y/d.txt", ".git/f.txt", "out/d.txt"),
+                relative(walker.list(root)));
+
+        Assert.assertEquals(names("out/d.txt", "x/y/d.txt"), relative(FileUtil.searchFile(root, "d.txt")));
+        //符号链接本身作为目录返回
+        Assert.assertTrue(relative(FileUtil.listFileAll(root)).contains("out"));
+    }
+
+    private static List<String> names(String... names) {
+        List<String> list = new ArrayList<>();
+        Collections.addAll(list, names);
+        Collections.sort(list);
+        return list;
+    }
+
+    private List<String> relative(List<File> files) {
+        List<String> list = new ArrayList<>();
+        for (File file : files) {
+            list.add(root.toPath().relativize(file.toPath()).toString().replace(File.separatorChar, '/'));
+        }
+        Collections.sort(list);
+        return list;
+    }
+
+}
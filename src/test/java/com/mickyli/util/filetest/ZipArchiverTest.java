@@ -0,0 +1,171 @@
+package com.mickyli.util.filetest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.mickyli.util.java.file.FileUtil;
+import com.mickyli.util.java.file.ZIPUtil;
+import com.mickyli.util.java.file.ZipArchiver;
+
+public class ZipArchiverTest {
+
+    private File root;
+
+    private File source;
+
+    @Before
+    public void setUp() throws IOException {
+        root = File.createTempFile("archiver", "");
+        root.delete();
+        source = new File(root, "source");
+        Random random = new Random(25L);
+        //大文件跨多个块，一半随机数据一半重复数据
+        byte[] big = new byte[ZipArchiver.BLOCK_SIZE * 3 + 12345];
+        random.nextBytes(big);
+        Arrays.fill(big, big.length / 2, big.length, (byte) 'a');
+        write("big.dat", big);
+        write("empty.txt", new byte[0]);
+        for (int i = 0; i < 20; i++) {
+            byte[] data = new byte[random.nextInt(50000)];
+            for (int j = 0; j < data.length; j++) {
+                data[j] = (byte) ('a' + random.nextInt(4));
+            }
+            write("d" + (i % 3) + "/e" + (i % 2) + "/f" + i + (i % 2 == 0 ? ".txt" : ".jpg"), data);
+        }
+        new File(source, "empty/inner").mkdirs();
+    }
+
+    @After
+    public void tearDown() {
+        FileUtil.deleteDir(root);
+    }
+
+    @Test
+    public void testZip() throws IOException {
+        File zip = new File(root, "out/source.zip");
+        ZipArchiver archiver = new ZipArchiver();
+        archiver.setLevel("JPG", 0);
+        archiver.setComment("注释");
+        Assert.assertEquals(0, archiver.getLevel("a/b.jpg"));
+        Assert.assertEquals(-1, archiver.getLevel("a.jpg/b"));
+        long size = archiver.zip(source, zip);
+        Assert.assertEquals(zip.length(), size);
+
+        List<String> names = new ArrayList<>();
+        try (ZipFile file = new ZipFile(zip)) {
+            Assert.assertEquals("注释", file.getComment());
+            Enumeration<? extends ZipEntry> entries = file.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                names.add(entry.getName());
+                if (entry.isDirectory()) {
+                    Assert.assertTrue(new File(source, entry.getName()).isDirectory());
+                    continue;
+                }
+                try (InputStream in = file.getInputStream(entry)) {
+                    Assert.assertArrayEquals(entry.getName(), read(new File(source, entry.getName())), read(in));
+                }
+                if (entry.getName().endsWith(".jpg")) {
+                    Assert.assertTrue(entry.getCompressedSize() >= entry.getSize());
+                } else if (entry.getSize() > 0) {
+                    Assert.assertTrue(entry.getCompressedSize() < entry.getSize());
+                }
+            }
+        }
+        Assert.assertEquals(20 + 2 + 9 + 2, names.size());
+        Assert.assertTrue(names.contains("empty/inner/"));
+        Assert.assertTrue(names.contains("d2/e1/f5.jpg"));
+        Assert.assertTrue(names.contains("empty.txt"));
+
+        //按顺序读取时使用数据描述符
+        int count = 0;
+        try (ZipInputStream in = new ZipInputStream(new FileInputStream(zip))) {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                if (!entry.isDirectory()) {
+                    Assert.assertArrayEquals(entry.getName(), read(new File(source, entry.getName())), read(in));
+                }
+                count++;
+            }
+        }
+        Assert.assertEquals(names.size(), count);
+    }
+
+    @Test
+    public void testLevels() throws IOException {
+        //多块的可压缩数据，先压缩0级的a.jpg，同一个线程再用其他级别压缩b.txt
+        File dir = new File(root, "levels");
+        byte[] text = new byte[ZipArchiver.BLOCK_SIZE * 3 + 777];
+        Random random = new Random(7L);
+        for (int i = 0; i < text.length; i++) {
+            text[i] = (byte) ('a' + random.nextInt(8));
+        }
+        dir.mkdirs();
+        Files.write(new File(dir, "a.jpg").toPath(), text);
+        Files.write(new File(dir, "b.txt").toPath(), text);
+        ZipArchiver archiver = new ZipArchiver();
+        archiver.setLevel("jpg", 0);
+        for (int level : new int[]{-1, 9, 6, 1, -1}) {
+            archiver.setDefaultLevel(level);
+            File zip = new File(root, "levels" + level + ".zip");
+            archiver.zip(dir, zip);
+            int count = 0;
+            try (ZipInputStream in = new ZipInputStream(new FileInputStream(zip))) {
+                while (in.getNextEntry() != null) {
+                    Assert.assertArrayEquals("level " + level, text, read(in));
+                    count++;
+                }
+            }
+            Assert.assertEquals(2, count);
+        }
+    }
+
+    @Test
+    public void testZipAll() throws Exception {
+        String zip = new File(root, "all.zip").getPath();
+        ZIPUtil.deCompress(source, zip);
+        File target = new File(root, "unzip");
+        ZIPUtil.unCompress(new File(zip), target.getPath());
+        Assert.assertArrayEquals(read(new File(source, "big.dat")), read(new File(target, "source/big.dat")));
+        Assert.assertArrayEquals(read(new File(source, "d1/e0/f4.txt")), read(new File(target, "source/d1/e0/f4.txt")));
+        Assert.assertTrue(new File(target, "source/empty/inner").isDirectory());
+    }
+
+    private void write(String name, byte[] data) throws IOException {
+        File file = new File(source, name);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), data);
+    }
+
+    private static byte[] read(File file) throws IOException {
+        return Files.readAllBytes(file.toPath());
+    }
+
+    private static byte[] read(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.mickyli.util.java.security;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+
+import org.junit.Assert;
+
+/** 
+ *   <B>说       明</B>:Base16、Base32和Base64流式编码解码的公共检查。
+ *   <p>编码器和解码器的公共父类不对外公开，因此放在同一个包中。
+ *
+ */
+public final class BaseCoderAssert {
+
+	private BaseCoderAssert(){
+	}
+
+	/**
+	 * 对每种长度的随机数据分别用流和字节数组编码解码，检查结果相同。
+	 * 
+	 * @param encoder 编码器，填充字符设置为'*'。
+	 * @param decoder 解码器，填充字符设置为'*'。
+	 * @param lengths 数据长度，应覆盖各编码整行、整块前后的长度。
+	 * @param seed 随机数种子。
+	 */
+	public static void assertStream(BaseEncoder encoder, BaseDecoder decoder, int[] lengths, long seed) throws IOException{
+		encoder.setPad((byte)'*');
+		decoder.setPad((byte)'*');
+		Random random = new Random(seed);
+		for(int length : lengths){
+			byte[] data = new byte[length];
+			random.nextBytes(data);
+			byte[] expected = encoder.encode(data);
+			ByteArrayOutputStream bos = new ByteArrayOutputStream();
+			OutputStream out = encoder.wrap(bos);
+			//分成不同大小的片段写入。
+			for(int i = 0; i < length;){
+				int n = Math.min(length - i, i % 1000 + 1);
+				out.write(data, i, n);
+				i += n;
+			}
+			out.close();
+			Assert.assertArrayEquals("数据长度为"+length, expected, bos.toByteArray());
+			
+			InputStream in = decoder.wrap(new ByteArrayInputStream(expected));
+			ByteArrayOutputStream result = new ByteArrayOutputStream();
+			byte[] buffer = new byte[777];
+			for(int n; (n = in.read(buffer)) != -1;){
+				result.write(buffer, 0, n);
+			}
+			in.close();
+			Assert.assertArrayEquals("数据长度为"+length, decoder.decode(expected), result.toByteArray());
+			Assert.assertArrayEquals("数据长度为"+length, data, result.toByteArray());
+		}
+	}
+
+}
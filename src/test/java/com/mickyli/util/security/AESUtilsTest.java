@@ -1,5 +1,15 @@
 package com.mickyli.util.security;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.security.NoSuchAlgorithmException;
 import java.security.Provider;
 import java.security.SecureRandom;
@@ -12,6 +22,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import com.mickyli.util.java.security.AESUtils;
+import com.mickyli.util.java.security.SymmetricCipher;
 
 /** 
  *   <B>说       明</B>:AES工具测试类。
@@ -145,6 +156,190 @@ public class AESUtilsTest {
 		Assert.assertEquals("原始数据为["+input+"],解密后的数据为["+data+"].", input, data);
 	}
 
+	@Test
+	public void testNewCipher(){
+		byte[] data = "密码学中的高级加密标准（Advanced Encryption Standard，AES）".getBytes();
+		byte[] key = {1,2,3,4,5,6,7,8,9,0,1,2,3,4,5,6};
+		SymmetricCipher cipher = AESUtils.newCipher(key);
+		for(int i = 0; i < 3; i++){
+			byte[] encrypted = cipher.encrypt(data);
+			Assert.assertArrayEquals(AESUtils.encrypt(data, key), encrypted);
+			Assert.assertArrayEquals(data, cipher.decrypt(encrypted));
+		}
+		byte[] iv = {8,7,6,5,4,3,2,1,1,2,3,4,5,6,7,8};
+		SymmetricCipher ecb = AESUtils.newCipher(key, "AES/ECB/PKCS5Padding", iv);
+		byte[] encrypted = ecb.encrypt(data, 3, 20);
+		Assert.assertArrayEquals(AESUtils.encrypt(Arrays.copyOfRange(data, 3, 23), key, "AES/ECB/PKCS5Padding", iv), encrypted);
+		Assert.assertArrayEquals(Arrays.copyOfRange(data, 3, 23), ecb.decrypt(encrypted));
+		//解密失败后仍然可以继续使用
+		try {
+			ecb.decrypt(data, 0, 16);
+			Assert.fail("错误的密文应该解密失败!");
+		} catch (IllegalStateException e) {
+		}
+		Assert.assertArrayEquals(Arrays.copyOfRange(data, 3, 23), ecb.decrypt(encrypted));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNewCipherWithWrongKey(){
+		AESUtils.newCipher(new byte[15]);
+	}
+
+	@Test
+	public void testEncryptWithMixedTransformations(){
+		byte[] data = "thismustbe8lengthsoga!!!12345678".getBytes();
+		byte[] key = {1,2,3,4,5,6,7,8,9,0,1,2,3,4,5,6};
+		byte[] iv = {8,7,6,5,4,3,2,1,1,2,3,4,5,6,7,8};
+		String[] transformations = {"AES/CBC/PKCS5Padding", "AES/ECB/PKCS5Padding", "AES/CTR/NoPadding", "AES/CBC/NoPadding"};
+		for(int i = 0; i < 3; i++){
+			for(String transformation : transformations){
+				byte[] encrypted = AESUtils.encrypt(data, key, transformation, iv);
+				Assert.assertArrayEquals(transformation, data, AESUtils.decrypt(encrypted, key, transformation, iv));
+			}
+		}
+	}
+
+	@Test
+	public void testEncryptStream() throws IOException{
+		byte[] key = {1,2,3,4,5,6,7,8,9,0,1,2,3,4,5,6};
+		byte[] iv = {8,7,6,5,4,3,2,1,1,2,3,4,5,6,7,8};
+		Random random = new Random(15);
+		String[] transformations = {"AES/CBC/PKCS5Padding", "AES/CTR/NoPadding", "AES/GCM/NoPadding"};
+		for(String transformation : transformations){
+			for(int size : new int[]{0, 15, 16, 65536, 65537, 300000}){
+				byte[] data = new byte[size];
+				random.nextBytes(data);
+				byte[] expected = AESUtils.encrypt(data, key, transformation, iv);
+				ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+				long length = AESUtils.encrypt(new ByteArrayInputStream(data), encrypted, key, transformation, iv);
+				Assert.assertEquals(expected.length, length);
+				Assert.assertArrayEquals(transformation + " " + size, expected, encrypted.toByteArray());
+				ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+				AESUtils.decrypt(new ByteArrayInputStream(expected), decrypted, key, transformation, iv);
+				Assert.assertArrayEquals(transformation + " " + size, data, decrypted.toByteArray());
+			}
+		}
+	}
+
+	@Test
+	public void testEncryptChannel() throws IOException{
+		byte[] key = {1,2,3,4,5,6,7,8,9,0,1,2,3,4,5,6};
+		byte[] iv = {8,7,6,5,4,3,2,1,1,2,3,4,5,6,7,8};
+		byte[] data = new byte[200000];
+		new Random(16).nextBytes(data);
+		File plain = File.createTempFile("aes", ".txt");
+		File encrypted = File.createTempFile("aes", ".enc");
+		File decrypted = File.createTempFile("aes", ".dec");
+		try {
+			FileOutputStream out = new FileOutputStream(plain);
+			out.write(data);
+			out.close();
+			process(true, plain, encrypted, key, iv);
+			process(false, encrypted, decrypted, key, iv);
+			Assert.assertArrayEquals(AESUtils.encrypt(data, key, "AES/CBC/PKCS5Padding", iv), readFile(encrypted));
+			Assert.assertArrayEquals(data, readFile(decrypted));
+		} finally {
+			plain.delete();
+			encrypted.delete();
+			decrypted.delete();
+		}
+	}
+
+	@Test
+	public void testGCM(){
+		byte[] data = "thismustbe8lengthsoga!!!12345678".getBytes();
+		byte[] key = {1,2,3,4,5,6,7,8,9,0,1,2,3,4,5,6};
+		byte[] iv = {8,7,6,5,4,3,2,1,1,2,3,4,5,6,7,8};
+		byte[] encrypted = AESUtils.encrypt(data, key, "AES/GCM/NoPadding", iv);
+		Assert.assertEquals(data.length + 16, encrypted.length);
+		SymmetricCipher cipher = AESUtils.newCipher(key, "AES/GCM/NoPadding", iv);
+		Assert.assertArrayEquals(data, cipher.decrypt(encrypted));
+		Assert.assertArrayEquals(data, cipher.decrypt(cipher.encrypt(data)));
+		//同一个对象不能用同一个初始化向量再次加密
+		try {
+			cipher.encrypt(data);
+			Assert.fail("GCM模式不能重复使用初始化向量!");
+		} catch (IllegalStateException e) {
+		}
+		try {
+			cipher.newEncryptStream(new ByteArrayOutputStream());
+			Assert.fail("GCM模式不能重复使用初始化向量!");
+		} catch (IllegalStateException e) {
+		}
+		Assert.assertArrayEquals(data, cipher.decrypt(encrypted));
+		encrypted[3] ^= 1;
+		try {
+			cipher.decrypt(encrypted);
+			Assert.fail("被修改的密文应该校验失败!");
+		} catch (IllegalStateException e) {
+		}
+	}
+
+	@Test
+	public void testEncryptByteBuffer() throws IOException{
+		byte[] data = "thismustbe8lengthsoga!!!12345678".getBytes();
+		byte[] key = {1,2,3,4,5,6,7,8,9,0,1,2,3,4,5,6};
+		SymmetricCipher cipher = AESUtils.newCipher(key);
+		ByteBuffer encrypted = ByteBuffer.allocateDirect(64);
+		int length = cipher.encrypt(ByteBuffer.wrap(data), encrypted);
+		encrypted.flip();
+		Assert.assertEquals(length, encrypted.remaining());
+		ByteBuffer decrypted = ByteBuffer.allocate(64);
+		cipher.decrypt(encrypted, decrypted);
+		Assert.assertArrayEquals(data, Arrays.copyOf(decrypted.array(), decrypted.position()));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		OutputStream encryptStream = cipher.newEncryptStream(out);
+		encryptStream.write(data, 0, 10);
+		encryptStream.write(data, 10, data.length - 10);
+		encryptStream.close();
+		Assert.assertArrayEquals(cipher.encrypt(data), out.toByteArray());
+		InputStream decryptStream = cipher.newDecryptStream(new ByteArrayInputStream(out.toByteArray()));
+		ByteArrayOutputStream plain = new ByteArrayOutputStream();
+		int b;
+		while((b = decryptStream.read()) != -1){
+			plain.write(b);
+		}
+		decryptStream.close();
+		Assert.assertArrayEquals(data, plain.toByteArray());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testEncryptByteBufferWithSmallOutput(){
+		byte[] key = {1,2,3,4,5,6,7,8,9,0,1,2,3,4,5,6};
+		AESUtils.newCipher(key).encrypt(ByteBuffer.allocate(32), ByteBuffer.allocate(32));
+	}
+
+	private static void process(boolean encrypt, File from, File to, byte[] key, byte[] iv) throws IOException{
+		FileChannel in = new FileInputStream(from).getChannel();
+		FileChannel out = new FileOutputStream(to).getChannel();
+		try {
+			if(encrypt){
+				AESUtils.encrypt(in, out, key, "AES/CBC/PKCS5Padding", iv);
+			}else{
+				AESUtils.decrypt(in, out, key, "AES/CBC/PKCS5Padding", iv);
+			}
+		} finally {
+			in.close();
+			out.close();
+		}
+	}
+
+	private static byte[] readFile(File file) throws IOException{
+		FileInputStream in = new FileInputStream(file);
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int read;
+			while((read = in.read(buffer)) != -1){
+				out.write(buffer, 0, read);
+			}
+			return out.toByteArray();
+		} finally {
+			in.close();
+		}
+	}
+
 	/**
 	 * 随机创建一个转换名称。
 	 * @return
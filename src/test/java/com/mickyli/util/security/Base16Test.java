@@ -1,13 +1,16 @@
 package com.mickyli.util.security;
 
+import java.io.IOException;
 import java.security.SecureRandom;
 import java.util.Arrays;
+import java.util.Random;
 
 import org.junit.Assert;
 import org.junit.Test;
 
 import com.mickyli.util.java.security.Base16Decoder;
 import com.mickyli.util.java.security.Base16Encoder;
+import com.mickyli.util.java.security.BaseCoderAssert;
 
 /** 
  *   <B>说       明</B>:Base16编码解码测试类。
@@ -29,4 +32,33 @@ public class Base16Test {
 				+ "编码前数据:"+Arrays.toString(data)+"，解码后数据:"+Arrays.toString(result), Arrays.equals(data, result));
 	}
 	
+	@Test
+	public void testBase16Stream() throws IOException{
+		//分别覆盖整行、整块(38*128字节)前后的长度。
+		int[] lengths = {0, 1, 2, 38, 39, 38 * 128, 38 * 128 + 1, 38 * 300 + 2};
+		BaseCoderAssert.assertStream(new Base16Encoder(), new Base16Decoder(), lengths, 38L);
+	}
+	
+	@Test
+	public void testBase16Lines(){
+		//先编码较长的数据再编码较短的数据，检查重复使用的缓冲区中没有残留数据。
+		int[] lengths = {38 * 1000 + 5, 38, 37, 1, 38 * 2, 0, 38 * 3 + 1};
+		Random random = new Random(16L);
+		String ls = System.getProperty("line.separator");
+		for(int length : lengths){
+			byte[] data = new byte[length];
+			random.nextBytes(data);
+			StringBuilder expected = new StringBuilder();
+			for(int i = 0; i < length; i++){
+				expected.append(String.format("%02X", data[i] & 0xff));
+				if((i + 1) % 38 == 0){
+					expected.append(ls);
+				}
+			}
+			byte[] eData = new Base16Encoder().encode(data);
+			Assert.assertEquals("数据长度为"+length, expected.toString(), new String(eData));
+			Assert.assertArrayEquals("数据长度为"+length, data, new Base16Decoder().decode(eData));
+		}
+	}
+	
 }
@@ -1,5 +1,6 @@
 package com.mickyli.util.security;
 
+import java.io.IOException;
 import java.security.SecureRandom;
 import java.util.Arrays;
 
@@ -8,6 +9,7 @@ import org.junit.Test;
 
 import com.mickyli.util.java.security.Base32Decoder;
 import com.mickyli.util.java.security.Base32Encoder;
+import com.mickyli.util.java.security.BaseCoderAssert;
 
 
 /** 
@@ -50,4 +52,11 @@ public class Base32Test {
 				Arrays.equals(data, result));
 	}
 	
+	@Test
+	public void testBase32Stream() throws IOException{
+		//分别覆盖整行、整块(45*128字节)前后的长度。
+		int[] lengths = {0, 1, 2, 45, 46, 45 * 128, 45 * 128 + 1, 45 * 300 + 2};
+		BaseCoderAssert.assertStream(new Base32Encoder(), new Base32Decoder(), lengths, 45L);
+	}
+	
 }
@@ -1,13 +1,17 @@
 package com.mickyli.util.security;
 
+import java.io.IOException;
 import java.security.SecureRandom;
 import java.util.Arrays;
+import java.util.Random;
 
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.mickyli.util.java.security.Base64;
 import com.mickyli.util.java.security.Base64Decoder;
 import com.mickyli.util.java.security.Base64Encoder;
+import com.mickyli.util.java.security.BaseCoderAssert;
 
 /** 
  *   <B>说       明</B>:Base32编码解码测试类。
@@ -49,4 +53,38 @@ public class Base64Test {
 				Arrays.equals(data, result));
 	}
 	
+	@Test
+	public void testBase64Stream() throws IOException{
+		//分别覆盖整行、整块(57*128字节)前后的长度。
+		int[] lengths = {0, 1, 2, 57, 58, 57 * 128, 57 * 128 + 1, 57 * 300 + 2};
+		BaseCoderAssert.assertStream(new Base64Encoder(), new Base64Decoder(), lengths, 57L);
+	}
+	
+	@Test
+	public void testBase64Bulk(){
+		String ls = System.getProperty("line.separator");
+		Random random = new Random(76L);
+		for(int length = 0; length < 400; length++){
+			byte[] data = new byte[length];
+			random.nextBytes(data);
+			//Base64类的按字符编码与批量编码结果相同。
+			Assert.assertEquals(new String(Base64.encodeToChar(data, true)), new String(Base64.encodeToByte(data, true)));
+			Assert.assertEquals(new String(Base64.encodeToChar(data, false)), Base64.encodeToString(data));
+			//Base64Encoder每76个字符(包括最后一行)后换行。
+			String std = new String(Base64.encodeToChar(data, false));
+			StringBuilder expected = new StringBuilder();
+			for(int i = 0; i < std.length(); i += 76){
+				expected.append(std.substring(i, Math.min(i + 76, std.length())));
+				if((i / 76 + 1) * 57 <= length){
+					expected.append(ls);
+				}
+			}
+			String urlSafe = expected.toString().replace('+', '-').replace('/', '_').replace("=", "");
+			Assert.assertEquals("数据长度为"+length, expected.toString(), new String(new Base64Encoder().encode(data)));
+			Assert.assertEquals("数据长度为"+length, urlSafe, new String(new Base64Encoder(true).encode(data)));
+			Assert.assertArrayEquals(data, new Base64Decoder().decode(new Base64Encoder().encode(data)));
+			Assert.assertArrayEquals(data, new Base64Decoder().decode(urlSafe.getBytes()));
+		}
+	}
+	
 }
@@ -1,8 +1,12 @@
 package com.mickyli.util.security; 
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Random;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -163,5 +167,50 @@ public class CRCUtilsTest {
 		}
 	}
 	
+	@Test
+	public void testParallelCrc32(){
+		//超过并行分块长度，并且不是分块长度的整数倍。
+		byte[] input = new byte[5 * 1024 * 1024 + 333];
+		new Random(13).nextBytes(input);
+		long expected = CRCUtils.getCRC32Value(input);
+		ByteBuffer heap = ByteBuffer.wrap(input);
+		Assert.assertEquals(expected, CRCUtils.parallelCrc32(heap));
+		Assert.assertFalse(heap.hasRemaining());
+		ByteBuffer direct = ByteBuffer.allocateDirect(input.length);
+		direct.put(input).flip();
+		Assert.assertEquals(expected, CRCUtils.parallelCrc32(direct));
+		//从中间开始的数据。
+		heap = ByteBuffer.wrap(input);
+		heap.position(7);
+		Assert.assertEquals(CRCUtils.getCRC32Value(java.util.Arrays.copyOfRange(input, 7, input.length)), 
+				CRCUtils.parallelCrc32(heap));
+		Assert.assertEquals(CRCUtils.getCRC32Value(new byte[0]), CRCUtils.parallelCrc32(ByteBuffer.allocate(0)));
+	}
+	
+	@Test
+	public void testParallelCrc32Path() throws IOException{
+		byte[] input = new byte[3 * 1024 * 1024 + 1];
+		new Random(31).nextBytes(input);
+		File file = File.createTempFile("CRCUtilsTest", ".bin");
+		try {
+			FileOutputStream out = new FileOutputStream(file);
+			out.write(input);
+			out.close();
+			Assert.assertEquals(CRCUtils.getCRC32Value(input), CRCUtils.parallelCrc32(file.toPath()));
+			Assert.assertEquals(CRCUtils.getCRC32CValue(input), CRCUtils.parallelCrc32C(file.toPath()));
+		} finally {
+			file.delete();
+		}
+	}
+	
+	@Test
+	public void testCRC32C(){
+		//RFC 3720中的检验值。
+		Assert.assertEquals(0xe3069283L, CRCUtils.getCRC32CValue("123456789".getBytes()));
+		Assert.assertEquals(0x8a9136aaL, CRCUtils.getCRC32CValue(new byte[32]));
+		byte[] input = new byte[2 * 1024 * 1024 + 5];
+		new Random(32).nextBytes(input);
+		Assert.assertEquals(CRCUtils.getCRC32CValue(input), CRCUtils.parallelCrc32C(ByteBuffer.wrap(input)));
+	}
+	
 }
- 
\ No newline at end of file
@@ -13,6 +13,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import com.mickyli.util.java.security.DESUtils;
+import com.mickyli.util.java.security.SymmetricCipher;
 
 /** 
  *   <B>说       明</B>:DES工具测试类。
@@ -146,6 +147,18 @@ public class DESUtilsTest {
 		Assert.assertEquals("原始数据为["+input+"],解密后的数据为["+data+"].", input, data);
 	}
 
+	@Test
+	public void testNewCipher(){
+		byte[] data = "数据加密算法(Data Encryption Algorithm DEA)".getBytes();
+		byte[] key = {1,2,3,4,5,6,7,8};
+		SymmetricCipher cipher = DESUtils.newCipher(key);
+		for(int i = 0; i < 3; i++){
+			byte[] encrypted = cipher.encrypt(data);
+			Assert.assertArrayEquals(DESUtils.encrypt(data, key), encrypted);
+			Assert.assertArrayEquals(data, cipher.decrypt(encrypted));
+		}
+	}
+
 	/**
 	 * 随机创建一个转换名称。
 	 * @return
@@ -14,6 +14,7 @@ import org.junit.Test;
 
 import com.mickyli.util.java.security.DHUtils;
 import com.mickyli.util.java.security.KeyPairBean;
+import com.mickyli.util.java.security.SymmetricCipher;
 
 /** 
  *   <B>说       明</B>:DH工具测试类。
@@ -224,4 +225,21 @@ public class DHUtilsTest {
 		Assert.assertTrue("解密后的数据与加密前数据不相等!", data.equals(dData));
 	}
 
+	@Test
+	public void testNewSession(){
+		KeyPairBean otherBean = DHUtils.generateKeyPair();
+		KeyPairBean ourBean = DHUtils.generateKeyPair(otherBean.getPublicKey());
+		SymmetricCipher ourSession = DHUtils.newSession(otherBean.getPublicKey(), ourBean.getPrivateKey());
+		SymmetricCipher otherSession = DHUtils.newSession(ourBean.getPublicKey(), otherBean.getPrivateKey());
+		byte[] data = "Nothing Else Matters".getBytes();
+		for(int i = 0; i < 3; i++){
+			byte[] encrypted = ourSession.encrypt(data);
+			Assert.assertArrayEquals(DHUtils.encrypt(data, otherBean.getPublicKey(), ourBean.getPrivateKey()), encrypted);
+			Assert.assertArrayEquals(data, otherSession.decrypt(encrypted));
+			Assert.assertArrayEquals(data, DHUtils.decrypt(encrypted, ourBean.getPublicKey(), otherBean.getPrivateKey()));
+		}
+		DHUtils.clearSessions();
+		Assert.assertArrayEquals(data, DHUtils.decrypt(ourSession.encrypt(data), ourBean.getPublicKey(), otherBean.getPrivateKey()));
+	}
+
 }
@@ -1,12 +1,17 @@
 package com.mickyli.util.security;
 
 import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
 
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
 import com.mickyli.util.java.security.DSASignatureUtils;
+import com.mickyli.util.java.security.SignatureVerifier;
 import com.mickyli.util.java.security.KeyPairBean;
 import com.mickyli.util.java.security.DSASignatureUtils.SignatureAlgorithm;
 
@@ -124,4 +129,41 @@ public class DSASignatureUtilsTest {
 		DSASignatureUtils.verify(data, keyPair.getPublicKey(), signature, null);
 	}
 	
+	@Test
+	public void testNewVerifier(){
+		byte[] data = "Wake me up when September ends.".getBytes();
+		byte[] signature = DSASignatureUtils.sign(data, keyPair.getPrivateKey(), SignatureAlgorithm.SHA1WithDSA);
+		SignatureVerifier verifier = DSASignatureUtils.newVerifier(keyPair.getPublicKey(), SignatureAlgorithm.SHA1WithDSA);
+		Assert.assertSame("相同的公钥应该返回同一个验证对象!", verifier, DSASignatureUtils.newVerifier(keyPair.getPublicKey().clone(), SignatureAlgorithm.SHA1WithDSA));
+		for(int i = 0; i < 3; i++){
+			Assert.assertTrue(verifier.verify(data, signature));
+			Assert.assertFalse(verifier.verify("Wake me up when September ends".getBytes(), signature));
+		}
+	}
+
+	@Test
+	public void testVerifyAll(){
+		List<byte[]> data = new ArrayList<byte[]>();
+		List<byte[]> signatures = new ArrayList<byte[]>();
+		BitSet expected = new BitSet();
+		for(int i = 0; i < 100; i++){
+			byte[] item = ("Wake me up when September ends." + i).getBytes();
+			byte[] signature = DSASignatureUtils.sign(item, keyPair.getPrivateKey(), SignatureAlgorithm.SHA1WithDSA);
+			if(i % 3 == 0){
+				//签名与数据不对应
+				item = ("Wake me up when September ends!" + i).getBytes();
+			}else if(i % 7 == 0){
+				//签名格式不正确
+				signature = Arrays.copyOf(signature, 5);
+			}else{
+				expected.set(i);
+			}
+			data.add(item);
+			signatures.add(signature);
+		}
+		SignatureVerifier verifier = DSASignatureUtils.newVerifier(keyPair.getPublicKey(), SignatureAlgorithm.SHA1WithDSA);
+		Assert.assertEquals(expected, verifier.verifyAll(data, signatures));
+		Assert.assertEquals(expected.get(0, 10), verifier.verifyAll(data.subList(0, 10), signatures.subList(0, 10)));
+	}
+
 }
@@ -0,0 +1,96 @@
+package com.mickyli.util.security;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Random;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.mickyli.util.java.security.FileDigest;
+import com.mickyli.util.java.security.FileDigest.Result;
+import com.mickyli.util.java.security.FileDigest.Strategy;
+import com.mickyli.util.java.security.MD5Utils;
+import com.mickyli.util.java.security.MessageDigestUtils.MessageDigestAlgorithm;
+
+/** 
+ *   <B>说       明</B>:文件摘要工具测试类
+ *   
+ */
+public class FileDigestTest {
+
+	private File file;
+
+	private byte[] createFile(int length) throws IOException{
+		byte[] data = new byte[length];
+		new Random(length).nextBytes(data);
+		file = File.createTempFile("FileDigestTest", ".bin");
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			out.write(data);
+		} finally {
+			out.close();
+		}
+		return data;
+	}
+
+	@After
+	public void deleteFile(){
+		if(file != null){
+			file.delete();
+		}
+	}
+
+	@Test
+	public void testDigestSmallFile() throws IOException, NoSuchAlgorithmException, DigestException{
+		byte[] data = createFile(1000);
+		Result result = FileDigest.digest(file, MessageDigestAlgorithm.MD5);
+		Assert.assertEquals(Strategy.READ, result.getStrategy());
+		Assert.assertArrayEquals(MessageDigest.getInstance("MD5").digest(data), result.getValue());
+		Assert.assertEquals(1000, result.getLength());
+		Assert.assertEquals(result.getHex(), MD5Utils.getFileMD5(file.getPath()));
+	}
+
+	@Test
+	public void testDigestLargeFile() throws IOException, NoSuchAlgorithmException{
+		//大于并行分块的长度，并且最后一块不完整。
+		byte[] data = createFile(FileDigest.CHUNK_SIZE * 2 + 12345);
+		Result result = FileDigest.digest(file, MessageDigestAlgorithm.SHA256);
+		Assert.assertEquals(Strategy.MAPPED, result.getStrategy());
+		Assert.assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(data), result.getValue());
+
+		CRC32 crc32 = new CRC32();
+		crc32.update(data);
+		result = FileDigest.crc32(file);
+		Assert.assertEquals(Strategy.PARALLEL_MAPPED, result.getStrategy());
+		Assert.assertEquals(crc32.getValue(), result.getChecksum());
+
+		Adler32 adler32 = new Adler32();
+		adler32.update(data);
+		Assert.assertEquals(adler32.getValue(), FileDigest.adler32(file).getChecksum());
+
+		Result tree = FileDigest.treeDigest(file, MessageDigestAlgorithm.SHA256);
+		Assert.assertEquals(Strategy.PARALLEL_MAPPED, tree.getStrategy());
+		Assert.assertArrayEquals(tree.getValue(), FileDigest.treeDigest(file, MessageDigestAlgorithm.SHA256).getValue());
+		Assert.assertFalse(MessageDigest.isEqual(result.getValue(), tree.getValue()));
+	}
+
+	@Test
+	public void testChecksumSmallFile() throws IOException{
+		byte[] data = createFile(2 * 1024 * 1024);
+		CRC32 crc32 = new CRC32();
+		crc32.update(data);
+		Result result = FileDigest.crc32(file);
+		Assert.assertEquals(Strategy.MAPPED, result.getStrategy());
+		Assert.assertEquals(crc32.getValue(), result.getChecksum());
+		Assert.assertEquals(Long.toHexString(crc32.getValue()), Long.toHexString(result.getChecksum()));
+	}
+
+}
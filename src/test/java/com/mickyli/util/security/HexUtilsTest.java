@@ -1,5 +1,10 @@
 package com.mickyli.util.security; 
 
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.junit.Assert;
 import org.junit.Test;
 
 import com.mickyli.util.java.security.HexUtils;
@@ -24,5 +29,51 @@ public class HexUtilsTest {
 		HexUtils.toHexString(data);
 	}
 	
+	@Test
+	public void testEncodeDecode(){
+		byte[] data = new byte[256];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (byte) i;
+		}
+		String hex = HexUtils.toHexString(data);
+		Assert.assertEquals(String.format("%0512x", new BigInteger(1, data)), hex);
+		Assert.assertEquals(hex.toUpperCase(), HexUtils.toHexString(data, true));
+		Assert.assertArrayEquals(data, HexUtils.decode(hex));
+		Assert.assertArrayEquals(data, HexUtils.decode(hex.toUpperCase()));
+	}
+	
+	@Test
+	public void testEncodeDecodeBuffer(){
+		byte[] data = new byte[]{56,78,-123,44,5,78};
+		char[] chars = new char[14];
+		Assert.assertEquals(12, HexUtils.encode(data, 0, data.length, chars, 2, false));
+		Assert.assertEquals("384e852c054e", new String(chars, 2, 12));
+		
+		byte[] ascii = new byte[12];
+		HexUtils.encode(data, 0, data.length, ascii, 0, true);
+		byte[] decoded = new byte[6];
+		Assert.assertEquals(6, HexUtils.decode(ascii, 0, ascii.length, decoded, 0));
+		Assert.assertArrayEquals(data, decoded);
+		
+		//堆外缓冲区
+		ByteBuffer src = ByteBuffer.allocateDirect(6);
+		src.put(data).flip();
+		ByteBuffer hex = ByteBuffer.allocateDirect(12);
+		HexUtils.encode(src, hex, false);
+		hex.flip();
+		ByteBuffer out = ByteBuffer.allocate(6);
+		HexUtils.decode(hex, out);
+		Assert.assertTrue(Arrays.equals(data, out.array()));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testDecodeWithIllegalChar(){
+		HexUtils.decode("0g");
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testDecodeWithOddLength(){
+		HexUtils.decode("abc");
+	}
+	
 }
- 
\ No newline at end of file
@@ -3,11 +3,16 @@ package com.mickyli.util.security;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 
 import org.junit.Assert;
 import org.junit.Test;
 
 import com.mickyli.util.java.security.MessageDigestUtils;
+import com.mickyli.util.java.security.MessageDigestUtils.MessageDigestAlgorithm;
 
 /** 
  *   <B>说       明</B>:信息摘要工具测试类
@@ -230,5 +235,47 @@ public class MessageDigestUtilsTest {
 			e.printStackTrace();
 		}
 	}
-
+	
+	@Test
+	public void testDigestRange() throws NoSuchAlgorithmException{
+		byte[] data = "ChildrenOfBodom".getBytes();
+		byte[] expected = MessageDigest.getInstance("SHA-256").digest(Arrays.copyOfRange(data, 3, 11));
+		Assert.assertArrayEquals(expected, MessageDigestUtils.digest(data, 3, 8, MessageDigestAlgorithm.SHA256));
+		//重复使用缓存的实例，结果不受上一次调用影响。
+		Assert.assertArrayEquals(expected, MessageDigestUtils.digest(data, 3, 8, MessageDigestAlgorithm.SHA256));
+		Assert.assertArrayEquals(MessageDigestUtils.getSHA256Digest(data), 
+				MessageDigestUtils.digest(data, MessageDigestAlgorithm.SHA256));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testDigestRangeOutOfBounds(){
+		MessageDigestUtils.digest(new byte[4], 2, 3, MessageDigestAlgorithm.MD5);
+	}
+	
+	@Test
+	public void testDigestByteBuffer(){
+		byte[] data = "ChildrenOfBodom".getBytes();
+		byte[] expected = MessageDigestUtils.getMD5Digest(data);
+		ByteBuffer heap = ByteBuffer.wrap(data);
+		Assert.assertArrayEquals(expected, MessageDigestUtils.digest(heap, MessageDigestAlgorithm.MD5));
+		Assert.assertFalse(heap.hasRemaining());
+		ByteBuffer direct = ByteBuffer.allocateDirect(data.length);
+		direct.put(data).flip();
+		Assert.assertArrayEquals(expected, MessageDigestUtils.digest(direct, MessageDigestAlgorithm.MD5));
+	}
+	
+	@Test
+	public void testDigestNested() throws IOException{
+		final byte[] data = "ChildrenOfBodom".getBytes();
+		//读取数据时再计算一次相同算法的摘要，两次计算不能共用同一个实例。
+		InputStream in = new ByteArrayInputStream(data){
+			@Override
+			public synchronized int read(byte[] b, int off, int len) {
+				MessageDigestUtils.getMD5Digest(new byte[]{1, 2, 3});
+				return super.read(b, off, len);
+			}
+		};
+		Assert.assertArrayEquals(MessageDigestUtils.getMD5Digest(data), MessageDigestUtils.getMD5Digest(in));
+	}
+	
 }
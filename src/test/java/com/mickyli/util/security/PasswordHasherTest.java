@@ -0,0 +1,89 @@
+package com.mickyli.util.security;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.mickyli.util.java.security.PasswordHasher;
+import com.mickyli.util.java.security.PasswordHasher.Algorithm;
+
+/** 
+ *   <B>说       明</B>:密码散列工具测试类。
+ *
+ */
+public class PasswordHasherTest {
+
+	private static final PasswordHasher hasher = new PasswordHasher(Algorithm.PBKDF2_SHA256, 1000);
+
+	@Test
+	public void testHash(){
+		char[] password = "Nothing Else Matters".toCharArray();
+		String hash1 = hasher.hash(password);
+		String hash2 = hasher.hash(password);
+		Assert.assertTrue(hash1, hash1.startsWith("$pbkdf2-sha256$1000$"));
+		Assert.assertFalse("每次散列使用不同的盐，结果不能相同!", hash1.equals(hash2));
+		Assert.assertTrue(hasher.verify(password, hash1));
+		Assert.assertTrue(hasher.verify(password, hash2));
+		Assert.assertFalse(hasher.verify("Nothing Else Matter".toCharArray(), hash1));
+		Assert.assertTrue(hasher.verify(new char[0], hasher.hash(new char[0])));
+	}
+
+	@Test
+	public void testVerifyOtherParameters(){
+		char[] password = "密码".toCharArray();
+		PasswordHasher sha1 = new PasswordHasher(Algorithm.PBKDF2_SHA1, 500);
+		String hash = sha1.hash(password);
+		Assert.assertTrue(hash.startsWith("$pbkdf2-sha1$500$"));
+		Assert.assertTrue("散列结果中的参数与当前对象不同时也能校验!", hasher.verify(password, hash));
+		Assert.assertTrue(hasher.needsRehash(hash));
+		Assert.assertFalse(hasher.needsRehash(hasher.hash(password)));
+		Assert.assertTrue(new PasswordHasher(Algorithm.PBKDF2_SHA256, 2000).needsRehash(hasher.hash(password)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testVerifyWithIllegalFormat(){
+		hasher.verify("password".toCharArray(), "5f4dcc3b5aa765d61d8327deb882cf99");
+	}
+
+	@Test
+	public void testCalibrate(){
+		PasswordHasher calibrated = PasswordHasher.calibrate(Algorithm.PBKDF2_SHA1, 1);
+		Assert.assertEquals(Algorithm.PBKDF2_SHA1, calibrated.getAlgorithm());
+		Assert.assertTrue(calibrated.getIterations() >= PasswordHasher.MIN_ITERATIONS);
+		Assert.assertEquals(0, calibrated.getIterations() % 1000);
+	}
+
+	@Test
+	public void testVerifyAsync() throws InterruptedException, ExecutionException{
+		char[] password = "Nothing Else Matters".toCharArray();
+		String hash = hasher.hash(password);
+		Future<Boolean> result = hasher.verifyAsync(password, hash);
+		Assert.assertTrue(result.get());
+		Assert.assertFalse(hasher.verifyAsync("wrong".toCharArray(), hash).get());
+	}
+
+	@Test
+	public void testVerifyAsyncRejected() throws InterruptedException, ExecutionException{
+		ExecutorService executor = PasswordHasher.newVerifyExecutor(1, 1);
+		String hash = new PasswordHasher(Algorithm.PBKDF2_SHA1, 200000).hash("password".toCharArray());
+		List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+		try {
+			for(int i = 0; i < 10; i++){
+				results.add(hasher.verifyAsync("password".toCharArray(), hash, executor));
+			}
+			Assert.fail("队列已满时应该拒绝新的校验任务!");
+		} catch (RejectedExecutionException e) {
+		}
+		for(Future<Boolean> result : results){
+			Assert.assertTrue(result.get());
+		}
+		executor.shutdown();
+	}
+
+}
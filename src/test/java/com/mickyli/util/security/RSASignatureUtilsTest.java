@@ -1,6 +1,10 @@
 package com.mickyli.util.security;
 
 import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
 
 import org.junit.Assert;
 import org.junit.BeforeClass;
@@ -8,6 +12,7 @@ import org.junit.Test;
 
 import com.mickyli.util.java.security.KeyPairBean;
 import com.mickyli.util.java.security.RSASignatureUtils;
+import com.mickyli.util.java.security.SignatureVerifier;
 import com.mickyli.util.java.security.RSAUtils;
 import com.mickyli.util.java.security.RSASignatureUtils.SignatureAlgorithm;
 
@@ -118,4 +123,41 @@ public class RSASignatureUtilsTest {
 		RSASignatureUtils.verify(data, keyPair.getPublicKey(), signature, SignatureAlgorithm.MD2WithRSA);
 	}
 
+	@Test
+	public void testNewVerifier(){
+		byte[] data = "Wake me up when September ends.".getBytes();
+		byte[] signature = RSASignatureUtils.sign(data, keyPair.getPrivateKey(), SignatureAlgorithm.SHA256WithRSA);
+		SignatureVerifier verifier = RSASignatureUtils.newVerifier(keyPair.getPublicKey(), SignatureAlgorithm.SHA256WithRSA);
+		Assert.assertSame("相同的公钥应该返回同一个验证对象!", verifier, RSASignatureUtils.newVerifier(keyPair.getPublicKey().clone(), SignatureAlgorithm.SHA256WithRSA));
+		for(int i = 0; i < 3; i++){
+			Assert.assertTrue(verifier.verify(data, signature));
+			Assert.assertFalse(verifier.verify("Wake me up when September ends".getBytes(), signature));
+		}
+	}
+
+	@Test
+	public void testVerifyAll(){
+		List<byte[]> data = new ArrayList<byte[]>();
+		List<byte[]> signatures = new ArrayList<byte[]>();
+		BitSet expected = new BitSet();
+		for(int i = 0; i < 100; i++){
+			byte[] item = ("Wake me up when September ends." + i).getBytes();
+			byte[] signature = RSASignatureUtils.sign(item, keyPair.getPrivateKey(), SignatureAlgorithm.SHA256WithRSA);
+			if(i % 3 == 0){
+				//签名与数据不对应
+				item = ("Wake me up when September ends!" + i).getBytes();
+			}else if(i % 7 == 0){
+				//签名格式不正确
+				signature = Arrays.copyOf(signature, 5);
+			}else{
+				expected.set(i);
+			}
+			data.add(item);
+			signatures.add(signature);
+		}
+		SignatureVerifier verifier = RSASignatureUtils.newVerifier(keyPair.getPublicKey(), SignatureAlgorithm.SHA256WithRSA);
+		Assert.assertEquals(expected, verifier.verifyAll(data, signatures));
+		Assert.assertEquals(expected.get(0, 10), verifier.verifyAll(data.subList(0, 10), signatures.subList(0, 10)));
+	}
+
 }
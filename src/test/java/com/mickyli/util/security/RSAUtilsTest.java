@@ -1,7 +1,12 @@
 package com.mickyli.util.security;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.security.SecureRandom;
 import java.util.Arrays;
+import java.util.Random;
 
 import org.junit.Assert;
 import org.junit.BeforeClass;
@@ -111,4 +116,54 @@ public class RSAUtilsTest {
 		Assert.assertTrue("解密后的数据和加密之前的数据不一致!", data.equals(dataString));
 	}
 	
+	@Test
+	public void testEnvelope(){
+		Random random = new Random(16);
+		for(int size : new int[]{0, 1, 100, 65536, 65537, 200000}){
+			byte[] data = new byte[size];
+			random.nextBytes(data);
+			byte[] envelope = RSAUtils.encryptEnvelope(data, keyPair.getPublicKey());
+			Assert.assertFalse("两次生成的数字信封不能相同!", Arrays.equals(envelope, RSAUtils.encryptEnvelope(data, keyPair.getPublicKey())));
+			Assert.assertArrayEquals("数据长度:" + size, data, RSAUtils.decryptEnvelope(envelope, keyPair.getPrivateKey()));
+		}
+	}
+
+	@Test
+	public void testEnvelopeStream() throws IOException{
+		byte[] data = new byte[150000];
+		new Random(17).nextBytes(data);
+		ByteArrayOutputStream envelope = new ByteArrayOutputStream();
+		long length = RSAUtils.encryptEnvelope(new ByteArrayInputStream(data), envelope, keyPair.getPublicKey());
+		Assert.assertEquals(envelope.size(), length);
+		InputStream in = RSAUtils.newEnvelopeInputStream(new ByteArrayInputStream(envelope.toByteArray()), keyPair.getPrivateKey());
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[1000];
+		int read;
+		while((read = in.read(buffer)) != -1){
+			out.write(buffer, 0, read);
+		}
+		in.close();
+		Assert.assertArrayEquals(data, out.toByteArray());
+	}
+
+	@Test
+	public void testEnvelopeTampered(){
+		byte[] data = new byte[150000];
+		byte[] envelope = RSAUtils.encryptEnvelope(data, keyPair.getPublicKey());
+		byte[] modified = envelope.clone();
+		modified[modified.length - 100] ^= 1;
+		assertDecryptFail(modified, keyPair.getPrivateKey());
+		//截断在数据段的边界上
+		assertDecryptFail(Arrays.copyOf(envelope, envelope.length - (150000 - 2 * 65536) - 16), keyPair.getPrivateKey());
+		assertDecryptFail(envelope, RSAUtils.generateKeyPair().getPrivateKey());
+	}
+
+	private static void assertDecryptFail(byte[] envelope, byte[] privateKey){
+		try {
+			RSAUtils.decryptEnvelope(envelope, privateKey);
+			Assert.fail("数字信封应该解密失败!");
+		} catch (IllegalStateException e) {
+		}
+	}
+
 }
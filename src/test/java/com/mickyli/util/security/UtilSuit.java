@@ -25,6 +25,8 @@ import org.junit.runners.Suite.SuiteClasses;
 			MD5UtilsTest.class,
 			//CRC校验工具测试类
 			CRCUtilsTest.class,
+			//文件摘要工具测试类
+			FileDigestTest.class,
 			//Base16编码解码测试类
 			Base16Test.class,
 			//Base16工具测试类
@@ -49,6 +51,8 @@ import org.junit.runners.Suite.SuiteClasses;
 			AESUtilsTest.class,
 			//PBE工具测试类
 			PBEUtilsTest.class,
+			//密码散列工具测试类
+			PasswordHasherTest.class,
 			//DH工具测试类
 			DHUtilsTest.class,
 			//RSA工具测试类
@@ -0,0 +1,79 @@
+package model;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+public class Product {
+
+    private int id;
+
+    private int stock;
+
+    private Integer count;
+
+    private Date created;
+
+    private BigDecimal price;
+
+    private String code;
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public int getStock() {
+        return stock;
+    }
+
+    public void setStock(int stock) {
+        this.stock = stock;
+    }
+
+    public Integer getCount() {
+        return count;
+    }
+
+    public void setCount(Integer count) {
+        this.count = count;
+    }
+
+    public Date getCreated() {
+        return created;
+    }
+
+    public void setCreated(Date created) {
+        this.created = created;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public void setCode(String code) {
+        this.code = code;
+    }
+
+    @Override
+    public String toString() {
+        return "Product{" +
+                "id=" + id +
+                ", stock=" + stock +
+                ", count=" + count +
+                ", created=" + created +
+                ", price=" + price +
+                ", code='" + code + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,76 @@
+package model;
+
+public class ProductDto {
+
+    private Long id;
+
+    private long stock;
+
+    private int count;
+
+    private String created;
+
+    private String price;
+
+    private Integer code;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public long getStock() {
+        return stock;
+    }
+
+    public void setStock(long stock) {
+        this.stock = stock;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public String getCreated() {
+        return created;
+    }
+
+    public void setCreated(String created) {
+        this.created = created;
+    }
+
+    public String getPrice() {
+        return price;
+    }
+
+    public void setPrice(String price) {
+        this.price = price;
+    }
+
+    public Integer getCode() {
+        return code;
+    }
+
+    public void setCode(Integer code) {
+        this.code = code;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductDto{" +
+                "id=" + id +
+                ", stock=" + stock +
+                ", count=" + count +
+                ", created='" + created + '\'' +
+                ", price='" + price + '\'' +
+                ", code=" + code +
+                '}';
+    }
+}